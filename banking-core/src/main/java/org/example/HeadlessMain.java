@@ -0,0 +1,46 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import org.example.api.BankingHttpServer;
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.UserController;
+
+/**
+ * Headless entry point for the Banking System.
+ * Initializes controllers and dummy data without loading any AWT or Swing classes,
+ * starts the HTTP API and keeps the engine running until the JVM is shut down.
+ * The API port is taken from the {@code banking.http.port} system property (default 8080).
+ */
+public class HeadlessMain {
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+
+        // Make sure nothing on the classpath tries to open a display
+        System.setProperty("java.awt.headless", "true");
+
+        // Initialize controllers
+        UserController userController = new UserController();
+        AccountController accountController = new AccountController(userController);
+        AdminController adminController = new AdminController(userController, accountController);
+
+        // Initialize dummy data
+        DummyDataInitializer.initializeDummyData(userController, accountController);
+
+        // Start the HTTP API
+        BankingHttpServer httpServer = new BankingHttpServer(
+                new InetSocketAddress(Integer.getInteger("banking.http.port", 8080)),
+                userController, accountController, adminController);
+        httpServer.start();
+
+        System.out.printf("Ledger core started in %.1f ms on port %d (%d users, %d accounts)%n",
+                (System.nanoTime() - start) / 1e6, httpServer.getPort(),
+                adminController.getAllUsers().size(),
+                adminController.getAllAccounts().size());
+
+        // The server's dispatcher thread keeps the JVM alive until a shutdown signal
+        Runtime.getRuntime().addShutdownHook(new Thread(httpServer::stop, "shutdown"));
+    }
+}
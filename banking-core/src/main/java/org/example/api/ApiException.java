@@ -0,0 +1,34 @@
+package org.example.api;
+
+/**
+ * Error raised while handling an API request; carries the HTTP status to return.
+ */
+class ApiException extends RuntimeException {
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    static ApiException badRequest(String message) {
+        return new ApiException(400, message);
+    }
+
+    static ApiException unauthorized() {
+        return new ApiException(401, "Authentication required");
+    }
+
+    static ApiException forbidden() {
+        return new ApiException(403, "Access denied");
+    }
+
+    static ApiException notFound(String message) {
+        return new ApiException(404, message);
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
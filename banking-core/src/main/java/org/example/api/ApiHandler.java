@@ -0,0 +1,529 @@
+package org.example.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.BatchResult;
+import org.example.controllers.StatusAction;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.OperationResult;
+import org.example.model.Transaction;
+import org.example.model.User;
+
+/**
+ * Routes {@code /api/...} requests to the controllers.
+ * Routing is a hand-written switch over path segments so that the hot read path
+ * (balance lookups) does no regex matching and minimal allocation.
+ */
+class ApiHandler implements HttpHandler {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    private static final Response SUCCESS = new Response(200, "{\"success\":true}");
+    private static final Response FAILURE = new Response(422, "{\"success\":false}");
+    private static final Response PENDING = new Response(202, "{\"success\":false,\"pending\":true}");
+
+    private final UserController userController;
+    private final AccountController accountController;
+    private final AdminController adminController;
+    private final SessionRegistry sessions;
+
+    /**
+     * Status and JSON body of a response, as chosen by the route that handled the request.
+     */
+    private record Response(int status, String body) {
+
+        static Response ok(String body) {
+            return new Response(200, body);
+        }
+    }
+
+    ApiHandler(UserController userController, AccountController accountController,
+               AdminController adminController) {
+        this.userController = userController;
+        this.accountController = accountController;
+        this.adminController = adminController;
+        this.sessions = new SessionRegistry(userController);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Response response;
+        try {
+            response = route(exchange);
+        } catch (ApiException e) {
+            response = new Response(e.getStatus(), error(e.getMessage()));
+        } catch (RuntimeException e) {
+            response = new Response(500, error("Internal error"));
+        }
+        send(exchange, response.status(), response.body());
+    }
+
+    private Response route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = segments(exchange.getRequestURI().getPath());
+        if (path.length == 0) {
+            throw ApiException.notFound("Unknown endpoint");
+        }
+
+        switch (path[0]) {
+            case "login" -> {
+                requireMethod(method, "POST");
+                return Response.ok(login(readBody(exchange)));
+            }
+            case "logout" -> {
+                requireMethod(method, "POST");
+                return result(sessions.close(bearerToken(exchange)));
+            }
+            case "accounts" -> {
+                User user = authenticate(exchange);
+                if (path.length == 1) {
+                    requireMethod(method, "GET");
+                    return Response.ok(accounts(user.getAccounts()));
+                }
+                Account account = ownedAccount(user, path[1]);
+                String action = path.length > 2 ? path[2] : "balance";
+                return switch (action) {
+                    case "balance" -> {
+                        requireMethod(method, "GET");
+                        yield Response.ok(accountJson(account, new Json.ObjectWriter()).end());
+                    }
+                    case "deposit" -> {
+                        requireMethod(method, "POST");
+                        yield result(accountController.deposit(idempotencyKey(exchange, user), account,
+                                amount(readBody(exchange))));
+                    }
+                    case "withdraw" -> {
+                        requireMethod(method, "POST");
+                        yield result(accountController.withdraw(idempotencyKey(exchange, user), account,
+                                amount(readBody(exchange))));
+                    }
+                    case "transactions" -> {
+                        requireMethod(method, "GET");
+                        yield Response.ok(history(account, exchange.getRequestURI().getRawQuery()));
+                    }
+                    default -> throw ApiException.notFound("Unknown account action: " + action);
+                };
+            }
+            case "transfers" -> {
+                requireMethod(method, "POST");
+                User user = authenticate(exchange);
+                Map<String, Object> request = Json.parseObject(readBody(exchange));
+                Account from = ownedAccount(user, String.valueOf(requireInt(request, "from")));
+                return result(accountController.transfer(idempotencyKey(exchange, user), from.getAccountNumber(),
+                        requireInt(request, "to"), requireNumber(request, "amount")));
+            }
+            case "admin" -> {
+                User user = authenticate(exchange);
+                if (user.getRole() != User.Role.ADMIN) {
+                    throw ApiException.forbidden();
+                }
+                return admin(method, path, exchange);
+            }
+            default -> throw ApiException.notFound("Unknown endpoint");
+        }
+    }
+
+    // ===== Endpoints =====
+
+    private String login(String body) {
+        Map<String, Object> request = Json.parseObject(body);
+        User user = userController.authenticate(asString(request.get("email")), asString(request.get("password")));
+        if (user == null) {
+            throw ApiException.unauthorized();
+        }
+        return new Json.ObjectWriter()
+                .put("token", sessions.open(user))
+                .put("userId", user.getUserId())
+                .put("role", user.getRole().name())
+                .end();
+    }
+
+    private Response admin(String method, String[] path, HttpExchange exchange) throws IOException {
+        if (path.length < 2) {
+            throw ApiException.notFound("Unknown admin endpoint");
+        }
+        switch (path[1]) {
+            case "users" -> {
+                requireMethod(method, "GET");
+                Json.ObjectWriter writer = new Json.ObjectWriter();
+                StringBuilder out = writer.startArray("users");
+                boolean first = true;
+                for (User user : adminController.getAllUsers().values()) {
+                    if (!first) {
+                        out.append(',');
+                    }
+                    first = false;
+                    new Json.ObjectWriter(out)
+                            .put("userId", user.getUserId())
+                            .put("name", user.getName())
+                            .put("email", user.getEmail())
+                            .put("role", user.getRole().name())
+                            .end();
+                }
+                out.append(']');
+                return Response.ok(writer.end());
+            }
+            case "metrics" -> {
+                requireMethod(method, "GET");
+                Json.ObjectWriter writer = new Json.ObjectWriter();
+                accountController.getMetrics().snapshot().forEach(writer::put);
+                return Response.ok(writer.end());
+            }
+            case "accounts" -> {
+                if (path.length == 2) {
+                    requireMethod(method, "GET");
+                    String statusFilter = queryParam(exchange.getRequestURI().getRawQuery(), "status");
+                    List<Account> accounts = adminController.getAllAccounts().values().stream()
+                            .filter(a -> statusFilter == null || a.getStatus().name().equals(statusFilter))
+                            .toList();
+                    return Response.ok(accounts(accounts));
+                }
+                if (path.length == 3 && !path[2].chars().allMatch(Character::isDigit)) {
+                    requireMethod(method, "POST");
+                    return Response.ok(batch(statusBatch(path[2], readBody(exchange))));
+                }
+                requireMethod(method, "POST");
+                int accountNumber = parseInt(path[2]);
+                String action = path.length > 3 ? path[3] : "";
+                return switch (action) {
+                    case "verify" -> result(adminController.verifyAccount(accountNumber));
+                    case "suspend" -> result(adminController.suspendAccount(accountNumber));
+                    case "appeal" -> result(adminController.appealAccount(accountNumber));
+                    case "close" -> result(adminController.closeAccount(accountNumber));
+                    default -> throw ApiException.notFound("Unknown account action: " + action);
+                };
+            }
+            case "transactions" -> {
+                if (path.length == 3 && path[2].equals("pending")) {
+                    requireMethod(method, "GET");
+                    return Response.ok(transactions(adminController.getPendingTransactions()));
+                }
+                if (path.length == 3 && (path[2].equals("approve") || path[2].equals("reject"))) {
+                    requireMethod(method, "POST");
+                    List<String> ids = idList(readBody(exchange));
+                    return Response.ok(batch(path[2].equals("approve")
+                            ? adminController.approveTransactions(ids)
+                            : adminController.rejectTransactions(ids)));
+                }
+                if (path.length == 3) {
+                    requireMethod(method, "GET");
+                    Transaction transaction = adminController.findTransaction(path[2]);
+                    if (transaction == null) {
+                        throw ApiException.notFound("Transaction not found");
+                    }
+                    return Response.ok(transactionJson(transaction, new Json.ObjectWriter()).end());
+                }
+                if (path.length == 4) {
+                    requireMethod(method, "POST");
+                    return switch (path[3]) {
+                        case "approve" -> result(adminController.approveTransaction(path[2]));
+                        case "reject" -> result(adminController.rejectTransaction(path[2]));
+                        default -> throw ApiException.notFound("Unknown transaction action: " + path[3]);
+                    };
+                }
+                throw ApiException.notFound("Unknown admin endpoint");
+            }
+            default -> throw ApiException.notFound("Unknown admin endpoint");
+        }
+    }
+
+    private String history(Account account, String query) {
+        int offset = Math.max(0, parseIntOrDefault(queryParam(query, "offset"), 0));
+        int limit = Math.min(MAX_PAGE_SIZE, Math.max(1, parseIntOrDefault(queryParam(query, "limit"), DEFAULT_PAGE_SIZE)));
+        List<Transaction> page = accountController.getTransactionHistory(account, offset, limit);
+
+        Json.ObjectWriter writer = new Json.ObjectWriter()
+                .put("accountNumber", account.getAccountNumber())
+                .put("offset", offset)
+                .put("limit", limit)
+                .put("total", accountController.getTransactionCount(account));
+        appendTransactions(writer.startArray("transactions"), page);
+        return writer.end();
+    }
+
+    // ===== JSON Rendering =====
+
+    private String accounts(List<Account> accounts) {
+        Json.ObjectWriter writer = new Json.ObjectWriter();
+        StringBuilder out = writer.startArray("accounts");
+        for (int i = 0; i < accounts.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            accountJson(accounts.get(i), new Json.ObjectWriter(out)).end();
+        }
+        out.append(']');
+        return writer.end();
+    }
+
+    private static Json.ObjectWriter accountJson(Account account, Json.ObjectWriter writer) {
+        return writer.put("accountNumber", account.getAccountNumber())
+                .put("balance", account.getBalance())
+                .put("availableBalance", account.getAvailableBalance())
+                .put("status", account.getStatus().name())
+                .put("ownerUserId", account.getOwnerUserId());
+    }
+
+    private String transactions(List<Transaction> transactions) {
+        Json.ObjectWriter writer = new Json.ObjectWriter();
+        appendTransactions(writer.startArray("transactions"), transactions);
+        return writer.end();
+    }
+
+    private static void appendTransactions(StringBuilder out, List<Transaction> transactions) {
+        for (int i = 0; i < transactions.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            transactionJson(transactions.get(i), new Json.ObjectWriter(out)).end();
+        }
+        out.append(']');
+    }
+
+    private static Json.ObjectWriter transactionJson(Transaction transaction, Json.ObjectWriter writer) {
+        return writer.put("transactionId", transaction.getTransactionId())
+                .put("type", transaction.getType().name())
+                .put("amount", transaction.getAmount())
+                .put("status", transaction.getStatus().name())
+                .put("timestamp", transaction.getTimestamp().toString())
+                .put("source", transaction.getSourceAccountNumber())
+                .put("target", transaction.getTargetAccountNumber())
+                .put("reviewReason", transaction.getReviewReason());
+    }
+
+    /**
+     * Applies a status transition to the accounts listed in {@code ids}, or to every account
+     * in {@code status} when that is given instead.
+     */
+    private BatchResult<Integer> statusBatch(String action, String body) {
+        StatusAction statusAction;
+        try {
+            statusAction = StatusAction.valueOf(action.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw ApiException.notFound("Unknown account action: " + action);
+        }
+        String status = asString(Json.parseObject(body).get("status"));
+        if (status != null) {
+            Account.AccountStatus selected;
+            try {
+                selected = Account.AccountStatus.valueOf(status);
+            } catch (IllegalArgumentException e) {
+                throw ApiException.badRequest("Unknown status: " + status);
+            }
+            return adminController.changeStatus(statusAction, account -> account.getStatus() == selected);
+        }
+        List<Integer> numbers = new ArrayList<>();
+        for (String id : idList(body)) {
+            numbers.add(parseInt(id.trim()));
+        }
+        return adminController.changeStatus(statusAction, numbers);
+    }
+
+    private static String batch(BatchResult<?> result) {
+        Json.ObjectWriter writer = new Json.ObjectWriter().put("succeeded", result.successCount());
+        StringBuilder out = writer.startArray("failed");
+        for (int i = 0; i < result.failed().size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            if (result.failed().get(i) instanceof String id) {
+                Json.appendString(out, id);
+            } else {
+                out.append(result.failed().get(i));
+            }
+        }
+        out.append(']');
+        return writer.end();
+    }
+
+    private static Response result(boolean success) {
+        return success ? SUCCESS : FAILURE;
+    }
+
+    private static Response result(OperationResult result) {
+        return switch (result) {
+            case SUCCESS -> SUCCESS;
+            case ACCOUNT_NOT_FOUND -> throw ApiException.notFound("Account not found");
+            case IN_PROGRESS -> throw new ApiException(409, "A request with this idempotency key is still in progress");
+            case RATE_LIMITED -> throw new ApiException(429, result.name());
+            case DAILY_LIMIT_EXCEEDED -> throw new ApiException(422, result.name());
+            case IDEMPOTENCY_MISMATCH -> throw new ApiException(422,
+                    "Idempotency-Key was already used for a different request");
+            case PENDING_REVIEW -> PENDING;
+            case ERROR -> throw new ApiException(500, "The operation failed unexpectedly");
+            default -> FAILURE;
+        };
+    }
+
+    private static String error(String message) {
+        return new Json.ObjectWriter().put("error", message).end();
+    }
+
+    // ===== Request Helpers =====
+
+    private User authenticate(HttpExchange exchange) {
+        User user = sessions.resolve(bearerToken(exchange));
+        if (user == null) {
+            throw ApiException.unauthorized();
+        }
+        return user;
+    }
+
+    private Account ownedAccount(User user, String accountNumberText) {
+        Account account = accountController.findAccount(parseInt(accountNumberText));
+        if (account == null) {
+            throw ApiException.notFound("Account not found");
+        }
+        Integer owner = account.getOwnerUserId();
+        if (user.getRole() != User.Role.ADMIN && (owner == null || owner != user.getUserId())) {
+            throw ApiException.forbidden();
+        }
+        return account;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        return header.substring(7).trim();
+    }
+
+    /**
+     * Reads the Idempotency-Key header, scoped to the user so clients cannot collide.
+     */
+    private static String idempotencyKey(HttpExchange exchange, User user) {
+        String key = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        if (key.length() > 255 || key.chars().anyMatch(Character::isISOControl)) {
+            throw ApiException.badRequest("Invalid Idempotency-Key header");
+        }
+        return user.getUserId() + ":" + key;
+    }
+
+    private static void requireMethod(String actual, String expected) {
+        if (!expected.equals(actual)) {
+            throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    /**
+     * Reads {@code ids} as a JSON array of strings or integers, or as one comma-separated string.
+     */
+    private static List<String> idList(String body) {
+        Object ids = Json.parseObject(body).get("ids");
+        if (ids instanceof String text) {
+            return text.isBlank() ? List.of() : List.of(text.split(","));
+        }
+        if (!(ids instanceof List<?> elements)) {
+            throw ApiException.badRequest("Missing array field: ids");
+        }
+        List<String> result = new ArrayList<>(elements.size());
+        for (Object element : elements) {
+            if (element instanceof String id) {
+                result.add(id);
+            } else if (element instanceof Double number && number == Math.rint(number)
+                    && Math.abs(number) <= Integer.MAX_VALUE) {
+                result.add(String.valueOf(number.intValue()));
+            } else {
+                throw ApiException.badRequest("ids must hold strings or integers");
+            }
+        }
+        return result;
+    }
+
+    private static double amount(String body) {
+        return requireNumber(Json.parseObject(body), "amount");
+    }
+
+    private static double requireNumber(Map<String, Object> request, String key) {
+        if (!(request.get(key) instanceof Double value)) {
+            throw ApiException.badRequest("Missing numeric field: " + key);
+        }
+        return value;
+    }
+
+    private static int requireInt(Map<String, Object> request, String key) {
+        double value = requireNumber(request, key);
+        if (value != Math.rint(value) || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            throw ApiException.badRequest("Field must be an integer: " + key);
+        }
+        return (int) value;
+    }
+
+    private static String asString(Object value) {
+        return value instanceof String s ? s : null;
+    }
+
+    private static int parseInt(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Invalid number: " + text);
+        }
+    }
+
+    private static int parseIntOrDefault(String text, int defaultValue) {
+        return text == null ? defaultValue : parseInt(text);
+    }
+
+    static String[] segments(String path) {
+        String trimmed = path.startsWith("/api/") ? path.substring(5) : path.equals("/api") ? "" : path;
+        if (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/");
+    }
+
+    static String queryParam(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.regionMatches(0, name, 0, eq) && eq == name.length()) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the request body, refusing anything over {@link #MAX_BODY_BYTES} with 413.
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body exceeds " + MAX_BODY_BYTES + " bytes");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.api;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.UserController;
+
+/**
+ * Embedded JSON-over-HTTP API in front of the controllers.
+ * Built on the JDK {@link HttpServer}; every exchange is handled on its own virtual
+ * thread, so blocking inside a controller never starves the acceptor.
+ *
+ * <pre>
+ *   POST /api/login                          {"email","password"} → {"token",...}
+ *   POST /api/logout
+ *   GET  /api/accounts
+ *   GET  /api/accounts/{n}/balance
+ *   POST /api/accounts/{n}/deposit           {"amount"}
+ *   POST /api/accounts/{n}/withdraw          {"amount"}
+ *   GET  /api/accounts/{n}/transactions?offset=&amp;limit=
+ *   POST /api/transfers                      {"from","to","amount"}
+ *   GET  /api/admin/users
+ *   GET  /api/admin/metrics
+ *   GET  /api/admin/accounts?status=
+ *   POST /api/admin/accounts/{n}/{verify|suspend|appeal|close}
+ *   POST /api/admin/accounts/{verify|suspend|appeal|close}   {"ids":[n1,n2,...]} or {"status"}
+ *   GET  /api/admin/transactions/pending
+ *   GET  /api/admin/transactions/{id}
+ *   POST /api/admin/transactions/{id}/{approve|reject}
+ *   POST /api/admin/transactions/{approve|reject}   {"ids":["id1","id2",...]}
+ * </pre>
+ * Authenticated endpoints expect an {@code Authorization: Bearer <token>} header.
+ * Deposit, withdraw and transfer honour an optional {@code Idempotency-Key} header, kept per
+ * user and operation; reusing a key for a different request answers 422. {@code ids} may
+ * also be given as one comma-separated string. Request bodies over 1 MiB answer 413.
+ */
+public class BankingHttpServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public BankingHttpServer(InetSocketAddress address, UserController userController,
+                             AccountController accountController, AdminController adminController) throws IOException {
+        this.server = HttpServer.create(address, 1024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.createContext("/api/", new ApiHandler(userController, accountController, adminController));
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, waiting up to one second for in-flight exchanges.
+     */
+    public void stop() {
+        stop(1);
+    }
+
+    /**
+     * Stops the server.
+     *
+     * @param delaySeconds Maximum time to wait for in-flight exchanges
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+    }
+
+    /**
+     * Gets the bound port (useful when started on port 0).
+     *
+     * @return Local port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+}
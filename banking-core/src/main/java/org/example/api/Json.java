@@ -0,0 +1,297 @@
+package org.example.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the HTTP API.
+ * Request bodies are flat objects, so the parser only handles a single object whose
+ * values are strings, finite numbers, booleans, null or arrays of those. Responses are
+ * built with {@link ObjectWriter}.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Parses a flat JSON object.
+     *
+     * @param body Request body
+     * @return Map of keys to String, Double, Boolean, List or null values
+     * @throws ApiException if the body is not a flat JSON object
+     */
+    static Map<String, Object> parseObject(String body) {
+        Parser parser = new Parser(body == null ? "" : body);
+        Map<String, Object> result = parser.object();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw ApiException.badRequest("Unexpected content after JSON object");
+        }
+        return result;
+    }
+
+    /**
+     * Appends a JSON string literal.
+     */
+    static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Streaming writer for a single JSON object.
+     */
+    static final class ObjectWriter {
+        private final StringBuilder out;
+        private boolean first = true;
+
+        ObjectWriter() {
+            this(new StringBuilder(128));
+        }
+
+        ObjectWriter(StringBuilder out) {
+            this.out = out;
+            out.append('{');
+        }
+
+        private StringBuilder key(String key) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            appendString(out, key);
+            return out.append(':');
+        }
+
+        ObjectWriter put(String key, String value) {
+            appendString(key(key), value);
+            return this;
+        }
+
+        ObjectWriter put(String key, long value) {
+            key(key).append(value);
+            return this;
+        }
+
+        ObjectWriter put(String key, double value) {
+            key(key).append(value);
+            return this;
+        }
+
+        ObjectWriter put(String key, boolean value) {
+            key(key).append(value);
+            return this;
+        }
+
+        ObjectWriter put(String key, Integer value) {
+            key(key).append(value == null ? "null" : value.toString());
+            return this;
+        }
+
+        /**
+         * Starts an array value; the caller appends elements to the returned builder
+         * and must close it with {@code ']'}.
+         */
+        StringBuilder startArray(String key) {
+            return key(key).append('[');
+        }
+
+        String end() {
+            return out.append('}').toString();
+        }
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                result.put(key, value());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return result;
+                }
+                if (c != ',') {
+                    throw ApiException.badRequest("Expected ',' or '}' at position " + (pos - 1));
+                }
+            }
+        }
+
+        private Object value() {
+            char c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (c == '[') {
+                return array();
+            }
+            if (text.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw ApiException.badRequest("Unsupported JSON value at position " + start);
+            }
+            double number;
+            try {
+                number = Double.parseDouble(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw ApiException.badRequest("Invalid number at position " + start);
+            }
+            if (!Double.isFinite(number)) {
+                throw ApiException.badRequest("Number out of range at position " + start);
+            }
+            return number;
+        }
+
+        private List<Object> array() {
+            List<Object> result = new ArrayList<>();
+            expect('[');
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() == '[') {
+                    throw ApiException.badRequest("Nested arrays are not supported at position " + pos);
+                }
+                result.add(value());
+                skipWhitespace();
+                char c = next();
+                if (c == ']') {
+                    return result;
+                }
+                if (c != ',') {
+                    throw ApiException.badRequest("Expected ',' or ']' at position " + (pos - 1));
+                }
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c == '\\') {
+                    char e = next();
+                    switch (e) {
+                        case '"' -> sb.append('"');
+                        case '\\' -> sb.append('\\');
+                        case '/' -> sb.append('/');
+                        case 'n' -> sb.append('\n');
+                        case 'r' -> sb.append('\r');
+                        case 't' -> sb.append('\t');
+                        case 'b' -> sb.append('\b');
+                        case 'f' -> sb.append('\f');
+                        case 'u' -> {
+                            if (pos + 4 > text.length()) {
+                                throw ApiException.badRequest("Truncated unicode escape");
+                            }
+                            int code = 0;
+                            for (int i = 0; i < 4; i++) {
+                                int digit = Character.digit(text.charAt(pos + i), 16);
+                                if (digit < 0) {
+                                    throw ApiException.badRequest("Invalid unicode escape at position " + (pos - 2));
+                                }
+                                code = code * 16 + digit;
+                            }
+                            sb.append((char) code);
+                            pos += 4;
+                        }
+                        default -> throw ApiException.badRequest("Invalid escape at position " + (pos - 2));
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        private char peek() {
+            if (atEnd()) {
+                throw ApiException.badRequest("Unexpected end of JSON");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                throw ApiException.badRequest("Expected '" + c + "' at position " + (pos - 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.api;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.example.controllers.UserController;
+import org.example.model.User;
+
+/**
+ * Token-based sessions for API clients.
+ * Unlike {@link UserController#getCurrentUser()}, which models the single desktop session,
+ * any number of API clients can be signed in at once.
+ */
+class SessionRegistry {
+
+    private final Map<String, Integer> userIdByToken = new ConcurrentHashMap<>();
+    private final UserController userController;
+
+    SessionRegistry(UserController userController) {
+        this.userController = userController;
+    }
+
+    /**
+     * Opens a session.
+     *
+     * @param user Authenticated user
+     * @return Bearer token for the session
+     */
+    String open(User user) {
+        String token = UUID.randomUUID().toString();
+        userIdByToken.put(token, user.getUserId());
+        return token;
+    }
+
+    /**
+     * Closes a session.
+     *
+     * @param token Bearer token
+     * @return true if the session existed
+     */
+    boolean close(String token) {
+        return token != null && userIdByToken.remove(token) != null;
+    }
+
+    /**
+     * Resolves the user for a token.
+     *
+     * @param token Bearer token (may be null)
+     * @return User or null if the token is unknown
+     */
+    User resolve(String token) {
+        if (token == null) {
+            return null;
+        }
+        Integer userId = userIdByToken.get(token);
+        return userId == null ? null : userController.getUserById(userId);
+    }
+}
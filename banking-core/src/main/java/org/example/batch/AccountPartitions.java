@@ -0,0 +1,72 @@
+package org.example.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.example.controllers.AccountController;
+import org.example.model.Account;
+
+/**
+ * Splits the account space into partitions of {@link #PARTITION_SIZE} consecutive account
+ * numbers. Partition keys depend only on the account number, so they stay stable between
+ * runs and can be used for checkpoints and output file names.
+ */
+final class AccountPartitions {
+
+    /** Account numbers per partition. */
+    static final int PARTITION_SIZE = 8192;
+
+    final Account[] accounts;
+    // Start index of each partition in accounts, followed by accounts.length
+    private final int[] bounds;
+
+    private AccountPartitions(Account[] accounts, int[] bounds) {
+        this.accounts = accounts;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Snapshots the registered accounts, sorted by account number, and partitions them.
+     */
+    static AccountPartitions of(AccountController accountController) {
+        Account[] accounts = accountController.getAllAccounts().values().toArray(new Account[0]);
+        Arrays.parallelSort(accounts, Comparator.comparingInt(Account::getAccountNumber));
+        List<Integer> starts = new ArrayList<>();
+        int previousKey = Integer.MIN_VALUE;
+        for (int i = 0; i < accounts.length; i++) {
+            int key = key(accounts[i]);
+            if (key != previousKey) {
+                starts.add(i);
+                previousKey = key;
+            }
+        }
+        int[] bounds = new int[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) {
+            bounds[i] = starts.get(i);
+        }
+        bounds[starts.size()] = accounts.length;
+        return new AccountPartitions(accounts, bounds);
+    }
+
+    static int key(Account account) {
+        return account.getAccountNumber() / PARTITION_SIZE;
+    }
+
+    int count() {
+        return bounds.length - 1;
+    }
+
+    int key(int partition) {
+        return key(accounts[bounds[partition]]);
+    }
+
+    int start(int partition) {
+        return bounds[partition];
+    }
+
+    int end(int partition) {
+        return bounds[partition + 1];
+    }
+}
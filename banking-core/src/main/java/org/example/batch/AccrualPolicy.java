@@ -0,0 +1,17 @@
+package org.example.batch;
+
+/**
+ * Rates applied by one run of the {@link InterestFeeJob}.
+ *
+ * @param interestRate     Interest for the period as a fraction of the ledger balance, e.g. 0.0004
+ * @param maintenanceFee   Fee charged per account for the period (0 for none)
+ * @param feeWaiverBalance Accounts holding at least this much are not charged the fee
+ */
+public record AccrualPolicy(double interestRate, double maintenanceFee, double feeWaiverBalance) {
+
+    public AccrualPolicy {
+        if (interestRate < 0 || maintenanceFee < 0 || feeWaiverBalance < 0) {
+            throw new IllegalArgumentException("Rates, fees and thresholds cannot be negative");
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package org.example.batch;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.User;
+
+/**
+ * Loads users and accounts from CSV files, e.g. when onboarding a partner bank.
+ * <p>
+ * A file is memory-mapped and cut at line boundaries into chunks, {@link #CHUNK_BYTES} by
+ * default, which are parsed in parallel on a dedicated fork/join pool. Every row is validated
+ * by the {@link User} or {@link Account} constructor itself, and each chunk is inserted into
+ * the registries as one batch through {@link UserController#addUsers} and
+ * {@link AccountController#registerAccounts}; nobody is logged in along the way. Rows that
+ * fail are written to a rejects file instead of aborting the load.
+ * <p>
+ * Files are UTF-8 with a header line. Fields may be quoted, but a field cannot span lines.
+ * <pre>
+ *   users:    name,email,password,phone
+ *   accounts: ownerEmail,initialBalance,verified
+ * </pre>
+ * The rejects file lists {@code line,reason,row}, with line numbers counted from 1
+ * including the header.
+ */
+public class BulkImporter {
+
+    public static final int CHUNK_BYTES = 4 << 20;
+
+    private final UserController userController;
+    private final AccountController accountController;
+    private final int parallelism;
+    private final int chunkBytes;
+
+    /**
+     * Summary of one import.
+     *
+     * @param rows         Data rows read, excluding the header
+     * @param imported     Rows inserted
+     * @param rejected     Rows written to the rejects file
+     * @param elapsedNanos Wall-clock duration
+     */
+    public record ImportReport(long rows, long imported, long rejected, long elapsedNanos) {
+
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("rows=%d imported=%d rejected=%d elapsed=%.1fms rate=%.0f rows/s",
+                    rows, imported, rejected, elapsedNanos / 1e6, rowsPerSecond());
+        }
+    }
+
+    /** A rejected row, numbered within its chunk until the chunks are stitched together. */
+    private record Reject(int line, String reason, String row) {
+    }
+
+    /** Outcome of one chunk. */
+    private record ChunkResult(int lines, long imported, List<Reject> rejects) {
+    }
+
+    @FunctionalInterface
+    private interface ChunkLoader {
+        ChunkResult load(List<String> rows);
+    }
+
+    public BulkImporter(UserController userController, AccountController accountController) {
+        this(userController, accountController, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * @param userController    Controller receiving the users
+     * @param accountController Controller receiving the accounts
+     * @param parallelism       Worker threads
+     */
+    public BulkImporter(UserController userController, AccountController accountController, int parallelism) {
+        this(userController, accountController, parallelism, CHUNK_BYTES);
+    }
+
+    /**
+     * @param userController    Controller receiving the users
+     * @param accountController Controller receiving the accounts
+     * @param parallelism       Worker threads
+     * @param chunkBytes        Approximate size of the chunks a file is cut into
+     */
+    public BulkImporter(UserController userController, AccountController accountController, int parallelism,
+                        int chunkBytes) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.userController = userController;
+        this.accountController = accountController;
+        this.parallelism = parallelism;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Imports client users. A row is rejected if the {@link User} constructor refuses it or
+     * its email is already registered, including earlier in the same file.
+     *
+     * @param csv     Users file
+     * @param rejects Rejects file, replaced if it exists
+     * @return Summary of the import
+     * @throws IOException if a file cannot be read or written
+     */
+    public ImportReport importUsers(Path csv, Path rejects) throws IOException {
+        return load(csv, rejects, rows -> {
+            List<User> users = new ArrayList<>(rows.size());
+            List<Integer> lines = new ArrayList<>(rows.size());
+            List<Reject> rejected = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                String[] fields = split(rows.get(i));
+                if (fields.length != 4) {
+                    rejected.add(new Reject(i, "expected 4 fields", rows.get(i)));
+                    continue;
+                }
+                try {
+                    users.add(new User(fields[0], User.Role.CLIENT, fields[1], fields[2],
+                            fields[3].isEmpty() ? null : fields[3]));
+                    lines.add(i);
+                } catch (IllegalArgumentException e) {
+                    rejected.add(new Reject(i, e.getMessage(), rows.get(i)));
+                }
+            }
+            List<User> duplicates = userController.addUsers(users);
+            if (!duplicates.isEmpty()) {
+                for (int u = 0, d = 0; u < users.size() && d < duplicates.size(); u++) {
+                    if (users.get(u) == duplicates.get(d)) {
+                        rejected.add(new Reject(lines.get(u), "email already registered", rows.get(lines.get(u))));
+                        d++;
+                    }
+                }
+            }
+            return new ChunkResult(rows.size(), users.size() - duplicates.size(), rejected);
+        });
+    }
+
+    /**
+     * Imports accounts for users that already exist, typically from a preceding
+     * {@link #importUsers} call. A row is rejected if its owner is unknown, or its balance is
+     * not a plain number, is negative, has more than two decimal places or exceeds
+     * {@link Account#MAX_CENTS}.
+     *
+     * @param csv     Accounts file
+     * @param rejects Rejects file, replaced if it exists
+     * @return Summary of the import
+     * @throws IOException if a file cannot be read or written
+     */
+    public ImportReport importAccounts(Path csv, Path rejects) throws IOException {
+        return load(csv, rejects, rows -> {
+            Map<User, List<Account>> byOwner = new LinkedHashMap<>();
+            List<Account> accounts = new ArrayList<>(rows.size());
+            List<Reject> rejected = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                String[] fields = split(rows.get(i));
+                if (fields.length != 3) {
+                    rejected.add(new Reject(i, "expected 3 fields", rows.get(i)));
+                    continue;
+                }
+                User owner = userController.getUserByEmail(fields[0]);
+                if (owner == null) {
+                    rejected.add(new Reject(i, "unknown owner", rows.get(i)));
+                    continue;
+                }
+                try {
+                    Account account = new Account(parseBalance(fields[1]));
+                    if (Boolean.parseBoolean(fields[2])) {
+                        account.verify();
+                    }
+                    byOwner.computeIfAbsent(owner, o -> new ArrayList<>()).add(account);
+                    accounts.add(account);
+                } catch (IllegalArgumentException e) {
+                    rejected.add(new Reject(i, e.getMessage(), rows.get(i)));
+                }
+            }
+            // Registered first, so no user owns an account the registry does not know yet
+            accountController.registerAccounts(accounts);
+            // Users are not thread-safe; one lock per owner per chunk, not per row
+            byOwner.forEach((owner, owned) -> {
+                synchronized (owner) {
+                    owned.forEach(owner::addAccount);
+                }
+            });
+            return new ChunkResult(rows.size(), accounts.size(), rejected);
+        });
+    }
+
+    /**
+     * Parses an opening balance exactly, so no row is rounded to whole cents or to infinity
+     * on its way into an account.
+     *
+     * @throws IllegalArgumentException with the reason the balance is refused
+     */
+    private static double parseBalance(String field) {
+        BigDecimal balance;
+        try {
+            balance = new BigDecimal(field.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Initial balance is not a number");
+        }
+        if (balance.signum() < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative");
+        }
+        if (balance.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Initial balance has more than 2 decimal places");
+        }
+        if (balance.movePointRight(2).compareTo(BigDecimal.valueOf(Account.MAX_CENTS)) > 0) {
+            throw new IllegalArgumentException("Initial balance is out of range");
+        }
+        return balance.doubleValue();
+    }
+
+    private ImportReport load(Path csv, Path rejects, ChunkLoader loader) throws IOException {
+        long start = System.nanoTime();
+        ChunkResult[] results;
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            results = new ChunkResult[bounds.length - 1];
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.submit(() -> IntStream.range(0, results.length).parallel().forEach(c -> {
+                    try {
+                        results[c] = loader.load(readLines(channel, bounds[c], bounds[c + 1], c == 0));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Import interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        long rows = 0;
+        long imported = 0;
+        long rejected = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(rejects)) {
+            out.write("line,reason,row\n");
+            int firstLine = 2;
+            for (ChunkResult result : results) {
+                result.rejects().sort((a, b) -> Integer.compare(a.line(), b.line()));
+                for (Reject reject : result.rejects()) {
+                    out.write((firstLine + reject.line()) + "," + quote(reject.reason()) + ","
+                            + quote(reject.row()) + "\n");
+                }
+                rows += result.lines();
+                imported += result.imported();
+                rejected += result.rejects().size();
+                firstLine += result.lines();
+            }
+        }
+        return new ImportReport(rows, imported, rejected, System.nanoTime() - start);
+    }
+
+    /**
+     * Cuts the file into chunks that each end just after a newline.
+     */
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long position = 0;
+        while (position < size) {
+            long next = Math.min(size, position + chunkBytes);
+            if (next < size) {
+                next = endOfLine(channel, next, size);
+            }
+            bounds.add(next);
+            position = next;
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Gets the position just after the first newline at or after {@code position}.
+     */
+    private static long endOfLine(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static List<String> readLines(FileChannel channel, long from, long to, boolean skipHeader)
+            throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        List<String> lines = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i <= bytes.length; i++) {
+            if (i == bytes.length || bytes[i] == '\n') {
+                int end = i > lineStart && bytes[i - 1] == '\r' ? i - 1 : i;
+                if (i < bytes.length || end > lineStart) {
+                    lines.add(new String(bytes, lineStart, end - lineStart, StandardCharsets.UTF_8));
+                }
+                lineStart = i + 1;
+            }
+        }
+        return skipHeader && !lines.isEmpty() ? lines.subList(1, lines.size()) : lines;
+    }
+
+    /**
+     * Splits one CSV row, honouring double quotes and doubled quotes inside them.
+     */
+    static String[] split(String row) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(String[]::new);
+    }
+
+    private static String quote(String value) {
+        return '"' + (value == null ? "" : value.replace("\"", "\"\"")) + '"';
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Buffered ASCII writer over a {@link FileChannel}.
+ * Numbers, amounts and timestamps are encoded straight into one reused direct buffer,
+ * so writing a row allocates nothing and never goes through {@code String.format}.
+ * Not thread-safe; use one writer per output file.
+ */
+public final class ChannelWriter implements Closeable {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20];
+    private long bytesWritten;
+
+    /**
+     * Creates (or truncates) a file for writing.
+     *
+     * @param path       Output file
+     * @param bufferSize Size of the reused direct buffer in bytes
+     * @throws IOException if the file cannot be opened
+     */
+    public ChannelWriter(Path path, int bufferSize) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), ByteBuffer.allocateDirect(bufferSize));
+    }
+
+    /**
+     * Writes to an open channel through a caller-supplied buffer, e.g. one pooled per thread.
+     *
+     * @param channel Channel positioned where output should start
+     * @param buffer  Buffer to encode into; cleared before use
+     */
+    public ChannelWriter(FileChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer.clear();
+    }
+
+    public ChannelWriter put(char c) throws IOException {
+        ensure(1);
+        buffer.put((byte) c);
+        return this;
+    }
+
+    /**
+     * Writes a string as ASCII; characters outside ASCII are written as {@code ?}.
+     */
+    public ChannelWriter put(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            char c = text.charAt(i);
+            buffer.put(c < 0x80 ? (byte) c : (byte) '?');
+        }
+        return this;
+    }
+
+    /**
+     * Writes a JSON string literal, escaping quotes, backslashes and control characters.
+     */
+    public ChannelWriter putJsonString(CharSequence text) throws IOException {
+        put('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                put('\\').put(c);
+            } else if (c < 0x20) {
+                put("\\u00").put(HEX[c >> 4]).put(HEX[c & 0xF]);
+            } else {
+                put(c < 0x80 ? c : '?');
+            }
+        }
+        return put('"');
+    }
+
+    public ChannelWriter put(long value) throws IOException {
+        ensure(20);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                // Cannot be negated; write the digits of -(MIN_VALUE / 10) then the last one
+                putDigits(-(value / 10));
+                buffer.put((byte) '8');
+                return this;
+            }
+            value = -value;
+        }
+        putDigits(value);
+        return this;
+    }
+
+    /**
+     * Writes an amount with exactly two decimals, e.g. {@code -12.05}.
+     */
+    public ChannelWriter putAmount(double amount) throws IOException {
+        long cents = Math.round(amount * 100);
+        ensure(24);
+        if (cents < 0) {
+            buffer.put((byte) '-');
+            cents = -cents;
+        }
+        putDigits(cents / 100);
+        long fraction = cents % 100;
+        buffer.put((byte) '.');
+        buffer.put((byte) ('0' + fraction / 10));
+        buffer.put((byte) ('0' + fraction % 10));
+        return this;
+    }
+
+    /**
+     * Writes an ISO-8601 local date-time to the second, e.g. {@code 2024-06-30T23:59:59}.
+     */
+    public ChannelWriter put(LocalDateTime time) throws IOException {
+        ensure(19);
+        putPadded(time.getYear(), 4);
+        buffer.put((byte) '-');
+        putPadded(time.getMonthValue(), 2);
+        buffer.put((byte) '-');
+        putPadded(time.getDayOfMonth(), 2);
+        buffer.put((byte) 'T');
+        putPadded(time.getHour(), 2);
+        buffer.put((byte) ':');
+        putPadded(time.getMinute(), 2);
+        buffer.put((byte) ':');
+        putPadded(time.getSecond(), 2);
+        return this;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    /**
+     * Writes everything buffered so far to the channel.
+     */
+    public void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Flushes and forces the written bytes to the storage device.
+     */
+    public void force() throws IOException {
+        drain();
+        channel.force(false);
+    }
+
+    /**
+     * Flushes and closes the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putDigits(long value) {
+        int n = 0;
+        do {
+            digits[n++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (n > 0) {
+            buffer.put(digits[--n]);
+        }
+    }
+
+    private void putPadded(int value, int width) {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+}
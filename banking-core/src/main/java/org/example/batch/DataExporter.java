@@ -0,0 +1,240 @@
+package org.example.batch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import org.example.controllers.AccountController;
+import org.example.model.Account;
+import org.example.model.Transaction;
+
+/**
+ * Streams accounts and transactions to CSV or NDJSON files for audit dumps.
+ * <p>
+ * Accounts are taken in account-number order and split into contiguous ranges, one per
+ * output file, which are written in parallel. Every row is encoded by a {@link ChannelWriter}
+ * into a direct buffer reused by its worker thread, and histories are read a page at a time,
+ * so memory stays flat however much is exported and the run is limited by disk bandwidth.
+ * <p>
+ * A transfer appears in both accounts' histories but is exported once: from its source
+ * account, or from its target when the source is not part of the export.
+ */
+public class DataExporter {
+
+    private static final int PAGE_SIZE = 256;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final AccountController accountController;
+    private final int parallelism;
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    /**
+     * Summary of one export.
+     *
+     * @param files        Files written, in account-number order
+     * @param rows         Data rows written, excluding CSV headers
+     * @param bytes        Bytes written
+     * @param elapsedNanos Wall-clock duration
+     */
+    public record ExportReport(List<Path> files, long rows, long bytes, long elapsedNanos) {
+    }
+
+    @FunctionalInterface
+    private interface RangeWriter {
+        long write(Account[] accounts, int from, int to, ChannelWriter out) throws IOException;
+    }
+
+    public DataExporter(AccountController accountController) {
+        this(accountController, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * @param accountController Controller whose data is exported
+     * @param parallelism       Maximum number of files written at once
+     */
+    public DataExporter(AccountController accountController, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.accountController = accountController;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Exports transactions.
+     *
+     * @param filter    Accounts, date range and statuses to export
+     * @param format    Output format
+     * @param directory Output directory, created if missing
+     * @param files     Number of files to split the output across
+     * @return Summary of the export
+     * @throws IOException if the output cannot be written
+     */
+    public ExportReport exportTransactions(ExportFilter filter, ExportFormat format, Path directory, int files)
+            throws IOException {
+        return export("transactions", format, directory, files, filter, (accounts, from, to, out) -> {
+            if (format == ExportFormat.CSV) {
+                out.put("transactionId,type,status,amount,sourceAccount,targetAccount,timestamp\n");
+            }
+            long rows = 0;
+            for (int i = from; i < to; i++) {
+                rows += writeTransactions(accounts[i], filter, format, out);
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Exports accounts. The date range and transaction statuses of the filter are ignored.
+     *
+     * @param filter    Accounts to export
+     * @param format    Output format
+     * @param directory Output directory, created if missing
+     * @param files     Number of files to split the output across
+     * @return Summary of the export
+     * @throws IOException if the output cannot be written
+     */
+    public ExportReport exportAccounts(ExportFilter filter, ExportFormat format, Path directory, int files)
+            throws IOException {
+        return export("accounts", format, directory, files, filter, (accounts, from, to, out) -> {
+            if (format == ExportFormat.CSV) {
+                out.put("accountNumber,ownerUserId,status,balance,availableBalance\n");
+            }
+            for (int i = from; i < to; i++) {
+                writeAccount(accounts[i], format, out);
+            }
+            return to - from;
+        });
+    }
+
+    private ExportReport export(String name, ExportFormat format, Path directory, int files,
+                                ExportFilter filter, RangeWriter writer) throws IOException {
+        if (files < 1) {
+            throw new IllegalArgumentException("At least one file is required");
+        }
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Account[] accounts = AccountPartitions.of(accountController).accounts;
+        Account[] selected = Arrays.stream(accounts).filter(filter::includes).toArray(Account[]::new);
+        Path[] paths = new Path[files];
+        for (int f = 0; f < files; f++) {
+            paths[f] = directory.resolve(files == 1
+                    ? name + "." + format.getExtension()
+                    : name + "-" + f + "." + format.getExtension());
+        }
+        LongAdder rows = new LongAdder();
+        LongAdder bytes = new LongAdder();
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, files));
+        try {
+            pool.submit(() -> IntStream.range(0, files).parallel().forEach(f -> {
+                int from = (int) ((long) selected.length * f / files);
+                int to = (int) ((long) selected.length * (f + 1) / files);
+                try {
+                    ChannelWriter out = new ChannelWriter(FileChannel.open(paths[f], StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), buffers.get());
+                    try {
+                        rows.add(writer.write(selected, from, to, out));
+                    } finally {
+                        out.close();
+                    }
+                    bytes.add(out.getBytesWritten());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return new ExportReport(List.of(paths), rows.sum(), bytes.sum(), System.nanoTime() - start);
+    }
+
+    private long writeTransactions(Account account, ExportFilter filter, ExportFormat format, ChannelWriter out)
+            throws IOException {
+        int number = account.getAccountNumber();
+        int count = account.getTransactionCount();
+        long rows = 0;
+        for (int offset = 0; offset < count; offset += PAGE_SIZE) {
+            for (Transaction transaction : account.getTransactionHistory(offset, PAGE_SIZE)) {
+                if (filter.includes(transaction) && exportedFrom(transaction, number, filter)) {
+                    writeTransaction(transaction, format, out);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Decides whether the copy of a transaction seen in this account's history is the one to export.
+     */
+    private boolean exportedFrom(Transaction transaction, int accountNumber, ExportFilter filter) {
+        Integer owner = transaction.getSourceAccountNumber() != null
+                ? transaction.getSourceAccountNumber() : transaction.getTargetAccountNumber();
+        if (owner == accountNumber) {
+            return true;
+        }
+        Account ownerAccount = accountController.findAccount(owner);
+        return ownerAccount == null || !filter.includes(ownerAccount);
+    }
+
+    private static void writeTransaction(Transaction transaction, ExportFormat format, ChannelWriter out)
+            throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.put(transaction.getTransactionId()).put(',')
+                    .put(transaction.getType().name()).put(',')
+                    .put(transaction.getStatus().name()).put(',')
+                    .putAmount(transaction.getAmount()).put(',');
+            putOptional(transaction.getSourceAccountNumber(), "", out).put(',');
+            putOptional(transaction.getTargetAccountNumber(), "", out).put(',');
+            out.put(transaction.getTimestamp()).put('\n');
+        } else {
+            out.put("{\"transactionId\":").putJsonString(transaction.getTransactionId())
+                    .put(",\"type\":\"").put(transaction.getType().name())
+                    .put("\",\"status\":\"").put(transaction.getStatus().name())
+                    .put("\",\"amount\":").putAmount(transaction.getAmount())
+                    .put(",\"source\":");
+            putOptional(transaction.getSourceAccountNumber(), "null", out).put(",\"target\":");
+            putOptional(transaction.getTargetAccountNumber(), "null", out).put(",\"timestamp\":\"");
+            out.put(transaction.getTimestamp()).put("\"}\n");
+        }
+    }
+
+    private static void writeAccount(Account account, ExportFormat format, ChannelWriter out) throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.put(account.getAccountNumber()).put(',');
+            putOptional(account.getOwnerUserId(), "", out).put(',')
+                    .put(account.getStatus().name()).put(',')
+                    .putAmount(account.getBalance()).put(',')
+                    .putAmount(account.getAvailableBalance()).put('\n');
+        } else {
+            out.put("{\"accountNumber\":").put(account.getAccountNumber()).put(",\"ownerUserId\":");
+            putOptional(account.getOwnerUserId(), "null", out)
+                    .put(",\"status\":\"").put(account.getStatus().name())
+                    .put("\",\"balance\":").putAmount(account.getBalance())
+                    .put(",\"availableBalance\":").putAmount(account.getAvailableBalance()).put("}\n");
+        }
+    }
+
+    private static ChannelWriter putOptional(Integer value, String missing, ChannelWriter out) throws IOException {
+        return value == null ? out.put(missing) : out.put(value.longValue());
+    }
+}
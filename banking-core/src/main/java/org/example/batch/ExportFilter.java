@@ -0,0 +1,40 @@
+package org.example.batch;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import org.example.model.Account;
+import org.example.model.Transaction;
+
+/**
+ * Selects what a {@link DataExporter} writes. Every null component means "no restriction".
+ *
+ * @param from                Earliest transaction timestamp, inclusive
+ * @param to                  Latest transaction timestamp, exclusive
+ * @param accountNumbers      Accounts to export, and whose transactions to export
+ * @param accountStatuses     Account statuses to include
+ * @param transactionStatuses Transaction statuses to include
+ */
+public record ExportFilter(LocalDateTime from, LocalDateTime to, Set<Integer> accountNumbers,
+                           Set<Account.AccountStatus> accountStatuses,
+                           Set<Transaction.TransactionStatus> transactionStatuses) {
+
+    /**
+     * Gets a filter that exports everything.
+     */
+    public static ExportFilter all() {
+        return new ExportFilter(null, null, null, null, null);
+    }
+
+    boolean includes(Account account) {
+        return (accountNumbers == null || accountNumbers.contains(account.getAccountNumber()))
+                && (accountStatuses == null || accountStatuses.contains(account.getStatus()));
+    }
+
+    boolean includes(Transaction transaction) {
+        LocalDateTime time = transaction.getTimestamp();
+        return (from == null || !time.isBefore(from))
+                && (to == null || time.isBefore(to))
+                && (transactionStatuses == null || transactionStatuses.contains(transaction.getStatus()));
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.batch;
+
+/**
+ * Output format of a {@link DataExporter}.
+ */
+public enum ExportFormat {
+    /** Comma-separated values with a header row. */
+    CSV("csv"),
+    /** One JSON object per line. */
+    NDJSON("ndjson");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
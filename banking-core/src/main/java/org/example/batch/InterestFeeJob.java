@@ -0,0 +1,208 @@
+package org.example.batch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.controllers.AccountController;
+import org.example.model.Account;
+import org.example.model.Transaction;
+
+/**
+ * Periodic job that credits interest and charges maintenance fees on every verified account.
+ * <p>
+ * The account space is split into partitions of {@link #PARTITION_SIZE} consecutive account
+ * numbers. Partitions run as fork/join tasks on a dedicated pool, so the job never occupies
+ * the common pool or the threads serving interactive requests, and each posting is a single
+ * lock-free deposit or withdrawal, so interactive traffic on the same accounts never waits.
+ * Amounts are computed in whole cents from the ledger balance. Movements are posted
+ * {@link #BATCH_SIZE} at a time through {@link AccountController#postAccruals}, which records
+ * each in the history and the ledger together with its balance change, under the deterministic ID
+ * {@code <runId>-I-<account>} or {@code <runId>-F-<account>}. A finished partition is then
+ * recorded in the checkpoint. A rerun with the same run ID skips checkpointed partitions,
+ * and within the partition it was working on skips every movement whose ID an account
+ * already holds, so an interrupted run resumes where it stopped and nothing is applied twice.
+ */
+public class InterestFeeJob {
+
+    /** Account numbers per partition; also the granularity of the checkpoint. */
+    public static final int PARTITION_SIZE = AccountPartitions.PARTITION_SIZE;
+
+    /** Movements posted per call into the controller. */
+    public static final int BATCH_SIZE = 256;
+
+    private final AccountController accountController;
+    private final AccrualPolicy policy;
+    private final int parallelism;
+
+    /**
+     * Summary of one run.
+     *
+     * @param runId             Run ID
+     * @param partitions        Partitions in the account space
+     * @param resumedPartitions Partitions skipped because the checkpoint already had them
+     * @param accounts          Verified accounts processed in this invocation
+     * @param interestPostings  Interest transactions recorded
+     * @param feePostings       Fee transactions recorded
+     * @param feesUnpaid        Fees not charged because the available balance was too low
+     * @param elapsedNanos      Wall-clock duration
+     */
+    public record JobReport(String runId, int partitions, int resumedPartitions, long accounts,
+                            long interestPostings, long feePostings, long feesUnpaid, long elapsedNanos) {
+    }
+
+    public InterestFeeJob(AccountController accountController, AccrualPolicy policy) {
+        this(accountController, policy, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * @param accountController Controller whose accounts are processed
+     * @param policy            Interest and fee rates for the period
+     * @param parallelism       Worker threads; leave headroom for interactive traffic
+     */
+    public InterestFeeJob(AccountController accountController, AccrualPolicy policy, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.accountController = accountController;
+        this.policy = policy;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs the job, resuming from the checkpoint if it belongs to the same run.
+     *
+     * @param runId      Identifies the period, e.g. {@code 2024-06-30}; also prefixes transaction IDs
+     * @param checkpoint Checkpoint file, or null to run without one
+     * @return Summary of this invocation
+     * @throws IOException if the checkpoint cannot be read or written
+     */
+    public JobReport run(String runId, Path checkpoint) throws IOException {
+        long start = System.nanoTime();
+        AccountPartitions partitions = AccountPartitions.of(accountController);
+
+        Counters counters = new Counters();
+        JobCheckpoint progress = checkpoint == null ? null : new JobCheckpoint(checkpoint, runId);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new PartitionTask(runId, partitions, 0, partitions.count(), progress, counters));
+        } finally {
+            pool.shutdown();
+            if (progress != null) {
+                progress.close();
+            }
+        }
+
+        return new JobReport(runId, partitions.count(), (int) counters.resumed.sum(), counters.accounts.sum(),
+                counters.interest.sum(), counters.fees.sum(), counters.feesUnpaid.sum(),
+                System.nanoTime() - start);
+    }
+
+    private static final class Counters {
+        final LongAdder resumed = new LongAdder();
+        final LongAdder accounts = new LongAdder();
+        final LongAdder interest = new LongAdder();
+        final LongAdder fees = new LongAdder();
+        final LongAdder feesUnpaid = new LongAdder();
+    }
+
+    private final class PartitionTask extends RecursiveAction {
+        private final String runId;
+        private final AccountPartitions partitions;
+        private final int from;
+        private final int to;
+        private final JobCheckpoint progress;
+        private final Counters counters;
+
+        PartitionTask(String runId, AccountPartitions partitions, int from, int to,
+                      JobCheckpoint progress, Counters counters) {
+            this.runId = runId;
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.progress = progress;
+            this.counters = counters;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PartitionTask(runId, partitions, from, mid, progress, counters),
+                        new PartitionTask(runId, partitions, mid, to, progress, counters));
+                return;
+            }
+            if (from < to) {
+                processPartition(from);
+            }
+        }
+
+        private void processPartition(int partition) {
+            int key = partitions.key(partition);
+            if (progress != null && progress.isCompleted(key)) {
+                counters.resumed.increment();
+                return;
+            }
+
+            // Only a resumed run can find its own movements already applied
+            boolean resumed = progress != null && progress.isResumed();
+            long feeCents = Math.round(policy.maintenanceFee() * 100);
+            long waiverCents = Math.round(policy.feeWaiverBalance() * 100);
+            List<AccountController.Accrual> batch = new ArrayList<>(BATCH_SIZE);
+            long processed = 0;
+            for (int i = partitions.start(partition); i < partitions.end(partition); i++) {
+                Account account = partitions.accounts[i];
+                if (!account.isActive()) {
+                    continue;
+                }
+                processed++;
+                int number = account.getAccountNumber();
+                long balanceCents = account.getStateSnapshot().ledgerCents();
+
+                long interestCents = Math.round(balanceCents * policy.interestRate());
+                String interestId = runId + "-I-" + number;
+                if (interestCents > 0 && !(resumed && accountController.hasTransaction(account, interestId))) {
+                    batch.add(new AccountController.Accrual(interestId, Transaction.TransactionType.INTEREST,
+                            account, interestCents));
+                }
+
+                String feeId = runId + "-F-" + number;
+                if (feeCents > 0 && balanceCents < waiverCents
+                        && !(resumed && accountController.hasTransaction(account, feeId))) {
+                    batch.add(new AccountController.Accrual(feeId, Transaction.TransactionType.FEE, account, feeCents));
+                }
+                if (batch.size() >= BATCH_SIZE - 1) {
+                    post(batch);
+                }
+            }
+            post(batch);
+
+            if (progress != null) {
+                progress.complete(key);
+            }
+            counters.accounts.add(processed);
+        }
+
+        private void post(List<AccountController.Accrual> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            boolean[] posted = accountController.postAccruals(batch);
+            for (int i = 0; i < posted.length; i++) {
+                boolean interest = batch.get(i).type() == Transaction.TransactionType.INTEREST;
+                if (interest && posted[i]) {
+                    counters.interest.increment();
+                } else if (posted[i]) {
+                    counters.fees.increment();
+                } else if (!interest) {
+                    counters.feesUnpaid.increment();
+                }
+            }
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Record of the partitions a batch run has finished: the run ID on the first line,
+ * then one completed partition key per line. A file left by a different run is discarded.
+ */
+class JobCheckpoint implements Closeable {
+
+    private final Set<Integer> completed = ConcurrentHashMap.newKeySet();
+    private final BufferedWriter writer;
+    private final boolean resumed;
+
+    /**
+     * @param path  Checkpoint file, created if missing
+     * @param runId Run the checkpoint belongs to
+     * @throws IOException if the file cannot be read or written
+     */
+    JobCheckpoint(Path path, String runId) throws IOException {
+        boolean resume = false;
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                resume = runId.equals(reader.readLine());
+                String line;
+                while (resume && (line = reader.readLine()) != null) {
+                    try {
+                        completed.add(Integer.parseInt(line));
+                    } catch (NumberFormatException e) {
+                        // Torn last line after a crash
+                    }
+                }
+            }
+        }
+        this.resumed = resume;
+        if (resume) {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } else {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            writer.write(runId);
+            writer.write('\n');
+            writer.flush();
+        }
+    }
+
+    /**
+     * Whether the file already belonged to this run, i.e. the run is being resumed.
+     */
+    boolean isResumed() {
+        return resumed;
+    }
+
+    boolean isCompleted(int partitionKey) {
+        return completed.contains(partitionKey);
+    }
+
+    /**
+     * Marks a partition as finished and flushes, so a restart skips it.
+     */
+    synchronized void complete(int partitionKey) {
+        completed.add(partitionKey);
+        try {
+            writer.write(Integer.toString(partitionKey));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write checkpoint", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.batch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import org.example.controllers.AccountController;
+import org.example.ledger.Ledger;
+import org.example.model.Account;
+import org.example.model.Transaction;
+
+/**
+ * Checks every account's stored balance against its history and the ledger.
+ * <p>
+ * For each account the opening balance plus the effect of every settled transaction in its
+ * history is replayed in cents and compared with {@link Account#getBalance()} and with the
+ * balance posted to the controller's {@link Ledger}. Accounts are scanned in parallel on a
+ * dedicated fork/join pool, histories are read a page at a time and summed into primitive
+ * accumulators, so the scan allocates only the history pages it reads.
+ * <p>
+ * The system keeps taking writes during a run. Each read of an account is bracketed by its
+ * state version and discarded if the account changed meanwhile. A stable read can still
+ * catch a writer between moving the balance and recording it in the history and the ledger,
+ * so an account is reported only once the same stable disagreement has been read several
+ * times, backing off in between. An account that keeps changing
+ * and never gives such a read is counted as unsettled rather than reported.
+ */
+public class Reconciler {
+
+    private static final int PAGE_SIZE = 512;
+    private static final int CONFIRMATIONS = 8;
+    private static final int MAX_ATTEMPTS = 64;
+    private static final long FIRST_BACKOFF_NANOS = 100_000;
+    private static final long MAX_BACKOFF_NANOS = 10_000_000;
+
+    private final AccountController accountController;
+    private final int parallelism;
+
+    /**
+     * An account whose balances disagree.
+     *
+     * @param accountNumber Account number
+     * @param storedCents   Balance held by the account
+     * @param replayedCents Opening balance plus the settled history
+     * @param postedCents   Balance according to the ledger
+     */
+    public record Mismatch(int accountNumber, long storedCents, long replayedCents, long postedCents) {
+    }
+
+    /**
+     * Summary of one run.
+     *
+     * @param accounts     Accounts checked
+     * @param transactions History entries replayed, counting only the final attempt per account
+     * @param mismatches   Accounts out of balance, in account-number order
+     * @param unsettled    Accounts written to on every attempt, so neither confirmed nor reported
+     * @param elapsedNanos Wall-clock duration
+     */
+    public record ReconciliationReport(long accounts, long transactions, List<Mismatch> mismatches,
+                                       long unsettled, long elapsedNanos) {
+
+        public boolean isClean() {
+            return mismatches.isEmpty();
+        }
+    }
+
+    public Reconciler(AccountController accountController) {
+        this(accountController, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * @param accountController Controller whose accounts are reconciled
+     * @param parallelism       Worker threads
+     */
+    public Reconciler(AccountController accountController, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.accountController = accountController;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Reconciles every registered account.
+     *
+     * @return Summary of the run
+     */
+    public ReconciliationReport reconcile() {
+        long start = System.nanoTime();
+        Account[] accounts = AccountPartitions.of(accountController).accounts;
+        Ledger ledger = accountController.getLedger();
+        LongAdder transactions = new LongAdder();
+        LongAdder unsettled = new LongAdder();
+        Queue<Mismatch> mismatches = new ConcurrentLinkedQueue<>();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, accounts.length).parallel().forEach(i -> {
+                Mismatch mismatch = check(accounts[i], ledger, transactions, unsettled);
+                if (mismatch != null) {
+                    mismatches.add(mismatch);
+                }
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Mismatch> sorted = new ArrayList<>(mismatches);
+        sorted.sort(Comparator.comparingInt(Mismatch::accountNumber));
+        return new ReconciliationReport(accounts.length, transactions.sum(), sorted, unsettled.sum(),
+                System.nanoTime() - start);
+    }
+
+    private static Mismatch check(Account account, Ledger ledger, LongAdder transactions, LongAdder unsettled) {
+        int number = account.getAccountNumber();
+        long lastVersion = -1;
+        int lastCount = -1;
+        long lastPosted = 0;
+        int confirmations = 0;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (attempt > 0) {
+                // Back off exponentially: a writer descheduled between the balance and the history needs a time slice
+                LockSupport.parkNanos(Math.min(FIRST_BACKOFF_NANOS << Math.min(attempt - 1, 16), MAX_BACKOFF_NANOS));
+            }
+            Account.StateSnapshot before = account.getStateSnapshot();
+            int count = account.getTransactionCount();
+            long posted = ledger.getPostedCents(number);
+            long replayed = replay(account, number, count);
+            if (account.getStateSnapshot().version() != before.version()) {
+                confirmations = 0;
+                lastVersion = -1;
+                continue;
+            }
+            long stored = before.ledgerCents();
+            if (replayed == stored && posted == stored) {
+                transactions.add(count);
+                return null;
+            }
+            boolean same = before.version() == lastVersion && count == lastCount && posted == lastPosted;
+            confirmations = same ? confirmations + 1 : 1;
+            if (confirmations == CONFIRMATIONS) {
+                transactions.add(count);
+                return new Mismatch(number, stored, replayed, posted);
+            }
+            lastVersion = before.version();
+            lastCount = count;
+            lastPosted = posted;
+        }
+        unsettled.increment();
+        return null;
+    }
+
+    private static long replay(Account account, int number, int count) {
+        long replayed = cents(account.getOpeningBalance());
+        for (int offset = 0; offset < count; offset += PAGE_SIZE) {
+            List<Transaction> page = account.getTransactionHistory(offset, Math.min(PAGE_SIZE, count - offset));
+            for (int i = 0; i < page.size(); i++) {
+                replayed += cents(StatementGenerator.effect(page.get(i), number));
+            }
+        }
+        return replayed;
+    }
+
+    private static long cents(double amount) {
+        return Math.round(amount * 100);
+    }
+}
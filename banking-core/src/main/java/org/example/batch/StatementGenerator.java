@@ -0,0 +1,231 @@
+package org.example.batch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import org.example.controllers.AccountController;
+import org.example.model.Account;
+import org.example.model.Transaction;
+
+/**
+ * Writes account statements for a period.
+ * <p>
+ * Each partition of {@link AccountPartitions#PARTITION_SIZE} account numbers becomes one
+ * file, {@code statements-<periodStart>-<periodEnd>-<partition>.txt}, written in parallel on
+ * a dedicated fork/join pool through a {@link ChannelWriter} whose direct buffer is reused per
+ * worker. A file is written under a temporary name and renamed when complete, so rerunning the
+ * same period into the same directory skips finished partitions and resumes an interrupted
+ * run; a different period never mistakes another period's files for its own.
+ * <p>
+ * Histories are read a page at a time, never copied whole. The closing balance is derived
+ * from the current ledger balance by undoing the transactions after the period, which are
+ * found by paging backwards from the newest; the opening balance then undoes the period
+ * itself. Statements are meant for closed periods: money moving while an account is being
+ * read can skew that account's balances.
+ * <p>
+ * File format, one statement after another:
+ * <pre>
+ *   STATEMENT  account  periodStart  periodEnd
+ *   OPENING    amount
+ *   timestamp  transactionId  type  signedAmount      (settled transactions in the period)
+ *   CLOSING    amount
+ * </pre>
+ */
+public class StatementGenerator {
+
+    private static final int PAGE_SIZE = 256;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("uuuuMMdd'T'HHmmss.SSSSSSSSS");
+
+    private final AccountController accountController;
+    private final int parallelism;
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    /**
+     * Summary of one run.
+     *
+     * @param partitions        Partitions in the account space
+     * @param resumedPartitions Partitions skipped because their file for the period already existed
+     * @param statements        Statements written in this invocation
+     * @param transactions      Transaction lines written
+     * @param bytes             Bytes written
+     * @param elapsedNanos      Wall-clock duration
+     */
+    public record StatementReport(int partitions, int resumedPartitions, long statements,
+                                  long transactions, long bytes, long elapsedNanos) {
+    }
+
+    public StatementGenerator(AccountController accountController) {
+        this(accountController, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * @param accountController Controller whose accounts get statements
+     * @param parallelism       Worker threads
+     */
+    public StatementGenerator(AccountController accountController, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.accountController = accountController;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Writes statements for every account.
+     *
+     * @param periodStart Start of the period, inclusive
+     * @param periodEnd   End of the period, exclusive
+     * @param directory   Output directory, created if missing
+     * @return Summary of this invocation
+     * @throws IOException if the output cannot be written
+     */
+    public StatementReport generate(LocalDateTime periodStart, LocalDateTime periodEnd, Path directory)
+            throws IOException {
+        if (!periodStart.isBefore(periodEnd)) {
+            throw new IllegalArgumentException("Period start must be before its end");
+        }
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        AccountPartitions partitions = AccountPartitions.of(accountController);
+        LongAdder resumed = new LongAdder();
+        LongAdder statements = new LongAdder();
+        LongAdder transactions = new LongAdder();
+        LongAdder bytes = new LongAdder();
+        String prefix = "statements-" + FILE_TIME.format(periodStart) + "-" + FILE_TIME.format(periodEnd) + "-";
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, partitions.count()).parallel().forEach(p -> {
+                Path file = directory.resolve(prefix + partitions.key(p) + ".txt");
+                if (Files.exists(file)) {
+                    resumed.increment();
+                    return;
+                }
+                try {
+                    writePartition(partitions, p, periodStart, periodEnd, file, statements, transactions, bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Statement run interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        return new StatementReport(partitions.count(), (int) resumed.sum(), statements.sum(),
+                transactions.sum(), bytes.sum(), System.nanoTime() - start);
+    }
+
+    private void writePartition(AccountPartitions partitions, int partition, LocalDateTime periodStart,
+                                LocalDateTime periodEnd, Path file, LongAdder statements,
+                                LongAdder transactions, LongAdder bytes) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        long lines = 0;
+        ChannelWriter out = new ChannelWriter(FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), buffers.get());
+        try {
+            for (int i = partitions.start(partition); i < partitions.end(partition); i++) {
+                lines += writeStatement(partitions.accounts[i], periodStart, periodEnd, out);
+            }
+        } finally {
+            out.close();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        statements.add(partitions.end(partition) - partitions.start(partition));
+        transactions.add(lines);
+        bytes.add(out.getBytesWritten());
+    }
+
+    /**
+     * Writes one account's statement.
+     *
+     * @return Number of transaction lines written
+     */
+    private static long writeStatement(Account account, LocalDateTime periodStart, LocalDateTime periodEnd,
+                                       ChannelWriter out) throws IOException {
+        int number = account.getAccountNumber();
+        double balance = account.getBalance();
+        int count = account.getTransactionCount();
+
+        // Walk back from the newest transaction to the start of the period
+        double afterPeriod = 0;
+        double inPeriod = 0;
+        int firstInPeriod = count;
+        scan:
+        for (int end = count; end > 0; end -= PAGE_SIZE) {
+            int offset = Math.max(0, end - PAGE_SIZE);
+            List<Transaction> page = account.getTransactionHistory(offset, end - offset);
+            for (int i = page.size() - 1; i >= 0; i--) {
+                Transaction transaction = page.get(i);
+                LocalDateTime time = transaction.getTimestamp();
+                if (time.isBefore(periodStart)) {
+                    break scan;
+                }
+                if (time.isBefore(periodEnd)) {
+                    inPeriod += effect(transaction, number);
+                    firstInPeriod = offset + i;
+                } else {
+                    afterPeriod += effect(transaction, number);
+                }
+            }
+        }
+        double closing = balance - afterPeriod;
+        double opening = closing - inPeriod;
+
+        out.put("STATEMENT\t").put(number).put('\t').put(periodStart).put('\t').put(periodEnd).put('\n');
+        out.put("OPENING\t").putAmount(opening).put('\n');
+        long lines = 0;
+        for (int offset = firstInPeriod; offset < count; offset += PAGE_SIZE) {
+            List<Transaction> page = account.getTransactionHistory(offset, Math.min(PAGE_SIZE, count - offset));
+            for (Transaction transaction : page) {
+                if (!transaction.getTimestamp().isBefore(periodEnd)) {
+                    break;
+                }
+                if (transaction.isSuccessful()) {
+                    out.put(transaction.getTimestamp()).put('\t').put(transaction.getTransactionId()).put('\t')
+                            .put(transaction.getType().name()).put('\t')
+                            .putAmount(effect(transaction, number)).put('\n');
+                    lines++;
+                }
+            }
+        }
+        out.put("CLOSING\t").putAmount(closing).put('\n');
+        return lines;
+    }
+
+    /**
+     * Gets how a settled transaction changed the account's ledger balance.
+     */
+    static double effect(Transaction transaction, int accountNumber) {
+        if (!transaction.isSuccessful()) {
+            return 0;
+        }
+        return switch (transaction.getType()) {
+            case DEPOSIT, INTEREST -> transaction.getAmount();
+            case WITHDRAW, FEE -> -transaction.getAmount();
+            case TRANSFER -> transaction.getSourceAccountNumber() == accountNumber
+                    ? -transaction.getAmount() : transaction.getAmount();
+        };
+    }
+}
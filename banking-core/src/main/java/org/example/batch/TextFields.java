@@ -0,0 +1,128 @@
+package org.example.batch;
+
+import java.io.IOException;
+
+/**
+ * Escaping for free text in tab-separated, line-oriented files.
+ * <p>
+ * Backslash, tab, newline and carriage return become {@code \\ \t \n \r}; other control and
+ * non-ASCII characters become {@code \}{@code uXXXX}. A null field is written as {@code -}
+ * and a literal {@code -} as {@code \-}, so an escaped field never contains a separator and
+ * always reads back to the original text.
+ */
+public final class TextFields {
+
+    private TextFields() {
+    }
+
+    /**
+     * Writes a field without allocating for plain ASCII text.
+     *
+     * @param out  Destination
+     * @param text Text to write, or null
+     * @throws IOException if the writer fails
+     */
+    public static void write(ChannelWriter out, String text) throws IOException {
+        if (text == null) {
+            out.put('-');
+            return;
+        }
+        if (text.equals("-")) {
+            out.put("\\-");
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String escape = escape(c);
+            if (escape == null) {
+                out.put(c);
+            } else {
+                out.put(escape);
+            }
+        }
+    }
+
+    /**
+     * Escapes a field.
+     *
+     * @param text Text to escape, or null
+     * @return Escaped field
+     */
+    public static String escape(String text) {
+        if (text == null) {
+            return "-";
+        }
+        if (text.equals("-")) {
+            return "\\-";
+        }
+        StringBuilder field = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String escape = escape(c);
+            if (escape != null && field == null) {
+                field = new StringBuilder(text.length() + 8).append(text, 0, i);
+            }
+            if (field != null) {
+                if (escape == null) {
+                    field.append(c);
+                } else {
+                    field.append(escape);
+                }
+            }
+        }
+        return field == null ? text : field.toString();
+    }
+
+    /**
+     * Reads back a field written by {@link #write} or {@link #escape}.
+     *
+     * @param field Field as it appears in the line
+     * @return Original text, or null
+     * @throws IllegalArgumentException if the field holds a malformed escape
+     */
+    public static String read(String field) {
+        if (field.equals("-")) {
+            return null;
+        }
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+        StringBuilder text = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            if (++i == field.length()) {
+                throw new IllegalArgumentException("Dangling escape in " + field);
+            }
+            switch (field.charAt(i)) {
+                case '\\' -> text.append('\\');
+                case 't' -> text.append('\t');
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case '-' -> text.append('-');
+                case 'u' -> {
+                    if (i + 5 > field.length()) {
+                        throw new IllegalArgumentException("Short unicode escape in " + field);
+                    }
+                    text.append((char) Integer.parseInt(field, i + 1, i + 5, 16));
+                    i += 4;
+                }
+                default -> throw new IllegalArgumentException("Unknown escape in " + field);
+            }
+        }
+        return text.toString();
+    }
+
+    private static String escape(char c) {
+        return switch (c) {
+            case '\\' -> "\\\\";
+            case '\t' -> "\\t";
+            case '\n' -> "\\n";
+            case '\r' -> "\\r";
+            default -> c < 0x20 || c >= 0x7F ? String.format("\\u%04x", (int) c) : null;
+        };
+    }
+}
@@ -0,0 +1,1083 @@
+package org.example.controllers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.example.history.TieredHistoryStore;
+import org.example.ledger.Hold;
+import org.example.ledger.HoldManager;
+import org.example.ledger.IdempotencyCache;
+import org.example.ledger.Ledger;
+import org.example.metrics.Metrics;
+import org.example.model.Account;
+import org.example.model.AccountNumberIndex;
+import org.example.model.OperationResult;
+import org.example.model.Transaction;
+import org.example.model.TransactionArena;
+import org.example.model.User;
+import org.example.risk.AccountLimiter;
+import org.example.risk.AccountLimits;
+import org.example.risk.FraudRule;
+import org.example.risk.FraudRuleEngine;
+import org.example.sharding.ShardGroup;
+
+/**
+ * Controller for account operations.
+ * Handles deposits, withdrawals, transfers, and transaction history.
+ */
+public class AccountController {
+    private final Map<Integer, Account> accountRegistry;
+    // Boxing-free front for the registry on the hot path
+    private final AccountNumberIndex<Account> accountIndex = new AccountNumberIndex<>();
+    private final UserController userController;
+    private final Map<String, Transaction> pendingTransactions;
+    private final Metrics metrics;
+    private final HoldManager holdManager;
+    private final Ledger ledger;
+    private IdempotencyCache idempotencyCache;
+    private volatile AccountLimiter accountLimiter;
+    private volatile FraudRuleEngine fraudRuleEngine;
+    private volatile ShardGroup shards;
+    private volatile TieredHistoryStore historyStore;
+    private volatile TransactionArena transactionArena;
+    private volatile ChangeListener changeListener;
+
+    public AccountController(UserController userController) {
+        this.accountRegistry = new ConcurrentHashMap<>();
+        this.userController = userController;
+        this.pendingTransactions = new ConcurrentHashMap<>();
+        this.metrics = new Metrics();
+        this.holdManager = new HoldManager(metrics, this::accountChanged);
+        this.ledger = new Ledger(metrics);
+        this.idempotencyCache = new IdempotencyCache(100_000, Duration.ofHours(24));
+    }
+
+    /**
+     * Enables per-account rate and daily amount limits on withdrawals and outgoing transfers.
+     * Rejections are counted in {@link #getMetrics()}.
+     *
+     * @param limits Limits to apply, or null to disable limiting
+     */
+    public void setAccountLimits(AccountLimits limits) {
+        this.accountLimiter = limits == null ? null : new AccountLimiter(limits, metrics);
+    }
+
+    /**
+     * Enables inline fraud checks on withdrawals and outgoing transfers.
+     * Movements that trip a rule are recorded as PENDING for admin review instead of being applied.
+     *
+     * @param rules Rules to compile and evaluate, or null/empty to disable fraud checks
+     */
+    public void setFraudRules(List<FraudRule> rules) {
+        this.fraudRuleEngine = rules == null || rules.isEmpty() ? null : new FraudRuleEngine(rules, metrics);
+    }
+
+    /**
+     * Gets the metrics registry for this controller.
+     *
+     * @return Metrics registry
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Replaces the cache used by the idempotent operation variants,
+     * e.g. to change its size or attach persistence.
+     *
+     * @param idempotencyCache Cache to use
+     */
+    public void setIdempotencyCache(IdempotencyCache idempotencyCache) {
+        if (idempotencyCache == null) {
+            throw new IllegalArgumentException("Idempotency cache cannot be null");
+        }
+        this.idempotencyCache = idempotencyCache;
+    }
+
+    /**
+     * Moves older transactions out of the in-memory account histories once they grow past the
+     * store's limit. Archiving runs in the background after a transaction is recorded; reads
+     * through the history methods below are unaffected apart from loading archived blocks.
+     *
+     * @param historyStore Store to archive to, or null to keep every history in memory
+     */
+    public void setHistoryStore(TieredHistoryStore historyStore) {
+        this.historyStore = historyStore;
+    }
+
+    /**
+     * Gets the store older history is archived to.
+     *
+     * @return History store, or null if every history is kept in memory
+     */
+    public TieredHistoryStore getHistoryStore() {
+        return historyStore;
+    }
+
+    /**
+     * Records completed deposits, withdrawals, transfers, interest and fees into an arena
+     * instead of creating a {@link Transaction} for each, so recording allocates nothing. Each
+     * balance change still allocates the account's next immutable state: 48 bytes for a
+     * deposit or withdrawal and 224 for a transfer, which also holds both accounts. Histories
+     * build the objects when they are read, and a history store archives records
+     * like objects. Their ledger postings are not kept as journal entries. Transactions under
+     * review, and movements made while the arena is full, are still recorded as objects.
+     *
+     * @param transactionArena Arena to record into, or null to record transaction objects
+     */
+    public void setTransactionArena(TransactionArena transactionArena) {
+        this.transactionArena = transactionArena;
+    }
+
+    /**
+     * Gets the arena completed movements are recorded into.
+     *
+     * @return Transaction arena, or null if transaction objects are recorded
+     */
+    public TransactionArena getTransactionArena() {
+        return transactionArena;
+    }
+
+    /**
+     * Reports every recorded transaction and every account change to a listener, e.g. a
+     * replication journal.
+     *
+     * @param changeListener Listener, or null to stop reporting
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Changes an account's status and reports the change.
+     *
+     * @param account Account to change
+     * @param action  Transition to apply
+     * @return true if the status changed
+     */
+    public boolean changeStatus(Account account, StatusAction action) {
+        if (account == null || !onShard(account, () -> action.apply(account))) {
+            return false;
+        }
+        accountChanged(account);
+        return true;
+    }
+
+    private void accountChanged(Account account) {
+        ChangeListener listener = changeListener;
+        if (listener != null && account != null) {
+            listener.onAccountChanged(account);
+        }
+    }
+
+    private void published(Transaction transaction, Account source, Account target) {
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onTransaction(transaction);
+            accountChanged(source);
+            accountChanged(target);
+        }
+    }
+
+    /**
+     * Gets the double-entry journal of every settled movement.
+     *
+     * @return Ledger
+     */
+    public Ledger getLedger() {
+        return ledger;
+    }
+
+    /**
+     * Registers an account in the global registry.
+     * Its balance at registration is posted to the ledger as an opening entry.
+     *
+     * @param account Account to register
+     */
+    public void registerAccount(Account account) {
+        if (accountRegistry.putIfAbsent(account.getAccountNumber(), account) == null) {
+            accountIndex.put(account.getAccountNumber(), account);
+            ledger.open(account);
+        }
+    }
+
+    /**
+     * Registers a batch of accounts in the global registry.
+     * The index grows once for the whole batch and their balances are posted to the ledger
+     * as one opening entry, so a bulk load takes no lock per account.
+     *
+     * @param accounts Accounts to register
+     */
+    public void registerAccounts(Collection<Account> accounts) {
+        List<Account> added = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            if (accountRegistry.putIfAbsent(account.getAccountNumber(), account) == null) {
+                added.add(account);
+            }
+        }
+        accountIndex.putAll(added, Account::getAccountNumber);
+        ledger.openAll(added);
+    }
+
+    /**
+     * Finds an account by account number.
+     *
+     * @param accountNumber Account number to look up
+     * @return Account object or null if not found
+     */
+    public Account findAccount(int accountNumber) {
+        Account account = accountIndex.get(accountNumber);
+        return account != null ? account : accountRegistry.get(accountNumber);
+    }
+
+    /**
+     * Deposits money into an account.
+     *
+     * @param account Account to deposit into
+     * @param amount  Amount to deposit
+     * @return true if deposit successful, false otherwise
+     */
+    public boolean deposit(Account account, double amount) {
+        // Called directly when unsharded, so the hot path does not allocate the capturing lambda
+        OperationResult result = shards == null ? applyDeposit(account, amount)
+                : onShard(account, () -> applyDeposit(account, amount));
+        return result.isSuccess();
+    }
+
+    /**
+     * Withdraws money from an account.
+     *
+     * @param account Account to withdraw from
+     * @param amount  Amount to withdraw
+     * @return true if withdrawal successful, false otherwise
+     */
+    public boolean withdraw(Account account, double amount) {
+        OperationResult result = shards == null ? applyWithdraw(account, amount)
+                : onShard(account, () -> applyWithdraw(account, amount));
+        return result.isSuccess();
+    }
+
+    /**
+     * Transfers money between two accounts.
+     *
+     * @param fromAccountNumber Source account number
+     * @param toAccountNumber   Target account number
+     * @param amount            Amount to transfer
+     * @return true if transfer successful, false otherwise
+     */
+    public boolean transfer(int fromAccountNumber, int toAccountNumber, double amount) {
+        return routedTransfer(fromAccountNumber, toAccountNumber, amount).isSuccess();
+    }
+
+    // ===== Idempotent Variants =====
+
+    /**
+     * Deposits money at most once per idempotency key.
+     * A retry with the same key returns the original result without touching the balance.
+     * Keys are kept per operation, and a key reused with a different account or amount gets
+     * IDEMPOTENCY_MISMATCH. Callers serving several clients should prefix keys with the
+     * client's identity.
+     *
+     * @param idempotencyKey Client-supplied request identity (null disables deduplication)
+     * @param account        Account to deposit into
+     * @param amount         Amount to deposit
+     * @return Result of the first attempt with this key
+     */
+    public OperationResult deposit(String idempotencyKey, Account account, double amount) {
+        if (idempotencyKey == null) {
+            return onShard(account, () -> applyDeposit(account, amount));
+        }
+        return idempotencyCache.execute("deposit:" + idempotencyKey,
+                requestHash(-1, account == null ? -1 : account.getAccountNumber(), amount),
+                () -> onShard(account, () -> applyDeposit(account, amount)));
+    }
+
+    /**
+     * Withdraws money at most once per idempotency key; see {@link #deposit(String, Account, double)}.
+     *
+     * @param idempotencyKey Client-supplied request identity (null disables deduplication)
+     * @param account        Account to withdraw from
+     * @param amount         Amount to withdraw
+     * @return Result of the first attempt with this key
+     */
+    public OperationResult withdraw(String idempotencyKey, Account account, double amount) {
+        if (idempotencyKey == null) {
+            return onShard(account, () -> applyWithdraw(account, amount));
+        }
+        return idempotencyCache.execute("withdraw:" + idempotencyKey,
+                requestHash(account == null ? -1 : account.getAccountNumber(), -1, amount),
+                () -> onShard(account, () -> applyWithdraw(account, amount)));
+    }
+
+    /**
+     * Transfers money at most once per idempotency key; see {@link #deposit(String, Account, double)}.
+     *
+     * @param idempotencyKey    Client-supplied request identity (null disables deduplication)
+     * @param fromAccountNumber Source account number
+     * @param toAccountNumber   Target account number
+     * @param amount            Amount to transfer
+     * @return Result of the first attempt with this key
+     */
+    public OperationResult transfer(String idempotencyKey, int fromAccountNumber, int toAccountNumber, double amount) {
+        if (idempotencyKey == null) {
+            return routedTransfer(fromAccountNumber, toAccountNumber, amount);
+        }
+        return idempotencyCache.execute("transfer:" + idempotencyKey,
+                requestHash(fromAccountNumber, toAccountNumber, amount),
+                () -> routedTransfer(fromAccountNumber, toAccountNumber, amount));
+    }
+
+    private static int requestHash(int source, int target, double amount) {
+        return Objects.hash(source, target, Math.round(amount * 100));
+    }
+
+    // ===== Sharded Variants =====
+
+    /**
+     * Routes every write to single-writer shards by account number: the asynchronous
+     * operations below, and the synchronous ones (movements, idempotent variants, holds,
+     * accruals, review decisions and status changes), which wait for their shard. A write
+     * made from a shard thread runs in place, so shard tasks never wait on each other.
+     * Hold expiry still runs on its timer thread; account updates are atomic either way.
+     *
+     * @param shards Shards to route to, or null to run every operation on the caller's thread
+     */
+    public void setShards(ShardGroup shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Runs a write on the shard owning an account and waits for it, or in place without shards.
+     */
+    private <T> T onShard(Account account, Supplier<T> operation) {
+        ShardGroup group = shards;
+        if (group == null || account == null) {
+            return operation.get();
+        }
+        return group.call(account.getAccountNumber(), operation);
+    }
+
+    private OperationResult routedTransfer(int fromAccountNumber, int toAccountNumber, double amount) {
+        ShardGroup group = shards;
+        if (group == null || group.isShardThread()) {
+            return applyTransfer(fromAccountNumber, toAccountNumber, amount);
+        }
+        return ShardGroup.join(transferAsync(fromAccountNumber, toAccountNumber, amount));
+    }
+
+    /**
+     * Deposits money on the shard owning the account.
+     *
+     * @param accountNumber Account to deposit into
+     * @param amount        Amount to deposit
+     * @return Future result of the deposit
+     */
+    public CompletableFuture<OperationResult> depositAsync(int accountNumber, double amount) {
+        ShardGroup group = shards;
+        if (group == null) {
+            return CompletableFuture.completedFuture(applyDeposit(findAccount(accountNumber), amount));
+        }
+        return group.submit(accountNumber, () -> applyDeposit(findAccount(accountNumber), amount));
+    }
+
+    /**
+     * Withdraws money on the shard owning the account.
+     *
+     * @param accountNumber Account to withdraw from
+     * @param amount        Amount to withdraw
+     * @return Future result of the withdrawal
+     */
+    public CompletableFuture<OperationResult> withdrawAsync(int accountNumber, double amount) {
+        ShardGroup group = shards;
+        if (group == null) {
+            return CompletableFuture.completedFuture(applyWithdraw(findAccount(accountNumber), amount));
+        }
+        return group.submit(accountNumber, () -> applyWithdraw(findAccount(accountNumber), amount));
+    }
+
+    /**
+     * Transfers money through the shards. A transfer within one shard runs there in one step.
+     * A transfer across shards runs in two phases: the source shard debits the source, then
+     * the target shard credits the target, or hands the money back to the source shard to be
+     * refunded if the target refuses it, the credit throws or the hop cannot be made. In
+     * between, the money is on neither account, so it is never visible in two places.
+     *
+     * @param fromAccountNumber Source account number
+     * @param toAccountNumber   Target account number
+     * @param amount            Amount to transfer
+     * @return Future result of the transfer
+     */
+    public CompletableFuture<OperationResult> transferAsync(int fromAccountNumber, int toAccountNumber,
+                                                           double amount) {
+        ShardGroup group = shards;
+        if (group == null) {
+            return CompletableFuture.completedFuture(applyTransfer(fromAccountNumber, toAccountNumber, amount));
+        }
+        if (group.shardOf(fromAccountNumber) == group.shardOf(toAccountNumber)) {
+            return group.submit(fromAccountNumber, () -> applyTransfer(fromAccountNumber, toAccountNumber, amount));
+        }
+        return group.start(fromAccountNumber,
+                result -> debitPhase(group, fromAccountNumber, toAccountNumber, amount, result));
+    }
+
+    /**
+     * First phase of a cross-shard transfer, on the source shard.
+     */
+    private void debitPhase(ShardGroup group, int fromAccountNumber, int toAccountNumber, double amount,
+                            CompletableFuture<OperationResult> result) {
+        Account fromAccount = findAccount(fromAccountNumber);
+        Account toAccount = findAccount(toAccountNumber);
+        if (fromAccount == null || toAccount == null) {
+            result.complete(OperationResult.ACCOUNT_NOT_FOUND);
+            return;
+        }
+        OperationResult admitted = admitOutgoing(fromAccount, amount);
+        if (!admitted.isSuccess()) {
+            result.complete(admitted);
+            return;
+        }
+        OperationResult held = holdForReview(Transaction.TransactionType.TRANSFER, amount, fromAccount, toAccount);
+        if (held != null) {
+            result.complete(held);
+            return;
+        }
+        if (!fromAccount.withdraw(amount)) {
+            releaseOutgoing(fromAccount, amount);
+            record(Transaction.TransactionType.TRANSFER, amount, fromAccount, toAccount, false);
+            result.complete(OperationResult.REJECTED);
+            return;
+        }
+        CrossShardTransfer transfer = new CrossShardTransfer(group, fromAccount, toAccount, amount, result);
+        group.execute(toAccountNumber, transfer::credit, transfer::creditFailed);
+    }
+
+    /**
+     * A cross-shard transfer whose source has been debited. From here the money must end up
+     * on the target or back on the source, whatever fails.
+     */
+    private final class CrossShardTransfer {
+        private final ShardGroup group;
+        private final Account source;
+        private final Account target;
+        private final double amount;
+        private final CompletableFuture<OperationResult> result;
+        private final AtomicBoolean refunded = new AtomicBoolean();
+        private boolean credited;
+
+        CrossShardTransfer(ShardGroup group, Account source, Account target, double amount,
+                           CompletableFuture<OperationResult> result) {
+            this.group = group;
+            this.source = source;
+            this.target = target;
+            this.amount = amount;
+            this.result = result;
+        }
+
+        /** Second phase, on the target shard. */
+        void credit() {
+            credited = target.deposit(amount);
+            if (!credited) {
+                refundOnSource(null);
+                return;
+            }
+            record(Transaction.TransactionType.TRANSFER, amount, source, target, true);
+            result.complete(OperationResult.SUCCESS);
+        }
+
+        /** The credit threw, or could not be queued on the target shard. */
+        void creditFailed(RuntimeException error) {
+            if (credited) {
+                // The money is on the target; only recording failed
+                result.completeExceptionally(error);
+            } else {
+                refundOnSource(error);
+            }
+        }
+
+        private void refundOnSource(RuntimeException cause) {
+            // If even the source shard cannot take it, refund here; the account update is atomic
+            group.execute(source.getAccountNumber(), () -> refund(cause),
+                    error -> refund(cause != null ? cause : error));
+        }
+
+        private void refund(RuntimeException cause) {
+            if (!refunded.compareAndSet(false, true)) {
+                return;
+            }
+            source.refund(amount);
+            try {
+                releaseOutgoing(source, amount);
+                record(Transaction.TransactionType.TRANSFER, amount, source, target, false);
+            } finally {
+                if (cause == null) {
+                    result.complete(OperationResult.REJECTED);
+                } else {
+                    result.completeExceptionally(cause);
+                }
+            }
+        }
+    }
+
+    // ===== Operation Pipeline =====
+
+    private OperationResult applyDeposit(Account account, double amount) {
+        if (account == null) {
+            return OperationResult.ACCOUNT_NOT_FOUND;
+        }
+        boolean success = account.deposit(amount);
+        record(Transaction.TransactionType.DEPOSIT, amount, null, account, success);
+        return OperationResult.of(success);
+    }
+
+    private OperationResult applyWithdraw(Account account, double amount) {
+        if (account == null) {
+            return OperationResult.ACCOUNT_NOT_FOUND;
+        }
+        OperationResult admitted = admitOutgoing(account, amount);
+        if (!admitted.isSuccess()) {
+            return admitted;
+        }
+        OperationResult held = holdForReview(Transaction.TransactionType.WITHDRAW, amount, account, null);
+        if (held != null) {
+            return held;
+        }
+        boolean success = account.withdraw(amount);
+        if (!success) {
+            releaseOutgoing(account, amount);
+        }
+        record(Transaction.TransactionType.WITHDRAW, amount, account, null, success);
+        return OperationResult.of(success);
+    }
+
+    private OperationResult applyTransfer(int fromAccountNumber, int toAccountNumber, double amount) {
+        Account fromAccount = findAccount(fromAccountNumber);
+        Account toAccount = findAccount(toAccountNumber);
+
+        if (fromAccount == null || toAccount == null) {
+            return OperationResult.ACCOUNT_NOT_FOUND;
+        }
+
+        OperationResult admitted = admitOutgoing(fromAccount, amount);
+        if (!admitted.isSuccess()) {
+            return admitted;
+        }
+        OperationResult held = holdForReview(Transaction.TransactionType.TRANSFER, amount, fromAccount, toAccount);
+        if (held != null) {
+            return held;
+        }
+        boolean success = fromAccount.transfer(toAccount, amount);
+        if (!success) {
+            releaseOutgoing(fromAccount, amount);
+        }
+        record(Transaction.TransactionType.TRANSFER, amount, fromAccount, toAccount, success);
+        return OperationResult.of(success);
+    }
+
+    /**
+     * Runs the fraud rules on an outgoing movement that could otherwise go ahead.
+     * A flagged movement has its funds held on the source account and is recorded
+     * as a PENDING transaction for admin review; the target is not credited until approval.
+     *
+     * @return PENDING_REVIEW or REJECTED if the movement was flagged, null if it is clean
+     */
+    private OperationResult holdForReview(Transaction.TransactionType type, double amount,
+                                          Account source, Account target) {
+        FraudRuleEngine engine = fraudRuleEngine;
+        if (engine == null || amount <= 0 || !source.isActive() || source == target) {
+            return null;
+        }
+        int hits = engine.assess(source.getAccountNumber(),
+                target == null ? -1 : target.getAccountNumber(), Math.round(amount * 100));
+        if (hits == 0) {
+            return null;
+        }
+        Transaction transaction = newTransaction(type, amount, source, target);
+        if (!source.placeHold(amount)) {
+            transaction.markFailed();
+            addToHistories(transaction, source, target);
+            releaseOutgoing(source, amount);
+            return OperationResult.REJECTED;
+        }
+        transaction.flagForReview(engine.describe(hits));
+        // Published before it can be settled, so listeners see PENDING ahead of the decision
+        addToHistories(transaction, source, target);
+        pendingTransactions.put(transaction.getTransactionId(), transaction);
+        return OperationResult.PENDING_REVIEW;
+    }
+
+    /**
+     * Teaches the fraud rules an outgoing movement that went ahead.
+     */
+    private void learnOutgoing(Account source, Account target, double amount) {
+        FraudRuleEngine engine = fraudRuleEngine;
+        if (engine != null && source != null) {
+            engine.record(source.getAccountNumber(), target == null ? -1 : target.getAccountNumber(),
+                    Math.round(amount * 100));
+        }
+    }
+
+    /**
+     * Records a completed movement in the history of every account involved and,
+     * if it succeeded, posts it to the ledger.
+     * Requests that never formed a valid transaction (non-positive amount,
+     * transfer to self) are not recorded.
+     */
+    private void record(Transaction.TransactionType type, double amount, Account source, Account target,
+                        boolean success) {
+        if (amount <= 0 || source == target) {
+            return;
+        }
+        if (success) {
+            learnOutgoing(source, target, amount);
+        }
+        TransactionArena arena = transactionArena;
+        if (arena != null && recordInArena(arena, null, type, amount, source, target, success)) {
+            return;
+        }
+        Transaction transaction = newTransaction(type, amount, source, target);
+        if (success) {
+            transaction.markSuccess();
+            ledger.post(transaction);
+        } else {
+            transaction.markFailed();
+        }
+        addToHistories(transaction, source, target);
+    }
+
+    /**
+     * Records a movement into the arena, as {@link #record} would with an object.
+     *
+     * @param transactionId Caller-chosen ID, or null for one derived from the record
+     * @return false if the arena is full and nothing was recorded
+     */
+    private boolean recordInArena(TransactionArena arena, String transactionId, Transaction.TransactionType type,
+                                  double amount, Account source, Account target, boolean success) {
+        long record = arena.record(type,
+                success ? Transaction.TransactionStatus.SUCCESS : Transaction.TransactionStatus.FAILED,
+                amount, source, target, transactionId);
+        if (record == TransactionArena.NONE) {
+            return false;
+        }
+        if (success) {
+            ledger.postMovement(arena, record, transactionId,
+                    source == null ? Ledger.CASH_ACCOUNT : source.getAccountNumber(),
+                    target == null ? Ledger.CASH_ACCOUNT : target.getAccountNumber(), Math.round(amount * 100));
+        }
+        TieredHistoryStore store = historyStore;
+        if (source != null) {
+            source.addRecordedTransaction(arena, record);
+            if (store != null) {
+                store.archiveIfNeeded(source);
+            }
+        }
+        if (target != null) {
+            target.addRecordedTransaction(arena, record);
+            if (store != null) {
+                store.archiveIfNeeded(target);
+            }
+        }
+        if (changeListener != null) {
+            published(arena.materialize(record), source, target);
+        }
+        return true;
+    }
+
+    private static Transaction newTransaction(Transaction.TransactionType type, double amount,
+                                              Account source, Account target) {
+        return new Transaction(type, amount,
+                source == null ? null : source.getAccountNumber(),
+                target == null ? null : target.getAccountNumber());
+    }
+
+    private void addToHistories(Transaction transaction, Account source, Account target) {
+        TieredHistoryStore store = historyStore;
+        if (source != null) {
+            source.addTransaction(transaction);
+            if (store != null) {
+                store.archiveIfNeeded(source);
+            }
+        }
+        if (target != null) {
+            target.addTransaction(transaction);
+            if (store != null) {
+                store.archiveIfNeeded(target);
+            }
+        }
+        published(transaction, source, target);
+    }
+
+    /**
+     * Applies per-account limits before any balance is touched.
+     * Invalid amounts are left for the account itself to reject.
+     */
+    private OperationResult admitOutgoing(Account account, double amount) {
+        AccountLimiter limiter = accountLimiter;
+        if (limiter == null || amount <= 0) {
+            return OperationResult.SUCCESS;
+        }
+        return limiter.acquire(account.getAccountNumber(), Math.round(amount * 100));
+    }
+
+    private void releaseOutgoing(Account account, double amount) {
+        AccountLimiter limiter = accountLimiter;
+        if (limiter != null && amount > 0) {
+            limiter.refund(account.getAccountNumber(), Math.round(amount * 100));
+        }
+    }
+
+    // ===== Holds =====
+
+    /**
+     * Authorises a payment by holding funds on an account's available balance.
+     * The ledger balance does not change until the hold is captured.
+     *
+     * @param account Account to hold funds on
+     * @param amount  Amount to hold
+     * @param ttl     How long until the hold is released automatically
+     * @return The hold, or null if the account is not verified or has too little available
+     */
+    public Hold placeHold(Account account, double amount, Duration ttl) {
+        return onShard(account, () -> holdManager.place(account, amount, ttl));
+    }
+
+    /**
+     * Captures a hold and records it as a withdrawal.
+     *
+     * @param holdId Hold ID
+     * @return true if captured, false if the hold is unknown, expired or already settled
+     */
+    public boolean captureHold(String holdId) {
+        Hold active = holdManager.find(holdId);
+        return active != null && onShard(active.getAccount(), () -> {
+            Hold hold = holdManager.capture(holdId);
+            if (hold == null) {
+                return false;
+            }
+            record(Transaction.TransactionType.WITHDRAW, hold.getAmount(), hold.getAccount(), null, true);
+            return true;
+        });
+    }
+
+    /**
+     * Releases a hold, returning its funds to the available balance.
+     *
+     * @param holdId Hold ID
+     * @return true if released, false if the hold is unknown, expired or already settled
+     */
+    public boolean releaseHold(String holdId) {
+        Hold active = holdManager.find(holdId);
+        return active != null && onShard(active.getAccount(), () -> holdManager.release(holdId));
+    }
+
+    /**
+     * Finds an active hold.
+     *
+     * @param holdId Hold ID
+     * @return Active hold or null
+     */
+    public Hold findHold(String holdId) {
+        return holdManager.find(holdId);
+    }
+
+    // ===== Accruals =====
+
+    /**
+     * Credits interest or charges a fee under a caller-chosen transaction ID. The balance
+     * change, the history entry and the ledger posting are made together, so a batch job
+     * that stops part-way leaves no movement unrecorded, and a deterministic ID lets a rerun
+     * recognise the movements it already made.
+     *
+     * @param transactionId ID of the transaction to record
+     * @param type          INTEREST (credited) or FEE (debited from the available balance)
+     * @param account       Account to credit or charge
+     * @param amount        Amount
+     * @return true if the balance changed and the transaction was recorded, false if the
+     *         account refused it (status or funds)
+     */
+    public boolean postAccrual(String transactionId, Transaction.TransactionType type, Account account, double amount) {
+        return onShard(account, () -> applyAccrual(transactionId, type, account, amount));
+    }
+
+    /**
+     * An interest credit or fee debit for {@link #postAccruals}.
+     *
+     * @param transactionId Deterministic transaction ID
+     * @param type          {@code INTEREST} or {@code FEE}
+     * @param account       Account to credit or charge
+     * @param cents         Amount in whole cents
+     */
+    public record Accrual(String transactionId, Transaction.TransactionType type, Account account, long cents) {
+    }
+
+    /**
+     * Posts a batch of accruals like {@link #postAccrual}. Each shard is handed its share of
+     * the batch as one task instead of one call per posting, and applies it in batch order.
+     *
+     * @param accruals Accruals to post
+     * @return Per accrual, whether it was posted
+     */
+    public boolean[] postAccruals(List<Accrual> accruals) {
+        boolean[] posted = new boolean[accruals.size()];
+        ShardGroup group = shards;
+        if (group == null || group.isShardThread()) {
+            applyAccruals(accruals, posted, null, -1);
+            return posted;
+        }
+        List<CompletableFuture<Void>> parts = new ArrayList<>(group.size());
+        for (int shard = 0; shard < group.size(); shard++) {
+            for (Accrual accrual : accruals) {
+                int number = accrual.account().getAccountNumber();
+                if (group.shardOf(number) == shard) {
+                    int owner = shard;
+                    parts.add(group.submit(number, () -> {
+                        applyAccruals(accruals, posted, group, owner);
+                        return null;
+                    }));
+                    break;
+                }
+            }
+        }
+        // Joining publishes every shard's writes to posted
+        for (CompletableFuture<Void> part : parts) {
+            ShardGroup.join(part);
+        }
+        return posted;
+    }
+
+    private void applyAccruals(List<Accrual> accruals, boolean[] posted, ShardGroup group, int shard) {
+        for (int i = 0; i < accruals.size(); i++) {
+            Accrual accrual = accruals.get(i);
+            if (group == null || group.shardOf(accrual.account().getAccountNumber()) == shard) {
+                // Whole cents convert back to the same cents exactly
+                posted[i] = applyAccrual(accrual.transactionId(), accrual.type(), accrual.account(),
+                        accrual.cents() / 100.0);
+            }
+        }
+    }
+
+    private boolean applyAccrual(String transactionId, Transaction.TransactionType type, Account account,
+                                 double amount) {
+        boolean interest = switch (type) {
+            case INTEREST -> true;
+            case FEE -> false;
+            default -> throw new IllegalArgumentException("Not an accrual: " + type);
+        };
+        if (!(interest ? account.deposit(amount) : account.withdraw(amount))) {
+            return false;
+        }
+        Account source = interest ? null : account;
+        Account target = interest ? account : null;
+        TransactionArena arena = transactionArena;
+        if (arena != null && recordInArena(arena, transactionId, type, amount, source, target, true)) {
+            return true;
+        }
+        Integer number = account.getAccountNumber();
+        Transaction transaction = new Transaction(transactionId, type, amount, interest ? null : number,
+                interest ? number : null);
+        transaction.markSuccess();
+        ledger.post(transaction);
+        addToHistories(transaction, source, target);
+        return true;
+    }
+
+    /**
+     * Checks whether an account already recorded a transaction, in memory or in the archive,
+     * e.g. before re-posting a charge on a resumed run. The archive is consulted only if its
+     * filters may hold the ID, so a negative answer never touches disk.
+     *
+     * @param account       Account the transaction would belong to
+     * @param transactionId Transaction ID
+     * @return true if the account's history holds the ID
+     */
+    public boolean hasTransaction(Account account, String transactionId) {
+        if (account.findInMemoryTransaction(transactionId) != null) {
+            return true;
+        }
+        // Checked after memory, so a record archived in between is still found
+        TieredHistoryStore store = historyStore;
+        return store != null && store.mightContain(transactionId) && store.findTransaction(transactionId) != null;
+    }
+
+    // ===== Pending Transactions =====
+
+    /**
+     * Gets every transaction currently held for review.
+     *
+     * @return List of pending transactions
+     */
+    public List<Transaction> getPendingTransactions() {
+        return List.copyOf(pendingTransactions.values());
+    }
+
+    /**
+     * Finds a pending transaction by ID without scanning account histories.
+     *
+     * @param transactionId Transaction ID
+     * @return Pending transaction or null if none has that ID
+     */
+    public Transaction findPendingTransaction(String transactionId) {
+        return transactionId == null ? null : pendingTransactions.get(transactionId);
+    }
+
+    /**
+     * Decides a pending transaction and settles its held funds.
+     * Approval captures the hold and credits the target (for transfers) in one step; if the
+     * target can no longer accept funds the hold is released and the transaction
+     * fails. Rejection releases the hold. Either way a transaction that does not go ahead
+     * gives its amount back to the source's daily limit. Balance and status changes
+     * happen under the transaction's monitor, so each transaction is settled exactly once.
+     *
+     * @param transaction Pending transaction
+     * @param approve     true to approve, false to reject
+     * @return true if the transaction ended in the requested state
+     */
+    public boolean settlePendingTransaction(Transaction transaction, boolean approve) {
+        if (transaction == null) {
+            return false;
+        }
+        return onShard(findAccount(transaction.getSourceAccountNumber()), () -> settle(transaction, approve));
+    }
+
+    private boolean settle(Transaction transaction, boolean approve) {
+        synchronized (transaction) {
+            if (!transaction.isPending()) {
+                return false;
+            }
+            Account source = findAccount(transaction.getSourceAccountNumber());
+            Account target = transaction.getTargetAccountNumber() == null
+                    ? null : findAccount(transaction.getTargetAccountNumber());
+            double amount = transaction.getAmount();
+            boolean captured = false;
+            if (approve && target == null) {
+                source.captureHold(amount);
+                captured = true;
+            } else if (approve) {
+                captured = source.captureHoldTo(target, amount);
+            }
+            if (captured) {
+                transaction.approve();
+                ledger.post(transaction);
+                learnOutgoing(source, target, amount);
+            } else {
+                source.releaseHold(amount);
+                releaseOutgoing(source, amount);
+                transaction.reject();
+            }
+            pendingTransactions.remove(transaction.getTransactionId());
+            published(transaction, source, target);
+            return captured == approve;
+        }
+    }
+
+    /**
+     * Applies a transaction shipped from a primary node. Balances are not touched; they
+     * arrive as account state. A PENDING transaction is held for review under its original
+     * ID, and a later event for the same ID settles that held copy; anything else is added
+     * to the histories and, if it succeeded, posted to the ledger.
+     *
+     * @param transaction Transaction as the primary reported it
+     */
+    public void applyReplicated(Transaction transaction) {
+        Account source = transaction.getSourceAccountNumber() == null
+                ? null : findAccount(transaction.getSourceAccountNumber());
+        Account target = transaction.getTargetAccountNumber() == null
+                ? null : findAccount(transaction.getTargetAccountNumber());
+        Transaction held = pendingTransactions.get(transaction.getTransactionId());
+        if (held != null) {
+            synchronized (held) {
+                if (!held.isPending() || transaction.isPending()) {
+                    return;
+                }
+                if (transaction.isSuccessful()) {
+                    held.approve();
+                    ledger.post(held);
+                } else {
+                    held.reject();
+                }
+            }
+            pendingTransactions.remove(held.getTransactionId());
+            published(held, source, target);
+            return;
+        }
+        if (transaction.isSuccessful()) {
+            ledger.post(transaction);
+        }
+        addToHistories(transaction, source, target);
+        if (transaction.isPending()) {
+            pendingTransactions.put(transaction.getTransactionId(), transaction);
+        }
+    }
+
+    /**
+     * Gets the transaction history for an account.
+     *
+     * @param account Account to get history for
+     * @return List of transactions
+     */
+    public List<Transaction> getTransactionHistory(Account account) {
+        if (account == null) {
+            return List.of();
+        }
+        return account.getTransactionHistory();
+    }
+
+    /**
+     * Gets one page of the transaction history for an account, oldest first.
+     *
+     * @param account Account to get history for
+     * @param offset  Index of the first transaction to return
+     * @param limit   Maximum number of transactions to return
+     * @return List of at most {@code limit} transactions
+     */
+    public List<Transaction> getTransactionHistory(Account account, int offset, int limit) {
+        if (account == null || offset < 0 || limit <= 0) {
+            return List.of();
+        }
+        return account.getTransactionHistory(offset, limit);
+    }
+
+    /**
+     * Gets the number of transactions recorded for an account.
+     *
+     * @param account Account to count
+     * @return Number of transactions
+     */
+    public int getTransactionCount(Account account) {
+        if (account == null) {
+            return 0;
+        }
+        return account.getTransactionCount();
+    }
+
+    /**
+     * Gets the current logged-in user's accounts.
+     *
+     * @return List of accounts for current user
+     */
+    public List<Account> getCurrentUserAccounts() {
+        User currentUser = userController.getCurrentUser();
+        if (currentUser == null) {
+            return List.of();
+        }
+        return currentUser.getAccounts();
+    }
+
+    /**
+     * Gets all accounts in the system (for admin purposes).
+     *
+     * @return Map of all accounts
+     */
+    public Map<Integer, Account> getAllAccounts() {
+        return new HashMap<>(accountRegistry);
+    }
+}
+
@@ -0,0 +1,322 @@
+package org.example.controllers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.example.history.TieredHistoryStore;
+import org.example.model.Account;
+import org.example.model.Transaction;
+import org.example.model.TransactionArena;
+import org.example.model.User;
+
+/**
+ * Controller for administrative operations.
+ * Handles account verification, transaction approval, and system-wide queries.
+ */
+public class AdminController {
+    private final UserController userController;
+    private final AccountController accountController;
+    private final List<Consumer<StatusChange>> statusChangeListeners = new CopyOnWriteArrayList<>();
+
+    public AdminController(UserController userController, AccountController accountController) {
+        this.userController = userController;
+        this.accountController = accountController;
+    }
+
+    /**
+     * Verifies an unverified account.
+     *
+     * @param accountNumber Account number to verify
+     * @return true if verification successful, false otherwise
+     */
+    public boolean verifyAccount(int accountNumber) {
+        return changeStatus(StatusAction.VERIFY, accountNumber);
+    }
+
+    /**
+     * Suspends an account.
+     *
+     * @param accountNumber Account number to suspend
+     * @return true if suspension successful, false otherwise
+     */
+    public boolean suspendAccount(int accountNumber) {
+        return changeStatus(StatusAction.SUSPEND, accountNumber);
+    }
+
+    /**
+     * Appeals a suspended account (reactivates it).
+     *
+     * @param accountNumber Account number to appeal
+     * @return true if appeal successful, false otherwise
+     */
+    public boolean appealAccount(int accountNumber) {
+        return changeStatus(StatusAction.APPEAL, accountNumber);
+    }
+
+    /**
+     * Closes an account.
+     *
+     * @param accountNumber Account number to close
+     * @return true if closure successful, false otherwise
+     */
+    public boolean closeAccount(int accountNumber) {
+        return changeStatus(StatusAction.CLOSE, accountNumber);
+    }
+
+    /**
+     * Applies a status transition to one account.
+     *
+     * @param action        Transition to apply
+     * @param accountNumber Account number
+     * @return true if the status changed, false if the account is unknown or in the wrong state
+     */
+    public boolean changeStatus(StatusAction action, int accountNumber) {
+        boolean changed = apply(action, accountNumber);
+        if (changed) {
+            notifyStatusChange(new StatusChange(action, List.of(accountNumber)));
+        }
+        return changed;
+    }
+
+    /**
+     * Applies a status transition to a batch of accounts in parallel.
+     * Each account changes independently; one failure does not affect the rest.
+     * Listeners get a single notification covering every account that changed.
+     *
+     * @param action         Transition to apply
+     * @param accountNumbers Account numbers
+     * @return Account numbers split into changed and failed, in request order
+     */
+    public BatchResult<Integer> changeStatus(StatusAction action, Collection<Integer> accountNumbers) {
+        List<Integer> numbers = List.copyOf(accountNumbers);
+        boolean[] outcomes = new boolean[numbers.size()];
+        IntStream.range(0, numbers.size()).parallel()
+                .forEach(i -> outcomes[i] = apply(action, numbers.get(i)));
+
+        List<Integer> succeeded = new ArrayList<>();
+        List<Integer> failed = new ArrayList<>();
+        for (int i = 0; i < outcomes.length; i++) {
+            (outcomes[i] ? succeeded : failed).add(numbers.get(i));
+        }
+        if (!succeeded.isEmpty()) {
+            notifyStatusChange(new StatusChange(action, List.copyOf(succeeded)));
+        }
+        return new BatchResult<>(succeeded, failed);
+    }
+
+    /**
+     * Applies a status transition to every account matching a predicate, e.g. all accounts in a status.
+     *
+     * @param action   Transition to apply
+     * @param selector Accounts to change
+     * @return Account numbers split into changed and failed, in account-number order
+     */
+    public BatchResult<Integer> changeStatus(StatusAction action, Predicate<Account> selector) {
+        List<Integer> numbers = accountController.getAllAccounts().values().stream()
+                .filter(selector)
+                .map(Account::getAccountNumber)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+        return changeStatus(action, numbers);
+    }
+
+    /**
+     * Registers a listener for status changes made through this controller.
+     * Listeners run on the thread that made the change.
+     *
+     * @param listener Listener to add
+     */
+    public void addStatusChangeListener(Consumer<StatusChange> listener) {
+        statusChangeListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addStatusChangeListener}.
+     *
+     * @param listener Listener to remove
+     */
+    public void removeStatusChangeListener(Consumer<StatusChange> listener) {
+        statusChangeListeners.remove(listener);
+    }
+
+    private boolean apply(StatusAction action, Integer accountNumber) {
+        Account account = accountNumber == null ? null : accountController.findAccount(accountNumber);
+        return accountController.changeStatus(account, action);
+    }
+
+    private void notifyStatusChange(StatusChange change) {
+        for (Consumer<StatusChange> listener : statusChangeListeners) {
+            listener.accept(change);
+        }
+    }
+
+    /**
+     * Gets all unverified accounts in the system.
+     *
+     * @return List of unverified accounts
+     */
+    public List<Account> getUnverifiedAccounts() {
+        List<Account> unverified = new ArrayList<>();
+        Map<Integer, Account> allAccounts = accountController.getAllAccounts();
+
+        for (Account account : allAccounts.values()) {
+            if (account.getStatus() == Account.AccountStatus.UNVERIFIED) {
+                unverified.add(account);
+            }
+        }
+
+        return unverified;
+    }
+
+    /**
+     * Gets all pending transactions across all accounts.
+     *
+     * @return List of pending transactions
+     */
+    public List<Transaction> getPendingTransactions() {
+        return accountController.getPendingTransactions();
+    }
+
+    /**
+     * Approves a pending transaction, settling its held funds.
+     *
+     * @param transactionId Transaction ID to approve
+     * @return true if approval successful, false otherwise
+     */
+    public boolean approveTransaction(String transactionId) {
+        return decide(transactionId, true);
+    }
+
+    /**
+     * Rejects a pending transaction, releasing its held funds.
+     *
+     * @param transactionId Transaction ID to reject
+     * @return true if rejection successful, false otherwise
+     */
+    public boolean rejectTransaction(String transactionId) {
+        return decide(transactionId, false);
+    }
+
+    /**
+     * Approves a batch of pending transactions in parallel.
+     * Each transaction is settled independently; one failure does not affect the rest.
+     *
+     * @param transactionIds Transaction IDs to approve
+     * @return IDs split into approved and failed, in request order
+     */
+    public BatchResult<String> approveTransactions(Collection<String> transactionIds) {
+        return decideAll(transactionIds, true);
+    }
+
+    /**
+     * Rejects a batch of pending transactions in parallel.
+     *
+     * @param transactionIds Transaction IDs to reject
+     * @return IDs split into rejected and failed, in request order
+     */
+    public BatchResult<String> rejectTransactions(Collection<String> transactionIds) {
+        return decideAll(transactionIds, false);
+    }
+
+    private boolean decide(String transactionId, boolean approve) {
+        Transaction transaction = accountController.findPendingTransaction(transactionId);
+        if (transaction == null) {
+            return false;
+        }
+
+        try {
+            return accountController.settlePendingTransaction(transaction, approve);
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private BatchResult<String> decideAll(Collection<String> transactionIds, boolean approve) {
+        List<String> ids = List.copyOf(transactionIds);
+        boolean[] outcomes = new boolean[ids.size()];
+        IntStream.range(0, ids.size()).parallel()
+                .forEach(i -> outcomes[i] = decide(ids.get(i), approve));
+
+        List<String> succeeded = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < outcomes.length; i++) {
+            (outcomes[i] ? succeeded : failed).add(ids.get(i));
+        }
+        return new BatchResult<>(succeeded, failed);
+    }
+
+    /**
+     * Finds a transaction by its ID across all accounts.
+     * IDs issued by a transaction arena are resolved directly from their record.
+     * With a history store, in-memory histories are searched first and archived history only
+     * in segments whose filter may hold the ID, so an unknown ID never touches disk.
+     *
+     * @param transactionId Transaction ID to find
+     * @return Transaction object or null if not found
+     */
+    public Transaction findTransaction(String transactionId) {
+        Transaction pending = accountController.findPendingTransaction(transactionId);
+        if (pending != null) {
+            return pending;
+        }
+        TransactionArena arena = accountController.getTransactionArena();
+        Transaction recorded = arena == null ? null : arena.find(transactionId);
+        if (recorded != null) {
+            return recorded;
+        }
+
+        Map<Integer, Account> allAccounts = accountController.getAllAccounts();
+        TieredHistoryStore store = accountController.getHistoryStore();
+        if (store != null) {
+            // The filters rule out the archive without touching disk, so try it before the hot histories
+            Transaction archived = store.findTransaction(transactionId);
+            if (archived != null) {
+                return archived;
+            }
+            for (Account account : allAccounts.values()) {
+                Transaction transaction = account.findInMemoryTransaction(transactionId);
+                if (transaction != null) {
+                    return transaction;
+                }
+            }
+            // Archived while the hot histories were scanned
+            return store.mightContain(transactionId) ? store.findTransaction(transactionId) : null;
+        }
+
+        for (Account account : allAccounts.values()) {
+            for (Transaction transaction : account.getTransactionHistory()) {
+                if (transaction.getTransactionId().equals(transactionId)) {
+                    return transaction;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets all users in the system.
+     *
+     * @return Map of all users
+     */
+    public Map<Integer, User> getAllUsers() {
+        return userController.getAllUsers();
+    }
+
+    /**
+     * Gets all accounts in the system.
+     *
+     * @return Map of all accounts
+     */
+    public Map<Integer, Account> getAllAccounts() {
+        return accountController.getAllAccounts();
+    }
+}
+
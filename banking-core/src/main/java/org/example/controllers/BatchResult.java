@@ -0,0 +1,21 @@
+package org.example.controllers;
+
+import java.util.List;
+
+/**
+ * Per-item outcome of a batch administrative operation.
+ *
+ * @param succeeded Items the operation was applied to, in request order
+ * @param failed    Items that were unknown or in the wrong state, in request order
+ * @param <K>       Item identifier type
+ */
+public record BatchResult<K>(List<K> succeeded, List<K> failed) {
+
+    public int successCount() {
+        return succeeded.size();
+    }
+
+    public int failureCount() {
+        return failed.size();
+    }
+}
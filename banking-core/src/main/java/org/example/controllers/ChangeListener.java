@@ -0,0 +1,28 @@
+package org.example.controllers;
+
+import org.example.model.Account;
+import org.example.model.Transaction;
+
+/**
+ * Receives every change an {@link AccountController} makes, whichever entry point made it:
+ * HTTP, the binary protocol, the pipeline, shards, batch jobs, scheduled transfers, hold
+ * expiry and review decisions alike. Called on the thread that made the change, after it.
+ */
+public interface ChangeListener {
+
+    /**
+     * A transaction was recorded, or a pending one was decided; the same ID is reported
+     * again with its final status.
+     *
+     * @param transaction Transaction as it now stands
+     */
+    void onTransaction(Transaction transaction);
+
+    /**
+     * An account's status or balances changed. Read {@link Account#getStateSnapshot()} for
+     * the new state; it may already include later changes, which are reported too.
+     *
+     * @param account Changed account
+     */
+    void onAccountChanged(Account account);
+}
@@ -0,0 +1,28 @@
+package org.example.controllers;
+
+import org.example.model.Account;
+
+/**
+ * Administrative account status transitions.
+ */
+public enum StatusAction {
+    VERIFY,
+    SUSPEND,
+    APPEAL,
+    CLOSE;
+
+    /**
+     * Applies the transition to an account.
+     *
+     * @param account Account to change
+     * @return true if the status changed, false if the transition is not allowed from its current status
+     */
+    public boolean apply(Account account) {
+        return switch (this) {
+            case VERIFY -> account.verify();
+            case SUSPEND -> account.suspend();
+            case APPEAL -> account.appeal();
+            case CLOSE -> account.close();
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.controllers;
+
+import java.util.List;
+
+/**
+ * Notification that an administrative action changed the status of one or more accounts.
+ * A batch produces one notification covering every account it changed.
+ *
+ * @param action         Transition applied
+ * @param accountNumbers Accounts whose status changed, in request order
+ */
+public record StatusChange(StatusAction action, List<Integer> accountNumbers) {
+}
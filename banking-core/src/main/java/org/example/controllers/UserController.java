@@ -1,7 +1,11 @@
 package org.example.controllers;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.example.model.Account;
 import org.example.model.User;
@@ -16,8 +20,8 @@ public class UserController {
     private User currentLoggedInUser;
 
     public UserController() {
-        this.userRegistry = new HashMap<>();
-        this.userByEmail = new HashMap<>();
+        this.userRegistry = new ConcurrentHashMap<>();
+        this.userByEmail = new ConcurrentHashMap<>();
         this.currentLoggedInUser = null;
     }
 
@@ -33,16 +37,15 @@ public class UserController {
     public boolean registerUser(String name, String email, String password, String phone) {
         try {
             // Check if email already exists
-            if (userByEmail.containsKey(email)) {
+            if (email != null && userByEmail.containsKey(email)) {
                 return false;
             }
 
-            // Create new user with CLIENT role
+            // Create new user with CLIENT role and store in registries
             User user = new User(name, User.Role.CLIENT, email, password, phone);
-            
-            // Store in registries
-            userRegistry.put(user.getUserId(), user);
-            userByEmail.put(email, user);
+            if (!addUser(user)) {
+                return false;
+            }
             
             // Auto-login the newly registered user
             currentLoggedInUser = user;
@@ -53,6 +56,41 @@ public class UserController {
         }
     }
 
+    /**
+     * Adds an already constructed user to the registries without logging them in.
+     * Used by data loaders that create users outside of the registration flow.
+     *
+     * @param user User to add
+     * @return true if added, false if the user is null or the email already exists
+     */
+    public boolean addUser(User user) {
+        if (user == null) {
+            return false;
+        }
+        if (userByEmail.putIfAbsent(user.getEmail(), user) != null) {
+            return false;
+        }
+        userRegistry.put(user.getUserId(), user);
+        return true;
+    }
+
+    /**
+     * Adds a batch of already constructed users without logging any of them in.
+     * Safe to call from several loader threads at once.
+     *
+     * @param users Users to add
+     * @return Users that were not added because their email already exists
+     */
+    public List<User> addUsers(Collection<User> users) {
+        List<User> duplicates = new ArrayList<>();
+        for (User user : users) {
+            if (!addUser(user)) {
+                duplicates.add(user);
+            }
+        }
+        return duplicates;
+    }
+
     /**
      * Creates a new account for the currently logged-in user.
      *
@@ -144,17 +182,32 @@ public class UserController {
      * @return true if login successful, false otherwise
      */
     public boolean login(String email, String password) {
-        User user = userByEmail.get(email);
+        User user = authenticate(email, password);
         if (user == null) {
             return false;
         }
-        
-        if (!user.getPassword().equals(password)) {
-            return false;
-        }
-        
+
         currentLoggedInUser = user;
         return true;
     }
+
+    /**
+     * Checks credentials without changing the current session.
+     * Used by callers that manage their own sessions, such as the HTTP API.
+     *
+     * @param email    User's email address
+     * @param password User's password
+     * @return The matching user, or null if the credentials are invalid
+     */
+    public User authenticate(String email, String password) {
+        if (email == null || password == null) {
+            return null;
+        }
+        User user = userByEmail.get(email);
+        if (user == null || !user.getPassword().equals(password)) {
+            return null;
+        }
+        return user;
+    }
 }
 
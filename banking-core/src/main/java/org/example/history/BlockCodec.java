@@ -0,0 +1,217 @@
+package org.example.history;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.example.model.Transaction;
+
+/**
+ * Compact binary encoding of a run of transactions.
+ * <pre>
+ *   varint count, then per transaction:
+ *   header   type | status &lt;&lt; 3 | has-reason &lt;&lt; 5 | uuid-id &lt;&lt; 6 | raw-amount &lt;&lt; 7
+ *   id       16 bytes if it is a canonical UUID, else varint length + UTF-8
+ *   time     zigzag varint of epoch nanos minus the previous transaction's
+ *   amount   zigzag varint of cents minus the previous whole-cent amount, or 8 raw bytes
+ *   source   varint account number + 1 (0 for none)
+ *   target   varint account number + 1 (0 for none)
+ *   reason   varint length + UTF-8, if present
+ * </pre>
+ * Consecutive transactions are usually close in time and often similar in amount, so the
+ * deltas mostly fit in a few bytes. Not thread-safe; the encode buffer is reused.
+ */
+final class BlockCodec {
+
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+    private static final Transaction.TransactionStatus[] STATUSES = Transaction.TransactionStatus.values();
+    private static final int HAS_REASON = 1 << 5;
+    private static final int UUID_ID = 1 << 6;
+    private static final int RAW_AMOUNT = 1 << 7;
+
+    private byte[] out = new byte[8192];
+    private int length;
+
+    /**
+     * Encodes transactions into the reused buffer.
+     *
+     * @return Number of bytes written to {@link #buffer()}
+     */
+    int encode(List<Transaction> transactions) {
+        length = 0;
+        writeVarint(transactions.size());
+        long previousTime = 0;
+        long previousCents = 0;
+        for (Transaction transaction : transactions) {
+            String id = transaction.getTransactionId();
+            UUID uuid = asUuid(id);
+            long cents = Math.round(transaction.getAmount() * 100);
+            boolean raw = cents / 100.0 != transaction.getAmount();
+            String reason = transaction.getReviewReason();
+
+            ensure(1);
+            out[length++] = (byte) (transaction.getType().ordinal() | transaction.getStatus().ordinal() << 3
+                    | (reason != null ? HAS_REASON : 0) | (uuid != null ? UUID_ID : 0) | (raw ? RAW_AMOUNT : 0));
+            if (uuid != null) {
+                writeLong(uuid.getMostSignificantBits());
+                writeLong(uuid.getLeastSignificantBits());
+            } else {
+                writeString(id);
+            }
+            long time = epochNanos(transaction.getTimestamp());
+            writeVarint(zigzag(time - previousTime));
+            previousTime = time;
+            if (raw) {
+                writeLong(Double.doubleToRawLongBits(transaction.getAmount()));
+            } else {
+                writeVarint(zigzag(cents - previousCents));
+                previousCents = cents;
+            }
+            writeAccount(transaction.getSourceAccountNumber());
+            writeAccount(transaction.getTargetAccountNumber());
+            if (reason != null) {
+                writeString(reason);
+            }
+        }
+        return length;
+    }
+
+    byte[] buffer() {
+        return out;
+    }
+
+    /**
+     * Decodes a block written by {@link #encode}.
+     */
+    static List<Transaction> decode(byte[] in) {
+        Reader reader = new Reader(in);
+        int count = (int) reader.varint();
+        Transaction[] transactions = new Transaction[count];
+        long time = 0;
+        long cents = 0;
+        for (int i = 0; i < count; i++) {
+            int header = in[reader.position++] & 0xFF;
+            String id = (header & UUID_ID) != 0
+                    ? new UUID(reader.fixedLong(), reader.fixedLong()).toString()
+                    : reader.string();
+            time += unzigzag(reader.varint());
+            double amount;
+            if ((header & RAW_AMOUNT) != 0) {
+                amount = Double.longBitsToDouble(reader.fixedLong());
+            } else {
+                cents += unzigzag(reader.varint());
+                amount = cents / 100.0;
+            }
+            Integer source = reader.account();
+            Integer target = reader.account();
+            String reason = (header & HAS_REASON) != 0 ? reader.string() : null;
+            transactions[i] = Transaction.restore(id, TYPES[header & 0x7], amount, source, target,
+                    LocalDateTime.ofEpochSecond(Math.floorDiv(time, 1_000_000_000L),
+                            (int) Math.floorMod(time, 1_000_000_000L), ZoneOffset.UTC),
+                    STATUSES[(header >> 3) & 0x3], reason);
+        }
+        return List.of(transactions);
+    }
+
+    private static UUID asUuid(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            // Only canonical lower-case form round-trips through toString
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long epochNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void writeAccount(Integer accountNumber) {
+        writeVarint(accountNumber == null ? 0 : accountNumber.longValue() + 1);
+    }
+
+    private void writeString(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, out, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeVarint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            out[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[length++] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+        ensure(Long.BYTES);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out[length++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (length + bytes > out.length) {
+            out = Arrays.copyOf(out, Math.max(out.length * 2, length + bytes));
+        }
+    }
+
+    private static final class Reader {
+        final byte[] in;
+        int position;
+
+        Reader(byte[] in) {
+            this.in = in;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = in[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        long fixedLong() {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = value << 8 | (in[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        String string() {
+            int length = (int) varint();
+            String text = new String(in, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+
+        Integer account() {
+            long value = varint();
+            return value == 0 ? null : (int) (value - 1);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.history;
+
+/**
+ * Fixed-size Bloom filter over strings, e.g. transaction IDs.
+ * Sized from the number of entries it is expected to hold and the false-positive rate wanted
+ * at that point; both determine its memory, reported by {@link #bitsPerEntry}. Double hashing
+ * derives all probe positions from one 64-bit hash of the string. Adds must not run
+ * concurrently with each other; lookups may run concurrently with anything.
+ */
+public final class BloomFilter {
+
+    private final long[] words;
+    private final long bits;
+    private final int hashes;
+
+    /**
+     * @param expectedEntries   Entries the filter is sized for
+     * @param falsePositiveRate False-positive rate once that many entries are in, e.g. 0.01
+     */
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing");
+        }
+        long requested = (long) Math.ceil(expectedEntries * bitsPerEntry(falsePositiveRate));
+        this.words = new long[(int) Math.max(1, (requested + 63) >>> 6)];
+        this.bits = (long) words.length << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedEntries * Math.log(2)));
+    }
+
+    /**
+     * Gets the filter size per entry, in bits, needed for a false-positive rate.
+     *
+     * @param falsePositiveRate Target false-positive rate
+     * @return Bits per entry, e.g. about 9.6 for 1%
+     */
+    public static double bitsPerEntry(double falsePositiveRate) {
+        return -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+    }
+
+    public void put(CharSequence key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = index(h1 + i * h2);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks whether a key may have been added.
+     *
+     * @return false if the key was definitely never added
+     */
+    public boolean mightContain(CharSequence key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the memory held by the bit array in bytes.
+     */
+    public long getByteSize() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    public int getHashCount() {
+        return hashes;
+    }
+
+    private long index(int combined) {
+        // Flip negative combinations so every probe lands in [0, bits)
+        return ((combined < 0 ? ~combined : combined) & 0xFFFFFFFFL) % bits;
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer.
+     */
+    private static long hash(CharSequence key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53ac24fL;
+        return hash ^ (hash >>> 33);
+    }
+}
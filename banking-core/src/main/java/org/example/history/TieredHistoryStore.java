@@ -0,0 +1,421 @@
+package org.example.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.metrics.Metrics;
+import org.example.model.Account;
+import org.example.model.HistoryBlock;
+import org.example.model.Transaction;
+
+/**
+ * Cold tier for account histories.
+ * <p>
+ * Each account keeps its most recent transactions in memory. Older ones are encoded by
+ * {@link BlockCodec} in blocks of a fixed number of transactions and appended to segment
+ * files in the store's directory; a segment is never rewritten, and a new one is started once
+ * it reaches {@link #SEGMENT_BYTES}. The account keeps only a small handle per block. Blocks
+ * are read back on demand and the decoded transactions of the most recently used ones are kept
+ * in an LRU cache, so paging through recent history rarely touches the disk and the heap used
+ * per account stays bounded however old the ledger gets.
+ * <p>
+ * Every segment also keeps an in-memory {@link BloomFilter} over the IDs it holds, and a
+ * segment is sealed early once it holds as many IDs as its filter was sized for. A lookup by
+ * ID ({@link #findTransaction}) only scans segments whose filter matches, so an ID that was
+ * never archived costs no disk access and one that was usually touches a single segment.
+ * <p>
+ * The block handles live in the accounts, so the segments are only meaningful to the process
+ * that wrote them; segment files left in the directory by an earlier process are deleted.
+ */
+public class TieredHistoryStore implements Closeable {
+
+    /** Transactions kept in memory per account by default. */
+    public static final int HOT_TRANSACTIONS = 1024;
+    /** Transactions per archived block by default. */
+    public static final int BLOCK_TRANSACTIONS = 256;
+    /** Decoded blocks cached by default. */
+    public static final int CACHED_BLOCKS = 1024;
+    /** Size at which a segment is sealed and the next one started. */
+    public static final long SEGMENT_BYTES = 64L << 20;
+    /** Transaction IDs each segment's filter is sized for by default. */
+    public static final int IDS_PER_SEGMENT = 1 << 20;
+    /** Filter false-positive rate at full segment by default. */
+    public static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private static final String SEGMENT_GLOB = "segment-*.seg";
+
+    private final Path directory;
+    private final int hotTransactions;
+    private final int blockTransactions;
+    private final int idsPerSegment;
+    private final double falsePositiveRate;
+    private final BlockCodec codec = new BlockCodec();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Map<Block, List<Transaction>> cache;
+    private final Set<Account> scheduled = ConcurrentHashMap.newKeySet();
+    private final ExecutorService archiver;
+    private final LongAdder archived;
+    private final LongAdder blocksWritten;
+    private final LongAdder blockReads;
+    private final LongAdder cacheHits;
+    private final LongAdder idLookups;
+    private final LongAdder segmentScans;
+    private final LongAdder falsePositives;
+    private Segment active;
+
+    public TieredHistoryStore(Path directory, Metrics metrics) throws IOException {
+        this(directory, HOT_TRANSACTIONS, BLOCK_TRANSACTIONS, CACHED_BLOCKS, metrics);
+    }
+
+    public TieredHistoryStore(Path directory, int hotTransactions, int blockTransactions, int cachedBlocks,
+                              Metrics metrics) throws IOException {
+        this(directory, hotTransactions, blockTransactions, cachedBlocks, IDS_PER_SEGMENT, FALSE_POSITIVE_RATE,
+                metrics);
+    }
+
+    /**
+     * @param directory         Directory for segment files; created if missing
+     * @param hotTransactions   Most recent transactions left in memory per account
+     * @param blockTransactions Transactions per archived block
+     * @param cachedBlocks      Decoded blocks kept in the LRU cache
+     * @param idsPerSegment     Transaction IDs per segment, which sizes each segment's filter
+     * @param falsePositiveRate Filter false-positive rate once a segment is full
+     * @param metrics           Registry for the {@code history.*} metrics
+     * @throws IOException if the directory cannot be prepared
+     */
+    public TieredHistoryStore(Path directory, int hotTransactions, int blockTransactions, int cachedBlocks,
+                              int idsPerSegment, double falsePositiveRate, Metrics metrics) throws IOException {
+        if (hotTransactions < 0 || blockTransactions < 1 || cachedBlocks < 1 || idsPerSegment < blockTransactions) {
+            throw new IllegalArgumentException("Invalid tier sizes");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        this.directory = Files.createDirectories(directory);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, SEGMENT_GLOB)) {
+            for (Path segment : stale) {
+                Files.delete(segment);
+            }
+        }
+        this.hotTransactions = hotTransactions;
+        this.blockTransactions = blockTransactions;
+        this.idsPerSegment = idsPerSegment;
+        this.falsePositiveRate = falsePositiveRate;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Block, List<Transaction>> eldest) {
+                return size() > cachedBlocks;
+            }
+        };
+        this.archiver = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "history-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.archived = metrics.counter("history.archived");
+        this.blocksWritten = metrics.counter("history.blocks_written");
+        this.blockReads = metrics.counter("history.block_reads");
+        this.cacheHits = metrics.counter("history.cache_hits");
+        this.idLookups = metrics.counter("history.id_lookups");
+        this.segmentScans = metrics.counter("history.segment_scans");
+        this.falsePositives = metrics.counter("history.filter_false_positives");
+        metrics.gauge("history.cached_blocks", () -> {
+            synchronized (cache) {
+                return cache.size();
+            }
+        });
+        metrics.gauge("history.segment_bytes", this::segmentBytes);
+        metrics.gauge("history.filter_bytes", this::filterBytes);
+        this.active = openSegment();
+    }
+
+    /**
+     * Moves the oldest in-memory transactions of an account to disk, in whole blocks, leaving
+     * at least the configured number of recent transactions in memory. Pending transactions
+     * and everything after them stay in memory until settled.
+     *
+     * @param account Account to archive
+     * @return Number of transactions archived
+     * @throws IOException if a block cannot be written
+     */
+    public synchronized int archive(Account account) throws IOException {
+        List<Transaction> candidates = account.getArchivableHistory(hotTransactions);
+        int full = candidates.size() / blockTransactions * blockTransactions;
+        if (full == 0) {
+            return 0;
+        }
+        List<HistoryBlock> blocks = new ArrayList<>(full / blockTransactions);
+        for (int from = 0; from < full; from += blockTransactions) {
+            blocks.add(write(candidates.subList(from, from + blockTransactions)));
+        }
+        account.archiveHistory(blocks);
+        archived.add(full);
+        return full;
+    }
+
+    /**
+     * Archives an account in the background once its in-memory history has grown by a block
+     * past the limit. Cheap enough to call after every recorded transaction.
+     *
+     * @param account Account that just recorded a transaction
+     */
+    public void archiveIfNeeded(Account account) {
+        if (account.getInMemoryTransactionCount() >= hotTransactions + blockTransactions
+                && scheduled.add(account)) {
+            archiver.execute(() -> {
+                scheduled.remove(account);
+                try {
+                    archive(account);
+                } catch (IOException e) {
+                    // Left in memory; the next recorded transaction retries
+                }
+            });
+        }
+    }
+
+    /**
+     * Finds an archived transaction by ID. Only segments whose filter may hold the ID are
+     * scanned, reading their blocks from disk unless cached; scanned blocks are not added to
+     * the cache, so a lookup does not evict the blocks recent reads depend on.
+     *
+     * @param transactionId Transaction ID
+     * @return Transaction, or null if no archived block holds it
+     */
+    public Transaction findTransaction(String transactionId) {
+        idLookups.increment();
+        for (Segment segment : segments) {
+            if (!segment.filter.mightContain(transactionId)) {
+                continue;
+            }
+            segmentScans.increment();
+            int count = segment.blockCount;
+            Block[] blocks = segment.blocks;
+            for (int i = 0; i < count; i++) {
+                for (Transaction transaction : peek(blocks[i])) {
+                    if (transaction.getTransactionId().equals(transactionId)) {
+                        return transaction;
+                    }
+                }
+            }
+            falsePositives.increment();
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether an ID may be in the archive without touching disk, e.g. to skip a
+     * duplicate check that would otherwise have to scan cold history.
+     *
+     * @param transactionId Transaction ID
+     * @return false if no archived block holds the ID
+     */
+    public boolean mightContain(String transactionId) {
+        for (Segment segment : segments) {
+            if (segment.filter.mightContain(transactionId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reports the filter configuration, its memory cost and how lookups have fared.
+     */
+    public FilterStats getFilterStats() {
+        double bitsPerId = BloomFilter.bitsPerEntry(falsePositiveRate);
+        return new FilterStats(falsePositiveRate, bitsPerId, (long) Math.ceil(bitsPerId * 1_000_000 / 8),
+                segments.size(), filterBytes(), idLookups.sum(), segmentScans.sum(), falsePositives.sum());
+    }
+
+    /**
+     * Bloom filter configuration and effect.
+     *
+     * @param falsePositiveRate   Configured rate per segment once full
+     * @param bitsPerId           Filter bits per archived ID
+     * @param bytesPerMillionIds  Filter memory per million archived IDs
+     * @param segments            Segments, each with its own filter
+     * @param filterBytes         Memory held by all filters
+     * @param lookups             Lookups by ID
+     * @param segmentScans        Segments scanned because their filter matched
+     * @param falsePositives      Scans that did not find the ID
+     */
+    public record FilterStats(double falsePositiveRate, double bitsPerId, long bytesPerMillionIds, int segments,
+                              long filterBytes, long lookups, long segmentScans, long falsePositives) {
+    }
+
+    /**
+     * Stops the background archiver and closes the segment files.
+     * Archived blocks can no longer be read afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        archiver.shutdown();
+        synchronized (this) {
+            for (Segment segment : segments) {
+                segment.channel.close();
+            }
+        }
+    }
+
+    private Block write(List<Transaction> transactions) throws IOException {
+        if (active.size >= SEGMENT_BYTES || active.ids + transactions.size() > idsPerSegment) {
+            active = openSegment();
+        }
+        int length = codec.encode(transactions);
+        ByteBuffer bytes = ByteBuffer.wrap(codec.buffer(), 0, length);
+        long offset = active.size;
+        while (bytes.hasRemaining()) {
+            offset += active.channel.write(bytes, offset);
+        }
+        Block block = new Block(active, active.size, length, transactions.size());
+        active.size = offset;
+        active.add(block, transactions);
+        blocksWritten.increment();
+        return block;
+    }
+
+    private List<Transaction> load(Block block) {
+        synchronized (cache) {
+            List<Transaction> cached = cache.get(block);
+            if (cached != null) {
+                cacheHits.increment();
+                return cached;
+            }
+        }
+        // Read and decode outside the cache lock; two readers of the same block may both decode it
+        List<Transaction> transactions = read(block);
+        synchronized (cache) {
+            cache.put(block, transactions);
+        }
+        return transactions;
+    }
+
+    /**
+     * Gets a block's transactions from the cache or disk without caching them.
+     */
+    private List<Transaction> peek(Block block) {
+        synchronized (cache) {
+            List<Transaction> cached = cache.get(block);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return read(block);
+    }
+
+    private List<Transaction> read(Block block) {
+        ByteBuffer bytes = ByteBuffer.allocate(block.length);
+        try {
+            while (bytes.hasRemaining()) {
+                if (block.segment.channel.read(bytes, block.offset + bytes.position()) < 0) {
+                    throw new IOException("Segment truncated");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read history block from " + block.segment.path, e);
+        }
+        blockReads.increment();
+        return BlockCodec.decode(bytes.array());
+    }
+
+    private Segment openSegment() throws IOException {
+        Path path = directory.resolve(String.format("segment-%05d.seg", segments.size()));
+        Segment segment = new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), new BloomFilter(idsPerSegment, falsePositiveRate));
+        segments.add(segment);
+        return segment;
+    }
+
+    private long segmentBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.size;
+        }
+        return total;
+    }
+
+    private long filterBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.filter.getByteSize();
+        }
+        return total;
+    }
+
+    /**
+     * An append-only segment file with the filter and list of its blocks. Only the archiving
+     * thread, holding the store lock, appends; lookups read the block count before the array.
+     */
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        final BloomFilter filter;
+        Block[] blocks = new Block[16];
+        volatile int blockCount;
+        volatile long size;
+        int ids;
+
+        Segment(Path path, FileChannel channel, BloomFilter filter) {
+            this.path = path;
+            this.channel = channel;
+            this.filter = filter;
+        }
+
+        void add(Block block, List<Transaction> transactions) {
+            for (Transaction transaction : transactions) {
+                filter.put(transaction.getTransactionId());
+            }
+            ids += transactions.size();
+            if (blockCount == blocks.length) {
+                blocks = Arrays.copyOf(blocks, blocks.length * 2);
+            }
+            blocks[blockCount] = block;
+            blockCount++;
+        }
+    }
+
+    /**
+     * Handle to one archived block, kept by the account in place of its transactions.
+     */
+    private final class Block implements HistoryBlock {
+        final Segment segment;
+        final long offset;
+        final int length;
+        final int count;
+
+        Block(Segment segment, long offset, int length, int count) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.count = count;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public List<Transaction> load() {
+            return TieredHistoryStore.this.load(this);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.ledger;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+import org.example.model.Account;
+
+/**
+ * Funds set aside on an account for a payment that is authorised now and settled later.
+ * A hold starts ACTIVE and moves to exactly one final state by compare-and-set, so a
+ * capture racing the expiry timer (or a release) settles the funds only once.
+ */
+public final class Hold {
+
+    private static final VarHandle STATUS;
+
+    static {
+        try {
+            STATUS = MethodHandles.lookup().findVarHandle(Hold.class, "status", HoldStatus.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public enum HoldStatus {
+        ACTIVE,
+        CAPTURED,
+        RELEASED,
+        EXPIRED
+    }
+
+    private final String holdId;
+    private final Account account;
+    private final double amount;
+    private final long expiresAtMillis;
+    private volatile HoldStatus status;
+    private volatile ScheduledFuture<?> expiry;
+
+    Hold(Account account, double amount, long expiresAtMillis) {
+        this.holdId = UUID.randomUUID().toString();
+        this.account = account;
+        this.amount = amount;
+        this.expiresAtMillis = expiresAtMillis;
+        this.status = HoldStatus.ACTIVE;
+    }
+
+    /**
+     * Moves an active hold to a final state.
+     *
+     * @param to Final state
+     * @return true if this call made the transition, false if the hold was already settled
+     */
+    boolean settle(HoldStatus to) {
+        return STATUS.compareAndSet(this, HoldStatus.ACTIVE, to);
+    }
+
+    void setExpiry(ScheduledFuture<?> expiry) {
+        this.expiry = expiry;
+    }
+
+    void cancelExpiry() {
+        ScheduledFuture<?> scheduled = expiry;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+    }
+
+    // ===== Getters =====
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public HoldStatus getStatus() {
+        return status;
+    }
+
+    public boolean isActive() {
+        return status == HoldStatus.ACTIVE;
+    }
+
+    @Override
+    public String toString() {
+        return "Hold{" +
+                "holdId='" + holdId + '\'' +
+                ", account=" + account.getAccountNumber() +
+                ", amount=" + amount +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.ledger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.example.metrics.Metrics;
+import org.example.model.Account;
+
+/**
+ * Places, captures, releases and expires balance holds.
+ * <p>
+ * Placing a hold is a CAS on the account's available balance and an insert into a
+ * {@link ConcurrentHashMap}; capture and release are a CAS on the hold's status. None of
+ * them take the account monitor, so authorisations do not queue behind deposits and
+ * withdrawals. Each hold schedules its own expiry on a single daemon timer thread, which
+ * releases the funds if the hold is still active when its time runs out.
+ */
+public class HoldManager {
+
+    private final Map<String, Hold> activeHolds = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor expiryTimer;
+    private final LongAdder placed;
+    private final LongAdder captured;
+    private final LongAdder released;
+    private final LongAdder expired;
+    private final Consumer<Account> changed;
+
+    /**
+     * @param metrics Registry for the {@code holds.*} counters and the active-hold gauge
+     */
+    public HoldManager(Metrics metrics) {
+        this(metrics, account -> { });
+    }
+
+    /**
+     * @param metrics Registry for the {@code holds.*} counters and the active-hold gauge
+     * @param changed Told about every account whose balances a hold changed, including on expiry
+     */
+    public HoldManager(Metrics metrics, Consumer<Account> changed) {
+        this.changed = changed;
+        this.expiryTimer = new ScheduledThreadPoolExecutor(1,
+                Thread.ofPlatform().daemon().name("hold-expiry").factory());
+        this.expiryTimer.setRemoveOnCancelPolicy(true);
+        this.placed = metrics.counter("holds.placed");
+        this.captured = metrics.counter("holds.captured");
+        this.released = metrics.counter("holds.released");
+        this.expired = metrics.counter("holds.expired");
+        metrics.gauge("holds.active", activeHolds::size);
+    }
+
+    /**
+     * Places a hold on an account's available balance.
+     *
+     * @param account Account to hold funds on
+     * @param amount  Amount to hold
+     * @param ttl     How long the hold lasts before it is released automatically
+     * @return The active hold, or null if the account is not verified or has too little available
+     */
+    public Hold place(Account account, double amount, Duration ttl) {
+        if (account == null || ttl == null || ttl.isNegative() || !account.placeHold(amount)) {
+            return null;
+        }
+        Hold hold = new Hold(account, amount, System.currentTimeMillis() + ttl.toMillis());
+        activeHolds.put(hold.getHoldId(), hold);
+        placed.increment();
+        changed.accept(account);
+        hold.setExpiry(expiryTimer.schedule(() -> {
+            if (settle(hold, Hold.HoldStatus.EXPIRED)) {
+                expired.increment();
+            }
+        }, ttl.toMillis(), TimeUnit.MILLISECONDS));
+        return hold;
+    }
+
+    /**
+     * Captures an active hold, taking its amount out of the account's ledger balance.
+     *
+     * @param holdId Hold ID
+     * @return The captured hold, or null if it is unknown or already settled
+     */
+    public Hold capture(String holdId) {
+        Hold hold = find(holdId);
+        if (hold == null || !settle(hold, Hold.HoldStatus.CAPTURED)) {
+            return null;
+        }
+        captured.increment();
+        return hold;
+    }
+
+    /**
+     * Releases an active hold, returning its amount to the available balance.
+     *
+     * @param holdId Hold ID
+     * @return true if released, false if it is unknown or already settled
+     */
+    public boolean release(String holdId) {
+        Hold hold = find(holdId);
+        if (hold == null || !settle(hold, Hold.HoldStatus.RELEASED)) {
+            return false;
+        }
+        released.increment();
+        return true;
+    }
+
+    /**
+     * Finds an active hold.
+     *
+     * @param holdId Hold ID
+     * @return Active hold or null
+     */
+    public Hold find(String holdId) {
+        return holdId == null ? null : activeHolds.get(holdId);
+    }
+
+    public int getActiveCount() {
+        return activeHolds.size();
+    }
+
+    /**
+     * Stops the expiry timer. Holds still active stay in place.
+     */
+    public void shutdown() {
+        expiryTimer.shutdownNow();
+    }
+
+    private boolean settle(Hold hold, Hold.HoldStatus to) {
+        if (!hold.settle(to)) {
+            return false;
+        }
+        activeHolds.remove(hold.getHoldId());
+        if (to == Hold.HoldStatus.CAPTURED) {
+            hold.getAccount().captureHold(hold.getAmount());
+        } else {
+            hold.getAccount().releaseHold(hold.getAmount());
+        }
+        changed.accept(hold.getAccount());
+        if (to != Hold.HoldStatus.EXPIRED) {
+            hold.cancelExpiry();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.ledger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.example.model.OperationResult;
+
+/**
+ * Bounded, time-expiring record of operation outcomes keyed by client idempotency key.
+ * <p>
+ * Entries live in two generations of {@link ConcurrentHashMap}. New keys go into the
+ * current generation; when it reaches half the capacity or gets older than the TTL it
+ * becomes the previous generation and the old previous one is dropped wholesale. This
+ * keeps memory bounded without per-entry eviction bookkeeping, and a lookup is at most
+ * two hash probes, so the hot path cost is a few hundred nanoseconds at most.
+ * <p>
+ * A key is claimed with an in-flight marker before the operation runs, so concurrent
+ * retries of the same request never execute twice; the losing caller sees
+ * {@link OperationResult#IN_PROGRESS}. The outcome is stored in the generation that holds
+ * the claim, and a claim still running when its generation is dropped is carried into the
+ * new one, so a slow operation never loses its outcome to rotation. Each entry also keeps a
+ * hash of the request, and the same key sent with a different request gets
+ * {@link OperationResult#IDEMPOTENCY_MISMATCH} instead of the first request's outcome.
+ * <p>
+ * Only outcomes that actually happened are remembered. An operation that throws, or that
+ * was turned away by throttling ({@link OperationResult#isTransient()}), releases its claim,
+ * so a retry with the same key runs again.
+ */
+public class IdempotencyCache {
+
+    private final int generationCapacity;
+    private final long ttlMillis;
+    private final IdempotencyLog log;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    /**
+     * @param result      Outcome, or null while the operation runs
+     * @param requestHash Hash of the request that claimed the key
+     */
+    private record Entry(OperationResult result, long createdAtMillis, int requestHash) {
+
+        static Entry inFlight(int requestHash) {
+            return new Entry(null, Long.MAX_VALUE, requestHash);
+        }
+
+        boolean isInFlight() {
+            return result == null;
+        }
+    }
+
+    private static final class Generation {
+        final ConcurrentHashMap<String, Entry> entries;
+        final long createdAtMillis;
+
+        Generation(int capacity, long createdAtMillis) {
+            this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+            this.createdAtMillis = createdAtMillis;
+        }
+    }
+
+    public IdempotencyCache(int capacity, Duration ttl) {
+        this(capacity, ttl, null);
+    }
+
+    /**
+     * Creates a cache that also appends completed outcomes to a log.
+     *
+     * @param capacity Maximum number of remembered keys
+     * @param ttl      How long an outcome is remembered
+     * @param log      Optional log for persistence across restarts (may be null)
+     */
+    public IdempotencyCache(int capacity, Duration ttl, IdempotencyLog log) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.generationCapacity = capacity / 2;
+        this.ttlMillis = ttl.toMillis();
+        this.log = log;
+        long now = System.currentTimeMillis();
+        this.current = new Generation(generationCapacity, now);
+        this.previous = new Generation(0, now);
+    }
+
+    /**
+     * Runs an operation at most once per key, without checking what the request was.
+     *
+     * @param key       Client-supplied idempotency key; null runs the operation unconditionally
+     * @param operation Operation to run on first sight of the key
+     * @return The operation's result, or the remembered result on replay
+     */
+    public OperationResult execute(String key, Supplier<OperationResult> operation) {
+        return execute(key, 0, operation);
+    }
+
+    /**
+     * Runs an operation at most once per key.
+     *
+     * @param key         Client-supplied idempotency key, scoped by the caller to the principal
+     *                    and operation; null runs the operation unconditionally
+     * @param requestHash Hash of the request's parameters
+     * @param operation   Operation to run on first sight of the key
+     * @return The operation's result, the remembered result on replay, or
+     *         IDEMPOTENCY_MISMATCH if the key was used for a different request
+     */
+    public OperationResult execute(String key, int requestHash, Supplier<OperationResult> operation) {
+        if (key == null) {
+            return operation.get();
+        }
+        long now = System.currentTimeMillis();
+        Entry claim = Entry.inFlight(requestHash);
+        while (true) {
+            Generation cur = rotateIfNeeded(now);
+            Entry remembered = live(previous.entries.get(key), now);
+            if (remembered != null) {
+                return resultOf(remembered, requestHash);
+            }
+            Entry existing = cur.entries.putIfAbsent(key, claim);
+            if (existing != null) {
+                if (live(existing, now) != null) {
+                    return resultOf(existing, requestHash);
+                }
+                // Expired entry: try to claim it
+                if (!cur.entries.replace(key, existing, claim)) {
+                    continue;
+                }
+            }
+            if (cur != current) {
+                // Generations rotated while claiming; a concurrent caller may have missed our marker
+                cur.entries.remove(key, claim);
+                continue;
+            }
+            return complete(cur, key, claim, operation);
+        }
+    }
+
+    /**
+     * Looks up a remembered outcome without running anything.
+     *
+     * @param key Idempotency key
+     * @return Remembered result, IN_PROGRESS if still running, or null if unknown
+     */
+    public OperationResult lookup(String key) {
+        long now = System.currentTimeMillis();
+        Entry entry = live(current.entries.get(key), now);
+        if (entry == null) {
+            entry = live(previous.entries.get(key), now);
+        }
+        return entry == null ? null : resultOf(entry, entry.requestHash);
+    }
+
+    /**
+     * Restores remembered outcomes from the log, skipping expired ones.
+     *
+     * @return Number of restored entries
+     * @throws IOException if the log cannot be read
+     */
+    public int restore() throws IOException {
+        if (log == null) {
+            return 0;
+        }
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        int[] restored = new int[1];
+        log.replay((key, result, requestHash, createdAt) -> {
+            if (createdAt > cutoff) {
+                rotateIfNeeded(System.currentTimeMillis()).entries.put(key, new Entry(result, createdAt, requestHash));
+                restored[0]++;
+            }
+        });
+        return restored[0];
+    }
+
+    /**
+     * Gets the number of remembered keys, including expired ones not yet dropped.
+     *
+     * @return Approximate size
+     */
+    public int size() {
+        return current.entries.size() + previous.entries.size();
+    }
+
+    private OperationResult complete(Generation generation, String key, Entry claim,
+                                     Supplier<OperationResult> operation) {
+        OperationResult result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            // Nothing was applied; let the client retry
+            release(generation, key, claim);
+            throw e;
+        }
+        if (result.isTransient()) {
+            release(generation, key, claim);
+            return result;
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(result, now, claim.requestHash);
+        try {
+            if (log != null) {
+                // Durable before any caller, this one or a retry, can see the outcome
+                log.append(key, result, claim.requestHash, now);
+            }
+        } finally {
+            generation.entries.put(key, entry);
+            if (current != generation) {
+                // Rotated while running: the claim may have been carried forward, so replace it there too
+                synchronized (this) {
+                    previous.entries.replace(key, claim, entry);
+                    current.entries.replace(key, claim, entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void release(Generation generation, String key, Entry claim) {
+        generation.entries.remove(key, claim);
+        synchronized (this) {
+            previous.entries.remove(key, claim);
+            current.entries.remove(key, claim);
+        }
+    }
+
+    private Generation rotateIfNeeded(long now) {
+        Generation cur = current;
+        if (cur.entries.size() < generationCapacity && now - cur.createdAtMillis < ttlMillis) {
+            return cur;
+        }
+        synchronized (this) {
+            if (current == cur) {
+                Generation next = new Generation(generationCapacity, now);
+                // Claims in the generation being dropped are still running; keep them visible
+                previous.entries.forEach((key, entry) -> {
+                    if (entry.isInFlight()) {
+                        next.entries.putIfAbsent(key, entry);
+                    }
+                });
+                previous = cur;
+                current = next;
+            }
+            return current;
+        }
+    }
+
+    private Entry live(Entry entry, long now) {
+        if (entry == null) {
+            return null;
+        }
+        return entry.isInFlight() || now - entry.createdAtMillis < ttlMillis ? entry : null;
+    }
+
+    private static OperationResult resultOf(Entry entry, int requestHash) {
+        if (entry.requestHash != requestHash) {
+            return OperationResult.IDEMPOTENCY_MISMATCH;
+        }
+        return entry.isInFlight() ? OperationResult.IN_PROGRESS : entry.result;
+    }
+}
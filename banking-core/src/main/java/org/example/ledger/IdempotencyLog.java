@@ -0,0 +1,183 @@
+package org.example.ledger;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.example.batch.TextFields;
+import org.example.model.OperationResult;
+
+/**
+ * Append-only log of idempotency outcomes, one line per completed operation:
+ * {@code createdAtMillis TAB result TAB requestHash TAB key}, with the key escaped by
+ * {@link TextFields}.
+ * <p>
+ * {@link #append} returns only once the line is on disk, so an outcome is never acknowledged
+ * and then forgotten by a restart. Appends are written under a short lock and forced outside
+ * it with group commit: one caller forces everything written so far while the others wait,
+ * and they find their lines already covered when their turn comes.
+ * <p>
+ * Only the last line may be unreadable, as a crash can leave it half-written; opening the log
+ * cuts such a line off before appending, and anything else unreadable fails the replay.
+ */
+public class IdempotencyLog implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Object syncLock = new Object();
+    private long written;
+    private long synced;
+
+    /**
+     * Receives entries during {@link #replay}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(String key, OperationResult result, int requestHash, long createdAtMillis);
+    }
+
+    public IdempotencyLog(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            this.written = completeLength(channel);
+            channel.truncate(written);
+            channel.position(written);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.synced = written;
+    }
+
+    /**
+     * Finds the length of the file up to and including its last line break, dropping a line a
+     * crash left half-written.
+     */
+    private static long completeLength(FileChannel channel) throws IOException {
+        ByteBuffer tail = ByteBuffer.allocate(4096);
+        long end = channel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - tail.capacity());
+            tail.clear().limit((int) (end - start));
+            while (tail.hasRemaining()) {
+                if (channel.read(tail, start + tail.position()) < 0) {
+                    throw new IOException("Idempotency log shrank while opening");
+                }
+            }
+            for (int i = tail.limit() - 1; i >= 0; i--) {
+                if (tail.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    /**
+     * Appends one completed outcome and forces it to disk.
+     *
+     * @param key             Idempotency key
+     * @param result          Outcome of the operation
+     * @param requestHash     Hash of the request that used the key
+     * @param createdAtMillis Completion time
+     */
+    public void append(String key, OperationResult result, int requestHash, long createdAtMillis) {
+        ByteBuffer line = ByteBuffer.wrap((createdAtMillis + "\t" + result.name() + "\t" + requestHash + "\t"
+                + TextFields.escape(key) + "\n").getBytes(StandardCharsets.UTF_8));
+        long end;
+        try {
+            synchronized (this) {
+                while (line.hasRemaining()) {
+                    written += channel.write(line);
+                }
+                end = written;
+            }
+            sync(end);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append idempotency entry", e);
+        }
+    }
+
+    /**
+     * Reads every entry written so far, including those appended by earlier runs.
+     *
+     * @param consumer Receives each entry in write order
+     * @throws IOException if the file cannot be read, or a line other than the last cannot be
+     *                     parsed
+     */
+    public void replay(EntryConsumer consumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            int number = 0;
+            String line = reader.readLine();
+            while (line != null) {
+                String following = reader.readLine();
+                number++;
+                String[] parts = line.split("\t", -1);
+                String key;
+                OperationResult result;
+                int requestHash;
+                long createdAt;
+                try {
+                    if (parts.length != 4) {
+                        throw new IllegalArgumentException("Expected 4 fields, got " + parts.length);
+                    }
+                    createdAt = Long.parseLong(parts[0]);
+                    result = OperationResult.valueOf(parts[1]);
+                    requestHash = Integer.parseInt(parts[2]);
+                    key = TextFields.read(parts[3]);
+                } catch (IllegalArgumentException e) {
+                    if (following != null) {
+                        throw new IOException("Corrupt idempotency log " + path + " at line " + number, e);
+                    }
+                    // Torn last line after a crash
+                    break;
+                }
+                consumer.accept(key, result, requestHash, createdAt);
+                line = following;
+            }
+        }
+    }
+
+    /**
+     * Forces everything appended so far to disk. {@link #append} already does; this is for
+     * callers syncing several logs together.
+     *
+     * @throws IOException if the file cannot be forced
+     */
+    public void flush() throws IOException {
+        long end;
+        synchronized (this) {
+            end = written;
+        }
+        sync(end);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void sync(long end) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= end) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                target = written;
+            }
+            channel.force(false);
+            synced = target;
+        }
+    }
+}
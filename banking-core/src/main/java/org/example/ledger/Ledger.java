@@ -0,0 +1,393 @@
+package org.example.ledger;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.metrics.Metrics;
+import org.example.model.Account;
+import org.example.model.AccountNumberIndex;
+import org.example.model.Transaction;
+import org.example.model.TransactionArena;
+
+/**
+ * Double-entry journal of every settled money movement.
+ * <p>
+ * Each movement becomes one {@link Entry} whose {@link Posting}s debit and credit customer
+ * accounts and the system {@link #CASH_ACCOUNT}, which stands for money entering and leaving
+ * the bank: a deposit credits the customer and debits cash, a withdrawal the reverse, and a
+ * transfer moves money between two customers without touching cash. An entry is checked to
+ * sum to zero before anything is appended; an unbalanced entry is refused and counted.
+ * Appending takes no lock: the entry claims its sequence number from an atomic counter, adds
+ * its postings to the accounts' {@link LongAdder} balances and fills its journal slot, which
+ * it then publishes with a release store, so any number of writers post in parallel and
+ * readers never wait on them.
+ * <p>
+ * The books are verified live against the accounts themselves: every account opened in the
+ * ledger adds each change of its balance to a running total as it makes it, and
+ * {@link #isBalanced()} compares that total with the cash the ledger has posted, at O(1).
+ * Money moved without a posting, or posted without being moved, shows up there at once.
+ * <p>
+ * The journal keeps the most recent entries in a fixed-size ring; posted balances cover
+ * every entry ever appended. A reader checks a slot's published sequence before and after
+ * copying it, and leaves out entries still being written.
+ */
+public class Ledger {
+
+    /** Account number of the system cash account; customer accounts start at 1000. */
+    public static final int CASH_ACCOUNT = 0;
+
+    /** Number of recent entries {@link #getJournal()} keeps by default. */
+    public static final int DEFAULT_JOURNAL_CAPACITY = 1 << 14;
+
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Map<Integer, LongAdder> postedBalances = new ConcurrentHashMap<>();
+    // Boxing-free front for postedBalances on the hot path
+    private final AccountNumberIndex<LongAdder> balanceIndex = new AccountNumberIndex<>();
+    // Sum of the balances the opened accounts actually hold, maintained by the accounts
+    private final LongAdder accountCents = new LongAdder();
+    private final AtomicLong sequence = new AtomicLong();
+    // Journal ring: slot (sequence - 1) % capacity holds either an entry or an arena movement.
+    // publishedSlots holds the sequence whose fields the slot holds, or its negation while
+    // they are being written.
+    private final long[] publishedSlots;
+    private final Entry[] entrySlots;
+    private final TransactionArena[] arenaSlots;
+    private final long[] recordSlots;
+    private final String[] idSlots;
+    private final int[] sourceSlots;
+    private final int[] targetSlots;
+    private final long[] centSlots;
+    private final LongAdder entries;
+    private final LongAdder postings;
+    private final LongAdder unbalanced;
+
+    /**
+     * One balanced journal entry.
+     *
+     * @param sequence      Position in the journal, from 1
+     * @param transactionId Transaction the entry settles
+     * @param postings      Legs of the entry, summing to zero
+     */
+    public record Entry(long sequence, String transactionId, List<Posting> postings) {
+    }
+
+    /**
+     * @param metrics Registry for the {@code ledger.*} counters and the cash gauge
+     */
+    public Ledger(Metrics metrics) {
+        this(metrics, DEFAULT_JOURNAL_CAPACITY);
+    }
+
+    /**
+     * @param metrics         Registry for the {@code ledger.*} counters and the cash gauge
+     * @param journalCapacity Number of recent entries the journal keeps
+     */
+    public Ledger(Metrics metrics, int journalCapacity) {
+        if (journalCapacity <= 0) {
+            throw new IllegalArgumentException("Journal capacity must be positive");
+        }
+        this.publishedSlots = new long[journalCapacity];
+        this.entrySlots = new Entry[journalCapacity];
+        this.arenaSlots = new TransactionArena[journalCapacity];
+        this.recordSlots = new long[journalCapacity];
+        this.idSlots = new String[journalCapacity];
+        this.sourceSlots = new int[journalCapacity];
+        this.targetSlots = new int[journalCapacity];
+        this.centSlots = new long[journalCapacity];
+        this.entries = metrics.counter("ledger.entries");
+        this.postings = metrics.counter("ledger.postings");
+        this.unbalanced = metrics.counter("ledger.unbalanced");
+        metrics.gauge("ledger.cash_cents", () -> getPostedCents(CASH_ACCOUNT));
+        metrics.gauge("ledger.discrepancy_cents", this::getDiscrepancyCents);
+    }
+
+    /**
+     * Appends a journal entry.
+     *
+     * @param transactionId Transaction the entry settles
+     * @param legs          Postings, which must sum to zero
+     * @return The appended entry
+     * @throws IllegalStateException if the postings do not balance; nothing is appended
+     */
+    public Entry post(String transactionId, Posting... legs) {
+        long sum = 0;
+        for (Posting leg : legs) {
+            sum += leg.cents();
+        }
+        if (sum != 0 || legs.length < 2) {
+            unbalanced.increment();
+            throw new IllegalStateException("Unbalanced entry for " + transactionId + ": " + sum + " cents");
+        }
+        return append(transactionId, List.of(legs));
+    }
+
+    private Entry append(String transactionId, List<Posting> legs) {
+        Entry entry = new Entry(sequence.incrementAndGet(), transactionId, legs);
+        for (Posting leg : legs) {
+            postedBalance(leg.accountNumber()).add(leg.cents());
+        }
+        int slot = slot(entry.sequence());
+        if (claim(slot, entry.sequence())) {
+            entrySlots[slot] = entry;
+            arenaSlots[slot] = null;
+            idSlots[slot] = null;
+            PUBLISHED.setRelease(publishedSlots, slot, entry.sequence());
+        }
+        entries.increment();
+        postings.add(legs.size());
+        return entry;
+    }
+
+    /**
+     * Appends the entry for a settled transaction.
+     *
+     * @param transaction Successful transaction
+     * @return The appended entry, or null if the transaction did not move money
+     */
+    public Entry post(Transaction transaction) {
+        if (!transaction.isSuccessful()) {
+            return null;
+        }
+        long cents = Math.round(transaction.getAmount() * 100);
+        String id = transaction.getTransactionId();
+        return switch (transaction.getType()) {
+            case DEPOSIT, INTEREST -> post(id, new Posting(transaction.getTargetAccountNumber(), cents),
+                    new Posting(CASH_ACCOUNT, -cents));
+            case WITHDRAW, FEE -> post(id, new Posting(transaction.getSourceAccountNumber(), -cents),
+                    new Posting(CASH_ACCOUNT, cents));
+            case TRANSFER -> post(id, new Posting(transaction.getSourceAccountNumber(), -cents),
+                    new Posting(transaction.getTargetAccountNumber(), cents));
+        };
+    }
+
+    /**
+     * Appends the entry for a movement recorded in a {@link TransactionArena}, without
+     * creating an {@link Entry} for it; {@link #getJournal()} builds one from the record
+     * when it is read.
+     *
+     * @param arena               Arena holding the movement
+     * @param record              Index of its record
+     * @param sourceAccountNumber Account debited, or {@link #CASH_ACCOUNT} for a deposit
+     * @param targetAccountNumber Account credited, or {@link #CASH_ACCOUNT} for a withdrawal
+     * @param cents               Amount in cents
+     * @throws IllegalStateException if the amount is not positive or both sides are the same
+     *                               account; nothing is appended
+     */
+    public void postMovement(TransactionArena arena, long record, int sourceAccountNumber,
+                             int targetAccountNumber, long cents) {
+        postMovement(arena, record, null, sourceAccountNumber, targetAccountNumber, cents);
+    }
+
+    /**
+     * Appends the entry for a movement recorded in a {@link TransactionArena} under a
+     * caller-chosen ID, which the journal keeps after the arena has dropped the record.
+     *
+     * @param transactionId ID of the movement, or null if it is derived from the record
+     * @see #postMovement(TransactionArena, long, int, int, long)
+     */
+    public void postMovement(TransactionArena arena, long record, String transactionId, int sourceAccountNumber,
+                             int targetAccountNumber, long cents) {
+        if (cents <= 0 || sourceAccountNumber == targetAccountNumber) {
+            unbalanced.increment();
+            throw new IllegalStateException("Invalid movement of " + cents + " cents from "
+                    + sourceAccountNumber + " to " + targetAccountNumber);
+        }
+        postedBalance(sourceAccountNumber).add(-cents);
+        postedBalance(targetAccountNumber).add(cents);
+        long number = sequence.incrementAndGet();
+        int slot = slot(number);
+        if (claim(slot, number)) {
+            entrySlots[slot] = null;
+            arenaSlots[slot] = arena;
+            recordSlots[slot] = record;
+            idSlots[slot] = transactionId;
+            sourceSlots[slot] = sourceAccountNumber;
+            targetSlots[slot] = targetAccountNumber;
+            centSlots[slot] = cents;
+            PUBLISHED.setRelease(publishedSlots, slot, number);
+        }
+        entries.increment();
+        postings.add(2);
+    }
+
+    /**
+     * Marks a journal slot as being written for a sequence number. A writer that laps a
+     * slower one waits for it to finish with the slot, and the slower one leaves the slot
+     * alone once a later sequence has it.
+     *
+     * @return false if a later entry already owns the slot
+     */
+    private boolean claim(int slot, long number) {
+        for (int attempt = 0; ; attempt++) {
+            long current = (long) PUBLISHED.getVolatile(publishedSlots, slot);
+            if (Math.abs(current) > number) {
+                return false;
+            }
+            if (current < 0) {
+                // An earlier lap is still writing this slot
+                if (attempt < 64) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+                continue;
+            }
+            if (PUBLISHED.compareAndSet(publishedSlots, slot, current, -number)) {
+                return true;
+            }
+        }
+    }
+
+    private LongAdder postedBalance(int accountNumber) {
+        LongAdder balance = balanceIndex.get(accountNumber);
+        if (balance == null) {
+            balance = postedBalances.computeIfAbsent(accountNumber, n -> new LongAdder());
+            balanceIndex.put(accountNumber, balance);
+        }
+        return balance;
+    }
+
+    private int slot(long sequence) {
+        return (int) ((sequence - 1) % entrySlots.length);
+    }
+
+    /**
+     * Opens a newly registered account: from now on it reports its balance changes to the
+     * ledger, and its current balance is posted as an opening entry funded from cash.
+     *
+     * @param account Account being registered
+     * @return The appended entry, or null if the account opens empty
+     */
+    public Entry open(Account account) {
+        long cents = account.reportBalanceTo(accountCents);
+        if (cents == 0) {
+            return null;
+        }
+        return post("open-" + account.getAccountNumber(), new Posting(account.getAccountNumber(), cents),
+                new Posting(CASH_ACCOUNT, -cents));
+    }
+
+    /**
+     * Opens a batch of newly registered accounts like {@link #open}, funding all their
+     * opening balances from cash in one entry.
+     *
+     * @param batch Accounts being registered
+     * @return The appended entry, or null if every account opens empty
+     */
+    public Entry openAll(List<Account> batch) {
+        List<Posting> legs = new ArrayList<>(batch.size() + 1);
+        long total = 0;
+        int lowest = Integer.MAX_VALUE;
+        int highest = Integer.MIN_VALUE;
+        for (Account account : batch) {
+            long cents = account.reportBalanceTo(accountCents);
+            if (cents != 0) {
+                legs.add(new Posting(account.getAccountNumber(), cents));
+                total += cents;
+                lowest = Math.min(lowest, account.getAccountNumber());
+                highest = Math.max(highest, account.getAccountNumber());
+            }
+        }
+        if (legs.isEmpty()) {
+            return null;
+        }
+        legs.add(new Posting(CASH_ACCOUNT, -total));
+        return append("open-" + lowest + ".." + highest, List.copyOf(legs));
+    }
+
+    /**
+     * Gets the balance an account should have according to the journal.
+     *
+     * @param accountNumber Account number, or {@link #CASH_ACCOUNT}
+     * @return Sum of the account's postings in cents
+     */
+    public long getPostedCents(int accountNumber) {
+        LongAdder balance = postedBalances.get(accountNumber);
+        return balance == null ? 0 : balance.sum();
+    }
+
+    /**
+     * Gets how far the money the opened accounts hold is from what the ledger has posted
+     * to them, i.e. the money moved without a posting (positive if created).
+     * Exact whenever no movement is in progress.
+     *
+     * @return Sum of the account balances plus the cash account, in cents
+     */
+    public long getDiscrepancyCents() {
+        return accountCents.sum() + getPostedCents(CASH_ACCOUNT);
+    }
+
+    /**
+     * Checks that the money the opened accounts actually hold is exactly the money posted
+     * out of cash. Exact whenever no movement is in progress.
+     *
+     * @return true if the books balance
+     */
+    public boolean isBalanced() {
+        return getDiscrepancyCents() == 0;
+    }
+
+    public long getEntryCount() {
+        return entries.sum();
+    }
+
+    public long getUnbalancedCount() {
+        return unbalanced.sum();
+    }
+
+    /**
+     * Gets the most recent journal entries in append order, at most the journal capacity.
+     * Entries still being appended, and those overwritten while the journal is read, are
+     * left out.
+     *
+     * @return Snapshot of the retained entries
+     */
+    public List<Entry> getJournal() {
+        List<Entry> journal = new ArrayList<>();
+        long last = sequence.get();
+        for (long s = Math.max(1, last - entrySlots.length + 1); s <= last; s++) {
+            Entry entry = read(s);
+            if (entry != null) {
+                journal.add(entry);
+            }
+        }
+        return List.copyOf(journal);
+    }
+
+    /**
+     * Copies a journal slot, or returns null if it does not hold the sequence number
+     * throughout the copy.
+     */
+    private Entry read(long number) {
+        int slot = slot(number);
+        if ((long) PUBLISHED.getAcquire(publishedSlots, slot) != number) {
+            return null;
+        }
+        Entry entry = entrySlots[slot];
+        TransactionArena arena = arenaSlots[slot];
+        long record = recordSlots[slot];
+        String id = idSlots[slot];
+        int source = sourceSlots[slot];
+        int target = targetSlots[slot];
+        long cents = centSlots[slot];
+        VarHandle.loadLoadFence();
+        if ((long) PUBLISHED.getVolatile(publishedSlots, slot) != number) {
+            return null;
+        }
+        if (entry != null) {
+            return entry;
+        }
+        // Same leg order as the entries posted for transaction objects
+        List<Posting> legs = source == CASH_ACCOUNT
+                ? List.of(new Posting(target, cents), new Posting(CASH_ACCOUNT, -cents))
+                : List.of(new Posting(source, -cents), new Posting(target, cents));
+        return new Entry(number, id != null ? id : arena.idOf(record), legs);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.ledger;
+
+/**
+ * One leg of a journal entry.
+ * Amounts are signed cents from the bank's point of view: a positive amount credits the
+ * account (its balance goes up), a negative amount debits it. The legs of an entry always
+ * sum to zero.
+ *
+ * @param accountNumber Account posted to, or {@link Ledger#CASH_ACCOUNT}
+ * @param cents         Signed amount in cents
+ */
+public record Posting(int accountNumber, long cents) {
+}
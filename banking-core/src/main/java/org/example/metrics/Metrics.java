@@ -0,0 +1,50 @@
+package org.example.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of named counters and gauges.
+ * Counters are {@link LongAdder}s, so incrementing from many threads does not contend;
+ * look a counter up once and keep the reference on hot paths.
+ */
+public class Metrics {
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Gets or creates a counter.
+     *
+     * @param name Counter name, e.g. {@code limits.rate_limited}
+     * @return Counter shared by everyone using the same name
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * Registers a gauge whose value is read on every snapshot.
+     *
+     * @param name  Gauge name
+     * @param value Supplier of the current value
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Reads every counter and gauge.
+     *
+     * @return Sorted map of metric name to current value
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        return values;
+    }
+}
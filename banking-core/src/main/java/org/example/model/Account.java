@@ -0,0 +1,894 @@
+package org.example.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Account {
+
+    private static final AtomicInteger counter = new AtomicInteger(1000);
+    private static final VarHandle STATE;
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+    // Arena records between entries of the chain index
+    private static final int RECORDED_STRIDE = 64;
+
+    /**
+     * Largest balance, and largest amount, in cents. Every cent amount up to it is exact as a
+     * double, and adding two of them cannot overflow a long.
+     */
+    public static final long MAX_CENTS = 1L << 52;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Account.class, "state", State.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int accountNumber;
+    private final double openingBalance;
+    // Status, ledger balance and available balance (ledger minus holds) in one immutable
+    // snapshot replaced by a single CAS, so status changes and balance changes are ordered
+    // with each other and readers never see the two balances out of step
+    private volatile State state;
+    // Running total every ledger balance change is added to, kept by the ledger the account is opened in
+    private volatile LongAdder balanceTotal;
+    private Integer ownerUserId;
+    // Most recent part of the history; older transactions may have been moved to archived blocks
+    private final List<Transaction> transactionHistory = new ArrayList<>();
+    private final List<HistoryBlock> archivedBlocks = new ArrayList<>();
+    // Running total of transactions up to and including each archived block
+    private int[] archivedEnds = new int[0];
+    private int archivedCount;
+    // Newest part of the history, following the heap list: a chain of arena records, newest
+    // first. Positions count the records linked since the chain started, of which the oldest
+    // recordedFirst have since been archived or settled; the record at every position that is
+    // a multiple of RECORDED_STRIDE is indexed, so a page is found without walking the chain.
+    private TransactionArena arena;
+    private long recordedHead = TransactionArena.NONE;
+    private int recordedFirst;
+    private int recordedCount;
+    private long[] recordedIndex = new long[0];
+    private int indexBase;
+    private int indexSize;
+
+    public enum AccountStatus {
+        UNVERIFIED,
+        VERIFIED,
+        SUSPENDED,
+        CLOSED
+    }
+
+    /**
+     * @param version  Number of changes made to the account, so replicas can order snapshots
+     * @param transfer Transfer holding the account, or null
+     */
+    private record State(int status, long ledgerCents, long availableCents, long version, TransferLock transfer) {
+
+        State plus(long ledgerDelta, long availableDelta) {
+            return new State(status, ledgerCents + ledgerDelta, availableCents + availableDelta, version + 1, null);
+        }
+    }
+
+    /**
+     * Status and balances of an account at one point, as read by {@link #getStateSnapshot()}.
+     *
+     * @param status         Status
+     * @param ledgerCents    Ledger balance in cents
+     * @param availableCents Available balance in cents
+     * @param version        Number of changes made to the account up to this point
+     */
+    public record StateSnapshot(AccountStatus status, long ledgerCents, long availableCents, long version) {
+    }
+
+    /**
+     * A transfer holding both of its accounts. Other writers wait until it releases them;
+     * readers see both accounts as before the transfer until it commits, and as after once
+     * it has, so the money is never visible in neither or both accounts.
+     */
+    private static final class TransferLock {
+        private final Account source;
+        private final long cents;
+        // Moves money already held on the source, so its available balance does not change
+        private final boolean held;
+        private volatile boolean committed;
+
+        private TransferLock(Account source, long cents, boolean held) {
+            this.source = source;
+            this.cents = cents;
+            this.held = held;
+        }
+    }
+
+    public Account(double initialBalance) {
+        if (initialBalance < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative");
+        }
+        if (!Double.isFinite(initialBalance) || cents(initialBalance) > MAX_CENTS) {
+            throw new IllegalArgumentException("Initial balance is out of range");
+        }
+        this.accountNumber = counter.getAndIncrement();
+        this.openingBalance = initialBalance;
+        this.state = new State(AccountStatus.UNVERIFIED.ordinal(), cents(initialBalance), cents(initialBalance), 0, null);
+    }
+
+    /**
+     * Checks that an amount is a positive, finite number of cents no larger than {@link #MAX_CENTS}.
+     *
+     * @param amount Amount to check
+     * @return true if the amount can be moved
+     */
+    public static boolean isValidAmount(double amount) {
+        return amount > 0 && Double.isFinite(amount) && cents(amount) > 0 && cents(amount) <= MAX_CENTS;
+    }
+
+    // ===== Core Actions =====
+
+    /**
+     * Deposits money into the account.
+     * Amounts are kept in whole cents; an amount that rounds to zero cents is invalid.
+     *
+     * @param amount the amount to deposit (must be positive)
+     * @return true if successful, false if amount is invalid or account is closed/suspended
+     */
+    public boolean deposit(double amount) {
+        if (!isValidAmount(amount)) {
+            return false;
+        }
+        long cents = cents(amount);
+        for (int attempt = 0; ; attempt++) {
+            State current = unlocked(attempt);
+            if (current == null) {
+                continue;
+            }
+            if (!AccountLifecycle.canCredit(current.status()) || current.ledgerCents() > MAX_CENTS - cents) {
+                return false;
+            }
+            if (STATE.compareAndSet(this, current, current.plus(cents, cents))) {
+                moved(cents);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Withdraws money from the account. Funds under a hold cannot be withdrawn.
+     *
+     * @param amount the amount to withdraw (must be positive)
+     * @return true if successful, false if amount is invalid, insufficient funds, or account not verified
+     */
+    public boolean withdraw(double amount) {
+        return isValidAmount(amount) && debitAvailable(cents(amount), true);
+    }
+
+    /**
+     * Transfers money to another account.
+     * Both accounts are held by the transfer while it checks and applies the debit and the
+     * credit, and both changes become visible at once when it commits.
+     *
+     * @param target the account to transfer to
+     * @param amount the amount to transfer
+     * @return true if successful, false otherwise
+     */
+    public boolean transfer(Account target, double amount) {
+        if (target == null || target == this || !isValidAmount(amount)) {
+            return false;
+        }
+        return move(target, cents(amount), false);
+    }
+
+    /**
+     * Captures a hold on this account and credits its amount to another account, both under
+     * the same pair hold as {@link #transfer}, so the money is never visible on both accounts.
+     * The hold is left in place if the target cannot accept the money.
+     *
+     * @param target the account to credit
+     * @param amount the held amount
+     * @return true if captured and credited, false if nothing changed
+     */
+    public boolean captureHoldTo(Account target, double amount) {
+        if (target == null || target == this || !isValidAmount(amount)) {
+            return false;
+        }
+        return move(target, cents(amount), true);
+    }
+
+    private boolean move(Account target, long cents, boolean held) {
+        TransferLock lock = new TransferLock(this, cents, held);
+        // Accounts are always held in the same order, so opposite transfers cannot deadlock
+        boolean sourceFirst = accountNumber != target.accountNumber
+                ? accountNumber < target.accountNumber
+                : System.identityHashCode(this) < System.identityHashCode(target);
+        State from;
+        State to;
+        if (sourceFirst) {
+            from = hold(lock);
+            to = target.hold(lock);
+        } else {
+            to = target.hold(lock);
+            from = hold(lock);
+        }
+        boolean covered = held
+                ? cents <= from.ledgerCents()
+                : AccountLifecycle.canDebit(from.status()) && cents <= from.availableCents();
+        boolean success = covered && AccountLifecycle.canCredit(to.status()) && to.ledgerCents() <= MAX_CENTS - cents;
+        lock.committed = success;
+        // Only the holder may write a held account, so plain volatile writes release it
+        state = success ? from.plus(-cents, held ? 0 : -cents) : from;
+        target.state = success ? to.plus(cents, cents) : to;
+        if (success) {
+            moved(-cents);
+            target.moved(cents);
+        }
+        return success;
+    }
+
+    /**
+     * Adds every later change of the ledger balance to a running total, right after the CAS
+     * that makes it, starting with the current balance. A ledger uses the total to check
+     * that it has posted every movement. Call before the account is shared; an account
+     * reports to one total at a time.
+     *
+     * @param total Running total in cents
+     * @return Ledger balance in cents added to the total
+     */
+    public long reportBalanceTo(LongAdder total) {
+        balanceTotal = total;
+        long cents = state.ledgerCents();
+        total.add(cents);
+        return cents;
+    }
+
+    private void moved(long ledgerCents) {
+        LongAdder total = balanceTotal;
+        if (total != null && ledgerCents != 0) {
+            total.add(ledgerCents);
+        }
+    }
+
+    // ===== Holds =====
+
+    /**
+     * Places a hold: reduces the available balance without touching the ledger balance.
+     * Lock-free, so authorisations never wait on a deposit or withdrawal in progress.
+     *
+     * @param amount the amount to hold (must be positive)
+     * @return true if held, false if amount is invalid, insufficient available funds, or account not verified
+     */
+    public boolean placeHold(double amount) {
+        return isValidAmount(amount) && debitAvailable(cents(amount), false);
+    }
+
+    /**
+     * Releases a hold, returning its amount to the available balance whatever the account status.
+     * The caller is responsible for releasing or capturing each hold exactly once.
+     *
+     * @param amount the held amount to release
+     */
+    public void releaseHold(double amount) {
+        if (isValidAmount(amount)) {
+            apply(0, cents(amount));
+        }
+    }
+
+    /**
+     * Captures a hold, taking its amount out of the ledger balance.
+     * The available balance already excludes it, so it does not change.
+     *
+     * @param amount the held amount to capture
+     */
+    public void captureHold(double amount) {
+        if (isValidAmount(amount)) {
+            apply(-cents(amount), 0);
+        }
+    }
+
+    /**
+     * Takes money out of the available balance, and out of the ledger balance unless it is
+     * only being held, if the status allows debits and it is covered. The status check and
+     * the debit are one CAS, so a concurrent close or suspend is ordered either entirely
+     * before or entirely after it.
+     */
+    private boolean debitAvailable(long cents, boolean fromLedger) {
+        for (int attempt = 0; ; attempt++) {
+            State current = unlocked(attempt);
+            if (current == null) {
+                continue;
+            }
+            if (!AccountLifecycle.canDebit(current.status()) || cents > current.availableCents()) {
+                return false;
+            }
+            if (STATE.compareAndSet(this, current, current.plus(fromLedger ? -cents : 0, -cents))) {
+                if (fromLedger) {
+                    moved(-cents);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Puts back money taken by a successful {@link #withdraw} that could not be delivered,
+     * whatever the account status. Used to abort transfers that span two steps.
+     *
+     * @param amount the amount withdrawn
+     */
+    public void refund(double amount) {
+        if (isValidAmount(amount)) {
+            apply(cents(amount), cents(amount));
+        }
+    }
+
+    /**
+     * Applies a balance change that does not depend on the status.
+     */
+    private void apply(long ledgerDelta, long availableDelta) {
+        for (int attempt = 0; ; attempt++) {
+            State current = unlocked(attempt);
+            if (current != null && STATE.compareAndSet(this, current, current.plus(ledgerDelta, availableDelta))) {
+                moved(ledgerDelta);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the state for a writer, or returns null after backing off while a transfer holds the account.
+     */
+    private State unlocked(int attempt) {
+        State current = state;
+        if (current.transfer() == null) {
+            return current;
+        }
+        if (attempt < 64) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+        return null;
+    }
+
+    /**
+     * Marks the account as held by a transfer.
+     *
+     * @return The state just before it was held
+     */
+    private State hold(TransferLock lock) {
+        for (int attempt = 0; ; attempt++) {
+            State current = unlocked(attempt);
+            if (current != null && STATE.compareAndSet(this, current,
+                    new State(current.status(), current.ledgerCents(), current.availableCents(), current.version(),
+                            lock))) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Gets the balance change a committed transfer still holding the account makes to what readers see.
+     *
+     * @param available true for the available balance, false for the ledger balance
+     */
+    private long committedDelta(State current, boolean available) {
+        TransferLock lock = current.transfer();
+        if (lock == null || !lock.committed) {
+            return 0;
+        }
+        if (lock.source != this) {
+            return lock.cents;
+        }
+        return available && lock.held ? 0 : -lock.cents;
+    }
+
+    /**
+     * Reads the status and both balances at one point, with the version that orders it
+     * against every other snapshot of the account.
+     *
+     * @return Consistent snapshot
+     */
+    public StateSnapshot getStateSnapshot() {
+        State current = state;
+        long delta = committedDelta(current, false);
+        return new StateSnapshot(STATUSES[current.status()], current.ledgerCents() + delta,
+                current.availableCents() + committedDelta(current, true), current.version() + (delta == 0 ? 0 : 1));
+    }
+
+    /**
+     * Replaces the status and balances with a snapshot taken on another node, unless this
+     * account already holds the same or a later version. Used by replicas, which receive
+     * snapshots from concurrent writers in no particular order; the latest one wins.
+     *
+     * @param snapshot Snapshot from {@link #getStateSnapshot()}
+     * @return true if the snapshot was applied
+     */
+    public boolean restoreState(StateSnapshot snapshot) {
+        for (int attempt = 0; ; attempt++) {
+            State current = unlocked(attempt);
+            if (current == null) {
+                continue;
+            }
+            if (snapshot.version() <= current.version()) {
+                return false;
+            }
+            if (STATE.compareAndSet(this, current, new State(snapshot.status().ordinal(), snapshot.ledgerCents(),
+                    snapshot.availableCents(), snapshot.version(), null))) {
+                moved(snapshot.ledgerCents() - current.ledgerCents());
+                return true;
+            }
+        }
+    }
+
+    private static long cents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    // ===== State Transitions =====
+
+    /**
+     * Verifies the account. Only works if currently unverified.
+     *
+     * @return true if status changed, false otherwise
+     */
+    public boolean verify() {
+        return transition(AccountLifecycle.Event.VERIFY);
+    }
+
+    /**
+     * Suspends the account. Only works if currently verified.
+     *
+     * @return true if status changed, false otherwise
+     */
+    public boolean suspend() {
+        return transition(AccountLifecycle.Event.SUSPEND);
+    }
+
+    /**
+     * Appeals a suspension. Only works if currently suspended.
+     *
+     * @return true if status changed, false otherwise
+     */
+    public boolean appeal() {
+        return transition(AccountLifecycle.Event.APPEAL);
+    }
+
+    /**
+     * Closes the account. Can be done from any status.
+     *
+     * @return true if status changed, false if already closed
+     */
+    public boolean close() {
+        return transition(AccountLifecycle.Event.CLOSE);
+    }
+
+    /**
+     * Applies a lifecycle event with a CAS on the state, leaving the balances alone.
+     */
+    private boolean transition(AccountLifecycle.Event event) {
+        for (int attempt = 0; ; attempt++) {
+            State current = unlocked(attempt);
+            if (current == null) {
+                continue;
+            }
+            int next = AccountLifecycle.next(current.status(), event);
+            if (next == AccountLifecycle.NONE) {
+                return false;
+            }
+            if (STATE.compareAndSet(this, current,
+                    new State(next, current.ledgerCents(), current.availableCents(), current.version() + 1, null))) {
+                return true;
+            }
+        }
+    }
+
+    // ===== Transaction History =====
+
+    public synchronized void addTransaction(Transaction transaction) {
+        if (transaction != null) {
+            settleRecorded();
+            transactionHistory.add(transaction);
+        }
+    }
+
+    /**
+     * Appends a transaction written to an arena without creating an object for it.
+     * The record index is appended to this account's list; it becomes a {@link Transaction}
+     * only when the history is read, or when an object is added after it.
+     *
+     * @param arena  Arena holding the record
+     * @param record Index of a record naming this account as its source or target
+     */
+    public synchronized void addRecordedTransaction(TransactionArena arena, long record) {
+        if (this.arena != arena) {
+            settleRecorded();
+            this.arena = arena;
+        }
+        int position = recordedFirst + recordedCount;
+        arena.setPrevious(record, accountNumber, recordedHead);
+        recordedHead = record;
+        recordedCount++;
+        if (position % RECORDED_STRIDE == 0) {
+            if (indexSize == recordedIndex.length) {
+                recordedIndex = Arrays.copyOf(recordedIndex, Math.max(8, indexSize * 2));
+            }
+            recordedIndex[indexSize++] = record;
+        }
+    }
+
+    /**
+     * Moves the recorded transactions into the object list, keeping the order of the history.
+     */
+    private void settleRecorded() {
+        if (recordedCount > 0) {
+            transactionHistory.addAll(materializeRecorded(0, recordedCount));
+            dropRecorded(recordedCount);
+        }
+    }
+
+    /**
+     * Builds the recorded transactions at positions {@code from} (inclusive) to {@code to}
+     * (exclusive). Called under the lock: the arena may free a record once no history holds it.
+     */
+    private List<Transaction> materializeRecorded(int from, int to) {
+        List<Transaction> transactions = new ArrayList<>(to - from);
+        for (long record : recordedRecords(from, to)) {
+            transactions.add(arena.materialize(record));
+        }
+        return transactions;
+    }
+
+    /**
+     * Collects the records at positions {@code from} (inclusive) to {@code to} (exclusive) of
+     * the held chain, oldest first, walking back from the nearest indexed record at or after
+     * the last one wanted, so at most {@link #RECORDED_STRIDE} records outside the range are read.
+     */
+    private long[] recordedRecords(int from, int to) {
+        long[] records = new long[to - from];
+        if (from == to) {
+            return records;
+        }
+        int lowest = recordedFirst + from;
+        int highest = recordedFirst + to - 1;
+        int position = (highest + RECORDED_STRIDE - 1) / RECORDED_STRIDE * RECORDED_STRIDE;
+        long record;
+        if (position >= recordedFirst + recordedCount) {
+            position = recordedFirst + recordedCount - 1;
+            record = recordedHead;
+        } else {
+            record = recordedIndex[position / RECORDED_STRIDE - indexBase];
+        }
+        while (true) {
+            if (position <= highest) {
+                records[position - lowest] = record;
+            }
+            if (position == lowest) {
+                return records;
+            }
+            record = arena.previous(record, accountNumber);
+            position--;
+        }
+    }
+
+    /**
+     * Removes the oldest {@code count} recorded transactions and releases their records.
+     */
+    private void dropRecorded(int count) {
+        for (long record : recordedRecords(0, count)) {
+            arena.release(record);
+        }
+        recordedCount -= count;
+        if (recordedCount == 0) {
+            recordedHead = TransactionArena.NONE;
+            recordedFirst = 0;
+            indexBase = 0;
+            indexSize = 0;
+            return;
+        }
+        recordedFirst += count;
+        // Keep the index entries from the first position still held
+        int dropped = (recordedFirst + RECORDED_STRIDE - 1) / RECORDED_STRIDE - indexBase;
+        if (dropped > 0) {
+            System.arraycopy(recordedIndex, dropped, recordedIndex, 0, indexSize - dropped);
+            indexBase += dropped;
+            indexSize -= dropped;
+        }
+    }
+
+    public List<Transaction> getTransactionHistory() {
+        HistoryBlock[] blocks;
+        int archived;
+        List<Transaction> recent;
+        List<Transaction> newest;
+        synchronized (this) {
+            // Snapshot so callers can iterate while other threads keep recording
+            recent = List.copyOf(transactionHistory);
+            if (archivedBlocks.isEmpty() && recordedCount == 0) {
+                return recent;
+            }
+            blocks = archivedBlocks.toArray(new HistoryBlock[0]);
+            archived = archivedCount;
+            newest = materializeRecorded(0, recordedCount);
+        }
+        // Archived blocks never change, so they are read without holding the lock
+        List<Transaction> all = new ArrayList<>(archived + recent.size() + newest.size());
+        for (HistoryBlock block : blocks) {
+            all.addAll(block.load());
+        }
+        all.addAll(recent);
+        all.addAll(newest);
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * Copies one page of the history, so readers of long histories hold the lock
+     * and allocate only for the page they need. Arena records are located by position, and
+     * archived blocks overlapping the page are read after the lock is released.
+     *
+     * @param offset Index of the first transaction, oldest first
+     * @param limit  Maximum number of transactions
+     * @return Snapshot of the page (empty if offset is past the end)
+     */
+    public List<Transaction> getTransactionHistory(int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            return List.of();
+        }
+        HistoryBlock[] blocks = new HistoryBlock[0];
+        int[] ends = new int[0];
+        int to;
+        List<Transaction> recent;
+        List<Transaction> newest;
+        synchronized (this) {
+            int archived = archivedCount;
+            int objects = archived + transactionHistory.size();
+            int total = objects + recordedCount;
+            if (offset >= total) {
+                return List.of();
+            }
+            to = (int) Math.min((long) offset + limit, total);
+            if (offset < archived) {
+                int first = blockIndex(offset);
+                int last = blockIndex(Math.min(to, archived) - 1);
+                blocks = archivedBlocks.subList(first, last + 1).toArray(new HistoryBlock[0]);
+                ends = Arrays.copyOfRange(archivedEnds, first, last + 1);
+            }
+            int from = Math.max(offset, archived);
+            int until = Math.min(to, objects);
+            recent = from < until ? List.copyOf(transactionHistory.subList(from - archived, until - archived)) : List.of();
+            newest = to > objects ? materializeRecorded(Math.max(offset, objects) - objects, to - objects) : List.of();
+        }
+        if (blocks.length == 0 && newest.isEmpty()) {
+            return recent;
+        }
+        List<Transaction> page = new ArrayList<>(to - offset);
+        for (int i = 0; i < blocks.length; i++) {
+            int start = ends[i] - blocks[i].size();
+            List<Transaction> block = blocks[i].load();
+            page.addAll(block.subList(Math.max(offset, start) - start, Math.min(to, ends[i]) - start));
+        }
+        page.addAll(recent);
+        page.addAll(newest);
+        return Collections.unmodifiableList(page);
+    }
+
+    /**
+     * Finds a transaction by ID among those still held in memory, without loading archived blocks.
+     *
+     * @param transactionId Transaction ID
+     * @return Transaction, or null if it is not in memory
+     */
+    public synchronized Transaction findInMemoryTransaction(String transactionId) {
+        // Newest first: lookups are mostly for recent transactions
+        for (int i = transactionHistory.size() - 1; i >= 0; i--) {
+            Transaction transaction = transactionHistory.get(i);
+            if (transaction.getTransactionId().equals(transactionId)) {
+                return transaction;
+            }
+        }
+        if (recordedCount > 0) {
+            Transaction recorded = arena.find(transactionId);
+            if (recorded != null && (Objects.equals(recorded.getSourceAccountNumber(), accountNumber)
+                    || Objects.equals(recorded.getTargetAccountNumber(), accountNumber))) {
+                return recorded;
+            }
+        }
+        return null;
+    }
+
+    public synchronized int getTransactionCount() {
+        return archivedCount + transactionHistory.size() + recordedCount;
+    }
+
+    /**
+     * Gets the number of transactions held in memory, as objects or as records in a
+     * {@link TransactionArena}, not counting archived blocks.
+     */
+    public synchronized int getInMemoryTransactionCount() {
+        return transactionHistory.size() + recordedCount;
+    }
+
+    /**
+     * Gets the oldest in-memory transactions that may be archived: all but the newest
+     * {@code keep}, stopping before the first pending one, since that can still change.
+     *
+     * @param keep Number of most recent transactions to leave in memory
+     * @return Snapshot of the archivable transactions, oldest first
+     */
+    public synchronized List<Transaction> getArchivableHistory(int keep) {
+        int objects = transactionHistory.size();
+        int end = Math.max(0, objects + recordedCount - keep);
+        // Arena records are always settled, so only objects can stop the prefix
+        for (int i = 0; i < Math.min(end, objects); i++) {
+            if (transactionHistory.get(i).isPending()) {
+                end = i;
+                break;
+            }
+        }
+        List<Transaction> archivable = new ArrayList<>(end);
+        archivable.addAll(transactionHistory.subList(0, Math.min(end, objects)));
+        if (end > objects) {
+            archivable.addAll(materializeRecorded(0, end - objects));
+        }
+        return Collections.unmodifiableList(archivable);
+    }
+
+    /**
+     * Replaces the oldest in-memory transactions with archived blocks holding exactly those
+     * transactions in the same order, as returned by {@link #getArchivableHistory}.
+     * New transactions only ever go to the end, so the prefix cannot have changed in between
+     * as long as one archiver at a time works on the account.
+     *
+     * @param blocks Blocks to append to the archived part of the history, oldest first
+     */
+    public synchronized void archiveHistory(List<HistoryBlock> blocks) {
+        int count = 0;
+        for (HistoryBlock block : blocks) {
+            count += block.size();
+        }
+        int objects = transactionHistory.size();
+        if (count > objects + recordedCount) {
+            throw new IllegalArgumentException("Blocks hold more transactions than are in memory");
+        }
+        transactionHistory.subList(0, Math.min(count, objects)).clear();
+        if (count > objects) {
+            dropRecorded(count - objects);
+        }
+        for (HistoryBlock block : blocks) {
+            if (archivedBlocks.size() == archivedEnds.length) {
+                archivedEnds = Arrays.copyOf(archivedEnds, Math.max(8, archivedEnds.length * 2));
+            }
+            archivedCount += block.size();
+            archivedEnds[archivedBlocks.size()] = archivedCount;
+            archivedBlocks.add(block);
+        }
+    }
+
+    /**
+     * Finds the archived block holding the transaction at an index below {@code archivedCount}.
+     */
+    private int blockIndex(int index) {
+        int low = 0;
+        int high = archivedBlocks.size() - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (archivedEnds[mid] <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // ===== Getters =====
+
+    public int getAccountNumber() {
+        return accountNumber;
+    }
+
+    /**
+     * Gets the balance the account was opened with, before any transaction in its history.
+     */
+    public double getOpeningBalance() {
+        return openingBalance;
+    }
+
+    /**
+     * Gets the ledger balance, which still includes funds under holds.
+     */
+    public double getBalance() {
+        State current = state;
+        return (current.ledgerCents() + committedDelta(current, false)) / 100.0;
+    }
+
+    /**
+     * Gets the balance that can be spent now: the ledger balance minus active holds.
+     */
+    public double getAvailableBalance() {
+        State current = state;
+        return (current.availableCents() + committedDelta(current, true)) / 100.0;
+    }
+
+    /**
+     * Gets the total amount currently under holds.
+     */
+    public double getHeldBalance() {
+        State current = state;
+        return (current.ledgerCents() - current.availableCents()) / 100.0;
+    }
+
+    public AccountStatus getStatus() {
+        return STATUSES[state.status()];
+    }
+
+    public Integer getOwnerUserId() {
+        return ownerUserId;
+    }
+
+    public boolean isActive() {
+        return getStatus() == AccountStatus.VERIFIED;
+    }
+
+    // ===== Package-Private Ownership Methods =====
+
+    /**
+     * Assigns this account to a user.
+     *
+     * @param userId the user ID to assign
+     * @return true if successful, false if already owned by a different user
+     */
+    boolean assignToUser(int userId) {
+        if (ownerUserId != null && ownerUserId != userId) {
+            return false;
+        }
+        ownerUserId = userId;
+        return true;
+    }
+
+    /**
+     * Removes ownership from this account.
+     */
+    void clearOwner() {
+        ownerUserId = null;
+    }
+
+    // ===== Object Methods =====
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Account account = (Account) o;
+        return accountNumber == account.accountNumber;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountNumber);
+    }
+
+    @Override
+    public String toString() {
+        return "Account{" +
+                "accountNumber=" + accountNumber +
+                ", balance=" + getBalance() +
+                ", status=" + getStatus() +
+                ", ownerUserId=" + ownerUserId +
+                '}';
+    }
+
+    // ===== Testing Support =====
+
+    /**
+     * Resets the account number counter. Only use in tests.
+     */
+    public static void resetCounter() {
+        counter.set(1000);
+    }
+}
+
@@ -0,0 +1,58 @@
+package org.example.model;
+
+/**
+ * Transition and capability tables for {@link Account.AccountStatus}, indexed by ordinal.
+ * Every status change and every balance check goes through these tables, so the whole
+ * lifecycle can be read in one place:
+ * <pre>
+ *   UNVERIFIED --verify--> VERIFIED --suspend--> SUSPENDED --appeal--> VERIFIED
+ *   any status other than CLOSED --close--> CLOSED
+ * </pre>
+ */
+final class AccountLifecycle {
+
+    enum Event {
+        VERIFY,
+        SUSPEND,
+        APPEAL,
+        CLOSE
+    }
+
+    static final int NONE = -1;
+
+    private static final int UNVERIFIED = Account.AccountStatus.UNVERIFIED.ordinal();
+    private static final int VERIFIED = Account.AccountStatus.VERIFIED.ordinal();
+    private static final int SUSPENDED = Account.AccountStatus.SUSPENDED.ordinal();
+    private static final int CLOSED = Account.AccountStatus.CLOSED.ordinal();
+
+    // NEXT[event][status]: status after the event, or NONE if the event is not allowed
+    private static final int[][] NEXT = new int[Event.values().length][];
+
+    static {
+        //                                   UNVERIFIED  VERIFIED   SUSPENDED  CLOSED
+        NEXT[Event.VERIFY.ordinal()]  = new int[] {VERIFIED,   NONE,      NONE,      NONE};
+        NEXT[Event.SUSPEND.ordinal()] = new int[] {NONE,       SUSPENDED, NONE,      NONE};
+        NEXT[Event.APPEAL.ordinal()]  = new int[] {NONE,       NONE,      VERIFIED,  NONE};
+        NEXT[Event.CLOSE.ordinal()]   = new int[] {CLOSED,     CLOSED,    CLOSED,    NONE};
+    }
+
+    // Whether money may come in (deposits, incoming transfers) in each status
+    private static final boolean[] CAN_CREDIT = {true, true, false, false};
+    // Whether money may go out (withdrawals, outgoing transfers, new holds) in each status
+    private static final boolean[] CAN_DEBIT = {false, true, false, false};
+
+    private AccountLifecycle() {
+    }
+
+    static int next(int status, Event event) {
+        return NEXT[event.ordinal()][status];
+    }
+
+    static boolean canCredit(int status) {
+        return CAN_CREDIT[status];
+    }
+
+    static boolean canDebit(int status) {
+        return CAN_DEBIT[status];
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.model;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToIntFunction;
+
+/**
+ * Array indexed directly by account number, for hot-path lookups that must not box the
+ * number as a map key would. Account numbers are handed out sequentially, so the array
+ * stays dense; it grows to the largest number stored, up to {@link #MAX_ACCOUNT_NUMBER}.
+ * It is meant as a front for an authoritative map: numbers outside the range are not
+ * stored, and a miss tells the caller to fall back to the map. Reads are lock-free;
+ * writes are serialised and never remove a value.
+ *
+ * @param <T> Value type
+ */
+public final class AccountNumberIndex<T> {
+
+    /** Largest account number the index stores; larger ones always miss. */
+    public static final int MAX_ACCOUNT_NUMBER = (1 << 22) - 1;
+
+    private volatile AtomicReferenceArray<T> values = new AtomicReferenceArray<>(1024);
+
+    /**
+     * @param accountNumber Account number
+     * @return Stored value, or null if none is stored
+     */
+    public T get(int accountNumber) {
+        AtomicReferenceArray<T> current = values;
+        return accountNumber >= 0 && accountNumber < current.length() ? current.get(accountNumber) : null;
+    }
+
+    /**
+     * Stores a value, growing the array as needed.
+     *
+     * @param accountNumber Account number
+     * @param value         Value to store
+     * @return false if the number is out of range and nothing was stored
+     */
+    public synchronized boolean put(int accountNumber, T value) {
+        if (accountNumber < 0 || accountNumber > MAX_ACCOUNT_NUMBER) {
+            return false;
+        }
+        grow(accountNumber).set(accountNumber, value);
+        return true;
+    }
+
+    /**
+     * Stores a batch of values under one lock, growing the array at most once.
+     *
+     * @param batch  Values to store
+     * @param number Account number of each value
+     * @return Number of values stored; those with out-of-range numbers are skipped
+     */
+    public synchronized int putAll(List<? extends T> batch, ToIntFunction<? super T> number) {
+        int highest = -1;
+        for (T value : batch) {
+            int accountNumber = number.applyAsInt(value);
+            if (accountNumber <= MAX_ACCOUNT_NUMBER) {
+                highest = Math.max(highest, accountNumber);
+            }
+        }
+        if (highest < 0) {
+            return 0;
+        }
+        AtomicReferenceArray<T> current = grow(highest);
+        int stored = 0;
+        for (T value : batch) {
+            int accountNumber = number.applyAsInt(value);
+            if (accountNumber >= 0 && accountNumber <= MAX_ACCOUNT_NUMBER) {
+                current.set(accountNumber, value);
+                stored++;
+            }
+        }
+        return stored;
+    }
+
+    private AtomicReferenceArray<T> grow(int accountNumber) {
+        AtomicReferenceArray<T> current = values;
+        if (accountNumber < current.length()) {
+            return current;
+        }
+        int length = current.length();
+        while (length <= accountNumber) {
+            length *= 2;
+        }
+        AtomicReferenceArray<T> grown = new AtomicReferenceArray<>(length);
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        values = grown;
+        return grown;
+    }
+}
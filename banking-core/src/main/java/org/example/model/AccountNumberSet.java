@@ -0,0 +1,133 @@
+package org.example.model;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of account numbers, each slot also holding its {@link Account}.
+ * Keys live in a plain {@code int[]}, so membership costs no boxing and no entry objects,
+ * and add, remove and lookup are O(1). Removal shifts later entries of the probe run back
+ * instead of leaving tombstones. An ascending copy of the numbers is built on demand for
+ * ordered iteration and kept until the set next changes. Not thread-safe.
+ */
+final class AccountNumberSet {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] numbers = new int[MIN_CAPACITY];
+    // A null account marks an empty slot, so every int is a valid account number
+    private Account[] accounts = new Account[MIN_CAPACITY];
+    private int size;
+    private int[] sorted;
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int accountNumber) {
+        return indexOf(accountNumber) >= 0;
+    }
+
+    Account get(int accountNumber) {
+        int index = indexOf(accountNumber);
+        return index < 0 ? null : accounts[index];
+    }
+
+    /**
+     * @return false if an account with the same number is already present
+     */
+    boolean add(Account account) {
+        int accountNumber = account.getAccountNumber();
+        if (indexOf(accountNumber) >= 0) {
+            return false;
+        }
+        if ((size + 1) * 4 > numbers.length * 3) {
+            resize(numbers.length * 2);
+        }
+        insert(accountNumber, account);
+        size++;
+        sorted = null;
+        return true;
+    }
+
+    /**
+     * @return The removed account, or null if the number was not present
+     */
+    Account remove(int accountNumber) {
+        int gap = indexOf(accountNumber);
+        if (gap < 0) {
+            return null;
+        }
+        Account removed = accounts[gap];
+        int mask = numbers.length - 1;
+        for (int i = (gap + 1) & mask; accounts[i] != null; i = (i + 1) & mask) {
+            // Move the entry back into the gap unless its home slot lies after the gap in the probe run
+            int home = slot(numbers[i], mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                numbers[gap] = numbers[i];
+                accounts[gap] = accounts[i];
+                gap = i;
+            }
+        }
+        accounts[gap] = null;
+        size--;
+        sorted = null;
+        return removed;
+    }
+
+    /**
+     * Gets the account numbers in ascending order. The array is shared until the set changes
+     * and must not be modified.
+     */
+    int[] sortedNumbers() {
+        if (sorted == null) {
+            int[] result = new int[size];
+            int n = 0;
+            for (int i = 0; i < accounts.length; i++) {
+                if (accounts[i] != null) {
+                    result[n++] = numbers[i];
+                }
+            }
+            Arrays.sort(result);
+            sorted = result;
+        }
+        return sorted;
+    }
+
+    private int indexOf(int accountNumber) {
+        int mask = numbers.length - 1;
+        for (int i = slot(accountNumber, mask); accounts[i] != null; i = (i + 1) & mask) {
+            if (numbers[i] == accountNumber) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(int accountNumber, Account account) {
+        int mask = numbers.length - 1;
+        int i = slot(accountNumber, mask);
+        while (accounts[i] != null) {
+            i = (i + 1) & mask;
+        }
+        numbers[i] = accountNumber;
+        accounts[i] = account;
+    }
+
+    private void resize(int capacity) {
+        int[] oldNumbers = numbers;
+        Account[] oldAccounts = accounts;
+        numbers = new int[capacity];
+        accounts = new Account[capacity];
+        for (int i = 0; i < oldAccounts.length; i++) {
+            if (oldAccounts[i] != null) {
+                insert(oldNumbers[i], oldAccounts[i]);
+            }
+        }
+    }
+
+    private static int slot(int accountNumber, int mask) {
+        // Fibonacci hashing spreads runs of consecutive account numbers across the table
+        int hash = accountNumber * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.model;
+
+import java.util.List;
+
+/**
+ * An immutable run of consecutive transactions moved out of an account's in-memory history,
+ * e.g. into a compressed segment on disk.
+ */
+public interface HistoryBlock {
+
+    /**
+     * Gets the number of transactions in the block.
+     */
+    int size();
+
+    /**
+     * Loads the transactions, oldest first.
+     *
+     * @return Transactions of the block
+     * @throws java.io.UncheckedIOException if the block cannot be read
+     */
+    List<Transaction> load();
+}
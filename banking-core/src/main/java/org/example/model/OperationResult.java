@@ -0,0 +1,42 @@
+package org.example.model;
+
+/**
+ * Outcome of a money movement requested through the controllers.
+ */
+public enum OperationResult {
+    SUCCESS,
+    REJECTED,
+    ACCOUNT_NOT_FOUND,
+    IN_PROGRESS,
+    RATE_LIMITED,
+    DAILY_LIMIT_EXCEEDED,
+    PENDING_REVIEW,
+    /** The idempotency key was already used for a different request. */
+    IDEMPOTENCY_MISMATCH,
+    /** The operation failed unexpectedly; whether it took effect is unknown. */
+    ERROR;
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+
+    /**
+     * Whether the request was turned away by throttling before anything happened, so the
+     * same request may succeed if retried later.
+     *
+     * @return true for RATE_LIMITED and DAILY_LIMIT_EXCEEDED
+     */
+    public boolean isTransient() {
+        return this == RATE_LIMITED || this == DAILY_LIMIT_EXCEEDED;
+    }
+
+    /**
+     * Maps a plain success flag to a result.
+     *
+     * @param success Outcome of the underlying operation
+     * @return SUCCESS or REJECTED
+     */
+    public static OperationResult of(boolean success) {
+        return success ? SUCCESS : REJECTED;
+    }
+}
@@ -12,12 +12,15 @@ public class Transaction {
     private final LocalDateTime timestamp;
     private final Integer sourceAccountNumber;
     private final Integer targetAccountNumber;
-    private TransactionStatus status;
+    private volatile TransactionStatus status;
+    private volatile String reviewReason;
 
     public enum TransactionType {
         DEPOSIT,
         WITHDRAW,
-        TRANSFER
+        TRANSFER,
+        INTEREST,
+        FEE
     }
 
     public enum TransactionStatus {
@@ -39,6 +42,11 @@ public class Transaction {
      */
     public Transaction(String transactionId, TransactionType type, double amount,
                        Integer sourceAccountNumber, Integer targetAccountNumber) {
+        this(transactionId, type, amount, sourceAccountNumber, targetAccountNumber, LocalDateTime.now());
+    }
+
+    private Transaction(String transactionId, TransactionType type, double amount,
+                        Integer sourceAccountNumber, Integer targetAccountNumber, LocalDateTime timestamp) {
         if (transactionId == null || transactionId.isBlank()) {
             throw new IllegalArgumentException("Transaction ID cannot be null or blank");
         }
@@ -55,22 +63,41 @@ public class Transaction {
         this.amount = amount;
         this.sourceAccountNumber = sourceAccountNumber;
         this.targetAccountNumber = targetAccountNumber;
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = timestamp;
         this.status = TransactionStatus.PENDING;
     }
 
+    /**
+     * Recreates a transaction read back from storage, keeping its original ID, timestamp and outcome.
+     */
+    public static Transaction restore(String transactionId, TransactionType type, double amount,
+                                      Integer sourceAccountNumber, Integer targetAccountNumber,
+                                      LocalDateTime timestamp, TransactionStatus status, String reviewReason) {
+        Transaction transaction = new Transaction(transactionId, type, amount, sourceAccountNumber,
+                targetAccountNumber, timestamp);
+        transaction.status = status;
+        transaction.reviewReason = reviewReason;
+        return transaction;
+    }
+
     private void validateAccountNumbers(TransactionType type,
                                         Integer sourceAccountNumber,
                                         Integer targetAccountNumber) {
         switch (type) {
             case DEPOSIT:
+            case INTEREST:
                 if (targetAccountNumber == null) {
-                    throw new IllegalArgumentException("Deposit requires a target account");
+                    throw new IllegalArgumentException(type == TransactionType.DEPOSIT
+                            ? "Deposit requires a target account"
+                            : "Interest requires a target account");
                 }
                 break;
             case WITHDRAW:
+            case FEE:
                 if (sourceAccountNumber == null) {
-                    throw new IllegalArgumentException("Withdrawal requires a source account");
+                    throw new IllegalArgumentException(type == TransactionType.WITHDRAW
+                            ? "Withdrawal requires a source account"
+                            : "Fee requires a source account");
                 }
                 break;
             case TRANSFER:
@@ -86,18 +113,57 @@ public class Transaction {
 
     // ===== Status Management =====
 
-    public void markSuccess() {
+    public synchronized void markSuccess() {
         if (status == TransactionStatus.PENDING) {
             status = TransactionStatus.SUCCESS;
         }
     }
 
-    public void markFailed() {
+    public synchronized void markFailed() {
         if (status == TransactionStatus.PENDING) {
             status = TransactionStatus.FAILED;
         }
     }
 
+    /**
+     * Approves a pending transaction.
+     *
+     * @throws IllegalStateException if the transaction is not pending
+     */
+    public synchronized void approve() {
+        if (status != TransactionStatus.PENDING) {
+            throw new IllegalStateException("Only pending transactions can be approved");
+        }
+        status = TransactionStatus.SUCCESS;
+    }
+
+    /**
+     * Rejects a pending transaction.
+     *
+     * @throws IllegalStateException if the transaction is not pending
+     */
+    public synchronized void reject() {
+        if (status != TransactionStatus.PENDING) {
+            throw new IllegalStateException("Only pending transactions can be rejected");
+        }
+        status = TransactionStatus.FAILED;
+    }
+
+    /**
+     * Records why a pending transaction was held for admin review.
+     *
+     * @param reason Human-readable reason, e.g. the names of the fraud rules that fired
+     */
+    public void flagForReview(String reason) {
+        if (status == TransactionStatus.PENDING) {
+            reviewReason = reason;
+        }
+    }
+
+    public String getReviewReason() {
+        return reviewReason;
+    }
+
     public boolean isPending() {
         return status == TransactionStatus.PENDING;
     }
@@ -0,0 +1,355 @@
+package org.example.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocation-free store for completed transactions.
+ * <p>
+ * Each recorded movement is written into a fixed-size record in off-heap chunks of
+ * {@link #CHUNK_RECORDS} records instead of becoming a {@link Transaction} with its UUID
+ * string, timestamp and boxed account numbers. Accounts link the records they take part in
+ * into a chain through the record itself, so recording allocates nothing per operation, and
+ * index every few links so a page of history is found without walking the whole chain.
+ * A {@link Transaction} is only built when a history is read, with an ID derived from the
+ * record index, or the caller's ID for a named record, so every read of a record yields the
+ * same ID.
+ * <p>
+ * A record is published by a release store of its committed flag after everything else is
+ * written; readers check the flag with an acquire load, so a half-written record is never
+ * returned. Each chunk counts the account histories still holding its records; once every
+ * record of a full chunk has been archived or moved into an object list, the chunk is
+ * dropped. At most {@code maxChunks} chunks are held at once: when they are all in use,
+ * {@link #record} returns {@link #NONE} and the caller records an object instead.
+ * <p>
+ * Record layout: time (epoch millis), amount (double bits), previous record of the source
+ * and of the target account, source and target account numbers, type, status, named flag
+ * and committed flag.
+ */
+public final class TransactionArena {
+
+    /** Records per off-heap chunk. */
+    public static final int CHUNK_RECORDS = 1 << 16;
+    /** Chunks held at once by default: 4M records, 128 MiB. */
+    public static final int DEFAULT_MAX_CHUNKS = 64;
+    /** Returned by {@link #record} when the arena is full; also the chain terminator. */
+    public static final long NONE = -1;
+
+    /** Stored in place of a missing source or target account. */
+    static final int NO_ACCOUNT = Integer.MIN_VALUE;
+
+    private static final int RECORD_BYTES = 48;
+    private static final int CHUNK_BYTES = CHUNK_RECORDS * RECORD_BYTES;
+    private static final int TIME = 0;
+    private static final int AMOUNT = 8;
+    private static final int PREVIOUS_SOURCE = 16;
+    private static final int PREVIOUS_TARGET = 24;
+    private static final int SOURCE = 32;
+    private static final int TARGET = 36;
+    private static final int TYPE = 40;
+    private static final int STATUS = 41;
+    private static final int NAMED = 42;
+    private static final int COMMITTED = 44;
+    private static final VarHandle FLAG = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+    private static final Transaction.TransactionStatus[] STATUSES = Transaction.TransactionStatus.values();
+
+    /**
+     * One off-heap chunk with the counters that decide when it can be dropped.
+     */
+    private static final class Chunk {
+        final ByteBuffer records;
+        // Records written so far, and links from account histories to records of this chunk
+        final AtomicInteger written = new AtomicInteger();
+        final AtomicInteger links = new AtomicInteger();
+
+        Chunk(ByteBuffer records) {
+            this.records = records;
+        }
+    }
+
+    // Stands in for a chunk that was not allocated because the arena was full
+    private static final Chunk SKIPPED = new Chunk(null);
+
+    // High half of every ID, so IDs from different arenas cannot collide
+    private final long idPrefix = UUID.randomUUID().getMostSignificantBits();
+    private final int maxChunks;
+    private final AtomicLong next = new AtomicLong();
+    private volatile Chunk[] chunks = new Chunk[16];
+    private volatile int liveChunks;
+    // Caller-chosen IDs of named records, both ways, until their chunk is dropped
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private final Map<String, Long> namedRecords = new ConcurrentHashMap<>();
+
+    public TransactionArena() {
+        this(DEFAULT_MAX_CHUNKS);
+    }
+
+    /**
+     * @param maxChunks Most chunks of {@link #CHUNK_RECORDS} records held at once
+     */
+    public TransactionArena(int maxChunks) {
+        if (maxChunks <= 0) {
+            throw new IllegalArgumentException("maxChunks must be positive");
+        }
+        this.maxChunks = maxChunks;
+    }
+
+    /**
+     * Writes a completed movement into the next free record. The caller links it into the
+     * histories of its accounts with {@link Account#addRecordedTransaction}.
+     *
+     * @param type   Movement type
+     * @param status SUCCESS or FAILED
+     * @param amount Amount
+     * @param source Source account, or null
+     * @param target Target account, or null
+     * @return Index of the record, or {@link #NONE} if the arena is full
+     */
+    public long record(Transaction.TransactionType type, Transaction.TransactionStatus status, double amount,
+                       Account source, Account target) {
+        return record(type, status, amount, source, target, null);
+    }
+
+    /**
+     * Writes a completed movement under a caller-chosen ID, e.g. the deterministic ID of an
+     * accrual, which {@link #find} and the materialized transaction then use.
+     *
+     * @param transactionId ID of the transaction, or null to derive one from the index
+     * @return Index of the record, or {@link #NONE} if the arena is full
+     * @see #record(Transaction.TransactionType, Transaction.TransactionStatus, double, Account, Account)
+     */
+    public long record(Transaction.TransactionType type, Transaction.TransactionStatus status, double amount,
+                       Account source, Account target, String transactionId) {
+        long index = next.getAndIncrement();
+        int number = number(index);
+        Chunk chunk = writable(number);
+        if (chunk == SKIPPED) {
+            return NONE;
+        }
+        ByteBuffer records = chunk.records;
+        int at = offset(index);
+        records.putLong(at + TIME, System.currentTimeMillis());
+        records.putDouble(at + AMOUNT, amount);
+        records.putLong(at + PREVIOUS_SOURCE, NONE);
+        records.putLong(at + PREVIOUS_TARGET, NONE);
+        records.putInt(at + SOURCE, source == null ? NO_ACCOUNT : source.getAccountNumber());
+        records.putInt(at + TARGET, target == null ? NO_ACCOUNT : target.getAccountNumber());
+        records.put(at + TYPE, (byte) type.ordinal());
+        records.put(at + STATUS, (byte) status.ordinal());
+        records.put(at + NAMED, (byte) (transactionId == null ? 0 : 1));
+        if (transactionId != null) {
+            names.put(index, transactionId);
+            namedRecords.put(transactionId, index);
+        }
+        chunk.links.addAndGet((source == null ? 0 : 1) + (target == null ? 0 : 1));
+        FLAG.setRelease(records, at + COMMITTED, 1);
+        if (chunk.written.incrementAndGet() == CHUNK_RECORDS && chunk.links.get() == 0) {
+            drop(number, chunk);
+        }
+        return index;
+    }
+
+    /**
+     * Builds the transaction held in a published record.
+     *
+     * @param index Record index, still linked by an account history
+     * @return New transaction object; equal to every other one built from the same record
+     * @throws IllegalArgumentException if the record is not published or its chunk was dropped
+     */
+    public Transaction materialize(long index) {
+        Chunk chunk = existing(number(index));
+        if (chunk == null || !published(chunk, offset(index))) {
+            throw new IllegalArgumentException("No published record " + index);
+        }
+        return read(chunk, index);
+    }
+
+    /**
+     * Gets the ID of the transaction held in a record.
+     *
+     * @param index Record index
+     * @return Transaction ID
+     */
+    public String idOf(long index) {
+        String name = names.isEmpty() ? null : names.get(index);
+        return name != null ? name : new UUID(idPrefix, index).toString();
+    }
+
+    /**
+     * Finds a recorded transaction by ID in constant time.
+     *
+     * @param transactionId Transaction ID
+     * @return Transaction, or null if the ID was not issued by this arena, its record is not
+     *         published yet or its chunk was dropped after archiving
+     */
+    public Transaction find(String transactionId) {
+        if (transactionId == null) {
+            return null;
+        }
+        Long named = namedRecords.get(transactionId);
+        long index;
+        if (named != null) {
+            index = named;
+        } else {
+            if (transactionId.length() != 36) {
+                return null;
+            }
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(transactionId);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            index = uuid.getLeastSignificantBits();
+            if (uuid.getMostSignificantBits() != idPrefix) {
+                return null;
+            }
+        }
+        if (index < 0 || index >= next.get()) {
+            return null;
+        }
+        Chunk chunk = existing(number(index));
+        if (chunk == null || !published(chunk, offset(index))) {
+            return null;
+        }
+        return read(chunk, index);
+    }
+
+    /**
+     * Gets the number of records written.
+     */
+    public long size() {
+        return next.get();
+    }
+
+    /**
+     * Gets the off-heap memory held by the live chunks in bytes.
+     */
+    public long getByteSize() {
+        return (long) liveChunks * CHUNK_BYTES;
+    }
+
+    /**
+     * Drops an account history's link to a record once the record is archived or held as
+     * an object; a full chunk with no links left is freed.
+     */
+    void release(long index) {
+        int number = number(index);
+        Chunk chunk = existing(number);
+        if (chunk != null && chunk.links.decrementAndGet() == 0 && chunk.written.get() == CHUNK_RECORDS) {
+            drop(number, chunk);
+        }
+    }
+
+    // ===== Chains, maintained by Account under its own lock while it links the records =====
+
+    /**
+     * Gets the previous record in the chain of an account taking part in a record.
+     */
+    long previous(long index, int accountNumber) {
+        ByteBuffer records = existing(number(index)).records;
+        int at = offset(index);
+        return records.getLong(at + (records.getInt(at + SOURCE) == accountNumber ? PREVIOUS_SOURCE : PREVIOUS_TARGET));
+    }
+
+    void setPrevious(long index, int accountNumber, long previous) {
+        ByteBuffer records = existing(number(index)).records;
+        int at = offset(index);
+        records.putLong(at + (records.getInt(at + SOURCE) == accountNumber ? PREVIOUS_SOURCE : PREVIOUS_TARGET),
+                previous);
+    }
+
+    private Transaction read(Chunk chunk, long index) {
+        ByteBuffer records = chunk.records;
+        int at = offset(index);
+        int source = records.getInt(at + SOURCE);
+        int target = records.getInt(at + TARGET);
+        return Transaction.restore(idOf(index), TYPES[records.get(at + TYPE)],
+                records.getDouble(at + AMOUNT), source == NO_ACCOUNT ? null : source,
+                target == NO_ACCOUNT ? null : target,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(records.getLong(at + TIME)), ZoneId.systemDefault()),
+                STATUSES[records.get(at + STATUS)], null);
+    }
+
+    private static boolean published(Chunk chunk, int at) {
+        return (int) FLAG.getAcquire(chunk.records, at + COMMITTED) == 1;
+    }
+
+    private static int number(long index) {
+        return (int) (index / CHUNK_RECORDS);
+    }
+
+    private static int offset(long index) {
+        return (int) (index & (CHUNK_RECORDS - 1)) * RECORD_BYTES;
+    }
+
+    /**
+     * Gets a live chunk for reading, or null if it was never allocated or has been dropped.
+     */
+    private Chunk existing(int number) {
+        Chunk[] current = chunks;
+        Chunk chunk = number < current.length ? current[number] : null;
+        return chunk == SKIPPED ? null : chunk;
+    }
+
+    /**
+     * Gets the chunk to write a record into. A chunk is only dropped once every record in it
+     * is written, so no writer ever asks for a dropped one.
+     */
+    private Chunk writable(int number) {
+        Chunk[] current = chunks;
+        Chunk chunk = number < current.length ? current[number] : null;
+        return chunk != null ? chunk : allocate(number);
+    }
+
+    private synchronized Chunk allocate(int number) {
+        Chunk[] current = chunks;
+        if (number >= current.length) {
+            current = Arrays.copyOf(current, Math.max(current.length * 2, number + 1));
+        } else if (current[number] != null) {
+            return current[number];
+        } else {
+            current = current.clone();
+        }
+        Chunk chunk = SKIPPED;
+        if (liveChunks < maxChunks) {
+            chunk = new Chunk(ByteBuffer.allocateDirect(CHUNK_BYTES));
+            liveChunks++;
+        }
+        current[number] = chunk;
+        chunks = current;
+        return chunk;
+    }
+
+    private synchronized void drop(int number, Chunk chunk) {
+        Chunk[] current = chunks;
+        if (current[number] != chunk) {
+            return;
+        }
+        if (!names.isEmpty()) {
+            long base = (long) number * CHUNK_RECORDS;
+            for (int i = 0; i < CHUNK_RECORDS; i++) {
+                if (chunk.records.get(i * RECORD_BYTES + NAMED) != 0) {
+                    namedRecords.remove(names.remove(base + i));
+                }
+            }
+        }
+        // Readers that already hold the chunk keep reading intact records; the memory goes with the last of them
+        current = current.clone();
+        current[number] = null;
+        chunks = current;
+        liveChunks--;
+    }
+}
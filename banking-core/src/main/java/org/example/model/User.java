@@ -1,13 +1,12 @@
 package org.example.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class User {
 
-    private static int idCounter = 1;
+    private static final AtomicInteger idCounter = new AtomicInteger(1);
 
     private final int userId;
     private String name;
@@ -15,7 +14,9 @@ public class User {
     private String phone;
     private String password;
     private Role role;
-    private final List<Account> accounts = new ArrayList<>();
+    private final AccountNumberSet accounts = new AccountNumberSet();
+    // Compatibility view for getAccounts(), rebuilt only after membership changes
+    private List<Account> accountsView;
 
     public enum Role {
         CLIENT,
@@ -36,7 +37,7 @@ public class User {
             throw new IllegalArgumentException("Password cannot be null or blank");
         }
 
-        this.userId = idCounter++;
+        this.userId = idCounter.getAndIncrement();
         this.name = name;
         this.role = role;
         this.email = email;
@@ -104,8 +105,62 @@ public class User {
 
     // ===== Account Management =====
 
-    public List<Account> getAccounts() {
-        return Collections.unmodifiableList(accounts);
+    /**
+     * Gets all accounts of this user in account-number order.
+     * The list is an unmodifiable snapshot, shared between calls until the accounts change;
+     * for users with many accounts prefer {@link #getAccounts(int, int)}.
+     *
+     * @return Accounts of this user
+     */
+    public synchronized List<Account> getAccounts() {
+        if (accountsView == null) {
+            accountsView = getAccounts(0, accounts.size());
+        }
+        return accountsView;
+    }
+
+    /**
+     * Gets one page of this user's accounts in account-number order.
+     *
+     * @param offset Index of the first account
+     * @param limit  Maximum number of accounts
+     * @return Snapshot of the page (empty if offset is past the end)
+     */
+    public synchronized List<Account> getAccounts(int offset, int limit) {
+        int[] numbers = accounts.sortedNumbers();
+        if (offset < 0 || limit <= 0 || offset >= numbers.length) {
+            return List.of();
+        }
+        int to = (int) Math.min((long) offset + limit, numbers.length);
+        Account[] page = new Account[to - offset];
+        for (int i = offset; i < to; i++) {
+            page[i - offset] = accounts.get(numbers[i]);
+        }
+        return List.of(page);
+    }
+
+    public synchronized int getAccountCount() {
+        return accounts.size();
+    }
+
+    /**
+     * Checks in constant time whether this user holds an account.
+     *
+     * @param accountNumber Account number
+     * @return true if the account belongs to this user
+     */
+    public synchronized boolean hasAccount(int accountNumber) {
+        return accounts.contains(accountNumber);
+    }
+
+    /**
+     * Gets one of this user's accounts by number.
+     *
+     * @param accountNumber Account number
+     * @return Account, or null if this user does not hold it
+     */
+    public synchronized Account getAccount(int accountNumber) {
+        return accounts.get(accountNumber);
     }
 
     /**
@@ -114,14 +169,15 @@ public class User {
      * @param account the account to add
      * @return true if successful, false if account is null or already owned by another user
      */
-    public boolean addAccount(Account account) {
-        if (account == null || accounts.contains(account)) {
+    public synchronized boolean addAccount(Account account) {
+        if (account == null || accounts.contains(account.getAccountNumber())) {
             return false;
         }
         if (!account.assignToUser(this.userId)) {
             return false;
         }
         accounts.add(account);
+        accountsView = null;
         return true;
     }
 
@@ -131,12 +187,14 @@ public class User {
      * @param account the account to remove
      * @return true if the account was removed, false otherwise
      */
-    public boolean removeAccount(Account account) {
-        if (accounts.remove(account)) {
-            account.clearOwner();
-            return true;
+    public synchronized boolean removeAccount(Account account) {
+        Account removed = account == null ? null : accounts.remove(account.getAccountNumber());
+        if (removed == null) {
+            return false;
         }
-        return false;
+        accountsView = null;
+        removed.clearOwner();
+        return true;
     }
 
     // ===== Object Methods =====
@@ -161,7 +219,7 @@ public class User {
                 ", name='" + name + '\'' +
                 ", email='" + email + '\'' +
                 ", role=" + role +
-                ", accountCount=" + accounts.size() +
+                ", accountCount=" + getAccountCount() +
                 '}';
     }
 
@@ -171,7 +229,7 @@ public class User {
      * Resets the ID counter. Only use in tests.
      */
     public static void resetIdCounter() {
-        idCounter = 1;
+        idCounter.set(1);
     }
 }
 
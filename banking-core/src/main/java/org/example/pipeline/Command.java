@@ -0,0 +1,75 @@
+package org.example.pipeline;
+
+import org.example.model.OperationResult;
+
+/**
+ * One pre-allocated slot of the ring. A slot is filled by the publisher, read by every stage
+ * in turn and reused once the last stage has passed it, so listeners must copy anything they
+ * want to keep.
+ */
+public final class Command {
+
+    long sequence;
+    CommandType type;
+    int accountNumber;
+    int targetAccountNumber;
+    double amount;
+    String reference;
+    ResultSink sink;
+    OperationResult result;
+
+    Command() {
+    }
+
+    void set(long sequence, CommandType type, int accountNumber, int targetAccountNumber, double amount,
+             String reference, ResultSink sink) {
+        this.sequence = sequence;
+        this.type = type;
+        this.accountNumber = accountNumber;
+        this.targetAccountNumber = targetAccountNumber;
+        this.amount = amount;
+        this.reference = reference;
+        this.sink = sink;
+        this.result = null;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public CommandType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the account the command applies to; the source account of a transfer.
+     */
+    public int getAccountNumber() {
+        return accountNumber;
+    }
+
+    /**
+     * Gets the target account of a transfer, or -1.
+     */
+    public int getTargetAccountNumber() {
+        return targetAccountNumber;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Gets the idempotency key of a money movement or the transaction ID of an approval, or null.
+     */
+    public String getReference() {
+        return reference;
+    }
+
+    /**
+     * Gets the outcome; set by the business-logic stage.
+     */
+    public OperationResult getResult() {
+        return result;
+    }
+}
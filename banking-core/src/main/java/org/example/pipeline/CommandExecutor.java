@@ -0,0 +1,53 @@
+package org.example.pipeline;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.StatusAction;
+import org.example.model.OperationResult;
+
+/**
+ * Maps a command onto the controller call that applies it.
+ * Shared by the pipeline's business-logic stage and by anything replaying journaled commands.
+ */
+public final class CommandExecutor {
+
+    private final AccountController accountController;
+    private final AdminController adminController;
+
+    /**
+     * @param accountController Controller applying money movements
+     * @param adminController   Controller applying status changes and approvals
+     */
+    public CommandExecutor(AccountController accountController, AdminController adminController) {
+        this.accountController = accountController;
+        this.adminController = adminController;
+    }
+
+    /**
+     * Applies one command.
+     *
+     * @param type                Operation
+     * @param accountNumber       Account, or the source of a transfer; ignored for approvals
+     * @param targetAccountNumber Target of a transfer, otherwise ignored
+     * @param amount              Amount of a money movement, otherwise ignored
+     * @param reference           Idempotency key of a money movement (may be null), or the
+     *                            transaction ID of an approval
+     * @return Result
+     * @throws RuntimeException whatever the controller threw, for the caller to report and
+     *                          fail the command with
+     */
+    public OperationResult execute(CommandType type, int accountNumber, int targetAccountNumber, double amount,
+                                   String reference) {
+        return switch (type) {
+            case DEPOSIT -> accountController.deposit(reference,
+                    accountController.findAccount(accountNumber), amount);
+            case WITHDRAW -> accountController.withdraw(reference,
+                    accountController.findAccount(accountNumber), amount);
+            case TRANSFER -> accountController.transfer(reference, accountNumber, targetAccountNumber, amount);
+            case VERIFY, SUSPEND, APPEAL, CLOSE -> OperationResult.of(adminController.changeStatus(
+                    StatusAction.valueOf(type.name()), accountNumber));
+            case APPROVE -> OperationResult.of(adminController.approveTransaction(reference));
+            case REJECT -> OperationResult.of(adminController.rejectTransaction(reference));
+        };
+    }
+}
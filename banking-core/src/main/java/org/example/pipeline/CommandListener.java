@@ -0,0 +1,17 @@
+package org.example.pipeline;
+
+/**
+ * Replication or notification hook run for every command after it has been applied.
+ * Runs on the notification stage thread; the command slot is only valid during the call.
+ */
+@FunctionalInterface
+public interface CommandListener {
+
+    void onCommand(Command command);
+
+    /**
+     * Called after the last command of each batch, e.g. to flush buffered output once per batch.
+     */
+    default void onEndOfBatch() {
+    }
+}
@@ -0,0 +1,496 @@
+package org.example.pipeline;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.example.batch.ChannelWriter;
+import org.example.batch.TextFields;
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.StatusAction;
+import org.example.model.OperationResult;
+
+/**
+ * Optional sequenced ingestion pipeline for every mutating controller call.
+ * <p>
+ * Publishers claim a sequence with one atomic increment, fill the pre-allocated
+ * {@link Command} slot at that position of a power-of-two ring and mark it published.
+ * Three stage threads then follow each other around the ring:
+ * <ol>
+ *   <li>journaling, which appends each command to a file and forces it to disk once per batch;</li>
+ *   <li>business logic, which applies the command through {@link AccountController} and
+ *       {@link AdminController} and stores the result in the slot;</li>
+ *   <li>notification, which runs the {@link CommandListener}s (e.g. replication) and hands
+ *       the result to the publisher's {@link ResultSink}.</li>
+ * </ol>
+ * Each stage processes everything its predecessor has finished in one go, so batches grow
+ * by themselves under load and one {@code fsync} of the journal covers a whole batch, so a
+ * command is on disk before it is applied. A slot is reused only after the notification
+ * stage has passed it, and neither the ring nor the blocking helpers allocate per command;
+ * the controllers themselves still allocate their transaction records. Idle stages spin briefly, then yield, then park.
+ * <p>
+ * A command that throws fails on its own: it completes with {@link OperationResult#ERROR},
+ * the error is counted in {@code pipeline.errors} and passed to the error handler, and the
+ * stage moves on. A command whose journal line cannot be written is not applied.
+ */
+public class CommandPipeline implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 50_000;
+    private static final long CLOSE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final CommandExecutor executor;
+    private final Command[] slots;
+    private final int mask;
+    private final AtomicLong claimed;
+    // Per slot, the sequence last published into it
+    private final AtomicLongArray published;
+    private final ChannelWriter journal;
+    private final List<CommandListener> listeners = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Waiter> waiters = ThreadLocal.withInitial(Waiter::new);
+    private final LongAdder commands;
+    private final LongAdder batches;
+    private final LongAdder errors;
+    private volatile Consumer<Exception> errorHandler;
+    private final Stage journalStage;
+    private final Stage businessStage;
+    private final Stage notificationStage;
+    private volatile boolean running = true;
+    private volatile boolean stopped;
+
+    public CommandPipeline(AccountController accountController, AdminController adminController) throws IOException {
+        this(accountController, adminController, DEFAULT_CAPACITY, null);
+    }
+
+    /**
+     * @param accountController Controller applying money movements
+     * @param adminController   Controller applying status changes and approvals
+     * @param capacity          Ring size, a power of two
+     * @param journalPath       File the journaling stage writes to (replacing any content), or null
+     *                          to journal nothing
+     * @throws IOException if the journal cannot be opened
+     */
+    public CommandPipeline(AccountController accountController, AdminController adminController, int capacity,
+                           Path journalPath) throws IOException {
+        this(accountController, adminController, capacity, journalPath, 0);
+    }
+
+    /**
+     * Creates a pipeline continuing an earlier sequence, e.g. on a promoted standby.
+     *
+     * @param accountController Controller applying money movements
+     * @param adminController   Controller applying status changes and approvals
+     * @param capacity          Ring size, a power of two
+     * @param journalPath       File the journaling stage writes to (replacing any content), or null
+     *                          to journal nothing
+     * @param firstSequence     Sequence of the first command published
+     * @throws IOException if the journal cannot be opened
+     */
+    public CommandPipeline(AccountController accountController, AdminController adminController, int capacity,
+                           Path journalPath, long firstSequence) throws IOException {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        if (firstSequence < 0) {
+            throw new IllegalArgumentException("First sequence cannot be negative");
+        }
+        this.executor = new CommandExecutor(accountController, adminController);
+        this.slots = new Command[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Command();
+            published.set(i, -1);
+        }
+        this.mask = capacity - 1;
+        this.claimed = new AtomicLong(firstSequence - 1);
+        this.journal = journalPath == null ? null : new ChannelWriter(journalPath, 1 << 16);
+        this.commands = accountController.getMetrics().counter("pipeline.commands");
+        this.batches = accountController.getMetrics().counter("pipeline.batches");
+        this.errors = accountController.getMetrics().counter("pipeline.errors");
+
+        this.journalStage = new Stage("pipeline-journal", firstSequence - 1) {
+            @Override
+            long available(long next) {
+                long last = next - 1;
+                long limit = Math.min(claimed.get(), next + mask);
+                while (last < limit && published.get((int) (last + 1) & mask) == last + 1) {
+                    last++;
+                }
+                return last;
+            }
+
+            @Override
+            void handle(Command command) throws IOException {
+                if (journal != null && command.type != null) {
+                    journal.put(command.sequence).put('\t').put(command.type.name()).put('\t')
+                            .put(command.accountNumber).put('\t').put(command.targetAccountNumber).put('\t')
+                            .putAmount(command.amount).put('\t');
+                    TextFields.write(journal, command.reference);
+                    journal.put('\n');
+                }
+            }
+
+            @Override
+            void endOfBatch() throws IOException {
+                // Durable before the business stage may apply any of the batch
+                if (journal != null) {
+                    journal.force();
+                }
+            }
+
+            @Override
+            void batchFailed(long from, long to, Exception e) {
+                // Nothing in the batch is known to be on disk, so none of it is applied
+                report(e);
+                for (long s = from; s <= to; s++) {
+                    slots[(int) s & mask].result = OperationResult.ERROR;
+                }
+            }
+        };
+        this.businessStage = new Stage("pipeline-business", firstSequence - 1) {
+            @Override
+            long available(long next) {
+                return journalStage.sequence;
+            }
+
+            @Override
+            void handle(Command command) {
+                if (command.result != null) {
+                    // Failed on the journal stage
+                    return;
+                }
+                command.result = command.type == null ? OperationResult.REJECTED
+                        : executor.execute(command.type, command.accountNumber, command.targetAccountNumber,
+                        command.amount, command.reference);
+                commands.increment();
+            }
+
+            @Override
+            void endOfBatch() {
+                batches.increment();
+            }
+        };
+        this.notificationStage = new Stage("pipeline-notification", firstSequence - 1) {
+            @Override
+            long available(long next) {
+                return businessStage.sequence;
+            }
+
+            @Override
+            void handle(Command command) {
+                if (command.type != null) {
+                    for (CommandListener listener : listeners) {
+                        try {
+                            listener.onCommand(command);
+                        } catch (RuntimeException e) {
+                            report(e);
+                        }
+                    }
+                }
+                if (command.sink != null) {
+                    command.sink.complete(command.sequence, command.result);
+                }
+            }
+
+            @Override
+            void endOfBatch() {
+                for (CommandListener listener : listeners) {
+                    try {
+                        listener.onEndOfBatch();
+                    } catch (RuntimeException e) {
+                        report(e);
+                    }
+                }
+            }
+
+            @Override
+            void failed(Command command, Exception e) {
+                // The command was applied; only its sink failed
+                report(e);
+            }
+        };
+        accountController.getMetrics().gauge("pipeline.backlog", () -> claimed.get() - notificationStage.sequence);
+        journalStage.start();
+        businessStage.start();
+        notificationStage.start();
+    }
+
+    /**
+     * Registers a listener run for every applied command.
+     *
+     * @param listener Listener to add
+     */
+    public void addListener(CommandListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Sets the handler told about every exception a stage catches, on the stage's thread.
+     *
+     * @param errorHandler Handler, or null to only count errors
+     */
+    public void setErrorHandler(Consumer<Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    private void report(Exception e) {
+        errors.increment();
+        Consumer<Exception> handler = errorHandler;
+        if (handler != null) {
+            try {
+                handler.accept(e);
+            } catch (RuntimeException ignored) {
+                // A failing handler must not stop the stage either
+            }
+        }
+    }
+
+    // ===== Publishing =====
+
+    /**
+     * Publishes a command without waiting for it. Blocks only while the ring is full.
+     *
+     * @param type                Operation
+     * @param accountNumber       Account, or the source of a transfer; ignored for approvals
+     * @param targetAccountNumber Target of a transfer, otherwise -1
+     * @param amount              Amount of a money movement, otherwise 0
+     * @param reference           Idempotency key of a money movement (may be null), or the
+     *                            transaction ID of an approval
+     * @param sink                Receives the result, or null
+     * @return Sequence of the command, also passed to the sink
+     * @throws RejectedExecutionException if the pipeline is closed
+     */
+    public long publish(CommandType type, int accountNumber, int targetAccountNumber, double amount,
+                        String reference, ResultSink sink) {
+        long sequence = claimed.incrementAndGet();
+        int idle = 0;
+        while (sequence - slots.length > notificationStage.sequence) {
+            if (stopped) {
+                throw new RejectedExecutionException("Pipeline is closed");
+            }
+            idle = idle(idle);
+        }
+        // A sequence claimed after close must still be published, as a no-op, so the stages can pass it
+        boolean accepted = running;
+        slots[(int) sequence & mask].set(sequence, accepted ? type : null, accountNumber, targetAccountNumber,
+                amount, reference, accepted ? sink : null);
+        published.set((int) sequence & mask, sequence);
+        if (!accepted) {
+            throw new RejectedExecutionException("Pipeline is closed");
+        }
+        return sequence;
+    }
+
+    /**
+     * Publishes a command and waits for its result.
+     * Must not be called from a listener or sink, which run on the notification stage.
+     *
+     * @return Result of the command
+     * @throws RejectedExecutionException if the pipeline is closed
+     */
+    public OperationResult execute(CommandType type, int accountNumber, int targetAccountNumber, double amount,
+                                   String reference) {
+        Waiter waiter = waiters.get();
+        long sequence = publish(type, accountNumber, targetAccountNumber, amount, reference, waiter);
+        return waiter.await(sequence);
+    }
+
+    public OperationResult deposit(int accountNumber, double amount) {
+        return execute(CommandType.DEPOSIT, accountNumber, -1, amount, null);
+    }
+
+    public OperationResult withdraw(int accountNumber, double amount) {
+        return execute(CommandType.WITHDRAW, accountNumber, -1, amount, null);
+    }
+
+    public OperationResult transfer(int fromAccountNumber, int toAccountNumber, double amount) {
+        return execute(CommandType.TRANSFER, fromAccountNumber, toAccountNumber, amount, null);
+    }
+
+    public OperationResult changeStatus(StatusAction action, int accountNumber) {
+        return execute(CommandType.valueOf(action.name()), accountNumber, -1, 0, null);
+    }
+
+    public OperationResult approveTransaction(String transactionId) {
+        return execute(CommandType.APPROVE, -1, -1, 0, transactionId);
+    }
+
+    public OperationResult rejectTransaction(String transactionId) {
+        return execute(CommandType.REJECT, -1, -1, 0, transactionId);
+    }
+
+    /**
+     * Stops accepting commands, lets every published command through all stages, then stops
+     * the stage threads and closes the journal. Waits at most 10 seconds for the stages, and
+     * not at all once one has died; commands left unfinished then complete with
+     * {@link OperationResult#ERROR}.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        long last = claimed.get();
+        long deadline = System.nanoTime() + CLOSE_TIMEOUT_NANOS;
+        int idle = 0;
+        while (notificationStage.sequence < last && stagesAlive() && System.nanoTime() - deadline < 0) {
+            idle = idle(idle);
+        }
+        stopped = true;
+        try {
+            for (Stage stage : new Stage[]{journalStage, businessStage, notificationStage}) {
+                stage.thread.join(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (long s = notificationStage.sequence + 1; s <= last; s++) {
+            Command command = slots[(int) s & mask];
+            if (published.get((int) s & mask) == s && command.sink != null && !(command.sink instanceof Waiter)) {
+                command.sink.complete(s, OperationResult.ERROR);
+            }
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private boolean stagesAlive() {
+        return journalStage.thread.isAlive() && businessStage.thread.isAlive() && notificationStage.thread.isAlive();
+    }
+
+    private static int idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return tries + 1;
+    }
+
+    /**
+     * A consumer thread following its predecessor around the ring.
+     */
+    private abstract class Stage {
+
+        final Thread thread;
+        // Last sequence this stage has finished; only its own thread writes it
+        volatile long sequence;
+
+        Stage(String name, long sequence) {
+            this.sequence = sequence;
+            this.thread = Thread.ofPlatform().daemon().name(name).unstarted(this::run);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        /**
+         * Gets the highest sequence ready for this stage, or {@code next - 1} if none is.
+         */
+        abstract long available(long next);
+
+        abstract void handle(Command command) throws IOException;
+
+        void endOfBatch() throws IOException {
+        }
+
+        /**
+         * Handles an exception thrown for one command: by default the command fails with
+         * {@link OperationResult#ERROR}, which later stages pass on.
+         */
+        void failed(Command command, Exception e) {
+            report(e);
+            command.result = OperationResult.ERROR;
+        }
+
+        /**
+         * Handles an exception thrown at the end of the batch from {@code from} to {@code to}.
+         */
+        void batchFailed(long from, long to, Exception e) {
+            report(e);
+        }
+
+        private void run() {
+            int idle = 0;
+            while (!stopped) {
+                long next = sequence + 1;
+                long available = available(next);
+                if (available < next) {
+                    idle = idle(idle);
+                    continue;
+                }
+                for (long s = next; s <= available; s++) {
+                    Command command = slots[(int) s & mask];
+                    try {
+                        handle(command);
+                    } catch (IOException | RuntimeException e) {
+                        failed(command, e);
+                    }
+                }
+                try {
+                    endOfBatch();
+                } catch (IOException | RuntimeException e) {
+                    batchFailed(next, available, e);
+                }
+                sequence = available;
+                idle = 0;
+            }
+        }
+    }
+
+    /**
+     * Per-thread sink used by the blocking helpers; spins, then parks until its command
+     * completes or the pipeline stops without completing it.
+     */
+    private final class Waiter implements ResultSink {
+
+        private final Thread thread = Thread.currentThread();
+        private volatile long completed = -1;
+        private volatile boolean parked;
+        private OperationResult result;
+
+        @Override
+        public void complete(long sequence, OperationResult result) {
+            this.result = result;
+            completed = sequence;
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        OperationResult await(long sequence) {
+            int tries = 0;
+            while (completed != sequence) {
+                if (stopped) {
+                    // close() gave up on the stages; a late completion may still have arrived
+                    return completed == sequence ? result : OperationResult.ERROR;
+                }
+                if (tries < SPIN_TRIES + YIELD_TRIES) {
+                    idle(tries++);
+                } else {
+                    parked = true;
+                    if (completed != sequence) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                    parked = false;
+                }
+            }
+            return result;
+        }
+    }
+}
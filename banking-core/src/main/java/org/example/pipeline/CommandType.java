@@ -0,0 +1,16 @@
+package org.example.pipeline;
+
+/**
+ * Mutating operations that can be published to a {@link CommandPipeline}.
+ */
+public enum CommandType {
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER,
+    VERIFY,
+    SUSPEND,
+    APPEAL,
+    CLOSE,
+    APPROVE,
+    REJECT
+}
@@ -0,0 +1,77 @@
+package org.example.pipeline;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.workload.LatencyHistogram;
+
+/**
+ * Measures transfer throughput through a {@link CommandPipeline} fed by several publishers,
+ * then the latency of blocking single transfers on an otherwise idle pipeline.
+ * Arguments: {@code [transfers] [publishers] [accounts]}, defaulting to 5,000,000 transfers,
+ * 4 publishers and 10,000 accounts.
+ */
+public class PipelineBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        long transfers = args.length > 0 ? Long.parseLong(args[0]) : 5_000_000L;
+        int publishers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int accountCount = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        UserController userController = new UserController();
+        AccountController accountController = new AccountController(userController);
+        int[] accounts = new int[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            Account account = new Account(1_000_000);
+            account.verify();
+            accountController.registerAccount(account);
+            accounts[i] = account.getAccountNumber();
+        }
+
+        try (CommandPipeline pipeline = new CommandPipeline(accountController,
+                new AdminController(userController, accountController))) {
+            long perPublisher = transfers / publishers;
+            CountDownLatch done = new CountDownLatch(1);
+            long last = perPublisher * publishers - 1;
+            ResultSink sink = (sequence, result) -> {
+                if (sequence == last) {
+                    done.countDown();
+                }
+            };
+            Thread[] threads = new Thread[publishers];
+            long start = System.nanoTime();
+            for (int p = 0; p < publishers; p++) {
+                SplittableRandom random = new SplittableRandom(p);
+                threads[p] = Thread.ofPlatform().start(() -> {
+                    for (long i = 0; i < perPublisher; i++) {
+                        pipeline.publish(CommandType.TRANSFER, accounts[random.nextInt(accountCount)],
+                                accounts[random.nextInt(accountCount)], 1 + random.nextInt(10_000) / 100.0, null, sink);
+                    }
+                });
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            done.await();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long total = perPublisher * publishers;
+            System.out.printf("%d transfers in %.2fs: %.0f/s%n", total, seconds, total / seconds);
+
+            LatencyHistogram latency = new LatencyHistogram();
+            SplittableRandom random = new SplittableRandom(-1);
+            for (int i = 0; i < 100_000; i++) {
+                int from = accounts[random.nextInt(accountCount)];
+                int to = accounts[random.nextInt(accountCount)];
+                long t = System.nanoTime();
+                pipeline.transfer(from, to, 1);
+                latency.record(System.nanoTime() - t);
+            }
+            System.out.printf("single transfer latency: median %.1fus, p99 %.1fus%n",
+                    latency.percentile(50) / 1e3, latency.percentile(99) / 1e3);
+        }
+    }
+}
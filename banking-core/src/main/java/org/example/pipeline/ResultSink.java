@@ -0,0 +1,17 @@
+package org.example.pipeline;
+
+import org.example.model.OperationResult;
+
+/**
+ * Receives the outcome of a published command on the notification stage thread.
+ * Publishers that reuse one sink for many commands allocate nothing per command.
+ */
+@FunctionalInterface
+public interface ResultSink {
+
+    /**
+     * @param sequence Sequence returned when the command was published
+     * @param result   Outcome of the command
+     */
+    void complete(long sequence, OperationResult result);
+}
@@ -0,0 +1,103 @@
+package org.example.protocol;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.EOFException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocking, pipelining client for the binary protocol.
+ * Requests are encoded into a direct buffer and only hit the socket on {@link #flush()}
+ * (or when the buffer fills), so callers control batching. Not thread-safe.
+ */
+public class BinaryProtocolClient implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Receives decoded responses.
+     */
+    @FunctionalInterface
+    public interface ResponseHandler {
+        void onResponse(long correlationId, byte status, long value);
+    }
+
+    public BinaryProtocolClient(InetSocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    }
+
+    /**
+     * Queues a request frame.
+     *
+     * @param opcode        One of the {@code Frames.OP_*} constants
+     * @param correlationId Identifier echoed in the response
+     * @param from          Source account number
+     * @param to            Target account number
+     * @param amountCents   Amount in cents
+     * @throws IOException if the buffer had to be flushed and writing failed
+     */
+    public void send(byte opcode, long correlationId, int from, int to, long amountCents) throws IOException {
+        if (out.remaining() < Frames.REQUEST_FRAME_LENGTH) {
+            flush();
+        }
+        out.putInt(Frames.REQUEST_BODY_LENGTH)
+                .put(opcode)
+                .putLong(correlationId)
+                .putInt(from)
+                .putInt(to)
+                .putLong(amountCents);
+    }
+
+    /**
+     * Writes all queued requests to the socket.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Blocks until at least one response is available, then dispatches every complete response.
+     *
+     * @param handler Receives each response
+     * @return Number of responses dispatched
+     * @throws IOException if the connection fails or is closed by the server
+     */
+    public int receive(ResponseHandler handler) throws IOException {
+        while (in.position() < Frames.RESPONSE_FRAME_LENGTH) {
+            if (channel.read(in) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+        in.flip();
+        int count = 0;
+        while (in.remaining() >= Frames.RESPONSE_FRAME_LENGTH) {
+            in.getInt();
+            long correlationId = in.getLong();
+            byte status = in.get();
+            long value = in.getLong();
+            handler.onResponse(correlationId, status, value);
+            count++;
+        }
+        in.compact();
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
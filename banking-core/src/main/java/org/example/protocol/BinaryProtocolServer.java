@@ -0,0 +1,328 @@
+package org.example.protocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.example.controllers.AccountController;
+import org.example.model.Account;
+import org.example.model.OperationResult;
+
+/**
+ * NIO server for the binary protocol described in {@link Frames}.
+ * One acceptor thread hands connections round-robin to a fixed set of event loops.
+ * Each event loop reads whatever is available, executes every complete frame directly
+ * against {@link AccountController} and writes all responses for that read in a single
+ * batch, so pipelined clients pay one syscall per batch rather than per request.
+ */
+public class BinaryProtocolServer {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ServerSocketChannel serverChannel;
+    private final AccountController accountController;
+    private final BufferPool bufferPool = new BufferPool(BUFFER_SIZE);
+    private final EventLoop[] loops;
+    private final Thread acceptor;
+    private volatile boolean running;
+
+    public BinaryProtocolServer(InetSocketAddress address, AccountController accountController, int ioThreads)
+            throws IOException {
+        if (ioThreads < 1) {
+            throw new IllegalArgumentException("At least one I/O thread is required");
+        }
+        this.accountController = accountController;
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        this.loops = new EventLoop[ioThreads];
+        for (int i = 0; i < ioThreads; i++) {
+            loops[i] = new EventLoop("binary-io-" + i);
+        }
+        this.acceptor = new Thread(this::acceptLoop, "binary-acceptor");
+    }
+
+    /**
+     * Starts accepting connections.
+     */
+    public void start() {
+        running = true;
+        for (EventLoop loop : loops) {
+            loop.thread.start();
+        }
+        acceptor.start();
+    }
+
+    /**
+     * Stops accepting connections and closes all open ones.
+     * Each event loop closes its own connections on its way out; this waits for the
+     * acceptor and every loop to finish.
+     */
+    public void stop() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+        try {
+            join(acceptor);
+            for (EventLoop loop : loops) {
+                loop.selector.wakeup();
+                join(loop.thread);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void join(Thread thread) throws InterruptedException {
+        if (thread.isAlive() && thread != Thread.currentThread()) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Gets the bound port (useful when started on port 0).
+     *
+     * @return Local port
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                loops[next++ % loops.length].register(channel);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-connection buffers borrowed from the pool.
+     * Only touched by the owning event loop's thread.
+     */
+    private final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = bufferPool.acquire();
+        final ByteBuffer out = bufferPool.acquire();
+        private boolean closed;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Closes the channel and returns the buffers to the pool; later calls do nothing.
+         */
+        void close(SelectionKey key) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+            bufferPool.release(in);
+            bufferPool.release(out);
+        }
+    }
+
+    private final class EventLoop implements Runnable {
+        final Thread thread;
+        final Selector selector;
+        final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+
+        EventLoop(String name) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, name);
+        }
+
+        void register(SocketChannel channel) {
+            pending.offer(channel);
+            selector.wakeup();
+        }
+
+        /**
+         * Closes every connection and the selector. Runs on the loop thread once it stops.
+         */
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) {
+                    connection.close(key);
+                }
+            }
+            SocketChannel channel;
+            while ((channel = pending.poll()) != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Never registered
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Shutting down
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    SocketChannel channel;
+                    while ((channel = pending.poll()) != null) {
+                        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (!key.isValid()) {
+                                continue;
+                            }
+                            if (key.isWritable()) {
+                                onWritable(key, connection);
+                            } else if (key.isReadable()) {
+                                onReadable(key, connection);
+                            }
+                        } catch (IOException e) {
+                            connection.close(key);
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                // Selector failed; fall through and release what is left
+            } finally {
+                closeAll();
+            }
+        }
+
+        private void onReadable(SelectionKey key, Connection connection) throws IOException {
+            if (connection.channel.read(connection.in) < 0) {
+                connection.close(key);
+                return;
+            }
+            processAndFlush(key, connection);
+        }
+
+        private void onWritable(SelectionKey key, Connection connection) throws IOException {
+            if (flush(connection)) {
+                // Drained: resume reading and handle any frames that were held back
+                key.interestOps(SelectionKey.OP_READ);
+                processAndFlush(key, connection);
+            }
+        }
+
+        private void processAndFlush(SelectionKey key, Connection connection) throws IOException {
+            ByteBuffer in = connection.in;
+            in.flip();
+            boolean valid = processFrames(in, connection.out);
+            in.compact();
+            if (!valid) {
+                flush(connection);
+                connection.close(key);
+                return;
+            }
+            if (!flush(connection)) {
+                // Client is not keeping up; stop reading until responses drain
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+        }
+
+        private boolean flush(Connection connection) throws IOException {
+            ByteBuffer out = connection.out;
+            out.flip();
+            connection.channel.write(out);
+            boolean drained = !out.hasRemaining();
+            out.compact();
+            return drained;
+        }
+    }
+
+    /**
+     * Executes every complete frame in {@code in} while there is room for its response.
+     *
+     * @return false if a malformed frame was seen and the connection must be closed
+     */
+    boolean processFrames(ByteBuffer in, ByteBuffer out) {
+        while (in.remaining() >= 4 && out.remaining() >= Frames.RESPONSE_FRAME_LENGTH) {
+            int length = in.getInt(in.position());
+            if (length != Frames.REQUEST_BODY_LENGTH) {
+                return false;
+            }
+            if (in.remaining() < Frames.REQUEST_FRAME_LENGTH) {
+                break;
+            }
+            in.getInt();
+            byte opcode = in.get();
+            long correlationId = in.getLong();
+            int from = in.getInt();
+            int to = in.getInt();
+            long amountCents = in.getLong();
+
+            out.putInt(Frames.RESPONSE_BODY_LENGTH);
+            out.putLong(correlationId);
+            if (opcode == Frames.OP_BALANCE) {
+                Account account = accountController.findAccount(from);
+                out.put(account == null ? Frames.STATUS_NOT_FOUND : Frames.STATUS_OK);
+                out.putLong(account == null ? 0 : Math.round(account.getBalance() * 100));
+            } else {
+                out.put(execute(opcode, from, to, amountCents));
+                out.putLong(0);
+            }
+        }
+        return true;
+    }
+
+    private byte execute(byte opcode, int from, int to, long amountCents) {
+        if (amountCents <= 0) {
+            return Frames.STATUS_BAD_REQUEST;
+        }
+        double amount = amountCents / 100.0;
+        return switch (opcode) {
+            case Frames.OP_DEPOSIT -> status(accountController.deposit(null, accountController.findAccount(to), amount));
+            case Frames.OP_WITHDRAW -> status(accountController.withdraw(null, accountController.findAccount(from), amount));
+            case Frames.OP_TRANSFER -> status(accountController.transfer(null, from, to, amount));
+            default -> Frames.STATUS_BAD_REQUEST;
+        };
+    }
+
+    private static byte status(OperationResult result) {
+        return switch (result) {
+            case SUCCESS -> Frames.STATUS_OK;
+            case ACCOUNT_NOT_FOUND -> Frames.STATUS_NOT_FOUND;
+            case RATE_LIMITED -> Frames.STATUS_RATE_LIMITED;
+            case DAILY_LIMIT_EXCEEDED -> Frames.STATUS_LIMIT_EXCEEDED;
+            case PENDING_REVIEW -> Frames.STATUS_PENDING_REVIEW;
+            default -> Frames.STATUS_REJECTED;
+        };
+    }
+}
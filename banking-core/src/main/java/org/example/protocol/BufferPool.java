@@ -0,0 +1,33 @@
+package org.example.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Pool of fixed-size direct buffers.
+ * Direct buffers are expensive to allocate and free, so connections borrow them
+ * when they open and hand them back when they close.
+ */
+class BufferPool {
+
+    private final int bufferSize;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+    BufferPool(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        return buffer.clear();
+    }
+
+    void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.capacity() == bufferSize) {
+            free.offer(buffer);
+        }
+    }
+}
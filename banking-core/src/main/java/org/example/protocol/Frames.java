@@ -0,0 +1,47 @@
+package org.example.protocol;
+
+/**
+ * Wire layout of the binary protocol. All integers are big-endian.
+ *
+ * <pre>
+ * Request frame (29 bytes):
+ *   int   length          always 25 (bytes that follow)
+ *   byte  opcode          {@link #OP_DEPOSIT}, {@link #OP_WITHDRAW}, {@link #OP_TRANSFER}, {@link #OP_BALANCE}
+ *   long  correlationId   echoed in the response
+ *   int   fromAccount     source account (withdraw, transfer, balance)
+ *   int   toAccount       target account (deposit, transfer)
+ *   long  amountCents     amount in cents (ignored for balance)
+ *
+ * Response frame (21 bytes):
+ *   int   length          always 17
+ *   long  correlationId
+ *   byte  status          {@link #STATUS_OK}, {@link #STATUS_REJECTED}, {@link #STATUS_NOT_FOUND},
+ *                         {@link #STATUS_BAD_REQUEST}, {@link #STATUS_RATE_LIMITED}, {@link #STATUS_LIMIT_EXCEEDED},
+ *                         {@link #STATUS_PENDING_REVIEW}
+ *   long  value           balance in cents for balance requests, otherwise 0
+ * </pre>
+ * Clients may pipeline any number of requests; responses come back in request order.
+ */
+public final class Frames {
+
+    public static final byte OP_DEPOSIT = 1;
+    public static final byte OP_WITHDRAW = 2;
+    public static final byte OP_TRANSFER = 3;
+    public static final byte OP_BALANCE = 4;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_REJECTED = 1;
+    public static final byte STATUS_NOT_FOUND = 2;
+    public static final byte STATUS_BAD_REQUEST = 3;
+    public static final byte STATUS_RATE_LIMITED = 4;
+    public static final byte STATUS_LIMIT_EXCEEDED = 5;
+    public static final byte STATUS_PENDING_REVIEW = 6;
+
+    public static final int REQUEST_BODY_LENGTH = 1 + 8 + 4 + 4 + 8;
+    public static final int REQUEST_FRAME_LENGTH = 4 + REQUEST_BODY_LENGTH;
+    public static final int RESPONSE_BODY_LENGTH = 8 + 1 + 8;
+    public static final int RESPONSE_FRAME_LENGTH = 4 + RESPONSE_BODY_LENGTH;
+
+    private Frames() {
+    }
+}
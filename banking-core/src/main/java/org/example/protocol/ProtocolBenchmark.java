@@ -0,0 +1,58 @@
+package org.example.protocol;
+
+import java.net.InetSocketAddress;
+import java.util.SplittableRandom;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+
+/**
+ * Measures transfer throughput over a single pipelined connection to a local server.
+ * Arguments: {@code [transfers] [window] [accounts]}, defaulting to 5,000,000 transfers,
+ * 4,096 requests in flight and 10,000 accounts.
+ */
+public class ProtocolBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        long transfers = args.length > 0 ? Long.parseLong(args[0]) : 5_000_000L;
+        int window = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        int accountCount = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        AccountController accountController = new AccountController(new UserController());
+        int[] accounts = new int[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            Account account = new Account(1_000_000);
+            account.verify();
+            accountController.registerAccount(account);
+            accounts[i] = account.getAccountNumber();
+        }
+
+        BinaryProtocolServer server = new BinaryProtocolServer(new InetSocketAddress("127.0.0.1", 0), accountController, 1);
+        server.start();
+        try (BinaryProtocolClient client = new BinaryProtocolClient(new InetSocketAddress("127.0.0.1", server.getPort()))) {
+            SplittableRandom random = new SplittableRandom(1);
+            long[] ok = new long[1];
+            long sent = 0;
+            long received = 0;
+            long start = System.nanoTime();
+            while (received < transfers) {
+                while (sent < transfers && sent - received < window) {
+                    int from = accounts[random.nextInt(accountCount)];
+                    int to = accounts[random.nextInt(accountCount)];
+                    client.send(Frames.OP_TRANSFER, sent++, from, to, 1 + random.nextInt(10_000));
+                }
+                client.flush();
+                received += client.receive((id, status, value) -> {
+                    if (status == Frames.STATUS_OK) {
+                        ok[0]++;
+                    }
+                });
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d transfers in %.2fs: %.0f/s (%d ok)%n", transfers, seconds, transfers / seconds, ok[0]);
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.replication;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.example.metrics.Metrics;
+
+/**
+ * Primary side of journal shipping: streams a {@link ReplicationJournal} file to standbys.
+ * <p>
+ * A standby connects and sends the 8-byte offset it already holds. A dedicated thread then
+ * sends whatever the journal has gained since with {@link FileChannel#transferTo}, so the
+ * bytes go from the page cache to the socket without passing through the heap, and
+ * everything written between two polls leaves as one batch. The standby answers each batch
+ * with the 8-byte offset it has applied up to, and the largest gap between the journal end
+ * and an acknowledged offset is published as the {@code replication.lag_bytes} gauge.
+ */
+public class JournalShipper {
+
+    private static final long IDLE_PARK_NANOS = 200_000;
+
+    private final ServerSocketChannel serverChannel;
+    private final Path journal;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder shippedBytes;
+    private final LongAdder batches;
+    private final Thread acceptor;
+    private volatile boolean running;
+
+    /**
+     * @param address Address to listen on
+     * @param journal Journal file written by a {@link ReplicationJournal}
+     * @param metrics Registry for the {@code replication.*} metrics
+     * @throws IOException if the address cannot be bound
+     */
+    public JournalShipper(InetSocketAddress address, Path journal, Metrics metrics) throws IOException {
+        this.journal = journal;
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        this.shippedBytes = metrics.counter("replication.shipped_bytes");
+        this.batches = metrics.counter("replication.batches");
+        metrics.gauge("replication.standbys", connections::size);
+        metrics.gauge("replication.lag_bytes", () -> {
+            long lag = 0;
+            for (Connection connection : connections) {
+                lag = Math.max(lag, connection.end - connection.acknowledged);
+            }
+            return lag;
+        });
+        this.acceptor = new Thread(this::acceptLoop, "journal-shipper");
+        acceptor.setDaemon(true);
+    }
+
+    /**
+     * Starts accepting standbys.
+     */
+    public void start() {
+        running = true;
+        acceptor.start();
+    }
+
+    /**
+     * Stops accepting standbys and disconnects the connected ones.
+     */
+    public void stop() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Gets the bound port (useful when started on port 0).
+     *
+     * @return Local port
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Connection connection = new Connection(channel);
+                Thread sender = new Thread(connection::ship, "journal-shipper-" + channel.getRemoteAddress());
+                sender.setDaemon(true);
+                sender.start();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * One standby: a sender thread shipping the journal and a reader thread collecting acknowledgements.
+     */
+    private final class Connection {
+        final SocketChannel channel;
+        // Journal end as last seen by the sender, and the offset the standby has applied up to
+        volatile long end;
+        volatile long acknowledged;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void ship() {
+            ByteBuffer offset = ByteBuffer.allocate(Long.BYTES);
+            try (FileChannel source = FileChannel.open(journal, StandardOpenOption.READ)) {
+                readFully(offset);
+                long position = offset.getLong(0);
+                if (position < 0 || position > source.size()) {
+                    return;
+                }
+                acknowledged = position;
+                end = position;
+                connections.add(this);
+                Thread reader = new Thread(this::readAcknowledgements, Thread.currentThread().getName() + "-acks");
+                reader.setDaemon(true);
+                reader.start();
+
+                while (running && channel.isOpen()) {
+                    long size = source.size();
+                    end = size;
+                    if (size == position) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                        continue;
+                    }
+                    long sent = source.transferTo(position, size - position, channel);
+                    position += sent;
+                    shippedBytes.add(sent);
+                    batches.increment();
+                }
+            } catch (IOException e) {
+                // Standby went away or the journal is unreadable; it reconnects with its offset
+            } finally {
+                close();
+            }
+        }
+
+        void readAcknowledgements() {
+            ByteBuffer ack = ByteBuffer.allocate(Long.BYTES);
+            try {
+                while (running) {
+                    ack.clear();
+                    readFully(ack);
+                    acknowledged = ack.getLong(0);
+                }
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void readFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new ClosedChannelException();
+                }
+            }
+        }
+
+        void close() {
+            connections.remove(this);
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+        }
+    }
+}
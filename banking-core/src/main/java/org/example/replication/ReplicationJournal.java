@@ -0,0 +1,213 @@
+package org.example.replication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.example.batch.ChannelWriter;
+import org.example.batch.TextFields;
+import org.example.controllers.ChangeListener;
+import org.example.model.Account;
+import org.example.model.Transaction;
+
+/**
+ * Change listener appending every transaction and account change of an
+ * {@link org.example.controllers.AccountController} to the file a {@link JournalShipper}
+ * streams to standbys. One tab-separated line per event:
+ * <pre>
+ *   sequence  T  id  type  cents  source|-  target|-  timestamp  status  reason|-
+ *   sequence  A  account  status  ledgerCents  availableCents  version
+ * </pre>
+ * The journal records outcomes rather than requests, so standbys reproduce the primary's
+ * state whatever entry point changed it: the pipeline, HTTP, batch jobs, scheduled transfers,
+ * hold expiry and review decisions. Text fields are escaped with {@link TextFields}, so a
+ * reference or reason can hold any character without breaking the line. Lines are buffered
+ * and flushed by a daemon thread within about a millisecond; an existing file is appended
+ * to, continuing its sequence, so a promoted standby keeps extending the journal it
+ * received. Listeners are called on the writer's thread, so a line is in the buffer before
+ * the change's caller returns.
+ */
+public class ReplicationJournal implements ChangeListener, Closeable {
+
+    private static final long FLUSH_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int TAIL_BYTES = 1 << 16;
+
+    private final ChannelWriter writer;
+    private final Thread flusher;
+    private long sequence;
+    private boolean dirty;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * @param path Journal file; created if missing, appended to otherwise
+     * @throws IOException if the file cannot be opened or its last line cannot be read
+     */
+    public ReplicationJournal(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            this.sequence = lastSequence(channel);
+            channel.position(channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.writer = new ChannelWriter(channel, ByteBuffer.allocateDirect(1 << 16));
+        this.flusher = Thread.ofPlatform().daemon().name("replication-journal-flush").start(this::flushLoop);
+    }
+
+    @Override
+    public synchronized void onTransaction(Transaction transaction) {
+        try {
+            writer.put(next()).put("\tT\t");
+            TextFields.write(writer, transaction.getTransactionId());
+            writer.put('\t').put(transaction.getType().name()).put('\t')
+                    .put(Math.round(transaction.getAmount() * 100)).put('\t');
+            putNumber(transaction.getSourceAccountNumber());
+            writer.put('\t');
+            putNumber(transaction.getTargetAccountNumber());
+            writer.put('\t').put(transaction.getTimestamp().toString()).put('\t')
+                    .put(transaction.getStatus().name()).put('\t');
+            TextFields.write(writer, transaction.getReviewReason());
+            writer.put('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void onAccountChanged(Account account) {
+        // Read under the lock, so a later line never carries an older version
+        Account.StateSnapshot snapshot = account.getStateSnapshot();
+        try {
+            writer.put(next()).put("\tA\t").put(account.getAccountNumber()).put('\t')
+                    .put(snapshot.status().name()).put('\t').put(snapshot.ledgerCents()).put('\t')
+                    .put(snapshot.availableCents()).put('\t').put(snapshot.version()).put('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the sequence of the last line written, or -1 if the journal is empty.
+     */
+    public synchronized long getLastSequence() {
+        return sequence;
+    }
+
+    /**
+     * Writes every buffered line to the file now.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        writer.flush();
+        dirty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            writer.close();
+        }
+    }
+
+    private long next() throws IOException {
+        if (closed) {
+            throw new IOException("Replication journal is closed");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        dirty = true;
+        return ++sequence;
+    }
+
+    private void putNumber(Integer accountNumber) throws IOException {
+        if (accountNumber == null) {
+            writer.put('-');
+        } else {
+            writer.put(accountNumber);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            LockSupport.parkNanos(FLUSH_NANOS);
+            synchronized (this) {
+                if (dirty && failure == null) {
+                    try {
+                        writer.flush();
+                        dirty = false;
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the sequence of the last complete line, or -1 for an empty journal, cutting off
+     * any incomplete line after it.
+     */
+    private static long lastSequence(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return -1;
+        }
+        ByteBuffer tail = ByteBuffer.allocate((int) Math.min(size, TAIL_BYTES));
+        long start = size - tail.capacity();
+        while (tail.hasRemaining()) {
+            if (channel.read(tail, start + tail.position()) < 0) {
+                throw new IOException("Journal shrank while reading");
+            }
+        }
+        String text = new String(tail.array(), StandardCharsets.US_ASCII);
+        int end = text.lastIndexOf('\n');
+        if (end < 0 && start == 0) {
+            channel.truncate(0);
+            return -1;
+        }
+        if (end < 0) {
+            throw new IOException("Last journal line longer than " + TAIL_BYTES + " bytes");
+        }
+        // A line cut short by a crash was never shipped whole; drop it
+        channel.truncate(start + end + 1);
+        int begin = text.lastIndexOf('\n', end - 1) + 1;
+        if (begin == 0 && start > 0) {
+            throw new IOException("Last journal line longer than " + TAIL_BYTES + " bytes");
+        }
+        try {
+            return Long.parseLong(text, begin, text.indexOf('\t', begin), 10);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt last journal line", e);
+        }
+    }
+}
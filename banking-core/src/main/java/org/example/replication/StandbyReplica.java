@@ -0,0 +1,333 @@
+package org.example.replication;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.example.batch.TextFields;
+import org.example.controllers.AccountController;
+import org.example.model.Account;
+import org.example.model.Transaction;
+
+/**
+ * Hot standby tailing a primary's {@link ReplicationJournal} through its {@link JournalShipper}.
+ * <p>
+ * Received bytes are appended to a local copy of the journal, and every complete line is
+ * applied to this standby's own controllers as it arrives, so the standby can answer balance
+ * and history queries at any time and can take over with {@link #promote} without replaying
+ * anything. On construction the local copy is applied first, so a restarted standby only asks
+ * the primary for what it has not seen.
+ * <p>
+ * Nothing is re-executed. Account lines carry the primary's status and balances with a
+ * version, and the standby adopts them as they are, keeping the latest version; transaction
+ * lines carry the primary's IDs, timestamps and outcomes and go into the histories and the
+ * ledger as they are. A transaction held for review arrives as PENDING and is settled by the
+ * later line with its decision. The standby must start from the same accounts as the primary
+ * (e.g. imported from the same snapshot); a line for an account it does not have is counted
+ * in {@code replica.divergent}.
+ */
+public class StandbyReplica {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final long RECONNECT_NANOS = 100_000_000;
+
+    private final AccountController accountController;
+    private final InetSocketAddress primary;
+    private final FileChannel journal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer control = ByteBuffer.allocate(Long.BYTES);
+    private final LongAdder events;
+    private final LongAdder divergent;
+    private byte[] line = new byte[256];
+    private volatile long appliedOffset;
+    private volatile long appliedSequence = -1;
+    private volatile SocketChannel channel;
+    private volatile boolean running;
+    private Thread receiver;
+    private boolean promoted;
+
+    /**
+     * Opens the local journal copy and applies what it already holds.
+     *
+     * @param accountController Standby controller receiving account state and transactions
+     * @param journalPath       Local copy of the primary's journal; created if missing
+     * @param primary           Address of the primary's {@link JournalShipper}
+     * @throws IOException if the local copy cannot be read or holds a corrupt line
+     */
+    public StandbyReplica(AccountController accountController, Path journalPath, InetSocketAddress primary)
+            throws IOException {
+        this.accountController = accountController;
+        this.primary = primary;
+        this.journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.events = accountController.getMetrics().counter("replica.events");
+        this.divergent = accountController.getMetrics().counter("replica.divergent");
+        accountController.getMetrics().gauge("replica.applied_bytes", () -> appliedOffset);
+        accountController.getMetrics().gauge("replica.applied_sequence", () -> appliedSequence);
+
+        long position = 0;
+        int read;
+        while ((read = journal.read(buffer, position)) > 0) {
+            position += read;
+            buffer.flip();
+            consume();
+            buffer.compact();
+        }
+    }
+
+    /**
+     * Starts tailing the primary. Dropped connections are retried until {@link #stop} or {@link #promote}.
+     */
+    public synchronized void start() {
+        if (promoted) {
+            throw new IllegalStateException("Standby has been promoted");
+        }
+        if (receiver == null) {
+            running = true;
+            receiver = new Thread(this::receiveLoop, "standby-replica");
+            receiver.setDaemon(true);
+            receiver.start();
+        }
+    }
+
+    /**
+     * Stops tailing; the standby keeps serving queries from what it has applied.
+     */
+    public synchronized void stop() {
+        running = false;
+        SocketChannel current = channel;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+        }
+        if (receiver != null) {
+            try {
+                receiver.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            receiver = null;
+        }
+    }
+
+    /**
+     * Stops tailing and hands the standby's state over for use as a primary.
+     * Nothing is replayed: the controllers already hold every applied change. The local
+     * journal copy is cut back to the last applied line, so the new primary can append to
+     * it with a {@link ReplicationJournal}, which continues its sequence, and ship it on to
+     * the next standby.
+     *
+     * @return Sequence of the next journal line
+     * @throws IOException if the local journal cannot be truncated
+     */
+    public synchronized long promote() throws IOException {
+        if (promoted) {
+            throw new IllegalStateException("Standby has been promoted");
+        }
+        stop();
+        promoted = true;
+        journal.truncate(appliedOffset);
+        journal.force(false);
+        journal.close();
+        return appliedSequence + 1;
+    }
+
+    // ===== Read-Only Queries =====
+
+    /**
+     * Gets the ledger balance of an account as of the last applied line.
+     *
+     * @param accountNumber Account number
+     * @return Balance, or empty if the account is unknown
+     */
+    public OptionalDouble getBalance(int accountNumber) {
+        Account account = accountController.findAccount(accountNumber);
+        return account == null ? OptionalDouble.empty() : OptionalDouble.of(account.getBalance());
+    }
+
+    /**
+     * Gets one page of an account's history as of the last applied line, with the
+     * primary's transaction IDs.
+     *
+     * @param accountNumber Account number
+     * @param offset        Index of the first transaction, oldest first
+     * @param limit         Maximum number of transactions
+     * @return Snapshot of the page (empty if the account is unknown)
+     */
+    public List<Transaction> getTransactionHistory(int accountNumber, int offset, int limit) {
+        Account account = accountController.findAccount(accountNumber);
+        return account == null ? List.of() : accountController.getTransactionHistory(account, offset, limit);
+    }
+
+    /**
+     * Waits until a journal line has been applied, e.g. to read a client's own write.
+     *
+     * @param sequence Journal sequence of the line
+     * @param timeout  Maximum time to wait
+     * @return true if the line has been applied
+     */
+    public boolean awaitSequence(long sequence, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (appliedSequence < sequence) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(100_000);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the sequence of the last applied line, or -1.
+     */
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Gets the journal offset up to which lines have been applied.
+     */
+    public long getAppliedOffset() {
+        return appliedOffset;
+    }
+
+    public boolean isConnected() {
+        return channel != null;
+    }
+
+    // ===== Receiving =====
+
+    private void receiveLoop() {
+        while (running) {
+            try (SocketChannel socket = SocketChannel.open(primary)) {
+                channel = socket;
+                if (!running) {
+                    return;
+                }
+                socket.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                receive(socket);
+            } catch (IOException e) {
+                // Primary unreachable or gone; retry below unless stopping
+            } finally {
+                channel = null;
+            }
+            if (running) {
+                LockSupport.parkNanos(RECONNECT_NANOS);
+            }
+        }
+    }
+
+    private void receive(SocketChannel socket) throws IOException {
+        // Drop any partial line left by an earlier connection and ask for everything after the last applied one
+        journal.truncate(appliedOffset);
+        journal.position(appliedOffset);
+        buffer.clear();
+        acknowledge(socket);
+
+        while (running) {
+            int start = buffer.position();
+            if (socket.read(buffer) < 0) {
+                return;
+            }
+            ByteBuffer received = buffer.duplicate().flip().position(start);
+            while (received.hasRemaining()) {
+                journal.write(received);
+            }
+            buffer.flip();
+            consume();
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                throw new IOException("Journal line longer than " + BUFFER_SIZE + " bytes");
+            }
+            acknowledge(socket);
+        }
+    }
+
+    private void acknowledge(SocketChannel socket) throws IOException {
+        control.clear().putLong(0, appliedOffset);
+        while (control.hasRemaining()) {
+            socket.write(control);
+        }
+    }
+
+    /**
+     * Applies every complete line between the buffer's position and limit, leaving the position
+     * at the start of the first incomplete one.
+     */
+    private void consume() throws IOException {
+        int start = buffer.position();
+        for (int i = start; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                apply(start, i);
+                appliedOffset += i + 1 - start;
+                start = i + 1;
+            }
+        }
+        buffer.position(start);
+    }
+
+    private void apply(int from, int to) throws IOException {
+        int length = to - from;
+        if (line.length < length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        buffer.get(from, line, 0, length);
+        String[] fields = new String(line, 0, length, StandardCharsets.US_ASCII).split("\t", -1);
+        try {
+            long sequence = Long.parseLong(fields[0]);
+            switch (fields[1]) {
+                case "T" -> applyTransaction(fields);
+                case "A" -> applyAccount(fields);
+                default -> throw new IllegalArgumentException("Unknown line kind " + fields[1]);
+            }
+            events.increment();
+            appliedSequence = sequence;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException e) {
+            throw new IOException("Corrupt journal line at offset " + appliedOffset, e);
+        }
+    }
+
+    private void applyTransaction(String[] fields) {
+        Transaction transaction = Transaction.restore(TextFields.read(fields[2]),
+                Transaction.TransactionType.valueOf(fields[3]), Long.parseLong(fields[4]) / 100.0,
+                accountNumber(fields[5]), accountNumber(fields[6]), LocalDateTime.parse(fields[7]),
+                Transaction.TransactionStatus.valueOf(fields[8]), TextFields.read(fields[9]));
+        if ((transaction.getSourceAccountNumber() != null
+                && accountController.findAccount(transaction.getSourceAccountNumber()) == null)
+                || (transaction.getTargetAccountNumber() != null
+                && accountController.findAccount(transaction.getTargetAccountNumber()) == null)) {
+            divergent.increment();
+        }
+        accountController.applyReplicated(transaction);
+    }
+
+    private void applyAccount(String[] fields) {
+        Account account = accountController.findAccount(Integer.parseInt(fields[2]));
+        if (account == null) {
+            divergent.increment();
+            return;
+        }
+        account.restoreState(new Account.StateSnapshot(Account.AccountStatus.valueOf(fields[3]),
+                Long.parseLong(fields[4]), Long.parseLong(fields[5]), Long.parseLong(fields[6])));
+    }
+
+    private static Integer accountNumber(String field) {
+        return "-".equals(field) ? null : Integer.valueOf(field);
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.risk;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.example.metrics.Metrics;
+import org.example.model.OperationResult;
+
+/**
+ * Lock-free per-account rate and velocity limiter.
+ * <p>
+ * Each account's state is a single {@code long[25]} updated only with CAS:
+ * <ul>
+ *   <li>slot 0 is a token bucket packed as {@code [last refill ms since start : 40][milli-tokens : 24]};</li>
+ *   <li>slots 1..24 are hourly buckets packed as {@code [hour since epoch : 24][cents : 40]},
+ *       summed to give the amount moved out in the rolling 24 hours.</li>
+ * </ul>
+ * The velocity check reserves the amount first and then verifies the total, backing the
+ * reservation out if it overshoots. Concurrent requests may therefore both be rejected
+ * near the limit, but the limit itself is never exceeded.
+ */
+public class AccountLimiter {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int TOKEN_SLOT = 0;
+    private static final int HOURS = 24;
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final int CENTS_BITS = 40;
+    private static final long CENTS_MASK = (1L << CENTS_BITS) - 1;
+    private static final long MILLI_TOKENS_PER_OPERATION = 1000;
+
+    private final ConcurrentHashMap<Integer, long[]> states = new ConcurrentHashMap<>();
+    private final double milliTokensPerMilli;
+    private final long capacityMilliTokens;
+    private final long dailyLimitCents;
+    private final LongSupplier clock;
+    private final long startMillis;
+    private final LongAdder rateLimited;
+    private final LongAdder dailyLimitExceeded;
+
+    public AccountLimiter(AccountLimits limits, Metrics metrics) {
+        this(limits, metrics, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a limiter with an explicit clock (for tests).
+     *
+     * @param limits  Limits applied to every account
+     * @param metrics Registry receiving rejection counters
+     * @param clock   Wall-clock time in milliseconds
+     */
+    public AccountLimiter(AccountLimits limits, Metrics metrics, LongSupplier clock) {
+        if (Math.round(limits.dailyAmount() * 100) > CENTS_MASK) {
+            throw new IllegalArgumentException("Daily amount is too large");
+        }
+        this.milliTokensPerMilli = limits.operationsPerSecond();
+        this.capacityMilliTokens = limits.burst() * MILLI_TOKENS_PER_OPERATION;
+        this.dailyLimitCents = Math.round(limits.dailyAmount() * 100);
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+        this.rateLimited = metrics.counter("limits.rate_limited");
+        this.dailyLimitExceeded = metrics.counter("limits.daily_limit_exceeded");
+    }
+
+    /**
+     * Admits one outgoing movement, consuming a token and reserving its amount.
+     *
+     * @param accountNumber Account moving money out
+     * @param amountCents   Amount in cents
+     * @return SUCCESS, RATE_LIMITED or DAILY_LIMIT_EXCEEDED
+     */
+    public OperationResult acquire(int accountNumber, long amountCents) {
+        long now = clock.getAsLong();
+        long[] state = states.get(accountNumber);
+        if (state == null) {
+            state = states.computeIfAbsent(accountNumber, k -> newState(now - startMillis));
+        }
+
+        if (!takeToken(state, now - startMillis)) {
+            rateLimited.increment();
+            return OperationResult.RATE_LIMITED;
+        }
+
+        long hour = now / HOUR_MILLIS;
+        if (amountCents > dailyLimitCents) {
+            dailyLimitExceeded.increment();
+            return OperationResult.DAILY_LIMIT_EXCEEDED;
+        }
+        addToHour(state, hour, amountCents);
+        if (movedInLastDay(state, hour) > dailyLimitCents) {
+            addToHour(state, hour, -amountCents);
+            dailyLimitExceeded.increment();
+            return OperationResult.DAILY_LIMIT_EXCEEDED;
+        }
+        return OperationResult.SUCCESS;
+    }
+
+    /**
+     * Returns a reservation made by {@link #acquire} when the movement itself failed,
+     * so that rejected withdrawals do not count towards the daily amount.
+     *
+     * @param accountNumber Account the reservation was made for
+     * @param amountCents   Reserved amount in cents
+     */
+    public void refund(int accountNumber, long amountCents) {
+        long[] state = states.get(accountNumber);
+        if (state == null) {
+            return;
+        }
+        long hour = clock.getAsLong() / HOUR_MILLIS;
+        // The reservation may have landed in the previous hour if the clock just ticked over
+        if (!subtractFromHour(state, hour, amountCents)) {
+            subtractFromHour(state, hour - 1, amountCents);
+        }
+    }
+
+    /**
+     * Gets the amount moved out of an account in the rolling 24 hours.
+     *
+     * @param accountNumber Account number
+     * @return Amount in cents
+     */
+    public long getDailyTotalCents(int accountNumber) {
+        long[] state = states.get(accountNumber);
+        return state == null ? 0 : movedInLastDay(state, clock.getAsLong() / HOUR_MILLIS);
+    }
+
+    private long[] newState(long now) {
+        long[] state = new long[1 + HOURS];
+        state[TOKEN_SLOT] = (now << TOKEN_BITS) | capacityMilliTokens;
+        return state;
+    }
+
+    private boolean takeToken(long[] state, long now) {
+        while (true) {
+            long old = (long) SLOTS.getVolatile(state, TOKEN_SLOT);
+            long last = old >>> TOKEN_BITS;
+            long tokens = old & TOKEN_MASK;
+            long elapsed = Math.max(0, now - last);
+            long added = (long) (elapsed * milliTokensPerMilli);
+            // Keep the old timestamp while less than one milli-token has accrued, so slow rates still refill
+            long refillTime = added > 0 ? now : last;
+            long available = Math.min(capacityMilliTokens, tokens + added);
+            if (available < MILLI_TOKENS_PER_OPERATION) {
+                return false;
+            }
+            long updated = (refillTime << TOKEN_BITS) | (available - MILLI_TOKENS_PER_OPERATION);
+            if (SLOTS.compareAndSet(state, TOKEN_SLOT, old, updated)) {
+                return true;
+            }
+        }
+    }
+
+    private static void addToHour(long[] state, long hour, long deltaCents) {
+        int slot = 1 + (int) (hour % HOURS);
+        while (true) {
+            long old = (long) SLOTS.getVolatile(state, slot);
+            long cents = (old >>> CENTS_BITS) == hour ? old & CENTS_MASK : 0;
+            long updated = (hour << CENTS_BITS) | Math.max(0, cents + deltaCents);
+            if (SLOTS.compareAndSet(state, slot, old, updated)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean subtractFromHour(long[] state, long hour, long cents) {
+        int slot = 1 + (int) (Math.floorMod(hour, HOURS));
+        while (true) {
+            long old = (long) SLOTS.getVolatile(state, slot);
+            if ((old >>> CENTS_BITS) != hour) {
+                return false;
+            }
+            long updated = (hour << CENTS_BITS) | Math.max(0, (old & CENTS_MASK) - cents);
+            if (SLOTS.compareAndSet(state, slot, old, updated)) {
+                return true;
+            }
+        }
+    }
+
+    private static long movedInLastDay(long[] state, long hour) {
+        long total = 0;
+        for (int slot = 1; slot <= HOURS; slot++) {
+            long value = (long) SLOTS.getVolatile(state, slot);
+            if (hour - (value >>> CENTS_BITS) < HOURS) {
+                total += value & CENTS_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.risk;
+
+/**
+ * Per-account limits on outgoing money movements.
+ *
+ * @param operationsPerSecond Sustained rate of withdrawals and outgoing transfers
+ * @param burst               Number of operations allowed back to back
+ * @param dailyAmount         Maximum total amount moved out in any rolling 24 hours
+ */
+public record AccountLimits(double operationsPerSecond, int burst, double dailyAmount) {
+
+    /** Largest burst the packed token bucket can represent. */
+    public static final int MAX_BURST = (1 << 24) / 1000 - 1;
+
+    public AccountLimits {
+        if (operationsPerSecond <= 0) {
+            throw new IllegalArgumentException("Operations per second must be positive");
+        }
+        if (burst < 1 || burst > MAX_BURST) {
+            throw new IllegalArgumentException("Burst must be between 1 and " + MAX_BURST);
+        }
+        if (dailyAmount <= 0) {
+            throw new IllegalArgumentException("Daily amount must be positive");
+        }
+    }
+}
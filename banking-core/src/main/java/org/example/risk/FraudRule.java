@@ -0,0 +1,58 @@
+package org.example.risk;
+
+import java.time.Duration;
+
+/**
+ * Declarative fraud rules. Rules are compiled into a flat plan by {@link FraudRuleEngine}.
+ */
+public sealed interface FraudRule {
+
+    /**
+     * Name shown to admins when the rule fires.
+     *
+     * @return Rule name
+     */
+    String name();
+
+    /**
+     * Fires when an account pays more than {@code maxNewCounterparties} counterparties it
+     * has never paid before within {@code window} (at most one hour).
+     */
+    record NewCounterpartyBurst(String name, int maxNewCounterparties, Duration window) implements FraudRule {
+        public NewCounterpartyBurst {
+            if (maxNewCounterparties < 0) {
+                throw new IllegalArgumentException("Max new counterparties cannot be negative");
+            }
+            if (window.toMinutes() < 1 || window.toMinutes() > RiskProfile.MINUTE_BUCKETS) {
+                throw new IllegalArgumentException("Window must be between 1 and 60 minutes");
+            }
+        }
+    }
+
+    /**
+     * Fires when an amount exceeds {@code percent}% of the account's average outgoing
+     * amount over {@code lookback} (at most 30 days), once at least {@code minHistory}
+     * movements have been seen in that period.
+     */
+    record AmountAboveAverage(String name, double percent, Duration lookback, int minHistory) implements FraudRule {
+        public AmountAboveAverage {
+            if (percent <= 0) {
+                throw new IllegalArgumentException("Percent must be positive");
+            }
+            if (lookback.toDays() < 1 || lookback.toDays() > RiskProfile.DAY_BUCKETS - 1) {
+                throw new IllegalArgumentException("Lookback must be between 1 and 30 days");
+            }
+        }
+    }
+
+    /**
+     * Fires when a single amount exceeds a fixed threshold.
+     */
+    record AmountAbove(String name, double threshold) implements FraudRule {
+        public AmountAbove {
+            if (threshold <= 0) {
+                throw new IllegalArgumentException("Threshold must be positive");
+            }
+        }
+    }
+}
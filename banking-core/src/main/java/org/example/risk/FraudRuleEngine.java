@@ -0,0 +1,178 @@
+package org.example.risk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.example.metrics.Metrics;
+
+/**
+ * Synchronous fraud rule engine evaluated on every outgoing money movement.
+ * <p>
+ * Rules are compiled once, at construction, into parallel primitive arrays (opcode,
+ * integer parameter, numeric parameter). Evaluation walks those arrays against the
+ * account's {@link RiskProfile}, so a check allocates nothing and touches a handful
+ * of cache lines. The result is a bit mask of the rules that fired; the slow path of
+ * turning it into a description only runs for flagged movements.
+ */
+public class FraudRuleEngine {
+
+    /** Maximum number of rules, one bit each in the result mask. */
+    public static final int MAX_RULES = 32;
+
+    private static final byte OP_NEW_COUNTERPARTIES = 1;
+    private static final byte OP_AMOUNT_ABOVE_AVERAGE = 2;
+    private static final byte OP_AMOUNT_ABOVE = 3;
+
+    private final byte[] opcodes;
+    private final int[] intParams;
+    private final int[] minHistory;
+    private final double[] numericParams;
+    private final String[] names;
+
+    private final ConcurrentHashMap<Integer, RiskProfile> profiles = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final LongAdder flagged;
+
+    public FraudRuleEngine(List<FraudRule> rules, Metrics metrics) {
+        this(rules, metrics, System::currentTimeMillis);
+    }
+
+    /**
+     * Compiles the rules into an evaluation plan.
+     *
+     * @param rules   Rules to evaluate, in order
+     * @param metrics Registry receiving the {@code fraud.flagged} counter
+     * @param clock   Wall-clock time in milliseconds
+     */
+    public FraudRuleEngine(List<FraudRule> rules, Metrics metrics, LongSupplier clock) {
+        if (rules.size() > MAX_RULES) {
+            throw new IllegalArgumentException("At most " + MAX_RULES + " rules are supported");
+        }
+        int n = rules.size();
+        this.opcodes = new byte[n];
+        this.intParams = new int[n];
+        this.minHistory = new int[n];
+        this.numericParams = new double[n];
+        this.names = new String[n];
+        for (int i = 0; i < n; i++) {
+            FraudRule rule = rules.get(i);
+            names[i] = rule.name();
+            switch (rule) {
+                case FraudRule.NewCounterpartyBurst r -> {
+                    opcodes[i] = OP_NEW_COUNTERPARTIES;
+                    intParams[i] = (int) r.window().toMinutes();
+                    numericParams[i] = r.maxNewCounterparties();
+                }
+                case FraudRule.AmountAboveAverage r -> {
+                    opcodes[i] = OP_AMOUNT_ABOVE_AVERAGE;
+                    intParams[i] = (int) r.lookback().toDays();
+                    minHistory[i] = r.minHistory();
+                    numericParams[i] = r.percent() / 100.0;
+                }
+                case FraudRule.AmountAbove r -> {
+                    opcodes[i] = OP_AMOUNT_ABOVE;
+                    numericParams[i] = r.threshold() * 100;
+                }
+            }
+        }
+        this.clock = clock;
+        this.flagged = metrics.counter("fraud.flagged");
+    }
+
+    /**
+     * Evaluates all rules for an outgoing movement. Nothing is recorded: a movement only
+     * shapes the profile once it has been applied, through {@link #record}, so flagged,
+     * rejected and failed attempts do not teach the rules what is normal.
+     *
+     * @param accountNumber Account moving money out
+     * @param counterparty  Receiving account number, or -1 for withdrawals
+     * @param amountCents   Amount in cents
+     * @return Bit mask of fired rules (bit i = rule i); 0 means the movement is clean
+     */
+    public int assess(int accountNumber, int counterparty, long amountCents) {
+        long now = clock.getAsLong();
+        RiskProfile profile = profile(accountNumber);
+        int hits = 0;
+        synchronized (profile) {
+            boolean newCounterparty = counterparty >= 0 && !profile.isKnownCounterparty(now, counterparty);
+            for (int i = 0; i < opcodes.length; i++) {
+                if (fires(i, profile, now, newCounterparty, amountCents)) {
+                    hits |= 1 << i;
+                }
+            }
+        }
+        if (hits != 0) {
+            flagged.increment();
+        }
+        return hits;
+    }
+
+    /**
+     * Records an outgoing movement that was applied, or approved after review, in the
+     * account's profile.
+     *
+     * @param accountNumber Account the money moved out of
+     * @param counterparty  Receiving account number, or -1 for withdrawals
+     * @param amountCents   Amount in cents
+     */
+    public void record(int accountNumber, int counterparty, long amountCents) {
+        long now = clock.getAsLong();
+        RiskProfile profile = profile(accountNumber);
+        synchronized (profile) {
+            if (counterparty >= 0) {
+                if (!profile.isKnownCounterparty(now, counterparty)) {
+                    profile.countNewCounterparty(now);
+                }
+                profile.rememberCounterparty(now, counterparty);
+            }
+            profile.recordAmount(now, amountCents);
+        }
+    }
+
+    private RiskProfile profile(int accountNumber) {
+        RiskProfile profile = profiles.get(accountNumber);
+        return profile != null ? profile : profiles.computeIfAbsent(accountNumber, k -> new RiskProfile());
+    }
+
+    /**
+     * Turns a hit mask into rule names.
+     *
+     * @param hits Mask returned by {@link #assess}
+     * @return Comma-separated names of fired rules
+     */
+    public String describe(int hits) {
+        List<String> fired = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            if ((hits & (1 << i)) != 0) {
+                fired.add(names[i]);
+            }
+        }
+        return String.join(", ", fired);
+    }
+
+    private boolean fires(int rule, RiskProfile profile, long now, boolean newCounterparty, long amountCents) {
+        switch (opcodes[rule]) {
+            case OP_NEW_COUNTERPARTIES -> {
+                return newCounterparty
+                        && profile.newCounterpartiesWithin(now, intParams[rule]) + 1 > numericParams[rule];
+            }
+            case OP_AMOUNT_ABOVE_AVERAGE -> {
+                long count = profile.amountCountWithin(now, intParams[rule]);
+                if (count == 0 || count < minHistory[rule]) {
+                    return false;
+                }
+                double average = (double) profile.amountCentsWithin(now, intParams[rule]) / count;
+                return amountCents > average * numericParams[rule];
+            }
+            case OP_AMOUNT_ABOVE -> {
+                return amountCents > numericParams[rule];
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+}
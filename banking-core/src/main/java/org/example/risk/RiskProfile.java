@@ -0,0 +1,133 @@
+package org.example.risk;
+
+import java.util.Arrays;
+
+/**
+ * Per-account sliding-window sketches used by the fraud rules.
+ * All state lives in fixed-size primitive arrays allocated once per account:
+ * <ul>
+ *   <li>two 1024-bit Bloom-style sets of counterparties paid, one per 30-day period (two
+ *       hash probes each); a counterparty not paid for a full period is forgotten, and the
+ *       filters never fill up with the whole history;</li>
+ *   <li>60 one-minute buckets counting first payments to new counterparties;</li>
+ *   <li>31 one-day buckets of outgoing amount and count, for rolling averages.</li>
+ * </ul>
+ * Buckets are tagged with their time index, so stale buckets read as empty without
+ * any background sweeping. Instances are guarded by their own monitor.
+ */
+final class RiskProfile {
+
+    static final int MINUTE_BUCKETS = 60;
+    static final int DAY_BUCKETS = 31;
+
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final long COUNTERPARTY_PERIOD_MILLIS = 30 * DAY_MILLIS;
+
+    private final long[][] knownCounterparties = new long[2][16];
+    private final long[] counterpartyPeriod = {-1, -1};
+    private final long[] newCounterpartyMinute = new long[MINUTE_BUCKETS];
+    private final int[] newCounterpartyCount = new int[MINUTE_BUCKETS];
+    private final long[] amountDay = new long[DAY_BUCKETS];
+    private final long[] amountCents = new long[DAY_BUCKETS];
+    private final int[] amountCount = new int[DAY_BUCKETS];
+
+    RiskProfile() {
+        Arrays.fill(newCounterpartyMinute, -1);
+        Arrays.fill(amountDay, -1);
+    }
+
+    /**
+     * Whether the account was paid in this period or the previous one.
+     */
+    boolean isKnownCounterparty(long nowMillis, int accountNumber) {
+        long period = nowMillis / COUNTERPARTY_PERIOD_MILLIS;
+        int h1 = hash1(accountNumber);
+        int h2 = hash2(accountNumber);
+        for (int i = 0; i < 2; i++) {
+            long[] bits = knownCounterparties[i];
+            if (period - counterpartyPeriod[i] <= 1
+                    && (bits[h1 >>> 6] & (1L << h1)) != 0 && (bits[h2 >>> 6] & (1L << h2)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void rememberCounterparty(long nowMillis, int accountNumber) {
+        long period = nowMillis / COUNTERPARTY_PERIOD_MILLIS;
+        int slot = (int) (period & 1);
+        long[] bits = knownCounterparties[slot];
+        if (counterpartyPeriod[slot] != period) {
+            counterpartyPeriod[slot] = period;
+            Arrays.fill(bits, 0);
+        }
+        int h1 = hash1(accountNumber);
+        int h2 = hash2(accountNumber);
+        bits[h1 >>> 6] |= 1L << h1;
+        bits[h2 >>> 6] |= 1L << h2;
+    }
+
+    void countNewCounterparty(long nowMillis) {
+        long minute = nowMillis / MINUTE_MILLIS;
+        int slot = (int) (minute % MINUTE_BUCKETS);
+        if (newCounterpartyMinute[slot] != minute) {
+            newCounterpartyMinute[slot] = minute;
+            newCounterpartyCount[slot] = 0;
+        }
+        newCounterpartyCount[slot]++;
+    }
+
+    int newCounterpartiesWithin(long nowMillis, int minutes) {
+        long minute = nowMillis / MINUTE_MILLIS;
+        int total = 0;
+        for (int i = 0; i < MINUTE_BUCKETS; i++) {
+            if (minute - newCounterpartyMinute[i] < minutes) {
+                total += newCounterpartyCount[i];
+            }
+        }
+        return total;
+    }
+
+    void recordAmount(long nowMillis, long cents) {
+        long day = nowMillis / DAY_MILLIS;
+        int slot = (int) (day % DAY_BUCKETS);
+        if (amountDay[slot] != day) {
+            amountDay[slot] = day;
+            amountCents[slot] = 0;
+            amountCount[slot] = 0;
+        }
+        amountCents[slot] += cents;
+        amountCount[slot]++;
+    }
+
+    long amountCentsWithin(long nowMillis, int days) {
+        long day = nowMillis / DAY_MILLIS;
+        long cents = 0;
+        for (int i = 0; i < DAY_BUCKETS; i++) {
+            if (day - amountDay[i] <= days) {
+                cents += amountCents[i];
+            }
+        }
+        return cents;
+    }
+
+    long amountCountWithin(long nowMillis, int days) {
+        long day = nowMillis / DAY_MILLIS;
+        long count = 0;
+        for (int i = 0; i < DAY_BUCKETS; i++) {
+            if (day - amountDay[i] <= days) {
+                count += amountCount[i];
+            }
+        }
+        return count;
+    }
+
+    private static int hash1(int value) {
+        return (value * 0x9E3779B9) >>> 22;
+    }
+
+    private static int hash2(int value) {
+        return ((value ^ (value >>> 16)) * 0x85EBCA6B) >>> 22;
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.scheduling;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * How often a scheduled transfer repeats.
+ * Occurrences are computed from the first run rather than from the previous one, so a
+ * monthly order on the 31st runs on the last day of shorter months and returns to the
+ * 31st afterwards instead of drifting.
+ */
+public enum Recurrence {
+    ONCE,
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * Computes the time of the n-th occurrence.
+     *
+     * @param firstRunMillis Time of occurrence 0
+     * @param occurrence     Occurrence index
+     * @param zone           Zone whose calendar days and months apply
+     * @return Occurrence time, or -1 if there is no such occurrence
+     */
+    public long occurrenceMillis(long firstRunMillis, long occurrence, ZoneId zone) {
+        if (occurrence == 0) {
+            return firstRunMillis;
+        }
+        ZonedDateTime first = Instant.ofEpochMilli(firstRunMillis).atZone(zone);
+        return switch (this) {
+            case ONCE -> -1;
+            case DAILY -> first.plusDays(occurrence).toInstant().toEpochMilli();
+            case WEEKLY -> first.plusWeeks(occurrence).toInstant().toEpochMilli();
+            case MONTHLY -> first.plusMonths(occurrence).toInstant().toEpochMilli();
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.scheduling;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Append-only log of schedule changes, one tab-separated line per event:
+ * <pre>
+ *   S  id  from  to  amount  firstRunMillis  recurrence  occurrence   (scheduled)
+ *   A  id  occurrence                                                 (advanced after firing)
+ *   R  id                                                             (completed or cancelled)
+ *   N  id                                                             (highest ID ever issued)
+ * </pre>
+ * On open the log is replayed and rewritten with only the live schedules, so it stays
+ * proportional to the number of schedules rather than the number of firings. Only the last
+ * line may be unreadable, as a crash can leave it half-written; anything else unreadable is
+ * corruption and fails the replay. Appends are buffered until {@link #sync}, which writes
+ * them out and forces them to disk.
+ */
+class ScheduleLog implements Closeable {
+
+    private final Path path;
+    private FileChannel channel;
+    private BufferedWriter writer;
+    private long maxScheduleId;
+
+    ScheduleLog(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Replays the log, compacts it and opens it for appending.
+     *
+     * @return Live schedules in creation order, with their next occurrence index
+     * @throws IOException if the file cannot be read or rewritten, or a line other than the
+     *                     last cannot be parsed
+     */
+    Collection<ScheduledTransfer> open() throws IOException {
+        Map<Long, ScheduledTransfer> live = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                int number = 0;
+                String line = reader.readLine();
+                while (line != null) {
+                    String following = reader.readLine();
+                    number++;
+                    try {
+                        apply(line.split("\t"), live);
+                    } catch (RuntimeException e) {
+                        if (following != null) {
+                            throw new IOException("Corrupt schedule log " + path + " at line " + number, e);
+                        }
+                        // Torn last line after a crash; compaction drops it
+                    }
+                    line = following;
+                }
+            }
+        }
+
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            // Keep the high-water mark so IDs (and their idempotency keys) are never reused
+            out.write("N\t" + maxScheduleId + '\n');
+            for (ScheduledTransfer transfer : live.values()) {
+                writeSchedule(out, transfer);
+            }
+        }
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+            out.force(false);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+        return live.values();
+    }
+
+    /**
+     * Gets the highest schedule ID found by {@link #open()}, including removed schedules.
+     */
+    long getMaxScheduleId() {
+        return maxScheduleId;
+    }
+
+    synchronized void appendSchedule(ScheduledTransfer transfer) {
+        try {
+            writeSchedule(writer, transfer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append schedule", e);
+        }
+    }
+
+    synchronized void appendAdvance(long scheduleId, long occurrence) {
+        write("A\t" + scheduleId + '\t' + occurrence + '\n');
+    }
+
+    synchronized void appendRemove(long scheduleId) {
+        write("R\t" + scheduleId + '\n');
+    }
+
+    /**
+     * Writes every buffered event to the file and forces it to disk.
+     *
+     * @throws IOException if the file cannot be written or forced
+     */
+    synchronized void sync() throws IOException {
+        writer.flush();
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private void write(String line) {
+        try {
+            writer.write(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append schedule event", e);
+        }
+    }
+
+    private static void writeSchedule(BufferedWriter out, ScheduledTransfer transfer) throws IOException {
+        out.write("S\t" + transfer.getScheduleId()
+                + '\t' + transfer.getFromAccountNumber()
+                + '\t' + transfer.getToAccountNumber()
+                + '\t' + transfer.getAmount()
+                + '\t' + transfer.getFirstRunMillis()
+                + '\t' + transfer.getRecurrence().name()
+                + '\t' + transfer.getOccurrence() + '\n');
+    }
+
+    /**
+     * Applies one event to the live schedules.
+     *
+     * @throws RuntimeException if the line is not a well-formed event
+     */
+    private void apply(String[] parts, Map<Long, ScheduledTransfer> live) {
+        switch (parts[0]) {
+            case "S" -> {
+                ScheduledTransfer transfer = new ScheduledTransfer(Long.parseLong(parts[1]),
+                        Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), Double.parseDouble(parts[4]),
+                        Long.parseLong(parts[5]), Recurrence.valueOf(parts[6]));
+                // The next run time is recomputed by the scheduler, which knows the zone
+                transfer.setNextOccurrence(Long.parseLong(parts[7]), transfer.getFirstRunMillis());
+                live.put(transfer.getScheduleId(), transfer);
+                maxScheduleId = Math.max(maxScheduleId, transfer.getScheduleId());
+            }
+            case "A" -> {
+                ScheduledTransfer transfer = live.get(Long.parseLong(parts[1]));
+                if (transfer != null) {
+                    transfer.setNextOccurrence(Long.parseLong(parts[2]), transfer.getFirstRunMillis());
+                }
+            }
+            case "R" -> live.remove(Long.parseLong(parts[1]));
+            case "N" -> maxScheduleId = Math.max(maxScheduleId, Long.parseLong(parts[1]));
+            default -> throw new IllegalArgumentException("Unknown schedule event " + parts[0]);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.scheduling;
+
+/**
+ * A future-dated or recurring transfer held by a {@link TransferScheduler}.
+ */
+public final class ScheduledTransfer extends TimingWheel.Node {
+
+    public enum ScheduleStatus {
+        ACTIVE,
+        COMPLETED,
+        CANCELLED
+    }
+
+    private final long scheduleId;
+    private final int fromAccountNumber;
+    private final int toAccountNumber;
+    private final double amount;
+    private final long firstRunMillis;
+    private final Recurrence recurrence;
+    private volatile long occurrence;
+    private volatile long nextRunMillis;
+    private volatile ScheduleStatus status;
+
+    ScheduledTransfer(long scheduleId, int fromAccountNumber, int toAccountNumber, double amount,
+                      long firstRunMillis, Recurrence recurrence) {
+        this.scheduleId = scheduleId;
+        this.fromAccountNumber = fromAccountNumber;
+        this.toAccountNumber = toAccountNumber;
+        this.amount = amount;
+        this.firstRunMillis = firstRunMillis;
+        this.recurrence = recurrence;
+        this.nextRunMillis = firstRunMillis;
+        this.status = ScheduleStatus.ACTIVE;
+    }
+
+    void setNextOccurrence(long occurrence, long nextRunMillis) {
+        this.occurrence = occurrence;
+        this.nextRunMillis = nextRunMillis;
+    }
+
+    void setStatus(ScheduleStatus status) {
+        this.status = status;
+    }
+
+    // ===== Getters =====
+
+    public long getScheduleId() {
+        return scheduleId;
+    }
+
+    public int getFromAccountNumber() {
+        return fromAccountNumber;
+    }
+
+    public int getToAccountNumber() {
+        return toAccountNumber;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public long getFirstRunMillis() {
+        return firstRunMillis;
+    }
+
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    /**
+     * Gets the index of the next occurrence to fire, counting from 0.
+     */
+    public long getOccurrence() {
+        return occurrence;
+    }
+
+    public long getNextRunMillis() {
+        return nextRunMillis;
+    }
+
+    public ScheduleStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledTransfer{" +
+                "scheduleId=" + scheduleId +
+                ", from=" + fromAccountNumber +
+                ", to=" + toAccountNumber +
+                ", amount=" + amount +
+                ", recurrence=" + recurrence +
+                ", nextRunMillis=" + nextRunMillis +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.scheduling;
+
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: five levels of 64 slots, each level's slot spanning a whole
+ * turn of the level below. With a one-second tick that covers about 34 years.
+ * <p>
+ * Entries are intrusive doubly-linked nodes, so adding and removing one is O(1) whatever
+ * the number of scheduled entries. Entries far in the future sit in a coarse upper slot
+ * and are cascaded into finer levels as time approaches their deadline; each entry is
+ * cascaded at most once per level. Not thread-safe; the owner serialises access.
+ *
+ * @param <T> Entry type
+ */
+final class TimingWheel<T extends TimingWheel.Node> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+    private static final long MAX_DELTA = 1L << (SLOT_BITS * LEVELS);
+
+    /**
+     * Link fields embedded in each scheduled entry.
+     */
+    static class Node {
+        Node prev;
+        Node next;
+        long deadlineTick;
+
+        boolean isLinked() {
+            return prev != null;
+        }
+    }
+
+    private final long tickMillis;
+    private final Node[][] slots = new Node[LEVELS][SLOTS];
+    // Entries whose deadline has already been reached
+    private final Node overdue = sentinel();
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        for (Node[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = sentinel();
+            }
+        }
+    }
+
+    /**
+     * Adds an entry. An entry whose deadline has passed is due on the next {@link #advance}.
+     *
+     * @param entry          Entry, which must not already be scheduled
+     * @param deadlineMillis Earliest time the entry may fire
+     */
+    void add(T entry, long deadlineMillis) {
+        // Round up so an entry never fires before its deadline
+        entry.deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        place(entry);
+        size++;
+    }
+
+    /**
+     * Removes a scheduled entry.
+     *
+     * @return true if the entry was scheduled
+     */
+    boolean remove(T entry) {
+        if (!entry.isLinked()) {
+            return false;
+        }
+        unlink(entry);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves time forward and collects every entry whose deadline has been reached.
+     *
+     * @param nowMillis Current time
+     * @param due       Receives due entries; they are no longer scheduled
+     */
+    void advance(long nowMillis, List<T> due) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        drain(overdue, due);
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                // Nothing to cascade, so skip the idle stretch in one step
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(slots[level][slotIndex(currentTick, level)]);
+                }
+            }
+            drain(slots[0][(int) (currentTick & SLOT_MASK)], due);
+        }
+        drain(overdue, due);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void place(Node entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            link(overdue, entry);
+            return;
+        }
+        if (delta >= MAX_DELTA) {
+            // Beyond the top level: park in the furthest slot and re-place on cascade
+            link(slots[LEVELS - 1][slotIndex(currentTick + MAX_DELTA - 1, LEVELS - 1)], entry);
+            return;
+        }
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        link(slots[level][slotIndex(entry.deadlineTick, level)], entry);
+    }
+
+    private void cascade(Node head) {
+        Node entry = head.next;
+        while (entry != head) {
+            Node next = entry.next;
+            unlink(entry);
+            place(entry);
+            entry = next;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain(Node head, List<T> due) {
+        Node entry = head.next;
+        while (entry != head) {
+            Node next = entry.next;
+            unlink(entry);
+            size--;
+            due.add((T) entry);
+            entry = next;
+        }
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private static Node sentinel() {
+        Node head = new Node();
+        head.prev = head;
+        head.next = head;
+        return head;
+    }
+
+    private static void link(Node head, Node entry) {
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+    }
+
+    private static void unlink(Node entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+    }
+}
@@ -0,0 +1,331 @@
+package org.example.scheduling;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+import org.example.controllers.AccountController;
+import org.example.model.OperationResult;
+
+/**
+ * Runs future-dated and recurring transfers (standing orders).
+ * <p>
+ * Schedules sit in a {@link TimingWheel}, so adding or cancelling one is O(1) no matter
+ * how many are pending. Each tick collects every due schedule under the scheduler lock,
+ * then fires them through {@link AccountController#transfer(String, int, int, double)}
+ * outside the lock in parallel batches. Each occurrence carries the idempotency key
+ * {@code schedule:<id>:<occurrence>}, so an occurrence that was fired but not yet logged
+ * when the process stopped is not paid twice if the idempotency cache is persisted.
+ * <p>
+ * After downtime, occurrences that fell due while the process was stopped fire on the
+ * first tick, one per missed occurrence, oldest first.
+ * <p>
+ * A transfer that throws counts as failed and its schedule moves on to the next occurrence
+ * like any other. Exceptions escaping a tick, such as a log that cannot be synced, are
+ * counted in {@code scheduler.errors} and passed to the error handler, and the ticker keeps
+ * running.
+ */
+public class TransferScheduler implements Closeable {
+
+    /** Resolution of the timing wheel. */
+    public static final long TICK_MILLIS = 1000;
+
+    private static final int BATCH_SIZE = 4096;
+
+    private final AccountController accountController;
+    private final ScheduleLog log;
+    private final LongSupplier clock;
+    private final ZoneId zone;
+    private final TimingWheel<ScheduledTransfer> wheel;
+    private final Map<Long, ScheduledTransfer> schedules = new ConcurrentHashMap<>();
+    private final AtomicLong idCounter = new AtomicLong(1);
+    private final LongAdder fired;
+    private final LongAdder failed;
+    private final LongAdder errors;
+    private volatile Consumer<Exception> errorHandler;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Creates an in-memory scheduler on the system clock.
+     *
+     * @param accountController Controller that executes the transfers
+     */
+    public TransferScheduler(AccountController accountController) {
+        this(accountController, (ScheduleLog) null, System::currentTimeMillis, ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates a scheduler, restoring any schedules persisted in the log.
+     *
+     * @param accountController Controller that executes the transfers
+     * @param logPath           Schedule log, created if missing (may be null for in-memory only)
+     * @param clock             Wall-clock time in milliseconds
+     * @param zone              Zone whose calendar days and months recurrences follow
+     * @throws IOException if the log cannot be read or compacted
+     */
+    public TransferScheduler(AccountController accountController, Path logPath,
+                             LongSupplier clock, ZoneId zone) throws IOException {
+        this(accountController, logPath == null ? null : new ScheduleLog(logPath), clock, zone);
+        if (log != null) {
+            restore();
+        }
+    }
+
+    private TransferScheduler(AccountController accountController, ScheduleLog log,
+                              LongSupplier clock, ZoneId zone) {
+        this.accountController = accountController;
+        this.log = log;
+        this.clock = clock;
+        this.zone = zone;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, clock.getAsLong());
+        this.fired = accountController.getMetrics().counter("scheduler.fired");
+        this.failed = accountController.getMetrics().counter("scheduler.failed");
+        this.errors = accountController.getMetrics().counter("scheduler.errors");
+        accountController.getMetrics().gauge("scheduler.active", schedules::size);
+    }
+
+    private void restore() throws IOException {
+        for (ScheduledTransfer transfer : log.open()) {
+            long next = transfer.getRecurrence().occurrenceMillis(
+                    transfer.getFirstRunMillis(), transfer.getOccurrence(), zone);
+            transfer.setNextOccurrence(transfer.getOccurrence(), next);
+            schedules.put(transfer.getScheduleId(), transfer);
+            wheel.add(transfer, next);
+        }
+        idCounter.set(log.getMaxScheduleId() + 1);
+    }
+
+    // ===== Schedules =====
+
+    /**
+     * Schedules a transfer. With a log, returns only once the schedule is on disk.
+     *
+     * @param fromAccountNumber Source account number
+     * @param toAccountNumber   Target account number
+     * @param amount            Amount per occurrence
+     * @param firstRunMillis    Time of the first occurrence
+     * @param recurrence        How often it repeats
+     * @return The schedule
+     * @throws IllegalArgumentException if the amount is not positive or the accounts are the same
+     * @throws UncheckedIOException     if the schedule cannot be written to the log
+     */
+    public ScheduledTransfer schedule(int fromAccountNumber, int toAccountNumber, double amount,
+                                      long firstRunMillis, Recurrence recurrence) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (fromAccountNumber == toAccountNumber) {
+            throw new IllegalArgumentException("Source and target accounts must differ");
+        }
+        ScheduledTransfer transfer = new ScheduledTransfer(idCounter.getAndIncrement(),
+                fromAccountNumber, toAccountNumber, amount, firstRunMillis, recurrence);
+        synchronized (this) {
+            schedules.put(transfer.getScheduleId(), transfer);
+            wheel.add(transfer, firstRunMillis);
+            if (log != null) {
+                log.appendSchedule(transfer);
+            }
+        }
+        syncLog();
+        return transfer;
+    }
+
+    /**
+     * Cancels a schedule. An occurrence already being fired still completes. With a log,
+     * returns only once the cancellation is on disk.
+     *
+     * @param scheduleId Schedule ID
+     * @return true if cancelled, false if unknown or already finished
+     * @throws UncheckedIOException if the cancellation cannot be written to the log
+     */
+    public boolean cancel(long scheduleId) {
+        synchronized (this) {
+            ScheduledTransfer transfer = schedules.remove(scheduleId);
+            if (transfer == null) {
+                return false;
+            }
+            wheel.remove(transfer);
+            transfer.setStatus(ScheduledTransfer.ScheduleStatus.CANCELLED);
+            if (log != null) {
+                log.appendRemove(scheduleId);
+            }
+        }
+        syncLog();
+        return true;
+    }
+
+    /**
+     * Finds an active schedule.
+     *
+     * @param scheduleId Schedule ID
+     * @return Schedule or null
+     */
+    public ScheduledTransfer find(long scheduleId) {
+        return schedules.get(scheduleId);
+    }
+
+    public int getActiveCount() {
+        return schedules.size();
+    }
+
+    // ===== Firing =====
+
+    /**
+     * Starts a daemon thread that fires due transfers every tick.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("transfer-scheduler").factory());
+        ticker.scheduleWithFixedDelay(this::tick, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets the handler told about every exception a transfer or a tick throws.
+     *
+     * @param errorHandler Handler, or null to only count errors
+     */
+    public void setErrorHandler(Consumer<Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    private void tick() {
+        try {
+            runDue();
+        } catch (RuntimeException e) {
+            // An exception escaping here would cancel every later tick
+            report(e);
+        }
+    }
+
+    private void report(Exception e) {
+        errors.increment();
+        Consumer<Exception> handler = errorHandler;
+        if (handler != null) {
+            try {
+                handler.accept(e);
+            } catch (RuntimeException ignored) {
+                // A failing handler must not stop the scheduler either
+            }
+        }
+    }
+
+    /**
+     * Fires every occurrence that is due now, including any missed while stopped.
+     * Every collected schedule is put back on the wheel or completed, even if firing fails.
+     *
+     * @return Number of occurrences fired
+     * @throws UncheckedIOException if the schedule log cannot be synced
+     */
+    public int runDue() {
+        int total = 0;
+        List<ScheduledTransfer> due;
+        while (!(due = collectDue()).isEmpty()) {
+            OperationResult[] results = new OperationResult[due.size()];
+            try {
+                fire(due, results);
+            } finally {
+                reschedule(due, results);
+            }
+            total += due.size();
+        }
+        if (total > 0) {
+            syncLog();
+        }
+        return total;
+    }
+
+    /**
+     * Forces appended schedule events to disk, outside the scheduler lock so firing is not
+     * held up by the disk.
+     */
+    private void syncLog() {
+        if (log != null) {
+            try {
+                log.sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync schedule log", e);
+            }
+        }
+    }
+
+    private synchronized List<ScheduledTransfer> collectDue() {
+        List<ScheduledTransfer> due = new ArrayList<>();
+        wheel.advance(clock.getAsLong(), due);
+        return due;
+    }
+
+    private void fire(List<ScheduledTransfer> due, OperationResult[] results) {
+        for (int start = 0; start < due.size(); start += BATCH_SIZE) {
+            int end = Math.min(start + BATCH_SIZE, due.size());
+            IntStream.range(start, end).parallel().forEach(i -> {
+                ScheduledTransfer transfer = due.get(i);
+                try {
+                    results[i] = accountController.transfer(
+                            "schedule:" + transfer.getScheduleId() + ":" + transfer.getOccurrence(),
+                            transfer.getFromAccountNumber(), transfer.getToAccountNumber(), transfer.getAmount());
+                } catch (RuntimeException e) {
+                    results[i] = OperationResult.ERROR;
+                    report(e);
+                }
+            });
+        }
+    }
+
+    private synchronized void reschedule(List<ScheduledTransfer> due, OperationResult[] results) {
+        for (int i = 0; i < due.size(); i++) {
+            ScheduledTransfer transfer = due.get(i);
+            // No result if firing stopped before reaching this transfer
+            (results[i] != null && results[i].isSuccess() ? fired : failed).increment();
+            if (transfer.getStatus() != ScheduledTransfer.ScheduleStatus.ACTIVE) {
+                // Cancelled while firing
+                continue;
+            }
+            long occurrence = transfer.getOccurrence() + 1;
+            long next = transfer.getRecurrence().occurrenceMillis(transfer.getFirstRunMillis(), occurrence, zone);
+            if (next < 0) {
+                schedules.remove(transfer.getScheduleId());
+                transfer.setStatus(ScheduledTransfer.ScheduleStatus.COMPLETED);
+                if (log != null) {
+                    log.appendRemove(transfer.getScheduleId());
+                }
+                continue;
+            }
+            transfer.setNextOccurrence(occurrence, next);
+            wheel.add(transfer, next);
+            if (log != null) {
+                log.appendAdvance(transfer.getScheduleId(), occurrence);
+            }
+        }
+    }
+
+    /**
+     * Stops the ticker and closes the log. Schedules stay persisted for the next start.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+        if (log != null) {
+            log.close();
+        }
+    }
+}
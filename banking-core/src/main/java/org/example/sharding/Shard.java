@@ -0,0 +1,70 @@
+package org.example.sharding;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One single-writer partition: a thread draining a lock-free inbound queue.
+ * Producers never block; the owner parks only when the queue is empty and is unparked
+ * by the next producer.
+ */
+final class Shard {
+
+    private final Queue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean waiting;
+    private volatile boolean running = true;
+
+    Shard(int index) {
+        this.thread = Thread.ofPlatform().daemon().name("shard-" + index).unstarted(this::run);
+        this.thread.start();
+    }
+
+    void execute(Runnable task) {
+        if (!running) {
+            throw new RejectedExecutionException("Shard is closed");
+        }
+        inbox.add(task);
+        if (waiting) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    int queued() {
+        return inbox.size();
+    }
+
+    boolean isOwner() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Stops the shard after it has run every task already queued.
+     */
+    void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    private void run() {
+        while (true) {
+            Runnable task = inbox.poll();
+            if (task != null) {
+                task.run();
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            waiting = true;
+            // Re-check after announcing we are about to park, so a task added meanwhile is not missed
+            if (inbox.isEmpty() && running) {
+                LockSupport.park(this);
+            }
+            waiting = false;
+        }
+    }
+}
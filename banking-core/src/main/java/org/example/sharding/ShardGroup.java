@@ -0,0 +1,207 @@
+package org.example.sharding;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.example.metrics.Metrics;
+
+/**
+ * Accounts partitioned by account number across single-writer shards.
+ * <p>
+ * Each shard is one thread that applies the operations routed to it, in arrival order,
+ * from a lock-free inbound queue. As long as every write to an account goes through its
+ * shard, only one thread ever mutates that account, so operations on different shards never
+ * contend and throughput grows with the number of shards. Operations return futures that
+ * complete on the shard thread; dependent stages should not block it. An operation may hop
+ * between shards, e.g. a cross-shard transfer; {@link #close()} lets every operation already
+ * started finish all of its hops before the shards stop.
+ */
+public class ShardGroup implements AutoCloseable {
+
+    private final Shard[] shards;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean closing;
+
+    /**
+     * @param shardCount Number of shards, typically the number of cores
+     * @param metrics    Registry for the {@code shards.queued} gauge
+     */
+    public ShardGroup(int shardCount, Metrics metrics) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        metrics.gauge("shards.queued", () -> {
+            long queued = 0;
+            for (Shard shard : shards) {
+                queued += shard.queued();
+            }
+            return queued;
+        });
+    }
+
+    public int size() {
+        return shards.length;
+    }
+
+    /**
+     * Gets the shard owning an account.
+     *
+     * @param accountNumber Account number
+     * @return Shard index
+     */
+    public int shardOf(int accountNumber) {
+        return Math.floorMod(accountNumber, shards.length);
+    }
+
+    /**
+     * Checks whether the calling thread is the shard owning an account.
+     *
+     * @param accountNumber Account number
+     * @return true if called from the owning shard
+     */
+    public boolean isOwner(int accountNumber) {
+        return shards[shardOf(accountNumber)].isOwner();
+    }
+
+    /**
+     * Checks whether the calling thread is any of the group's shards.
+     *
+     * @return true if called from a shard thread
+     */
+    public boolean isShardThread() {
+        for (Shard shard : shards) {
+            if (shard.isOwner()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs an operation on the shard owning an account and waits for it. A caller that is
+     * already a shard thread runs it in place instead, since waiting on another shard from
+     * one could deadlock.
+     *
+     * @param accountNumber Account number deciding the shard
+     * @param operation     Operation to run
+     * @return The operation's result
+     * @throws RejectedExecutionException if the group is closed
+     */
+    public <T> T call(int accountNumber, Supplier<T> operation) {
+        if (isShardThread()) {
+            return operation.get();
+        }
+        return join(submit(accountNumber, operation));
+    }
+
+    /**
+     * Waits for an operation's future, rethrowing what the operation threw.
+     *
+     * @param future Future from this group
+     * @return The operation's result
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs an operation on the shard owning an account.
+     *
+     * @param accountNumber Account number deciding the shard
+     * @param operation     Operation to run on the shard thread
+     * @return Future completed with the operation's result, or exceptionally if it threw
+     *         or the group is closed
+     */
+    public <T> CompletableFuture<T> submit(int accountNumber, Supplier<T> operation) {
+        return start(accountNumber, result -> result.complete(operation.get()));
+    }
+
+    /**
+     * Starts an operation that may continue on other shards through {@link #execute}.
+     * The operation is finished when its future completes.
+     *
+     * @param accountNumber Account number deciding the shard of the first step
+     * @param firstStep     First step, given the operation's future
+     * @return Future of the operation, failed at once if the group is closing
+     */
+    public <T> CompletableFuture<T> start(int accountNumber, Consumer<CompletableFuture<T>> firstStep) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        inFlight.incrementAndGet();
+        if (closing) {
+            inFlight.decrementAndGet();
+            result.completeExceptionally(new RejectedExecutionException("Shard group is closed"));
+            return result;
+        }
+        result.whenComplete((value, error) -> inFlight.decrementAndGet());
+        execute(accountNumber, result, () -> firstStep.accept(result));
+        return result;
+    }
+
+    /**
+     * Runs a step of a multi-shard operation on the shard owning an account.
+     * If the step throws, or cannot be queued, {@code failure} is completed exceptionally.
+     *
+     * @param accountNumber Account number deciding the shard
+     * @param failure       Future of the overall operation
+     * @param step          Step to run on the shard thread
+     */
+    public void execute(int accountNumber, CompletableFuture<?> failure, Runnable step) {
+        execute(accountNumber, step, failure::completeExceptionally);
+    }
+
+    /**
+     * Runs a step of a multi-shard operation on the shard owning an account, handing any
+     * failure to the operation so it can undo what earlier steps did.
+     *
+     * @param accountNumber Account number deciding the shard
+     * @param step          Step to run on the shard thread
+     * @param onFailure     Called with what the step threw, on the shard thread, or with the
+     *                      rejection, on the caller's thread, if the step cannot be queued
+     */
+    public void execute(int accountNumber, Runnable step, Consumer<RuntimeException> onFailure) {
+        try {
+            shards[shardOf(accountNumber)].execute(() -> {
+                try {
+                    step.run();
+                } catch (RuntimeException e) {
+                    onFailure.accept(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            onFailure.accept(e);
+        }
+    }
+
+    /**
+     * Stops accepting operations, waits for those already started to finish, then stops every shard.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        try {
+            while (inFlight.get() > 0) {
+                Thread.sleep(1);
+            }
+            for (Shard shard : shards) {
+                shard.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.workload;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntConsumer;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.TransactionArena;
+
+/**
+ * Measures heap allocation per deposit, withdrawal and transfer on the calling thread,
+ * recording transaction objects and recording into a {@link TransactionArena}.
+ * Arguments: {@code [operations] [accounts]}, defaulting to 200,000 measured operations
+ * per kind, after as many warm-up operations, over 1,000 accounts.
+ */
+public class AllocationBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int accountCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        for (boolean arena : new boolean[]{false, true}) {
+            AccountController accountController = new AccountController(new UserController());
+            if (arena) {
+                accountController.setTransactionArena(new TransactionArena());
+            }
+            Account[] accounts = new Account[accountCount];
+            for (int i = 0; i < accountCount; i++) {
+                accounts[i] = new Account(1_000_000);
+                accounts[i].verify();
+                accountController.registerAccount(accounts[i]);
+            }
+            String mode = arena ? "arena" : "objects";
+            report(mode, "deposit", operations,
+                    i -> accountController.deposit(accounts[i % accountCount], 1.25));
+            report(mode, "withdraw", operations,
+                    i -> accountController.withdraw(accounts[i % accountCount], 1.25));
+            report(mode, "transfer", operations,
+                    i -> accountController.transfer(accounts[i % accountCount].getAccountNumber(),
+                            accounts[(i + 1) % accountCount].getAccountNumber(), 1.25));
+        }
+    }
+
+    private static void report(String mode, String kind, int operations, IntConsumer operation) {
+        System.out.printf("%-8s %-9s %8.1f B/op%n", mode, kind, bytesPerOperation(operations, operation));
+    }
+
+    /**
+     * Runs an operation as many times again to warm up, then measures the bytes allocated
+     * by the current thread over {@code operations} calls.
+     *
+     * @param operations Number of measured calls
+     * @param operation  Operation, given the call index
+     * @return Bytes allocated per call
+     */
+    public static double bytesPerOperation(int operations, IntConsumer operation) {
+        for (int i = 0; i < operations; i++) {
+            operation.accept(i);
+        }
+        long thread = Thread.currentThread().threadId();
+        long before = THREADS.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < operations; i++) {
+            operation.accept(i);
+        }
+        return (double) (THREADS.getThreadAllocatedBytes(thread) - before) / operations;
+    }
+}
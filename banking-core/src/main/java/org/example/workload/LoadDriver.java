@@ -0,0 +1,119 @@
+package org.example.workload;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.example.controllers.AccountController;
+
+/**
+ * Open-loop load driver.
+ * Operations are scheduled at fixed intervals derived from the target rate, independent
+ * of how fast earlier operations complete. Latency is measured from the intended start
+ * time rather than the actual one, so queueing delay caused by a slow system is included
+ * in the reported percentiles instead of silently lowering the offered load.
+ */
+public class LoadDriver {
+
+    private final AccountController accountController;
+    private final int[] accountNumbers;
+    private final WorkloadConfig config;
+
+    public LoadDriver(AccountController accountController, int[] accountNumbers, WorkloadConfig config) {
+        if (accountNumbers.length == 0) {
+            throw new IllegalArgumentException("Load driver needs at least one account");
+        }
+        this.accountController = accountController;
+        this.accountNumbers = accountNumbers;
+        this.config = config;
+    }
+
+    /**
+     * Result of a load run.
+     *
+     * @param offered        Number of operations scheduled
+     * @param completed      Number of operations that finished
+     * @param timedOut       Whether workers were still busy when the drain deadline passed
+     * @param successful     Number of operations that succeeded
+     * @param elapsedNanos   Wall time from first scheduled operation to last completion
+     * @param targetRate     Requested operations per second
+     * @param latency        Latency distribution measured from intended start times
+     */
+    public record LoadReport(long offered, long completed, boolean timedOut, long successful, long elapsedNanos,
+                             double targetRate, LatencyHistogram latency) {
+
+        public double achievedRate() {
+            return elapsedNanos == 0 ? 0 : completed * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("target=%.0f/s achieved=%.0f/s completed=%d/%d%s successful=%d "
+                            + "p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                    targetRate, achievedRate(), completed, offered, timedOut ? " (timed out)" : "", successful,
+                    latency.percentile(50) / 1e3, latency.percentile(99) / 1e3,
+                    latency.percentile(99.9) / 1e3, latency.getMax() / 1e3);
+        }
+    }
+
+    /**
+     * Drives the operation mix at a constant rate.
+     *
+     * @param targetRate Operations per second to offer
+     * @param duration   How long to keep offering load
+     * @param workers    Number of worker threads executing operations
+     * @return Achieved throughput and latency; operations still queued after a minute of
+     *         draining are dropped and the report is marked timed out
+     * @throws InterruptedException if interrupted while waiting for workers to finish
+     */
+    public LoadReport run(double targetRate, Duration duration, int workers) throws InterruptedException {
+        if (targetRate <= 0) {
+            throw new IllegalArgumentException("Target rate must be positive");
+        }
+        long intervalNanos = Math.max(1, (long) (1e9 / targetRate));
+        long operations = duration.toNanos() / intervalNanos;
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder completed = new LongAdder();
+        LongAdder successful = new LongAdder();
+        SplittableRandom random = new SplittableRandom(config.getSeed() ^ 0x5DEECE66DL);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        ThreadLocal<WorkloadOperations> ops = ThreadLocal.withInitial(
+                () -> new WorkloadOperations(accountController, accountNumbers, config));
+
+        long start = System.nanoTime();
+        boolean drained = false;
+        try {
+            for (long i = 0; i < operations; i++) {
+                long intended = start + i * intervalNanos;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // Draw the operation on the dispatcher thread so the sequence is reproducible
+                SplittableRandom opRandom = random.split();
+                executor.execute(() -> {
+                    if (ops.get().applyRandom(opRandom)) {
+                        successful.increment();
+                    }
+                    latency.record(System.nanoTime() - intended);
+                    completed.increment();
+                });
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                drained = executor.awaitTermination(1, TimeUnit.MINUTES);
+            } finally {
+                if (!drained) {
+                    executor.shutdownNow();
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new LoadReport(operations, completed.sum(), !drained, successful.sum(), elapsed, targetRate, latency);
+    }
+}
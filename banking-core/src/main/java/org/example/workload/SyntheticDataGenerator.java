@@ -0,0 +1,157 @@
+package org.example.workload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.User;
+
+/**
+ * Populates the controllers with a seeded synthetic population.
+ * Users are created in parallel chunks, each owning its own random stream derived
+ * from the configured seed, so the population shape does not depend on scheduling.
+ * Accounts per user follow a Zipf distribution and the transaction mix is driven
+ * through {@link AccountController} like real traffic.
+ */
+public class SyntheticDataGenerator {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final WorkloadConfig config;
+    private final ZipfDistribution accountsPerUser;
+
+    public SyntheticDataGenerator(WorkloadConfig config) {
+        this.config = config;
+        this.accountsPerUser = new ZipfDistribution(config.getMaxAccountsPerUser(), config.getZipfExponent());
+    }
+
+    /**
+     * Result of a generation run.
+     *
+     * @param users             Number of users created
+     * @param duplicateUsers    Number of users skipped because their email was already registered
+     * @param accountNumbers    Account numbers of all generated accounts
+     * @param transactions      Number of operations attempted
+     * @param successful        Number of operations that succeeded
+     * @param populateNanos     Time spent creating users and accounts
+     * @param transactionNanos  Time spent applying the transaction mix
+     */
+    public record GenerationReport(int users, int duplicateUsers, int[] accountNumbers, long transactions,
+                                   long successful, long populateNanos, long transactionNanos) {
+
+        @Override
+        public String toString() {
+            return String.format("users=%d duplicateUsers=%d accounts=%d transactions=%d successful=%d "
+                            + "populate=%.1fms transactions=%.1fms",
+                    users, duplicateUsers, accountNumbers.length, transactions, successful,
+                    populateNanos / 1e6, transactionNanos / 1e6);
+        }
+    }
+
+    /**
+     * Generates users, accounts and transactions into the given controllers.
+     *
+     * @param userController    Controller receiving the users
+     * @param accountController Controller receiving the accounts and transactions
+     * @return Summary of the generated data
+     */
+    public GenerationReport generate(UserController userController, AccountController accountController) {
+        ForkJoinPool pool = new ForkJoinPool(config.getParallelism());
+        try {
+            long start = System.nanoTime();
+            LongAdder duplicates = new LongAdder();
+            int[] accountNumbers = pool.submit(() -> populate(userController, accountController, duplicates)).join();
+            long populated = System.nanoTime();
+
+            LongAdder successful = new LongAdder();
+            long transactions = accountNumbers.length == 0 ? 0 : config.getTransactionCount();
+            int chunks = (int) ((transactions + CHUNK_SIZE - 1) / CHUNK_SIZE);
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                long from = (long) chunk * CHUNK_SIZE;
+                long to = Math.min(transactions, from + CHUNK_SIZE);
+                SplittableRandom random = chunkRandom(1, chunk);
+                WorkloadOperations ops = new WorkloadOperations(accountController, accountNumbers, config);
+                for (long i = from; i < to; i++) {
+                    if (ops.applyRandom(random)) {
+                        successful.increment();
+                    }
+                }
+            })).join();
+            long done = System.nanoTime();
+
+            int duplicateUsers = duplicates.intValue();
+            return new GenerationReport(config.getUserCount() - duplicateUsers, duplicateUsers, accountNumbers,
+                    transactions, successful.sum(), populated - start, done - populated);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int[] populate(UserController userController, AccountController accountController,
+                           LongAdder duplicates) {
+        int userCount = config.getUserCount();
+        int chunks = (userCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        List<int[]> perChunk = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> populateChunk(chunk, userController, accountController, duplicates))
+                .toList();
+
+        int total = 0;
+        for (int[] numbers : perChunk) {
+            total += numbers.length;
+        }
+        int[] all = new int[total];
+        int offset = 0;
+        for (int[] numbers : perChunk) {
+            System.arraycopy(numbers, 0, all, offset, numbers.length);
+            offset += numbers.length;
+        }
+        return all;
+    }
+
+    private int[] populateChunk(int chunk, UserController userController, AccountController accountController,
+                                LongAdder duplicates) {
+        SplittableRandom random = chunkRandom(0, chunk);
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(config.getUserCount(), from + CHUNK_SIZE);
+        List<Account> created = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            User user = new User("Synthetic User " + i, User.Role.CLIENT,
+                    "user" + i + "@synthetic.test", "pw" + i, String.format("555-%04d", i % 10000));
+            if (!userController.addUser(user)) {
+                // Email already registered; the existing user keeps their accounts
+                duplicates.increment();
+                continue;
+            }
+
+            int accounts = accountsPerUser.sample(random);
+            for (int a = 0; a < accounts; a++) {
+                // Log-uniform opening balances between $1 and ~$22k, rounded to cents
+                double balance = Math.round(Math.exp(random.nextDouble() * 10) * 100) / 100.0;
+                Account account = new Account(balance);
+                user.addAccount(account);
+                accountController.registerAccount(account);
+                if (random.nextDouble() < config.getVerifiedRatio()) {
+                    account.verify();
+                }
+                created.add(account);
+            }
+        }
+
+        int[] numbers = new int[created.size()];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = created.get(i).getAccountNumber();
+        }
+        return numbers;
+    }
+
+    private SplittableRandom chunkRandom(int phase, int chunk) {
+        return new SplittableRandom(config.getSeed() * 31 + phase * 1_000_003L + chunk);
+    }
+}
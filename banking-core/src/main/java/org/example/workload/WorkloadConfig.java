@@ -0,0 +1,135 @@
+package org.example.workload;
+
+/**
+ * Configuration for the synthetic workload generator and load driver.
+ * All randomness is derived from {@link #getSeed()}, so two runs with the same
+ * configuration produce the same population shape and operation mix.
+ */
+public class WorkloadConfig {
+
+    private final long seed;
+    private final int userCount;
+    private final int maxAccountsPerUser;
+    private final double zipfExponent;
+    private final long transactionCount;
+    private final int parallelism;
+
+    private double depositWeight = 0.30;
+    private double withdrawWeight = 0.25;
+    private double transferWeight = 0.45;
+    private double verifiedRatio = 0.95;
+
+    public WorkloadConfig(long seed, int userCount, int maxAccountsPerUser, double zipfExponent,
+                          long transactionCount, int parallelism) {
+        if (userCount < 0) {
+            throw new IllegalArgumentException("User count cannot be negative");
+        }
+        if (maxAccountsPerUser < 1) {
+            throw new IllegalArgumentException("Max accounts per user must be at least 1");
+        }
+        if (zipfExponent <= 0) {
+            throw new IllegalArgumentException("Zipf exponent must be positive");
+        }
+        if (transactionCount < 0) {
+            throw new IllegalArgumentException("Transaction count cannot be negative");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.seed = seed;
+        this.userCount = userCount;
+        this.maxAccountsPerUser = maxAccountsPerUser;
+        this.zipfExponent = zipfExponent;
+        this.transactionCount = transactionCount;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates a configuration with typical defaults for the given population size:
+     * up to 50 accounts per user with exponent 1.2, ten transactions per user and
+     * one worker per available core.
+     *
+     * @param seed      Random seed
+     * @param userCount Number of users to generate
+     * @return Configuration with default distribution parameters
+     */
+    public static WorkloadConfig defaults(long seed, int userCount) {
+        return new WorkloadConfig(seed, userCount, 50, 1.2, userCount * 10L,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Sets the relative weights of the transaction mix. Weights are normalized.
+     *
+     * @param deposit  Weight of deposits
+     * @param withdraw Weight of withdrawals
+     * @param transfer Weight of transfers
+     * @return this configuration
+     */
+    public WorkloadConfig setTransactionMix(double deposit, double withdraw, double transfer) {
+        if (deposit < 0 || withdraw < 0 || transfer < 0 || deposit + withdraw + transfer <= 0) {
+            throw new IllegalArgumentException("Transaction mix weights must be non-negative and not all zero");
+        }
+        double total = deposit + withdraw + transfer;
+        this.depositWeight = deposit / total;
+        this.withdrawWeight = withdraw / total;
+        this.transferWeight = transfer / total;
+        return this;
+    }
+
+    /**
+     * Sets the fraction of generated accounts that are verified.
+     *
+     * @param verifiedRatio Value between 0 and 1
+     * @return this configuration
+     */
+    public WorkloadConfig setVerifiedRatio(double verifiedRatio) {
+        if (verifiedRatio < 0 || verifiedRatio > 1) {
+            throw new IllegalArgumentException("Verified ratio must be between 0 and 1");
+        }
+        this.verifiedRatio = verifiedRatio;
+        return this;
+    }
+
+    // ===== Getters =====
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    public int getMaxAccountsPerUser() {
+        return maxAccountsPerUser;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public double getDepositWeight() {
+        return depositWeight;
+    }
+
+    public double getWithdrawWeight() {
+        return withdrawWeight;
+    }
+
+    public double getTransferWeight() {
+        return transferWeight;
+    }
+
+    public double getVerifiedRatio() {
+        return verifiedRatio;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.workload;
+
+import java.util.SplittableRandom;
+
+import org.example.controllers.AccountController;
+import org.example.model.Account;
+
+/**
+ * Applies the configured deposit/withdraw/transfer mix against a set of accounts.
+ * One instance is used per thread; the random source is supplied by the caller.
+ */
+class WorkloadOperations {
+
+    private final AccountController accountController;
+    private final int[] accountNumbers;
+    private final double depositThreshold;
+    private final double withdrawThreshold;
+
+    WorkloadOperations(AccountController accountController, int[] accountNumbers, WorkloadConfig config) {
+        this.accountController = accountController;
+        this.accountNumbers = accountNumbers;
+        this.depositThreshold = config.getDepositWeight();
+        this.withdrawThreshold = config.getDepositWeight() + config.getWithdrawWeight();
+    }
+
+    /**
+     * Picks and applies one operation.
+     *
+     * @param random Random source owned by the calling thread
+     * @return true if the operation succeeded
+     */
+    boolean applyRandom(SplittableRandom random) {
+        double kind = random.nextDouble();
+        int source = pick(random);
+        double amount = randomAmount(random);
+        if (kind < depositThreshold) {
+            return deposit(source, amount);
+        } else if (kind < withdrawThreshold) {
+            return withdraw(source, amount);
+        }
+        return transfer(source, pick(random), amount);
+    }
+
+    boolean deposit(int accountNumber, double amount) {
+        Account account = accountController.findAccount(accountNumber);
+        return accountController.deposit(account, amount);
+    }
+
+    boolean withdraw(int accountNumber, double amount) {
+        Account account = accountController.findAccount(accountNumber);
+        return accountController.withdraw(account, amount);
+    }
+
+    boolean transfer(int fromAccountNumber, int toAccountNumber, double amount) {
+        return accountController.transfer(fromAccountNumber, toAccountNumber, amount);
+    }
+
+    int pick(SplittableRandom random) {
+        return accountNumbers[random.nextInt(accountNumbers.length)];
+    }
+
+    /**
+     * Card-payment-like amounts: mostly small, with a long tail, rounded to cents.
+     */
+    static double randomAmount(SplittableRandom random) {
+        return Math.max(1, Math.round(Math.exp(random.nextDouble() * 7) * 100)) / 100.0;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.workload;
+
+import java.time.Duration;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+
+/**
+ * Command-line entry point for generating a synthetic population and driving load.
+ * Arguments are {@code key=value} pairs, for example:
+ * <pre>
+ *   users=1000000 seed=42 transactions=10000000 rate=200000 seconds=30 workers=8
+ * </pre>
+ * Omitting {@code rate} skips the load phase.
+ */
+public class WorkloadRunner {
+
+    public static void main(String[] args) throws InterruptedException {
+        long seed = 42;
+        int users = 100_000;
+        long transactions = -1;
+        double rate = 0;
+        int seconds = 10;
+        int workers = Runtime.getRuntime().availableProcessors();
+
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            switch (parts[0]) {
+                case "seed" -> seed = Long.parseLong(parts[1]);
+                case "users" -> users = Integer.parseInt(parts[1]);
+                case "transactions" -> transactions = Long.parseLong(parts[1]);
+                case "rate" -> rate = Double.parseDouble(parts[1]);
+                case "seconds" -> seconds = Integer.parseInt(parts[1]);
+                case "workers" -> workers = Integer.parseInt(parts[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + parts[0]);
+            }
+        }
+
+        WorkloadConfig defaults = WorkloadConfig.defaults(seed, users);
+        WorkloadConfig config = new WorkloadConfig(seed, users, defaults.getMaxAccountsPerUser(),
+                defaults.getZipfExponent(), transactions >= 0 ? transactions : defaults.getTransactionCount(),
+                defaults.getParallelism());
+
+        UserController userController = new UserController();
+        AccountController accountController = new AccountController(userController);
+        SyntheticDataGenerator.GenerationReport generated =
+                new SyntheticDataGenerator(config).generate(userController, accountController);
+        System.out.println("Generated: " + generated);
+
+        if (rate > 0) {
+            LoadDriver driver = new LoadDriver(accountController, generated.accountNumbers(), config);
+            LoadDriver.LoadReport report = driver.run(rate, Duration.ofSeconds(seconds), workers);
+            System.out.println("Load: " + report);
+        }
+    }
+}
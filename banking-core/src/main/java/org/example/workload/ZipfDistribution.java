@@ -0,0 +1,57 @@
+package org.example.workload;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf distribution over the ranks {@code 1..n}, where rank k has probability
+ * proportional to {@code 1 / k^exponent}.
+ * The cumulative table is computed once, so sampling is a binary search and
+ * the instance can be shared between threads.
+ */
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Number of ranks must be at least 1");
+        }
+        if (exponent <= 0) {
+            throw new IllegalArgumentException("Exponent must be positive");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cumulative[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random Random source owned by the calling thread
+     * @return Rank between 1 and n (inclusive)
+     */
+    public int sample(SplittableRandom random) {
+        double u = random.nextDouble();
+        int index = Arrays.binarySearch(cumulative, u);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cumulative.length - 1) + 1;
+    }
+
+    /**
+     * Gets the number of ranks.
+     *
+     * @return n
+     */
+    public int size() {
+        return cumulative.length;
+    }
+}
@@ -0,0 +1,254 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.model.Account;
+import org.example.model.Account.AccountStatus;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Account Lifecycle")
+class AccountLifecycleTest {
+
+    private static Account inStatus(AccountStatus status) {
+        Account account = new Account(100.0);
+        switch (status) {
+            case UNVERIFIED -> { }
+            case VERIFIED -> account.verify();
+            case SUSPENDED -> {
+                account.verify();
+                account.suspend();
+            }
+            case CLOSED -> account.close();
+        }
+        assertEquals(status, account.getStatus());
+        return account;
+    }
+
+    @Nested
+    @DisplayName("Transition table")
+    class Table {
+
+        @Test
+        @DisplayName("Only the documented transitions succeed")
+        void transitions() {
+            for (AccountStatus from : AccountStatus.values()) {
+                assertEquals(from == AccountStatus.UNVERIFIED, inStatus(from).verify(), "verify from " + from);
+                assertEquals(from == AccountStatus.VERIFIED, inStatus(from).suspend(), "suspend from " + from);
+                assertEquals(from == AccountStatus.SUSPENDED, inStatus(from).appeal(), "appeal from " + from);
+                assertEquals(from != AccountStatus.CLOSED, inStatus(from).close(), "close from " + from);
+            }
+        }
+
+        @Test
+        @DisplayName("Credits need an open account, debits a verified one")
+        void capabilities() {
+            for (AccountStatus status : AccountStatus.values()) {
+                boolean open = status == AccountStatus.UNVERIFIED || status == AccountStatus.VERIFIED;
+                assertEquals(open, inStatus(status).deposit(1.0), "deposit in " + status);
+                assertEquals(status == AccountStatus.VERIFIED, inStatus(status).withdraw(1.0), "withdraw in " + status);
+                assertEquals(status == AccountStatus.VERIFIED, inStatus(status).placeHold(1.0), "hold in " + status);
+            }
+        }
+
+        @Test
+        @DisplayName("Status changes leave the balances untouched")
+        void balancePreserved() {
+            Account account = inStatus(AccountStatus.VERIFIED);
+            account.placeHold(30.0);
+            account.suspend();
+            account.appeal();
+            account.close();
+
+            assertEquals(100.0, account.getBalance());
+            assertEquals(70.0, account.getAvailableBalance());
+            assertEquals(30.0, account.getHeldBalance());
+        }
+    }
+
+    /**
+     * Hammers one account with every operation from several threads, then checks invariants
+     * that any forbidden transition or lost update would break.
+     */
+    @Nested
+    @DisplayName("Concurrency harness")
+    class Harness {
+
+        private static final int THREADS = 8;
+        private static final int OPERATIONS = 20_000;
+
+        @RepeatedTest(5)
+        @DisplayName("No forbidden transition and no money created or lost")
+        void randomOperations() throws Exception {
+            Account account = new Account(1_000.0);
+            LongAdder verifies = new LongAdder();
+            LongAdder suspends = new LongAdder();
+            LongAdder appeals = new LongAdder();
+            LongAdder closes = new LongAdder();
+            LongAdder movedCents = new LongAdder();
+            List<String> violations = Collections.synchronizedList(new ArrayList<>());
+            CyclicBarrier start = new CyclicBarrier(THREADS);
+
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long seed = t;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    try {
+                        start.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        int op = random.nextInt(100);
+                        if (op < 40) {
+                            if (account.deposit(0.25)) {
+                                movedCents.add(25);
+                            }
+                        } else if (op < 80) {
+                            if (account.withdraw(0.5)) {
+                                movedCents.add(-50);
+                            }
+                        } else if (op < 85) {
+                            if (account.verify()) {
+                                verifies.increment();
+                            }
+                        } else if (op < 92) {
+                            if (account.suspend()) {
+                                suspends.increment();
+                            }
+                        } else if (op < 99 || i < OPERATIONS / 2) {
+                            if (account.appeal()) {
+                                appeals.increment();
+                            }
+                        } else if (account.close()) {
+                            closes.increment();
+                            // Nothing may succeed on a closed account
+                            if (account.deposit(1.0) || account.withdraw(0.01) || account.verify()
+                                    || account.appeal() || account.close()) {
+                                violations.add("operation succeeded after close");
+                            }
+                        }
+                        if (account.getAvailableBalance() < 0) {
+                            violations.add("negative available balance");
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertTrue(violations.isEmpty(), () -> violations.get(0));
+            assertEquals(1, verifies.sum());
+            assertTrue(closes.sum() <= 1);
+            // Suspend and appeal alternate, starting from VERIFIED
+            long open = suspends.sum() - appeals.sum();
+            assertTrue(open == 0 || open == 1, "suspends=" + suspends.sum() + " appeals=" + appeals.sum());
+            if (closes.sum() == 0) {
+                assertEquals(open == 1 ? AccountStatus.SUSPENDED : AccountStatus.VERIFIED, account.getStatus());
+            } else {
+                assertEquals(AccountStatus.CLOSED, account.getStatus());
+                assertFalse(account.deposit(1.0));
+            }
+            assertEquals(100_000 + movedCents.sum(), Math.round(account.getBalance() * 100));
+            assertEquals(account.getBalance(), account.getAvailableBalance());
+        }
+
+        @RepeatedTest(3)
+        @DisplayName("Ledger and available balances are always read together")
+        void consistentSnapshots() throws Exception {
+            Account account = new Account(1_000.0);
+            account.verify();
+            List<String> violations = Collections.synchronizedList(new ArrayList<>());
+            Thread reader = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 200_000 && violations.isEmpty(); i++) {
+                    double held = account.getHeldBalance();
+                    if (held < 0 || held > 1_000.0) {
+                        violations.add("held balance " + held);
+                    }
+                }
+            });
+            Thread writer = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    if (account.placeHold(1.0)) {
+                        account.captureHold(1.0);
+                        account.deposit(1.0);
+                    }
+                }
+            });
+            reader.join();
+            writer.join();
+
+            assertTrue(violations.isEmpty(), () -> violations.get(0));
+            assertEquals(1_000.0, account.getBalance());
+            assertEquals(0.0, account.getHeldBalance());
+        }
+
+        @RepeatedTest(3)
+        @DisplayName("Transfers racing a close neither create nor lose money")
+        void transfersAgainstClose() throws Exception {
+            Account a = new Account(500.0);
+            Account b = new Account(500.0);
+            a.verify();
+            b.verify();
+            CyclicBarrier start = new CyclicBarrier(3);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                Account from = t == 0 ? a : b;
+                Account to = t == 0 ? b : a;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        start.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    for (int i = 0; i < 20_000; i++) {
+                        from.transfer(to, 0.75);
+                    }
+                }));
+            }
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                Thread.yield();
+                b.close();
+            }));
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(1_000.0, a.getBalance() + b.getBalance(), 1e-9);
+            assertEquals(a.getBalance(), a.getAvailableBalance());
+            assertFalse(a.transfer(b, 1.0));
+        }
+    }
+
+    @Test
+    @DisplayName("Amounts outside the cent range are refused")
+    void outOfRange() {
+        Account account = inStatus(AccountStatus.VERIFIED);
+        assertFalse(account.deposit(Double.NaN));
+        assertFalse(account.deposit(Double.POSITIVE_INFINITY));
+        assertFalse(account.deposit(1e300));
+        assertFalse(account.deposit(Account.MAX_CENTS / 100.0 + 1));
+        assertFalse(account.placeHold(Double.NaN));
+        assertEquals(100.0, account.getBalance());
+        assertThrows(IllegalArgumentException.class, () -> new Account(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new Account(1e300));
+    }
+}
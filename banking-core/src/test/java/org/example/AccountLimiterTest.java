@@ -0,0 +1,77 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.metrics.Metrics;
+import org.example.model.Account;
+import org.example.model.OperationResult;
+import org.example.risk.AccountLimiter;
+import org.example.risk.AccountLimits;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Account Rate and Velocity Limits")
+class AccountLimiterTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    @DisplayName("Burst exhausted → RATE_LIMITED until tokens refill")
+    void tokenBucket_refills() {
+        AccountLimiter limiter = new AccountLimiter(new AccountLimits(2, 3, 1_000_000), metrics, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(OperationResult.SUCCESS, limiter.acquire(1000, 100));
+        }
+        assertEquals(OperationResult.RATE_LIMITED, limiter.acquire(1000, 100));
+
+        clock.addAndGet(500);
+        assertEquals(OperationResult.SUCCESS, limiter.acquire(1000, 100));
+        assertEquals(1, metrics.snapshot().get("limits.rate_limited"));
+    }
+
+    @Test
+    @DisplayName("Rolling 24h amount → rejected until old hours fall out")
+    void dailyLimit_rolls() {
+        AccountLimiter limiter = new AccountLimiter(new AccountLimits(1000, 100, 100.0), metrics, clock::get);
+
+        assertEquals(OperationResult.SUCCESS, limiter.acquire(1000, 6_000));
+        clock.addAndGet(10 * HOUR);
+        assertEquals(OperationResult.DAILY_LIMIT_EXCEEDED, limiter.acquire(1000, 5_000));
+        assertEquals(OperationResult.SUCCESS, limiter.acquire(1000, 4_000));
+
+        clock.addAndGet(15 * HOUR);
+        assertEquals(4_000, limiter.getDailyTotalCents(1000));
+        assertEquals(OperationResult.SUCCESS, limiter.acquire(1000, 6_000));
+    }
+
+    @Test
+    @DisplayName("Controller enforces limits before touching balance; failed withdrawals are refunded")
+    void controller_enforcesLimits() {
+        Account.resetCounter();
+        AccountController accountController = new AccountController(new UserController());
+        Account account = new Account(500.0);
+        account.verify();
+        accountController.registerAccount(account);
+        accountController.setAccountLimits(new AccountLimits(1000, 100, 100.0));
+
+        assertEquals(OperationResult.SUCCESS, accountController.withdraw(null, account, 90.0));
+        // Over the daily amount on its own → rejected by the limiter
+        assertEquals(OperationResult.DAILY_LIMIT_EXCEEDED, accountController.withdraw(null, account, 1000.0));
+        assertEquals(OperationResult.DAILY_LIMIT_EXCEEDED, accountController.withdraw(null, account, 20.0));
+        assertEquals(410.0, account.getBalance());
+        assertEquals(2, accountController.getMetrics().snapshot().get("limits.daily_limit_exceeded"));
+    }
+}
@@ -0,0 +1,104 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.BatchResult;
+import org.example.controllers.StatusAction;
+import org.example.controllers.StatusChange;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Batch Admin Status Operations")
+class AdminStatusBatchTest {
+
+    private AccountController accountController;
+    private AdminController adminController;
+    private List<StatusChange> notifications;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        UserController userController = new UserController();
+        accountController = new AccountController(userController);
+        adminController = new AdminController(userController, accountController);
+        for (int i = 0; i < 10_000; i++) {
+            accountController.registerAccount(new Account(10.0));
+        }
+        notifications = new ArrayList<>();
+        adminController.addStatusChangeListener(notifications::add);
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> numbers = new ArrayList<>();
+        for (int n = from; n < to; n++) {
+            numbers.add(n);
+        }
+        return numbers;
+    }
+
+    @Test
+    @DisplayName("Batch verify reports per-account outcomes in request order")
+    void verifyBatch() {
+        adminController.verifyAccount(1002);
+        notifications.clear();
+
+        BatchResult<Integer> result = adminController.changeStatus(StatusAction.VERIFY,
+                List.of(1003, 1002, 99_999, 1001));
+
+        assertEquals(List.of(1003, 1001), result.succeeded());
+        assertEquals(List.of(1002, 99_999), result.failed());
+        assertEquals(Account.AccountStatus.VERIFIED, accountController.findAccount(1003).getStatus());
+    }
+
+    @Test
+    @DisplayName("Thousands of accounts change with one aggregated notification")
+    void singleNotification() {
+        BatchResult<Integer> verified = adminController.changeStatus(StatusAction.VERIFY, range(1000, 11_000));
+        BatchResult<Integer> suspended = adminController.changeStatus(StatusAction.SUSPEND,
+                account -> account.getAccountNumber() % 2 == 0);
+
+        assertEquals(10_000, verified.successCount());
+        assertEquals(5_000, suspended.successCount());
+        assertEquals(2, notifications.size());
+        assertEquals(StatusAction.SUSPEND, notifications.get(1).action());
+        assertEquals(suspended.succeeded(), notifications.get(1).accountNumbers());
+        assertTrue(notifications.get(1).accountNumbers().stream().allMatch(n -> n % 2 == 0));
+    }
+
+    @Test
+    @DisplayName("Status predicate selects accounts; nothing changed means no notification")
+    void bySelector() {
+        adminController.changeStatus(StatusAction.VERIFY, range(1000, 1010));
+        adminController.changeStatus(StatusAction.SUSPEND, range(1000, 1005));
+        notifications.clear();
+
+        BatchResult<Integer> appealed = adminController.changeStatus(StatusAction.APPEAL,
+                account -> account.getStatus() == Account.AccountStatus.SUSPENDED);
+        BatchResult<Integer> again = adminController.changeStatus(StatusAction.APPEAL, range(1000, 1005));
+
+        assertEquals(range(1000, 1005), appealed.succeeded());
+        assertEquals(5, again.failureCount());
+        assertEquals(1, notifications.size());
+    }
+
+    @Test
+    @DisplayName("Single-account operations notify too and fail on the wrong status")
+    void singleAccount() {
+        assertTrue(adminController.verifyAccount(1000));
+        assertFalse(adminController.verifyAccount(1000));
+        assertTrue(adminController.closeAccount(1000));
+        assertFalse(adminController.suspendAccount(1000));
+
+        assertEquals(2, notifications.size());
+        assertEquals(List.of(1000), notifications.get(1).accountNumbers());
+    }
+}
@@ -0,0 +1,162 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.ledger.Hold;
+import org.example.model.Account;
+import org.example.model.Transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Balance Holds")
+class BalanceHoldTest {
+
+    private static final Duration LONG = Duration.ofMinutes(5);
+
+    private AccountController accountController;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        accountController = new AccountController(new UserController());
+        account = new Account(1000.0);
+        account.verify();
+        accountController.registerAccount(account);
+    }
+
+    @Nested
+    @DisplayName("Account balances")
+    class Balances {
+
+        @Test
+        @DisplayName("Hold reduces available, not ledger balance")
+        void hold_reducesAvailableOnly() {
+            assertNotNull(accountController.placeHold(account, 300.0, LONG));
+
+            assertEquals(1000.0, account.getBalance());
+            assertEquals(700.0, account.getAvailableBalance());
+            assertEquals(300.0, account.getHeldBalance());
+        }
+
+        @Test
+        @DisplayName("Withdraw cannot spend held funds")
+        void withdraw_respectsHolds() {
+            accountController.placeHold(account, 800.0, LONG);
+
+            assertFalse(account.withdraw(300.0));
+            assertTrue(account.withdraw(200.0));
+            assertEquals(800.0, account.getBalance());
+            assertEquals(0.0, account.getAvailableBalance());
+        }
+
+        @Test
+        @DisplayName("Hold above the available balance or on an unverified account → refused")
+        void hold_refused() {
+            assertNull(accountController.placeHold(account, 1000.01, LONG));
+
+            Account unverified = new Account(500.0);
+            accountController.registerAccount(unverified);
+            assertNull(accountController.placeHold(unverified, 100.0, LONG));
+        }
+    }
+
+    @Nested
+    @DisplayName("Hold lifecycle")
+    class Lifecycle {
+
+        @Test
+        @DisplayName("Capture → ledger reduced and a withdrawal recorded")
+        void capture() {
+            Hold hold = accountController.placeHold(account, 250.0, LONG);
+
+            assertTrue(accountController.captureHold(hold.getHoldId()));
+
+            assertEquals(750.0, account.getBalance());
+            assertEquals(750.0, account.getAvailableBalance());
+            assertEquals(Hold.HoldStatus.CAPTURED, hold.getStatus());
+            List<Transaction> history = account.getTransactionHistory();
+            assertEquals(Transaction.TransactionType.WITHDRAW, history.get(0).getType());
+            assertFalse(accountController.captureHold(hold.getHoldId()));
+            assertFalse(accountController.releaseHold(hold.getHoldId()));
+        }
+
+        @Test
+        @DisplayName("Release → available restored, nothing recorded")
+        void release() {
+            Hold hold = accountController.placeHold(account, 250.0, LONG);
+
+            assertTrue(accountController.releaseHold(hold.getHoldId()));
+
+            assertEquals(1000.0, account.getBalance());
+            assertEquals(1000.0, account.getAvailableBalance());
+            assertTrue(account.getTransactionHistory().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Unsettled hold expires on its own")
+        void expiry() throws InterruptedException {
+            Hold hold = accountController.placeHold(account, 400.0, Duration.ofMillis(20));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (hold.isActive() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertEquals(Hold.HoldStatus.EXPIRED, hold.getStatus());
+            assertEquals(1000.0, account.getAvailableBalance());
+            assertFalse(accountController.captureHold(hold.getHoldId()));
+            assertEquals(1L, accountController.getMetrics().snapshot().get("holds.expired"));
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent holds never over-commit the available balance")
+    void concurrentHolds_neverOverCommit() throws InterruptedException {
+        int threads = 8;
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger withdrawn = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    if (accountController.placeHold(account, 1.0, LONG) != null) {
+                        granted.incrementAndGet();
+                    }
+                    if (account.withdraw(1.0)) {
+                        withdrawn.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // 1600 attempts against 1000 units: every unit is either held or withdrawn, never both
+        assertEquals(1000, granted.get() + withdrawn.get());
+        assertEquals(0.0, account.getAvailableBalance());
+        assertEquals(1000.0 - withdrawn.get(), account.getBalance());
+        assertEquals(granted.get(), account.getHeldBalance());
+    }
+}
@@ -0,0 +1,96 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.protocol.BinaryProtocolClient;
+import org.example.protocol.BinaryProtocolServer;
+import org.example.protocol.Frames;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Binary Protocol")
+class BinaryProtocolTest {
+
+    private BinaryProtocolServer server;
+    private BinaryProtocolClient client;
+    private Account source;
+    private Account target;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Account.resetCounter();
+        AccountController accountController = new AccountController(new UserController());
+        source = new Account(100.0);
+        target = new Account(0.0);
+        source.verify();
+        target.verify();
+        accountController.registerAccount(source);
+        accountController.registerAccount(target);
+
+        server = new BinaryProtocolServer(new InetSocketAddress("127.0.0.1", 0), accountController, 2);
+        server.start();
+        client = new BinaryProtocolClient(new InetSocketAddress("127.0.0.1", server.getPort()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("Pipelined requests → responses in order with correlation IDs")
+    void pipelinedRequests() throws Exception {
+        client.send(Frames.OP_TRANSFER, 1, 1000, 1001, 2_500);
+        client.send(Frames.OP_WITHDRAW, 2, 1000, 0, 1_000_000);
+        client.send(Frames.OP_DEPOSIT, 3, 0, 9999, 100);
+        client.send(Frames.OP_DEPOSIT, 4, 0, 1001, 0);
+        client.send(Frames.OP_BALANCE, 5, 1001, 0, 0);
+        client.flush();
+
+        List<long[]> responses = new ArrayList<>();
+        while (responses.size() < 5) {
+            client.receive((id, status, value) -> responses.add(new long[]{id, status, value}));
+        }
+
+        assertResponse(responses.get(0), 1, Frames.STATUS_OK, 0);
+        assertResponse(responses.get(1), 2, Frames.STATUS_REJECTED, 0);
+        assertResponse(responses.get(2), 3, Frames.STATUS_NOT_FOUND, 0);
+        assertResponse(responses.get(3), 4, Frames.STATUS_BAD_REQUEST, 0);
+        assertResponse(responses.get(4), 5, Frames.STATUS_OK, 2_500);
+        assertEquals(75.0, source.getBalance());
+        assertEquals(25.0, target.getBalance());
+    }
+
+    @Test
+    @DisplayName("Stop closes open connections on their event loops and can be repeated")
+    void stopClosesConnections() throws Exception {
+        client.send(Frames.OP_BALANCE, 1, 1000, 0, 0);
+        client.flush();
+        List<long[]> responses = new ArrayList<>();
+        while (responses.isEmpty()) {
+            client.receive((id, status, value) -> responses.add(new long[]{id, status, value}));
+        }
+
+        server.stop();
+        server.stop();
+
+        assertThrows(IOException.class, () -> client.receive((id, status, value) -> { }));
+    }
+
+    private static void assertResponse(long[] response, long id, byte status, long value) {
+        assertEquals(id, response[0]);
+        assertEquals(status, response[1]);
+        assertEquals(value, response[2]);
+    }
+}
@@ -0,0 +1,122 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.example.batch.BulkImporter;
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.User;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Bulk Importer")
+class BulkImporterTest {
+
+    private UserController userController;
+    private AccountController accountController;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        User.resetIdCounter();
+        Account.resetCounter();
+        userController = new UserController();
+        accountController = new AccountController(userController);
+    }
+
+    @Test
+    @DisplayName("Valid users are added without logging anyone in; bad rows go to the rejects file")
+    void users() throws IOException {
+        Path csv = dir.resolve("users.csv");
+        Files.writeString(csv, """
+                name,email,password,phone
+                Ada,ada@bank.test,pw1,555-0001
+                "Lovelace, Ada",ada2@bank.test,pw2,
+                ,blank@bank.test,pw3,555-0003
+                Dup,ada@bank.test,pw4,555-0004
+                Short,short@bank.test
+                """);
+        Path rejects = dir.resolve("users.rejects.csv");
+
+        BulkImporter.ImportReport report = new BulkImporter(userController, accountController, 2).importUsers(csv, rejects);
+
+        assertEquals(5, report.rows());
+        assertEquals(2, report.imported());
+        assertEquals(3, report.rejected());
+        assertFalse(userController.isLoggedIn());
+        assertEquals("Lovelace, Ada", userController.getUserByEmail("ada2@bank.test").getName());
+        assertNull(userController.getUserByEmail("ada2@bank.test").getPhone());
+        assertEquals("Ada", userController.getUserByEmail("ada@bank.test").getName());
+
+        List<String> lines = Files.readAllLines(rejects);
+        assertEquals("line,reason,row", lines.get(0));
+        assertEquals("4,\"Name cannot be null or blank\",\",blank@bank.test,pw3,555-0003\"", lines.get(1));
+        assertTrue(lines.get(2).startsWith("5,\"email already registered\""));
+        assertTrue(lines.get(3).startsWith("6,\"expected 4 fields\""));
+    }
+
+    @Test
+    @DisplayName("Accounts attach to existing owners across many small chunks")
+    void accounts() throws IOException {
+        StringBuilder users = new StringBuilder("name,email,password,phone\n");
+        StringBuilder accounts = new StringBuilder("ownerEmail,initialBalance,verified\n");
+        for (int i = 0; i < 500; i++) {
+            users.append("User ").append(i).append(",u").append(i).append("@bank.test,pw,\n");
+            accounts.append("u").append(i % 50).append("@bank.test,").append(i).append(".50,")
+                    .append(i % 2 == 0).append('\n');
+        }
+        accounts.append("nobody@bank.test,1.00,true\n");
+        accounts.append("u1@bank.test,-5,true\n");
+        accounts.append("u1@bank.test,lots,true\n");
+        accounts.append("u1@bank.test,NaN,true\n");
+        accounts.append("u1@bank.test,Infinity,true\n");
+        accounts.append("u1@bank.test,1e400,true\n");
+        accounts.append("u1@bank.test,10.005,true\n");
+        Path userCsv = Files.writeString(dir.resolve("users.csv"), users);
+        Path accountCsv = Files.writeString(dir.resolve("accounts.csv"), accounts);
+        // Small chunks force many parallel batches
+        BulkImporter importer = new BulkImporter(userController, accountController, 4, 512);
+
+        BulkImporter.ImportReport userReport = importer.importUsers(userCsv, dir.resolve("u.rejects"));
+        BulkImporter.ImportReport accountReport = importer.importAccounts(accountCsv, dir.resolve("a.rejects"));
+
+        assertEquals(500, userReport.imported());
+        assertEquals(507, accountReport.rows());
+        assertEquals(500, accountReport.imported());
+        assertEquals(7, accountReport.rejected());
+        assertEquals(500, accountController.getAllAccounts().size());
+        assertEquals(10, userController.getUserByEmail("u7@bank.test").getAccounts().size());
+        long verified = accountController.getAllAccounts().values().stream()
+                .filter(a -> a.getStatus() == Account.AccountStatus.VERIFIED).count();
+        assertEquals(250, verified);
+        assertTrue(accountReport.rowsPerSecond() > 0);
+        // One opening entry per chunk, not per account
+        assertTrue(accountController.getLedger().isBalanced());
+        assertTrue(accountController.getLedger().getEntryCount() < 100);
+        for (Account account : accountController.getAllAccounts().values()) {
+            assertEquals(Math.round(account.getBalance() * 100),
+                    accountController.getLedger().getPostedCents(account.getAccountNumber()));
+        }
+
+        List<String> lines = Files.readAllLines(dir.resolve("a.rejects"));
+        assertTrue(lines.get(1).startsWith("502,\"unknown owner\""));
+        assertTrue(lines.get(2).startsWith("503,\"Initial balance cannot be negative\""));
+        assertTrue(lines.get(3).startsWith("504,\"Initial balance is not a number\""));
+        assertTrue(lines.get(4).startsWith("505,\"Initial balance is not a number\""));
+        assertTrue(lines.get(5).startsWith("506,\"Initial balance is not a number\""));
+        assertTrue(lines.get(6).startsWith("507,\"Initial balance is out of range\""));
+        assertTrue(lines.get(7).startsWith("508,\"Initial balance has more than 2 decimal places\""));
+    }
+}
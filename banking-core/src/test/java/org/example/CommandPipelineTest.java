@@ -0,0 +1,190 @@
+package org.example;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.StatusAction;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.OperationResult;
+import org.example.pipeline.CommandPipeline;
+import org.example.pipeline.CommandType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Command Pipeline")
+class CommandPipelineTest {
+
+    private static final int ACCOUNTS = 16;
+
+    private AccountController accountController;
+    private AdminController adminController;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        UserController userController = new UserController();
+        accountController = new AccountController(userController);
+        adminController = new AdminController(userController, accountController);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account(100.0);
+            account.verify();
+            accountController.registerAccount(account);
+        }
+    }
+
+    private double total() {
+        return accountController.getAllAccounts().values().stream().mapToDouble(Account::getBalance).sum();
+    }
+
+    @Test
+    @DisplayName("Blocking calls return the result of the applied command")
+    void blockingCalls() throws Exception {
+        try (CommandPipeline pipeline = new CommandPipeline(accountController, adminController)) {
+            assertEquals(OperationResult.SUCCESS, pipeline.deposit(1000, 50));
+            assertEquals(OperationResult.SUCCESS, pipeline.transfer(1000, 1001, 25));
+            assertEquals(OperationResult.REJECTED, pipeline.withdraw(1002, 500));
+            assertEquals(OperationResult.ACCOUNT_NOT_FOUND, pipeline.deposit(9999, 1));
+            assertEquals(OperationResult.SUCCESS, pipeline.changeStatus(StatusAction.SUSPEND, 1003));
+            assertEquals(OperationResult.REJECTED, pipeline.deposit(1003, 1));
+            assertEquals(OperationResult.REJECTED, pipeline.approveTransaction("missing"));
+        }
+        assertEquals(125.0, accountController.findAccount(1000).getBalance());
+        assertEquals(125.0, accountController.findAccount(1001).getBalance());
+        assertEquals(Account.AccountStatus.SUSPENDED, accountController.findAccount(1003).getStatus());
+        assertTrue(accountController.getLedger().isBalanced());
+    }
+
+    @Test
+    @DisplayName("Stages see commands in sequence order and journal each one")
+    void journalAndListeners(@TempDir Path dir) throws Exception {
+        Path journal = dir.resolve("commands.journal");
+        List<Long> seen = new ArrayList<>();
+        try (CommandPipeline pipeline = new CommandPipeline(accountController, adminController, 8, journal)) {
+            pipeline.addListener(command -> seen.add(command.getSequence()));
+            for (int i = 0; i < 20; i++) {
+                pipeline.publish(CommandType.DEPOSIT, 1000 + i % ACCOUNTS, -1, 1.5, i == 1 ? "a\tb\nc" : "key-" + i,
+                        null);
+            }
+        }
+        List<String> lines = Files.readAllLines(journal);
+        assertEquals(20, lines.size());
+        assertEquals("0\tDEPOSIT\t1000\t-1\t1.50\tkey-0", lines.get(0));
+        assertEquals("a\\tb\\nc", lines.get(1).split("\t")[5]);
+        assertEquals(19, seen.get(19));
+        for (int i = 0; i < seen.size(); i++) {
+            assertEquals(i, seen.get(i));
+        }
+        assertEquals(100.0 * ACCOUNTS + 30.0, total(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Concurrent publishers wrap a small ring without losing or duplicating commands")
+    void concurrentPublishers() throws Exception {
+        int publishers = 4;
+        int perPublisher = 5_000;
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(publishers * perPublisher);
+        try (CommandPipeline pipeline = new CommandPipeline(accountController, adminController, 64, null)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < publishers; p++) {
+                int seed = p;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < perPublisher; i++) {
+                        int from = 1000 + (seed + i) % ACCOUNTS;
+                        int to = 1000 + (seed + 3 * i + 1) % ACCOUNTS;
+                        pipeline.publish(CommandType.TRANSFER, from, to, 0.5, null, (sequence, result) -> {
+                            completed.incrementAndGet();
+                            if (result.isSuccess()) {
+                                succeeded.incrementAndGet();
+                            }
+                            done.countDown();
+                        });
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        }
+        assertEquals(publishers * perPublisher, completed.get());
+        assertTrue(succeeded.get() > 0);
+        assertEquals(100.0 * ACCOUNTS, total(), 1e-6);
+        assertTrue(accountController.getLedger().isBalanced());
+        assertEquals(publishers * perPublisher,
+                accountController.getMetrics().snapshot().get("pipeline.commands"));
+    }
+
+    @Test
+    @DisplayName("A closed pipeline rejects new commands")
+    void rejectsAfterClose() throws Exception {
+        CommandPipeline pipeline = new CommandPipeline(accountController, adminController);
+        pipeline.deposit(1000, 1);
+        pipeline.close();
+        assertThrows(RejectedExecutionException.class, () -> pipeline.deposit(1000, 1));
+        assertEquals(101.0, accountController.findAccount(1000).getBalance());
+    }
+
+    @Test
+    @DisplayName("A command that throws fails alone and the stages keep running")
+    void failingCommand() throws Exception {
+        Account faulty = new Account(0.0) {
+            @Override
+            public boolean deposit(double amount) {
+                throw new IllegalStateException("injected");
+            }
+        };
+        faulty.verify();
+        accountController.registerAccount(faulty);
+        List<Exception> reported = new CopyOnWriteArrayList<>();
+        try (CommandPipeline pipeline = new CommandPipeline(accountController, adminController)) {
+            pipeline.setErrorHandler(reported::add);
+            pipeline.addListener(command -> {
+                if (command.getAccountNumber() == 1001) {
+                    throw new IllegalArgumentException("listener");
+                }
+            });
+
+            assertEquals(OperationResult.ERROR, pipeline.deposit(faulty.getAccountNumber(), 5));
+            assertEquals(OperationResult.SUCCESS, pipeline.deposit(1001, 5));
+            assertEquals(OperationResult.SUCCESS, pipeline.deposit(1000, 5));
+        }
+        assertEquals(List.of("injected", "listener"), reported.stream().map(Exception::getMessage).toList());
+        assertEquals(2, accountController.getMetrics().snapshot().get("pipeline.errors"));
+        assertEquals(105.0, accountController.findAccount(1001).getBalance());
+    }
+
+    @Test
+    @DisplayName("Close returns when a stage has died and fails what it left behind")
+    void closeAfterDeadStage() throws Exception {
+        CommandPipeline pipeline = new CommandPipeline(accountController, adminController);
+        pipeline.addListener(command -> {
+            throw new Error("injected");
+        });
+        List<OperationResult> results = new CopyOnWriteArrayList<>();
+        pipeline.publish(CommandType.DEPOSIT, 1000, -1, 1, null, (sequence, result) -> results.add(result));
+        pipeline.publish(CommandType.DEPOSIT, 1001, -1, 1, null, (sequence, result) -> results.add(result));
+
+        long start = System.nanoTime();
+        pipeline.close();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(List.of(OperationResult.ERROR, OperationResult.ERROR), results);
+    }
+}
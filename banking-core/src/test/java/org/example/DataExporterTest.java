@@ -0,0 +1,134 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.example.batch.DataExporter;
+import org.example.batch.ExportFilter;
+import org.example.batch.ExportFormat;
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.Transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Data Exporter")
+class DataExporterTest {
+
+    private AccountController accountController;
+    private DataExporter exporter;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        accountController = new AccountController(new UserController());
+        exporter = new DataExporter(accountController, 4);
+        Account source = new Account(1000.0);
+        Account target = new Account(0.0);
+        Account other = new Account(50.0);
+        source.verify();
+        target.verify();
+        accountController.registerAccount(source);
+        accountController.registerAccount(target);
+        accountController.registerAccount(other);
+
+        accountController.deposit(source, 25.5);
+        accountController.transfer(1000, 1001, 300.0);
+        accountController.withdraw(source, 5_000.0);   // FAILED
+        accountController.withdraw(target, 0.05);
+    }
+
+    @Nested
+    @DisplayName("Transactions")
+    class Transactions {
+
+        @Test
+        @DisplayName("CSV export lists every transaction once, transfers included")
+        void csv() throws IOException {
+            DataExporter.ExportReport report =
+                    exporter.exportTransactions(ExportFilter.all(), ExportFormat.CSV, dir, 1);
+
+            List<String> lines = Files.readAllLines(dir.resolve("transactions.csv"));
+            assertEquals(4, report.rows());
+            assertEquals(5, lines.size());
+            assertEquals("transactionId,type,status,amount,sourceAccount,targetAccount,timestamp", lines.get(0));
+            assertTrue(lines.get(1).matches("[0-9a-f-]{36},DEPOSIT,SUCCESS,25\\.50,,1000,\\d{4}-.*"));
+            assertTrue(lines.get(2).contains(",TRANSFER,SUCCESS,300.00,1000,1001,"));
+            assertTrue(lines.get(3).contains(",WITHDRAW,FAILED,5000.00,1000,,"));
+            assertTrue(lines.get(4).contains(",WITHDRAW,SUCCESS,0.05,1001,,"));
+            assertEquals(Files.size(dir.resolve("transactions.csv")), report.bytes());
+        }
+
+        @Test
+        @DisplayName("NDJSON export writes one object per line")
+        void ndjson() throws IOException {
+            exporter.exportTransactions(ExportFilter.all(), ExportFormat.NDJSON, dir, 1);
+
+            List<String> lines = Files.readAllLines(dir.resolve("transactions.ndjson"));
+            assertEquals(4, lines.size());
+            assertTrue(lines.get(0).matches("\\{\"transactionId\":\"[0-9a-f-]{36}\",\"type\":\"DEPOSIT\","
+                    + "\"status\":\"SUCCESS\",\"amount\":25\\.50,\"source\":null,\"target\":1000,\"timestamp\":\"[0-9T:-]{19}\"}"));
+        }
+
+        @Test
+        @DisplayName("Account and status filters apply; a transfer is kept for its target alone")
+        void filters() throws IOException {
+            ExportFilter onlyTarget = new ExportFilter(null, null, Set.of(1001), null, null);
+            assertEquals(2, exporter.exportTransactions(onlyTarget, ExportFormat.CSV, dir, 1).rows());
+
+            ExportFilter failed = new ExportFilter(null, null, null, null, Set.of(Transaction.TransactionStatus.FAILED));
+            assertEquals(1, exporter.exportTransactions(failed, ExportFormat.CSV, dir, 1).rows());
+
+            ExportFilter future = new ExportFilter(java.time.LocalDateTime.now().plusDays(1), null, null, null, null);
+            assertEquals(0, exporter.exportTransactions(future, ExportFormat.CSV, dir, 1).rows());
+        }
+
+        @Test
+        @DisplayName("Split export covers the same rows across several files")
+        void split() throws IOException {
+            for (int i = 0; i < 200; i++) {
+                Account account = new Account(10.0);
+                accountController.registerAccount(account);
+                accountController.deposit(account, 1.0);
+            }
+
+            DataExporter.ExportReport report =
+                    exporter.exportTransactions(ExportFilter.all(), ExportFormat.CSV, dir, 3);
+
+            assertEquals(3, report.files().size());
+            List<String> rows = new ArrayList<>();
+            for (Path file : report.files()) {
+                List<String> lines = Files.readAllLines(file);
+                rows.addAll(lines.subList(1, lines.size()));
+            }
+            assertEquals(204, report.rows());
+            assertEquals(204, rows.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Account export honours the account status filter")
+    void accounts() throws IOException {
+        ExportFilter verified = new ExportFilter(null, null, null, Set.of(Account.AccountStatus.VERIFIED), null);
+
+        DataExporter.ExportReport report = exporter.exportAccounts(verified, ExportFormat.CSV, dir, 1);
+
+        List<String> lines = Files.readAllLines(dir.resolve("accounts.csv"));
+        assertEquals(2, report.rows());
+        assertEquals("1000,,VERIFIED,725.50,725.50", lines.get(1));
+        assertEquals("1001,,VERIFIED,299.95,299.95", lines.get(2));
+    }
+}
@@ -0,0 +1,156 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.UserController;
+import org.example.metrics.Metrics;
+import org.example.model.Account;
+import org.example.model.OperationResult;
+import org.example.model.Transaction;
+import org.example.risk.FraudRule;
+import org.example.risk.FraudRuleEngine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Fraud Rule Engine")
+class FraudRuleEngineTest {
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    /**
+     * Assesses a movement and, like the controller, records it only if it goes ahead.
+     */
+    private static int applied(FraudRuleEngine engine, int account, int counterparty, long cents) {
+        int hits = engine.assess(account, counterparty, cents);
+        if (hits == 0) {
+            engine.record(account, counterparty, cents);
+        }
+        return hits;
+    }
+
+    @Test
+    @DisplayName("More than N new counterparties in the window → flagged")
+    void newCounterpartyBurst() {
+        FraudRuleEngine engine = new FraudRuleEngine(List.of(
+                new FraudRule.NewCounterpartyBurst("burst", 2, Duration.ofMinutes(10))), new Metrics(), clock::get);
+
+        assertEquals(0, applied(engine, 1, 100, 500));
+        assertEquals(0, applied(engine, 1, 101, 500));
+        assertEquals(0, applied(engine, 1, 100, 500)); // known counterparty
+        assertEquals(1, applied(engine, 1, 102, 500));
+
+        clock.addAndGet(Duration.ofMinutes(11).toMillis());
+        assertEquals(0, applied(engine, 1, 103, 500));
+    }
+
+    @Test
+    @DisplayName("Amount far above the rolling average → flagged once history exists")
+    void amountAboveAverage() {
+        FraudRuleEngine engine = new FraudRuleEngine(List.of(
+                new FraudRule.AmountAbove("large", 50_000),
+                new FraudRule.AmountAboveAverage("spike", 300, Duration.ofDays(30), 3)), new Metrics(), clock::get);
+
+        assertEquals(0, applied(engine, 1, -1, 10_000)); // not enough history yet
+        assertEquals(0, applied(engine, 1, -1, 10_000));
+        assertEquals(0, applied(engine, 1, -1, 10_000));
+        assertEquals(0b10, applied(engine, 1, -1, 50_000));
+        assertEquals("spike", engine.describe(0b10));
+    }
+
+    @Test
+    @DisplayName("Flagged attempts are not learned; only applied movements shape the profile")
+    void flaggedAttemptsNotRecorded() {
+        FraudRuleEngine engine = new FraudRuleEngine(List.of(
+                new FraudRule.NewCounterpartyBurst("burst", 1, Duration.ofMinutes(10))), new Metrics(), clock::get);
+
+        assertEquals(0, applied(engine, 1, 100, 500));
+        // Retrying a flagged payment neither makes the payee known nor adds to the burst
+        assertEquals(1, applied(engine, 1, 200, 500));
+        assertEquals(1, applied(engine, 1, 200, 500));
+        clock.addAndGet(Duration.ofMinutes(11).toMillis());
+        assertEquals(0, applied(engine, 1, 200, 500));
+    }
+
+    @Test
+    @DisplayName("Counterparties not paid for a full period are forgotten")
+    void counterpartiesExpire() {
+        FraudRuleEngine engine = new FraudRuleEngine(List.of(
+                new FraudRule.NewCounterpartyBurst("burst", 0, Duration.ofMinutes(10))), new Metrics(), clock::get);
+        engine.record(1, 100, 500);
+        engine.record(1, 101, 500);
+
+        clock.addAndGet(Duration.ofDays(31).toMillis());
+        assertEquals(0, engine.assess(1, 100, 500));
+        engine.record(1, 100, 500);
+
+        clock.addAndGet(Duration.ofDays(20).toMillis());
+        assertEquals(0, engine.assess(1, 100, 500));
+        assertEquals(1, engine.assess(1, 101, 500));
+    }
+
+    @Test
+    @DisplayName("Flagged transfer → PENDING transaction, funds held until review")
+    void controller_holdsFlaggedTransfer() {
+        Account.resetCounter();
+        UserController userController = new UserController();
+        AccountController accountController = new AccountController(userController);
+        AdminController adminController = new AdminController(userController, accountController);
+        Account source = new Account(1000.0);
+        Account target = new Account(0.0);
+        source.verify();
+        target.verify();
+        accountController.registerAccount(source);
+        accountController.registerAccount(target);
+        accountController.setFraudRules(List.of(new FraudRule.AmountAbove("large", 500)));
+
+        assertEquals(OperationResult.SUCCESS, accountController.transfer(null, 1000, 1001, 100.0));
+        assertEquals(OperationResult.PENDING_REVIEW, accountController.transfer(null, 1000, 1001, 600.0));
+
+        assertEquals(900.0, source.getBalance());
+        assertEquals(300.0, source.getAvailableBalance());
+        assertEquals(600.0, source.getHeldBalance());
+        assertEquals(100.0, target.getBalance());
+        List<Transaction> pending = adminController.getPendingTransactions();
+        assertEquals(1, pending.size());
+        assertEquals("large", pending.get(0).getReviewReason());
+        assertEquals(2, source.getTransactionHistory().size());
+    }
+
+    @Test
+    @DisplayName("Approved transfer → payee becomes known; a rejected one stays new")
+    void controller_learnsOnlyApprovedMovements() {
+        UserController userController = new UserController();
+        AccountController accountController = new AccountController(userController);
+        AdminController adminController = new AdminController(userController, accountController);
+        Account source = new Account(1000.0);
+        Account approved = new Account(0.0);
+        Account rejected = new Account(0.0);
+        for (Account account : List.of(source, approved, rejected)) {
+            account.verify();
+            accountController.registerAccount(account);
+        }
+        accountController.setFraudRules(List.of(new FraudRule.NewCounterpartyBurst("new payee", 0, Duration.ofMinutes(10))));
+
+        assertEquals(OperationResult.PENDING_REVIEW, accountController.transfer(null, source.getAccountNumber(),
+                approved.getAccountNumber(), 10.0));
+        assertEquals(OperationResult.PENDING_REVIEW, accountController.transfer(null, source.getAccountNumber(),
+                rejected.getAccountNumber(), 10.0));
+        for (Transaction pending : adminController.getPendingTransactions()) {
+            if (pending.getTargetAccountNumber() == approved.getAccountNumber()) {
+                adminController.approveTransaction(pending.getTransactionId());
+            } else {
+                adminController.rejectTransaction(pending.getTransactionId());
+            }
+        }
+
+        assertEquals(OperationResult.SUCCESS, accountController.transfer(null, source.getAccountNumber(),
+                approved.getAccountNumber(), 10.0));
+        assertEquals(OperationResult.PENDING_REVIEW, accountController.transfer(null, source.getAccountNumber(),
+                rejected.getAccountNumber(), 10.0));
+    }
+}
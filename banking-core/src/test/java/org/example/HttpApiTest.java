@@ -0,0 +1,146 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.example.api.BankingHttpServer;
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.UserController;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("HTTP API")
+class HttpApiTest {
+
+    private BankingHttpServer server;
+    private HttpClient client;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        UserController userController = new UserController();
+        AccountController accountController = new AccountController(userController);
+        AdminController adminController = new AdminController(userController, accountController);
+        DummyDataInitializer.initializeDummyData(userController, accountController);
+
+        server = new BankingHttpServer(new InetSocketAddress("127.0.0.1", 0),
+                userController, accountController, adminController);
+        server.start();
+        client = HttpClient.newHttpClient();
+        baseUrl = "http://127.0.0.1:" + server.getPort() + "/api/";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Login, deposit and read balance")
+    void login_deposit_balance() throws Exception {
+        String token = login("hady@gmail.com", "1234");
+
+        HttpResponse<String> deposit = post("accounts/1000/deposit", "{\"amount\": 250}", token);
+        assertEquals(200, deposit.statusCode());
+
+        HttpResponse<String> balance = get("accounts/1000/balance", token);
+        assertEquals(200, balance.statusCode());
+        assertTrue(balance.body().contains("\"balance\":1250.0"), balance.body());
+    }
+
+    @Test
+    @DisplayName("Overdraft → 422")
+    void withdraw_overdraft_rejected() throws Exception {
+        String token = login("hady@gmail.com", "1234");
+
+        HttpResponse<String> response = post("accounts/1000/withdraw", "{\"amount\": 5000}", token);
+
+        assertEquals(422, response.statusCode());
+    }
+
+    @Test
+    @DisplayName("Other user's account → 403")
+    void foreignAccount_forbidden() throws Exception {
+        String token = login("jane.smith@email.com", "password456");
+
+        assertEquals(403, get("accounts/1000/balance", token).statusCode());
+    }
+
+    @Test
+    @DisplayName("Missing token → 401, client on admin endpoint → 403")
+    void authorization() throws Exception {
+        assertEquals(401, get("accounts", null).statusCode());
+        assertEquals(403, get("admin/users", login("hady@gmail.com", "1234")).statusCode());
+        assertEquals(200, get("admin/users", login("admin@bank.com", "admin123")).statusCode());
+    }
+
+    @Test
+    @DisplayName("Bulk status change by account numbers or by status")
+    void bulkStatusChange() throws Exception {
+        String token = login("admin@bank.com", "admin123");
+
+        HttpResponse<String> suspend = post("admin/accounts/suspend", "{\"ids\": \"1000,1001,9999\"}", token);
+        assertEquals(200, suspend.statusCode());
+        assertEquals("{\"succeeded\":2,\"failed\":[9999]}", suspend.body());
+
+        HttpResponse<String> appeal = post("admin/accounts/appeal", "{\"status\": \"SUSPENDED\"}", token);
+        assertEquals("{\"succeeded\":2,\"failed\":[]}", appeal.body());
+
+        HttpResponse<String> array = post("admin/accounts/suspend", "{\"ids\": [1000, \"1001\", 9999]}", token);
+        assertEquals(200, array.statusCode());
+        assertEquals("{\"succeeded\":2,\"failed\":[9999]}", array.body());
+        assertEquals(400, post("admin/accounts/suspend", "{\"ids\": [1000.5]}", token).statusCode());
+    }
+
+    @Test
+    @DisplayName("Non-finite numbers and malformed escapes → 400")
+    void malformedRequests() throws Exception {
+        String token = login("hady@gmail.com", "1234");
+
+        assertEquals(400, post("accounts/1000/deposit", "{\"amount\": 1e999}", token).statusCode());
+        assertEquals(400, post("accounts/1000/deposit", "{\"amount\": -1e999}", token).statusCode());
+        assertEquals(400, post("login", "{\"email\":\"\\u12zz\",\"password\":\"x\"}", null).statusCode());
+        assertEquals(400, post("login", "{\"email\":\"\\u+1ab\",\"password\":\"x\"}", null).statusCode());
+        assertEquals(400, post("login", "{\"email\":\"\\x41\",\"password\":\"x\"}", null).statusCode());
+        assertEquals(400, post("login", "{\"email\":\"\\q\",\"password\":\"x\"}", null).statusCode());
+        assertEquals(401, post("login", "{\"email\":\"a\\\"b\\\\c\\/d\",\"password\":\"x\"}", null).statusCode());
+        assertEquals(200, post("login", "{\"email\":\"hady@gmail\\u002ecom\",\"password\":\"1234\"}", null).statusCode());
+        assertEquals(413, post("accounts/1000/deposit", "{\"amount\": 1" + " ".repeat(1 << 20) + "}", token).statusCode());
+        assertTrue(get("accounts/1000/balance", token).body().contains("\"balance\":1000.0"));
+    }
+
+    private String login(String email, String password) throws Exception {
+        HttpResponse<String> response = post("login",
+                "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}", null);
+        assertEquals(200, response.statusCode());
+        String body = response.body();
+        int start = body.indexOf("\"token\":\"") + 9;
+        return body.substring(start, body.indexOf('"', start));
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        return client.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body, String token) throws Exception {
+        return client.send(request(path, token).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
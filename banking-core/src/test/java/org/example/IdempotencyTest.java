@@ -0,0 +1,169 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.ledger.IdempotencyCache;
+import org.example.ledger.IdempotencyLog;
+import org.example.model.Account;
+import org.example.model.OperationResult;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Idempotency Keys")
+class IdempotencyTest {
+
+    private AccountController accountController;
+    private Account source;
+    private Account target;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        accountController = new AccountController(new UserController());
+        source = new Account(100.0);
+        target = new Account(0.0);
+        source.verify();
+        target.verify();
+        accountController.registerAccount(source);
+        accountController.registerAccount(target);
+    }
+
+    @Test
+    @DisplayName("Replayed transfer → original result, charged once")
+    void transfer_replay_chargedOnce() {
+        assertEquals(OperationResult.SUCCESS, accountController.transfer("k1", 1000, 1001, 30.0));
+        assertEquals(OperationResult.SUCCESS, accountController.transfer("k1", 1000, 1001, 30.0));
+
+        assertEquals(70.0, source.getBalance());
+        assertEquals(30.0, target.getBalance());
+    }
+
+    @Test
+    @DisplayName("Replayed failure → still failure even after funds arrive")
+    void withdraw_replayOfFailure_staysFailed() {
+        assertEquals(OperationResult.REJECTED, accountController.withdraw("k2", source, 150.0));
+        accountController.deposit(source, 100.0);
+
+        assertEquals(OperationResult.REJECTED, accountController.withdraw("k2", source, 150.0));
+        assertEquals(200.0, source.getBalance());
+    }
+
+    @Test
+    @DisplayName("Null key → no deduplication")
+    void deposit_nullKey_runsEveryTime() {
+        accountController.deposit(null, source, 10.0);
+        accountController.deposit(null, source, 10.0);
+
+        assertEquals(120.0, source.getBalance());
+    }
+
+    @Test
+    @DisplayName("Capacity bound → oldest generation dropped")
+    void cache_isBounded() {
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofHours(1));
+        for (int i = 0; i < 100; i++) {
+            cache.execute("key" + i, () -> OperationResult.SUCCESS);
+        }
+
+        assertEquals(true, cache.size() <= 10);
+        assertNull(cache.lookup("key0"));
+        assertEquals(OperationResult.SUCCESS, cache.lookup("key99"));
+    }
+
+    @Test
+    @DisplayName("Same key, different request → mismatch, nothing applied")
+    void transfer_keyReusedForOtherRequest_mismatch() {
+        assertEquals(OperationResult.SUCCESS, accountController.transfer("k3", 1000, 1001, 30.0));
+        assertEquals(OperationResult.IDEMPOTENCY_MISMATCH, accountController.transfer("k3", 1000, 1001, 40.0));
+        assertEquals(OperationResult.SUCCESS, accountController.deposit("k3", source, 5.0));
+
+        assertEquals(75.0, source.getBalance());
+        assertEquals(30.0, target.getBalance());
+    }
+
+    @Test
+    @DisplayName("Outcome of a claim outliving two rotations is still remembered")
+    void cache_slowClaimSurvivesRotation() {
+        IdempotencyCache cache = new IdempotencyCache(4, Duration.ofHours(1));
+        OperationResult first = cache.execute("slow", 7, () -> {
+            for (int i = 0; i < 10; i++) {
+                cache.execute("filler" + i, () -> OperationResult.SUCCESS);
+            }
+            assertEquals(OperationResult.IN_PROGRESS, cache.execute("slow", 7, () -> OperationResult.SUCCESS));
+            return OperationResult.REJECTED;
+        });
+
+        assertEquals(OperationResult.REJECTED, first);
+        assertEquals(OperationResult.REJECTED, cache.execute("slow", 7, () -> OperationResult.SUCCESS));
+        assertEquals(OperationResult.IDEMPOTENCY_MISMATCH, cache.execute("slow", 8, () -> OperationResult.SUCCESS));
+    }
+
+    @Test
+    @DisplayName("Outcomes survive restart through the log")
+    void cache_restoresFromLog(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("idempotency.log");
+        try (IdempotencyLog log = new IdempotencyLog(file)) {
+            IdempotencyCache cache = new IdempotencyCache(100, Duration.ofHours(1), log);
+            cache.execute("persisted", () -> OperationResult.REJECTED);
+        }
+
+        try (IdempotencyLog log = new IdempotencyLog(file)) {
+            IdempotencyCache restarted = new IdempotencyCache(100, Duration.ofHours(1), log);
+            assertEquals(1, restarted.restore());
+            assertEquals(OperationResult.REJECTED, restarted.execute("persisted", () -> OperationResult.SUCCESS));
+            assertEquals(OperationResult.IDEMPOTENCY_MISMATCH,
+                    restarted.execute("persisted", 1, () -> OperationResult.SUCCESS));
+        }
+    }
+
+    @Test
+    @DisplayName("Throttled outcome → not remembered, retry with the same key runs")
+    void cache_transientResultReleasesKey() {
+        IdempotencyCache cache = new IdempotencyCache(100, Duration.ofHours(1));
+
+        assertEquals(OperationResult.RATE_LIMITED, cache.execute("t", () -> OperationResult.RATE_LIMITED));
+        assertNull(cache.lookup("t"));
+        assertEquals(OperationResult.DAILY_LIMIT_EXCEEDED,
+                cache.execute("t", () -> OperationResult.DAILY_LIMIT_EXCEEDED));
+        assertEquals(OperationResult.SUCCESS, cache.execute("t", () -> OperationResult.SUCCESS));
+        assertEquals(OperationResult.SUCCESS, cache.execute("t", () -> OperationResult.REJECTED));
+    }
+
+    @Test
+    @DisplayName("Log escapes keys, cuts a torn last line and fails on a corrupt middle line")
+    void log_escapesKeysAndDetectsCorruption(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("idempotency.log");
+        try (IdempotencyLog log = new IdempotencyLog(file)) {
+            IdempotencyCache cache = new IdempotencyCache(100, Duration.ofHours(1), log);
+            cache.execute("tab\tand\nnewline", () -> OperationResult.SUCCESS);
+            cache.execute("-", () -> OperationResult.REJECTED);
+        }
+        Files.writeString(file, "17000000", StandardOpenOption.APPEND);
+
+        try (IdempotencyLog log = new IdempotencyLog(file)) {
+            IdempotencyCache restarted = new IdempotencyCache(100, Duration.ofHours(1), log);
+            assertEquals(2, restarted.restore());
+            assertEquals(OperationResult.SUCCESS, restarted.lookup("tab\tand\nnewline"));
+            assertEquals(OperationResult.REJECTED, restarted.lookup("-"));
+            restarted.execute("after", () -> OperationResult.SUCCESS);
+        }
+        assertEquals(3, Files.readAllLines(file).size());
+
+        Files.writeString(file, "garbage\n" + Files.readString(file));
+        try (IdempotencyLog log = new IdempotencyLog(file)) {
+            IdempotencyCache restarted = new IdempotencyCache(100, Duration.ofHours(1), log);
+            assertThrows(IOException.class, restarted::restore);
+        }
+    }
+}
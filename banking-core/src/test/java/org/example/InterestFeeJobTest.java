@@ -0,0 +1,212 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.batch.AccrualPolicy;
+import org.example.batch.InterestFeeJob;
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.history.TieredHistoryStore;
+import org.example.metrics.Metrics;
+import org.example.model.Account;
+import org.example.model.Transaction;
+import org.example.sharding.ShardGroup;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Interest and Fee Batch Job")
+class InterestFeeJobTest {
+
+    private static final AccrualPolicy POLICY = new AccrualPolicy(0.01, 5.0, 1000.0);
+
+    private AccountController accountController;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        accountController = new AccountController(new UserController());
+    }
+
+    private Account account(double balance, boolean verified) {
+        Account account = new Account(balance);
+        if (verified) {
+            account.verify();
+        }
+        accountController.registerAccount(account);
+        return account;
+    }
+
+    @Nested
+    @DisplayName("Postings")
+    class Postings {
+
+        @Test
+        @DisplayName("Interest on every verified account, fee below the waiver balance")
+        void interestAndFees() throws IOException {
+            Account small = account(500.0, true);
+            Account large = account(2000.0, true);
+            Account unverified = account(500.0, false);
+            Account tiny = account(2.0, true);
+
+            InterestFeeJob.JobReport report = new InterestFeeJob(accountController, POLICY, 2).run("2024-06", null);
+
+            assertEquals(500.0, small.getBalance());
+            assertEquals(2020.0, large.getBalance());
+            assertEquals(500.0, unverified.getBalance());
+            assertEquals(2.02, tiny.getBalance());
+            assertEquals(3, report.accounts());
+            assertEquals(3, report.interestPostings());
+            assertEquals(1, report.feePostings());
+            assertEquals(1, report.feesUnpaid());
+
+            List<Transaction> history = small.getTransactionHistory();
+            assertEquals(Transaction.TransactionType.INTEREST, history.get(0).getType());
+            assertEquals(Transaction.TransactionType.FEE, history.get(1).getType());
+            assertEquals("2024-06-I-" + small.getAccountNumber(), history.get(0).getTransactionId());
+            assertTrue(unverified.getTransactionHistory().isEmpty());
+            assertEquals(Math.round(small.getBalance() * 100),
+                    accountController.getLedger().getPostedCents(small.getAccountNumber()));
+            assertTrue(accountController.getLedger().isBalanced());
+        }
+
+        @Test
+        @DisplayName("Interest is rounded to whole cents and posted in batches across shards")
+        void centsAndShards() throws IOException {
+            List<Account> accounts = new ArrayList<>();
+            for (int i = 0; i < 3 * InterestFeeJob.BATCH_SIZE; i++) {
+                accounts.add(account(1234.56 + i, true));
+            }
+            try (ShardGroup shards = new ShardGroup(3, accountController.getMetrics())) {
+                accountController.setShards(shards);
+                InterestFeeJob.JobReport report = new InterestFeeJob(accountController,
+                        new AccrualPolicy(0.0001, 0, 0), 2).run("2024-06", null);
+                accountController.setShards(null);
+
+                assertEquals(accounts.size(), report.interestPostings());
+            }
+            for (int i = 0; i < accounts.size(); i++) {
+                long opening = 123_456 + 100L * i;
+                assertEquals(opening + Math.round(opening * 0.0001),
+                        accountController.getLedger().getPostedCents(accounts.get(i).getAccountNumber()));
+            }
+            assertEquals(1234.68, accounts.get(0).getBalance());
+            assertTrue(accountController.getLedger().isBalanced());
+        }
+    }
+
+    @Nested
+    @DisplayName("Checkpointing")
+    class Checkpointing {
+
+        private List<Account> accounts;
+
+        @BeforeEach
+        void createAccounts() {
+            accounts = new ArrayList<>();
+            for (int i = 0; i < 3 * InterestFeeJob.PARTITION_SIZE; i++) {
+                accounts.add(account(100.0, true));
+            }
+        }
+
+        private double total() {
+            return accounts.stream().mapToDouble(Account::getBalance).sum();
+        }
+
+        @Test
+        @DisplayName("Rerunning a completed run changes nothing")
+        void rerun_isNoOp(@TempDir Path dir) throws IOException {
+            Path checkpoint = dir.resolve("accrual.ckpt");
+            InterestFeeJob job = new InterestFeeJob(accountController, POLICY, 4);
+
+            InterestFeeJob.JobReport first = job.run("2024-06", checkpoint);
+            double afterFirst = total();
+            InterestFeeJob.JobReport second = job.run("2024-06", checkpoint);
+
+            assertEquals(accounts.size(), first.accounts());
+            assertEquals(afterFirst, total());
+            assertEquals(0, second.accounts());
+            assertEquals(second.partitions(), second.resumedPartitions());
+        }
+
+        @Test
+        @DisplayName("Interrupted run resumes after its last checkpointed partition")
+        void resume_skipsCompletedPartitions(@TempDir Path dir) throws IOException {
+            Path checkpoint = dir.resolve("accrual.ckpt");
+            // Account numbers start at 1000, so partition 0 holds the first 8192 - 1000 accounts
+            Files.writeString(checkpoint, "2024-06\n0\n");
+            int firstPartition = InterestFeeJob.PARTITION_SIZE - 1000;
+
+            InterestFeeJob.JobReport report = new InterestFeeJob(accountController, POLICY, 4).run("2024-06", checkpoint);
+
+            assertEquals(1, report.resumedPartitions());
+            assertEquals(accounts.size() - firstPartition, report.accounts());
+            assertEquals(100.0, accounts.get(firstPartition - 1).getBalance());
+            assertEquals(96.0, accounts.get(firstPartition).getBalance());
+        }
+
+        @Test
+        @DisplayName("A run that stopped inside a partition does not charge it twice")
+        void crashInsidePartition(@TempDir Path dir) throws IOException {
+            Path checkpoint = dir.resolve("accrual.ckpt");
+            // The first run got through two accounts of partition 0 before dying
+            Files.writeString(checkpoint, "2024-06\n");
+            for (Account account : accounts.subList(0, 2)) {
+                int number = account.getAccountNumber();
+                accountController.postAccrual("2024-06-I-" + number, Transaction.TransactionType.INTEREST, account, 1.0);
+                accountController.postAccrual("2024-06-F-" + number, Transaction.TransactionType.FEE, account, 5.0);
+            }
+
+            InterestFeeJob.JobReport report = new InterestFeeJob(accountController, POLICY, 4).run("2024-06", checkpoint);
+
+            assertEquals(96.0, accounts.get(0).getBalance());
+            assertEquals(2, accounts.get(0).getTransactionCount());
+            assertEquals(96.0, accounts.get(2).getBalance());
+            assertEquals(accounts.size() - 2, report.interestPostings());
+            assertTrue(accountController.getLedger().isBalanced());
+        }
+
+        @Test
+        @DisplayName("Movements already archived to disk are not charged again either")
+        void crashAfterArchiving(@TempDir Path dir) throws IOException {
+            Path checkpoint = dir.resolve("accrual.ckpt");
+            Files.writeString(checkpoint, "2024-06\n");
+            try (TieredHistoryStore store = new TieredHistoryStore(dir.resolve("history"), 0, 2, 4, new Metrics())) {
+                Account first = accounts.get(0);
+                accountController.postAccrual("2024-06-I-" + first.getAccountNumber(),
+                        Transaction.TransactionType.INTEREST, first, 1.0);
+                accountController.postAccrual("2024-06-F-" + first.getAccountNumber(),
+                        Transaction.TransactionType.FEE, first, 5.0);
+                assertEquals(2, store.archive(first));
+                accountController.setHistoryStore(store);
+
+                InterestFeeJob.JobReport report = new InterestFeeJob(accountController, POLICY, 4)
+                        .run("2024-06", checkpoint);
+
+                assertEquals(96.0, first.getBalance());
+                assertEquals(accounts.size() - 1, report.interestPostings());
+                assertTrue(accountController.getLedger().isBalanced());
+            }
+        }
+
+        @Test
+        @DisplayName("Checkpoint of a different run is discarded")
+        void otherRun_startsFresh(@TempDir Path dir) throws IOException {
+            Path checkpoint = dir.resolve("accrual.ckpt");
+            Files.writeString(checkpoint, "2024-05\n0\n1\n2\n3\n");
+
+            InterestFeeJob.JobReport report = new InterestFeeJob(accountController, POLICY, 4).run("2024-06", checkpoint);
+
+            assertEquals(0, report.resumedPartitions());
+            assertEquals(accounts.size(), report.accounts());
+        }
+    }
+}
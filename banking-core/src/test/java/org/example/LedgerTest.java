@@ -0,0 +1,238 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.example.batch.AccrualPolicy;
+import org.example.batch.InterestFeeJob;
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.ledger.Hold;
+import org.example.ledger.Ledger;
+import org.example.ledger.Posting;
+import org.example.metrics.Metrics;
+import org.example.model.Account;
+import org.example.model.Transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Double-Entry Ledger")
+class LedgerTest {
+
+    private AccountController accountController;
+    private Ledger ledger;
+    private Account source;
+    private Account target;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        accountController = new AccountController(new UserController());
+        ledger = accountController.getLedger();
+        source = new Account(1000.0);
+        target = new Account(0.0);
+        source.verify();
+        target.verify();
+        accountController.registerAccount(source);
+        accountController.registerAccount(target);
+    }
+
+    private void assertBooksMatch() {
+        assertTrue(ledger.isBalanced());
+        assertEquals(Math.round(source.getBalance() * 100), ledger.getPostedCents(1000));
+        assertEquals(Math.round(target.getBalance() * 100), ledger.getPostedCents(1001));
+        assertEquals(-ledger.getPostedCents(1000) - ledger.getPostedCents(1001),
+                ledger.getPostedCents(Ledger.CASH_ACCOUNT));
+    }
+
+    @Nested
+    @DisplayName("Postings")
+    class Postings {
+
+        @Test
+        @DisplayName("Opening balance is funded from cash")
+        void opening() {
+            List<Ledger.Entry> journal = ledger.getJournal();
+            assertEquals(1, journal.size());
+            assertEquals(List.of(new Posting(1000, 100_000), new Posting(Ledger.CASH_ACCOUNT, -100_000)),
+                    journal.get(0).postings());
+            assertBooksMatch();
+        }
+
+        @Test
+        @DisplayName("Deposits, withdrawals and transfers each append one balanced entry")
+        void movements() {
+            accountController.deposit(source, 20.25);
+            accountController.withdraw(source, 10.0);
+            accountController.transfer(1000, 1001, 300.0);
+
+            List<Ledger.Entry> journal = ledger.getJournal();
+            assertEquals(4, journal.size());
+            assertEquals(List.of(new Posting(1000, -30_000), new Posting(1001, 30_000)), journal.get(3).postings());
+            assertEquals(source.getTransactionHistory().get(2).getTransactionId(), journal.get(3).transactionId());
+            assertBooksMatch();
+        }
+
+        @Test
+        @DisplayName("Failed movements post nothing")
+        void failed() {
+            accountController.withdraw(source, 5_000.0);
+            accountController.transfer(1001, 1000, 1.0);
+
+            assertEquals(1, ledger.getEntryCount());
+            assertBooksMatch();
+        }
+
+        @Test
+        @DisplayName("Captured holds and batch interest are posted too")
+        void holdsAndInterest() throws Exception {
+            Hold hold = accountController.placeHold(source, 100.0, Duration.ofMinutes(1));
+            assertNotNull(hold);
+            assertEquals(100_000, ledger.getPostedCents(1000));
+            accountController.captureHold(hold.getHoldId());
+
+            new InterestFeeJob(accountController, new AccrualPolicy(0.01, 5.0, 5_000.0), 1).run("2024-06", null);
+
+            List<Transaction> history = source.getTransactionHistory();
+            assertEquals(Transaction.TransactionType.FEE, history.get(history.size() - 1).getType());
+            assertEquals(895_00 + 9_00, ledger.getPostedCents(1000));
+            assertBooksMatch();
+        }
+    }
+
+    @Test
+    @DisplayName("Unbalanced entries are refused and counted")
+    void unbalanced() {
+        assertThrows(IllegalStateException.class,
+                () -> ledger.post("bad", new Posting(1000, 100), new Posting(Ledger.CASH_ACCOUNT, -99)));
+
+        assertEquals(1, ledger.getUnbalancedCount());
+        assertEquals(1, ledger.getEntryCount());
+        assertEquals(1L, accountController.getMetrics().snapshot().get("ledger.unbalanced"));
+        assertBooksMatch();
+    }
+
+    @Nested
+    @DisplayName("Live invariant")
+    class Invariant {
+
+        @Test
+        @DisplayName("Money moved without a posting unbalances the books")
+        void unpostedMovement() {
+            assertTrue(ledger.isBalanced());
+            source.deposit(5.0);
+
+            assertFalse(ledger.isBalanced());
+            assertEquals(500, ledger.getDiscrepancyCents());
+            assertEquals(500L, accountController.getMetrics().snapshot().get("ledger.discrepancy_cents"));
+        }
+
+        @Test
+        @DisplayName("A posting without a movement unbalances the books")
+        void unmovedPosting() {
+            ledger.post("phantom", new Posting(1001, 250), new Posting(Ledger.CASH_ACCOUNT, -250));
+
+            assertFalse(ledger.isBalanced());
+            assertEquals(-250, ledger.getDiscrepancyCents());
+        }
+
+        @Test
+        @DisplayName("Capturing a hold behind the controller's back is caught")
+        void capturedHold() {
+            assertNotNull(accountController.placeHold(source, 40.0, Duration.ofMinutes(1)));
+            assertTrue(ledger.isBalanced());
+            source.captureHold(40.0);
+
+            assertEquals(-4_000, ledger.getDiscrepancyCents());
+        }
+    }
+
+    @Test
+    @DisplayName("Journal keeps only the most recent entries")
+    void journalRing() {
+        Ledger small = new Ledger(new Metrics(), 4);
+        for (int i = 1; i <= 6; i++) {
+            small.post("t" + i, new Posting(1000, i), new Posting(Ledger.CASH_ACCOUNT, -i));
+        }
+
+        List<Ledger.Entry> journal = small.getJournal();
+        assertEquals(List.of(3L, 4L, 5L, 6L), journal.stream().map(Ledger.Entry::sequence).toList());
+        assertEquals("t6", journal.get(3).transactionId());
+        assertEquals(21, small.getPostedCents(1000));
+        assertEquals(6, small.getEntryCount());
+    }
+
+    @Test
+    @DisplayName("Parallel writers append without a lock while a reader copies the journal")
+    void parallelAppend() throws InterruptedException {
+        Ledger small = new Ledger(new Metrics(), 64);
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int account = 1000 + t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    small.post("t", new Posting(account, 1), new Posting(Ledger.CASH_ACCOUNT, -1));
+                }
+            });
+            writers[t].start();
+        }
+        while (small.getEntryCount() < 80_000) {
+            for (Ledger.Entry entry : small.getJournal()) {
+                assertEquals(0, entry.postings().stream().mapToLong(Posting::cents).sum());
+                assertEquals("t", entry.transactionId());
+            }
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        List<Ledger.Entry> journal = small.getJournal();
+        assertEquals(64, journal.size());
+        assertEquals(80_000L, journal.get(63).sequence());
+        for (int t = 0; t < writers.length; t++) {
+            assertEquals(20_000, small.getPostedCents(1000 + t));
+        }
+        assertEquals(-80_000, small.getPostedCents(Ledger.CASH_ACCOUNT));
+    }
+
+    @Test
+    @DisplayName("Invalid movements are refused and counted")
+    void invalidMovement() {
+        assertThrows(IllegalStateException.class, () -> ledger.postMovement(null, 0, 1000, 1000, 100));
+        assertThrows(IllegalStateException.class, () -> ledger.postMovement(null, 0, 1000, 1001, 0));
+
+        assertEquals(2, ledger.getUnbalancedCount());
+        assertBooksMatch();
+    }
+
+    @Test
+    @DisplayName("Books stay balanced under concurrent transfers")
+    void concurrent() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int direction = t % 2;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    if (direction == 0) {
+                        accountController.transfer(1000, 1001, 0.01);
+                    } else {
+                        accountController.transfer(1001, 1000, 0.01);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertBooksMatch();
+    }
+}
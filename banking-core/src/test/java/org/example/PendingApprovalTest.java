@@ -0,0 +1,180 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.BatchResult;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.OperationResult;
+import org.example.model.Transaction;
+import org.example.risk.AccountLimits;
+import org.example.risk.FraudRule;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Pending Transaction Approval")
+class PendingApprovalTest {
+
+    private AccountController accountController;
+    private AdminController adminController;
+    private Account source;
+    private Account target;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        UserController userController = new UserController();
+        accountController = new AccountController(userController);
+        adminController = new AdminController(userController, accountController);
+        source = new Account(10_000.0);
+        target = new Account(0.0);
+        source.verify();
+        target.verify();
+        accountController.registerAccount(source);
+        accountController.registerAccount(target);
+        accountController.setFraudRules(List.of(new FraudRule.AmountAbove("large", 500)));
+    }
+
+    private String flagTransfer(double amount) {
+        assertEquals(OperationResult.PENDING_REVIEW,
+                accountController.transfer(null, source.getAccountNumber(), target.getAccountNumber(), amount));
+        List<Transaction> history = source.getTransactionHistory();
+        return history.get(history.size() - 1).getTransactionId();
+    }
+
+    @Nested
+    @DisplayName("Single transactions")
+    class Single {
+
+        @Test
+        @DisplayName("Approve → reserved funds move to the target")
+        void approve_settlesTransfer() {
+            String id = flagTransfer(600.0);
+            assertEquals(10_000.0, source.getBalance());
+            assertEquals(9_400.0, source.getAvailableBalance());
+
+            assertTrue(adminController.approveTransaction(id));
+
+            assertEquals(9_400.0, source.getBalance());
+            assertEquals(0.0, source.getHeldBalance());
+            assertEquals(600.0, target.getBalance());
+            assertEquals(Transaction.TransactionStatus.SUCCESS, adminController.findTransaction(id).getStatus());
+            assertTrue(adminController.getPendingTransactions().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Reject → reserved funds return to the source")
+        void reject_refundsSource() {
+            String id = flagTransfer(600.0);
+
+            assertTrue(adminController.rejectTransaction(id));
+
+            assertEquals(10_000.0, source.getBalance());
+            assertEquals(0.0, source.getHeldBalance());
+            assertEquals(0.0, target.getBalance());
+            assertEquals(Transaction.TransactionStatus.FAILED, adminController.findTransaction(id).getStatus());
+        }
+
+        @Test
+        @DisplayName("Second decision on the same transaction → false, balances unchanged")
+        void doubleDecision_fails() {
+            String id = flagTransfer(600.0);
+
+            assertTrue(adminController.approveTransaction(id));
+            assertFalse(adminController.approveTransaction(id));
+            assertFalse(adminController.rejectTransaction(id));
+
+            assertEquals(9_400.0, source.getBalance());
+            assertEquals(600.0, target.getBalance());
+        }
+
+        @Test
+        @DisplayName("Approve after the target was closed → refunded and FAILED")
+        void approve_closedTarget_refunds() {
+            String id = flagTransfer(600.0);
+            target.close();
+
+            assertFalse(adminController.approveTransaction(id));
+
+            assertEquals(10_000.0, source.getBalance());
+            assertEquals(Transaction.TransactionStatus.FAILED, adminController.findTransaction(id).getStatus());
+        }
+
+        @Test
+        @DisplayName("Reject or failed approval → amount given back to the daily limit")
+        void reject_refundsDailyLimit() {
+            accountController.setAccountLimits(new AccountLimits(1000, 100, 1_000.0));
+            String first = flagTransfer(600.0);
+            assertTrue(adminController.rejectTransaction(first));
+
+            String second = flagTransfer(600.0);
+            target.close();
+            assertFalse(adminController.approveTransaction(second));
+
+            flagTransfer(600.0);
+            assertEquals(OperationResult.DAILY_LIMIT_EXCEEDED,
+                    accountController.transfer(null, source.getAccountNumber(), target.getAccountNumber(), 600.0));
+            assertEquals(10_000.0, source.getBalance());
+            assertEquals(9_400.0, source.getAvailableBalance());
+        }
+
+        @Test
+        @DisplayName("Flagged amount above the balance → REJECTED, nothing pending")
+        void flag_insufficientFunds_rejected() {
+            assertEquals(OperationResult.REJECTED,
+                    accountController.transfer(null, source.getAccountNumber(), target.getAccountNumber(), 20_000.0));
+            assertTrue(adminController.getPendingTransactions().isEmpty());
+            assertEquals(10_000.0, source.getBalance());
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk decisions")
+    class Bulk {
+
+        @Test
+        @DisplayName("Bulk approve of many transactions settles each exactly once")
+        void bulkApprove() {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 15; i++) {
+                ids.add(flagTransfer(600.0));
+            }
+            ids.add("unknown");
+            ids.add(ids.get(0));
+
+            BatchResult<String> result = adminController.approveTransactions(ids);
+
+            assertEquals(15, result.successCount());
+            // The duplicate ID settles once; whichever copy loses the race fails
+            assertEquals(2, result.failureCount());
+            assertTrue(result.failed().contains("unknown"));
+            assertEquals(1_000.0, source.getBalance());
+            assertEquals(9_000.0, target.getBalance());
+            assertEquals(0.0, source.getHeldBalance());
+        }
+
+        @Test
+        @DisplayName("Bulk reject returns every reservation")
+        void bulkReject() {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                ids.add(flagTransfer(700.0));
+            }
+
+            BatchResult<String> result = adminController.rejectTransactions(ids);
+
+            assertEquals(10, result.successCount());
+            assertEquals(0, result.failureCount());
+            assertEquals(10_000.0, source.getBalance());
+            assertEquals(0.0, target.getBalance());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.example.batch.Reconciler;
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Reconciler")
+class ReconcilerTest {
+
+    private AccountController accountController;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        accountController = new AccountController(new UserController());
+        for (int i = 0; i < 1_000; i++) {
+            Account account = new Account(100.0);
+            account.verify();
+            accountController.registerAccount(account);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            accountController.transfer(1000 + i % 1_000, 1000 + (i * 7 + 3) % 1_000, 1.25);
+            accountController.deposit(accountController.findAccount(1000 + i % 1_000), 0.5);
+        }
+        accountController.withdraw(accountController.findAccount(1000), 1_000_000.0);   // failed
+    }
+
+    @Test
+    @DisplayName("Balances built through the controller reconcile cleanly")
+    void clean() {
+        Reconciler.ReconciliationReport report = new Reconciler(accountController, 4).reconcile();
+
+        assertTrue(report.isClean());
+        assertEquals(1_000, report.accounts());
+        assertEquals(2 * 5_000 + 5_000 + 1, report.transactions());
+    }
+
+    @Test
+    @DisplayName("A balance changed behind the controller's back is reported")
+    void mismatch() {
+        accountController.findAccount(1042).deposit(10.0);
+
+        Reconciler.ReconciliationReport report = new Reconciler(accountController, 4).reconcile();
+
+        assertEquals(1, report.mismatches().size());
+        Reconciler.Mismatch mismatch = report.mismatches().get(0);
+        assertEquals(1042, mismatch.accountNumber());
+        assertEquals(mismatch.replayedCents() + 1_000, mismatch.storedCents());
+        assertEquals(mismatch.replayedCents(), mismatch.postedCents());
+    }
+
+    @Test
+    @DisplayName("Concurrent writes during the scan do not produce false mismatches")
+    void concurrentWrites() throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (running.get()) {
+                accountController.transfer(1000 + i % 1_000, 1000 + (i + 1) % 1_000, 0.01);
+                i++;
+            }
+        });
+        writer.start();
+        try {
+            for (int run = 0; run < 3; run++) {
+                assertTrue(new Reconciler(accountController, 4).reconcile().isClean());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Accounts under sustained writes are never reported, only counted as unsettled")
+    void hotAccounts() throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] writers = new Thread[2];
+        for (int w = 0; w < writers.length; w++) {
+            int from = 1000 + w;
+            writers[w] = new Thread(() -> {
+                while (running.get()) {
+                    accountController.transfer(from, 1001 - (from - 1000), 0.01);
+                }
+            });
+            writers[w].start();
+        }
+        try {
+            Reconciler.ReconciliationReport report = new Reconciler(accountController, 4).reconcile();
+
+            assertTrue(report.isClean());
+            assertTrue(report.unsettled() <= 2);
+        } finally {
+            running.set(false);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+        assertTrue(new Reconciler(accountController, 4).reconcile().isClean());
+    }
+}
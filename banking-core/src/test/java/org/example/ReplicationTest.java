@@ -0,0 +1,262 @@
+package org.example;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.StatusAction;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.OperationResult;
+import org.example.model.Transaction;
+import org.example.pipeline.CommandPipeline;
+import org.example.replication.JournalShipper;
+import org.example.replication.ReplicationJournal;
+import org.example.replication.StandbyReplica;
+import org.example.risk.FraudRule;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Journal Shipping Standby")
+class ReplicationTest {
+
+    private static final int ACCOUNTS = 8;
+
+    @TempDir
+    Path dir;
+
+    private Node primary;
+    private Node standby;
+    private Path primaryJournal;
+    private ReplicationJournal replicationJournal;
+    private CommandPipeline pipeline;
+    private JournalShipper shipper;
+
+    /**
+     * One set of controllers seeded with the same accounts as every other node.
+     */
+    private record Node(AccountController accounts, AdminController admin) {
+        static Node seeded() {
+            Account.resetCounter();
+            UserController userController = new UserController();
+            AccountController accountController = new AccountController(userController);
+            for (int i = 0; i < ACCOUNTS; i++) {
+                Account account = new Account(100.0);
+                account.verify();
+                accountController.registerAccount(account);
+            }
+            return new Node(accountController, new AdminController(userController, accountController));
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = Node.seeded();
+        standby = Node.seeded();
+        primaryJournal = dir.resolve("primary.journal");
+        replicationJournal = new ReplicationJournal(primaryJournal);
+        primary.accounts().setChangeListener(replicationJournal);
+        pipeline = new CommandPipeline(primary.accounts(), primary.admin(), 1024, null);
+        shipper = new JournalShipper(new InetSocketAddress("127.0.0.1", 0), primaryJournal,
+                primary.accounts().getMetrics());
+        shipper.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        shipper.stop();
+        pipeline.close();
+        replicationJournal.close();
+    }
+
+    private long runWorkload() throws Exception {
+        assertEquals(OperationResult.SUCCESS, pipeline.deposit(1000, 40));
+        assertEquals(OperationResult.SUCCESS, pipeline.transfer(1000, 1001, 90));
+        assertEquals(OperationResult.REJECTED, pipeline.withdraw(1002, 500));
+        assertEquals(OperationResult.SUCCESS, pipeline.changeStatus(StatusAction.SUSPEND, 1003));
+        assertEquals(OperationResult.REJECTED, pipeline.deposit(1003, 5));
+        for (int i = 0; i < 200; i++) {
+            pipeline.transfer(1000 + i % ACCOUNTS, 1000 + (i * 3 + 1) % ACCOUNTS, 1.25);
+        }
+        return lastSequence();
+    }
+
+    private long lastSequence() throws Exception {
+        replicationJournal.flush();
+        return replicationJournal.getLastSequence();
+    }
+
+    private void assertSameState(Node expected, Node actual) {
+        for (int n = 1000; n < 1000 + ACCOUNTS; n++) {
+            Account a = expected.accounts().findAccount(n);
+            Account b = actual.accounts().findAccount(n);
+            assertEquals(a.getBalance(), b.getBalance(), "balance of " + n);
+            assertEquals(a.getAvailableBalance(), b.getAvailableBalance(), "available balance of " + n);
+            assertEquals(a.getStatus(), b.getStatus(), "status of " + n);
+            List<Transaction> expectedHistory = a.getTransactionHistory();
+            List<Transaction> actualHistory = b.getTransactionHistory();
+            assertEquals(expectedHistory.size(), actualHistory.size(), "history of " + n);
+            for (int i = 0; i < expectedHistory.size(); i++) {
+                Transaction e = expectedHistory.get(i);
+                Transaction t = actualHistory.get(i);
+                assertEquals(e.getTransactionId(), t.getTransactionId());
+                assertEquals(e.getStatus(), t.getStatus());
+                assertEquals(e.getAmount(), t.getAmount());
+                assertEquals(e.getTimestamp(), t.getTimestamp());
+                assertEquals(e.getReviewReason(), t.getReviewReason());
+            }
+        }
+        assertEquals(expected.accounts().getPendingTransactions().size(),
+                actual.accounts().getPendingTransactions().size());
+        assertTrue(actual.accounts().getLedger().isBalanced());
+    }
+
+    private StandbyReplica connectStandby(Path journal) throws Exception {
+        return new StandbyReplica(standby.accounts(), journal, new InetSocketAddress("127.0.0.1", shipper.getPort()));
+    }
+
+    @Test
+    @DisplayName("Standby applies the shipped journal and serves reads")
+    void tailsPrimary() throws Exception {
+        StandbyReplica replica = connectStandby(dir.resolve("standby.journal"));
+        replica.start();
+        try {
+            long last = runWorkload();
+            assertTrue(replica.awaitSequence(last, Duration.ofSeconds(10)));
+            assertSameState(primary, standby);
+            assertEquals(primary.accounts().findAccount(1001).getBalance(), replica.getBalance(1001).getAsDouble());
+            assertTrue(replica.getBalance(9999).isEmpty());
+            assertEquals(3, replica.getTransactionHistory(1001, 0, 3).size());
+            assertEquals(0, standby.accounts().getMetrics().snapshot().get("replica.divergent"));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (primary.accounts().getMetrics().snapshot().get("replication.lag_bytes") != 0) {
+                assertTrue(System.nanoTime() < deadline, "lag never reached zero");
+                Thread.sleep(5);
+            }
+            assertEquals(Files.size(primaryJournal), replica.getAppliedOffset());
+        } finally {
+            replica.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("A restarted standby applies its local copy and resumes from there")
+    void resumesFromLocalCopy() throws Exception {
+        long first = runWorkload();
+        Path copy = dir.resolve("standby.journal");
+        Files.copy(primaryJournal, copy);
+
+        StandbyReplica replica = connectStandby(copy);
+        assertEquals(first, replica.getAppliedSequence());
+        assertSameState(primary, standby);
+
+        replica.start();
+        try {
+            pipeline.deposit(1004, 7);
+            assertTrue(replica.awaitSequence(lastSequence(), Duration.ofSeconds(10)));
+            assertEquals(107.0, replica.getBalance(1004).getAsDouble());
+            assertEquals(Files.readAllLines(primaryJournal), Files.readAllLines(copy));
+        } finally {
+            replica.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Promotion continues the sequence and the journal without replaying")
+    void promotion() throws Exception {
+        Path standbyJournal = dir.resolve("standby.journal");
+        StandbyReplica replica = connectStandby(standbyJournal);
+        replica.start();
+        long last = runWorkload();
+        assertTrue(replica.awaitSequence(last, Duration.ofSeconds(10)));
+        long eventsBefore = standby.accounts().getMetrics().snapshot().get("replica.events");
+
+        long next = replica.promote();
+        assertEquals(last + 1, next);
+        try (ReplicationJournal journal = new ReplicationJournal(standbyJournal);
+             CommandPipeline promoted = new CommandPipeline(standby.accounts(), standby.admin(), 1024, null)) {
+            assertEquals(last, journal.getLastSequence());
+            standby.accounts().setChangeListener(journal);
+            assertEquals(OperationResult.SUCCESS, promoted.deposit(1005, 3));
+        }
+
+        assertEquals(eventsBefore, standby.accounts().getMetrics().snapshot().get("replica.events"));
+        assertEquals(103.0, standby.accounts().findAccount(1005).getBalance());
+        List<String> lines = Files.readAllLines(standbyJournal);
+        assertEquals(Files.readAllLines(primaryJournal).size() + 2, lines.size());
+        String deposit = lines.get(lines.size() - 2);
+        assertTrue(deposit.startsWith(next + "\tT\t"), deposit);
+        assertTrue(deposit.contains("\tDEPOSIT\t300\t-\t1005\t"), deposit);
+        String state = lines.get(lines.size() - 1);
+        assertTrue(state.startsWith((next + 1) + "\tA\t1005\tVERIFIED\t10300\t10300\t"), state);
+    }
+
+    @Test
+    @DisplayName("Transactions held for review replicate with their IDs and settle on the decision")
+    void reviewAndApproval() throws Exception {
+        String reason = "large\tover 50\\-\n";
+        primary.accounts().setFraudRules(List.of(new FraudRule.AmountAbove(reason, 50)));
+        StandbyReplica replica = connectStandby(dir.resolve("standby.journal"));
+        replica.start();
+        try {
+            assertEquals(OperationResult.PENDING_REVIEW, pipeline.transfer(1000, 1001, 60));
+            assertEquals(OperationResult.PENDING_REVIEW, pipeline.withdraw(1002, 70));
+            assertEquals(OperationResult.SUCCESS, pipeline.transfer(1003, 1004, 10));
+            assertTrue(replica.awaitSequence(lastSequence(), Duration.ofSeconds(10)));
+            assertSameState(primary, standby);
+            assertEquals(2, standby.accounts().getPendingTransactions().size());
+            assertEquals(40.0, standby.accounts().findAccount(1000).getAvailableBalance());
+
+            for (Transaction pending : primary.admin().getPendingTransactions()) {
+                if (pending.getType() == Transaction.TransactionType.TRANSFER) {
+                    assertTrue(primary.admin().approveTransaction(pending.getTransactionId()));
+                } else {
+                    assertTrue(primary.admin().rejectTransaction(pending.getTransactionId()));
+                }
+            }
+            assertTrue(replica.awaitSequence(lastSequence(), Duration.ofSeconds(10)));
+            assertSameState(primary, standby);
+            assertEquals(40.0, replica.getBalance(1000).getAsDouble());
+            assertEquals(160.0, replica.getBalance(1001).getAsDouble());
+            assertEquals(100.0, standby.accounts().findAccount(1002).getAvailableBalance());
+            assertEquals(reason, standby.accounts().findAccount(1002).getTransactionHistory().get(0)
+                    .getReviewReason());
+            assertEquals(0, standby.accounts().getMetrics().snapshot().get("replica.divergent"));
+        } finally {
+            replica.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Changes made outside the pipeline replicate too")
+    void outsidePipeline() throws Exception {
+        StandbyReplica replica = connectStandby(dir.resolve("standby.journal"));
+        replica.start();
+        try {
+            Account account = primary.accounts().findAccount(1007);
+            assertTrue(primary.accounts().postAccrual("2024-06-30-I-1007", Transaction.TransactionType.INTEREST,
+                    account, 1.5));
+            assertNotNull(primary.accounts().placeHold(account, 20, Duration.ofMinutes(5)));
+            assertTrue(primary.accounts().withdraw(primary.accounts().findAccount(1006), 2.5));
+            assertTrue(primary.admin().suspendAccount(1006));
+            assertTrue(replica.awaitSequence(lastSequence(), Duration.ofSeconds(10)));
+            assertSameState(primary, standby);
+            assertEquals(81.5, standby.accounts().findAccount(1007).getAvailableBalance());
+            assertEquals(97.5, replica.getBalance(1006).getAsDouble());
+            assertEquals(Account.AccountStatus.SUSPENDED, standby.accounts().findAccount(1006).getStatus());
+        } finally {
+            replica.stop();
+        }
+    }
+}
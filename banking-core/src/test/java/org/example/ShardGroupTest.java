@@ -0,0 +1,182 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.example.batch.Reconciler;
+import org.example.controllers.AccountController;
+import org.example.controllers.ChangeListener;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.OperationResult;
+import org.example.model.Transaction;
+import org.example.sharding.ShardGroup;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Single-Writer Shards")
+class ShardGroupTest {
+
+    private static final int ACCOUNTS = 64;
+
+    private AccountController accountController;
+    private ShardGroup shards;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        accountController = new AccountController(new UserController());
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account(100.0);
+            account.verify();
+            accountController.registerAccount(account);
+        }
+        shards = new ShardGroup(4, accountController.getMetrics());
+        accountController.setShards(shards);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shards.close();
+    }
+
+    private double total() {
+        return accountController.getAllAccounts().values().stream().mapToDouble(Account::getBalance).sum();
+    }
+
+    @Test
+    @DisplayName("Operations run on the owning shard and complete their futures")
+    void routing() throws Exception {
+        CompletableFuture<Boolean> owner = shards.submit(1005, () -> shards.isOwner(1005) && !shards.isOwner(1006));
+
+        assertTrue(owner.get());
+        assertEquals(OperationResult.SUCCESS, accountController.depositAsync(1000, 5.0).get());
+        assertEquals(OperationResult.REJECTED, accountController.withdrawAsync(1000, 500.0).get());
+        assertEquals(OperationResult.ACCOUNT_NOT_FOUND, accountController.depositAsync(9_999, 5.0).get());
+        assertEquals(105.0, accountController.findAccount(1000).getBalance());
+    }
+
+    @Test
+    @DisplayName("Cross-shard transfer moves money in two phases")
+    void crossShard() throws Exception {
+        assertNotEquals(shards.shardOf(1000), shards.shardOf(1001));
+
+        assertEquals(OperationResult.SUCCESS, accountController.transferAsync(1000, 1001, 40.0).get());
+
+        assertEquals(60.0, accountController.findAccount(1000).getBalance());
+        assertEquals(140.0, accountController.findAccount(1001).getBalance());
+        Transaction transfer = accountController.findAccount(1001).getTransactionHistory().get(0);
+        assertTrue(transfer.isSuccessful());
+        assertTrue(accountController.getLedger().isBalanced());
+    }
+
+    @Test
+    @DisplayName("A target that refuses the money gets the source refunded")
+    void abort() throws Exception {
+        accountController.findAccount(1001).close();
+
+        assertEquals(OperationResult.REJECTED, accountController.transferAsync(1000, 1001, 40.0).get());
+
+        assertEquals(100.0, accountController.findAccount(1000).getBalance());
+        assertEquals(100.0, accountController.findAccount(1000).getAvailableBalance());
+        assertEquals(Transaction.TransactionStatus.FAILED,
+                accountController.findAccount(1000).getTransactionHistory().get(0).getStatus());
+    }
+
+    @Test
+    @DisplayName("A credit that throws on the target shard gets the source refunded")
+    void creditFailure() throws Exception {
+        Account faulty = new Account(0.0) {
+            @Override
+            public boolean deposit(double amount) {
+                throw new IllegalStateException("injected");
+            }
+        };
+        faulty.verify();
+        accountController.registerAccount(faulty);
+        assertNotEquals(shards.shardOf(1001), shards.shardOf(faulty.getAccountNumber()));
+
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> accountController.transferAsync(1001, faulty.getAccountNumber(), 40.0).get());
+
+        assertEquals("injected", failed.getCause().getMessage());
+        assertEquals(100.0, accountController.findAccount(1001).getBalance());
+        assertEquals(100.0, accountController.findAccount(1001).getAvailableBalance());
+        assertEquals(Transaction.TransactionStatus.FAILED,
+                accountController.findAccount(1001).getTransactionHistory().get(0).getStatus());
+        assertTrue(accountController.getLedger().isBalanced());
+        assertThrows(IllegalStateException.class, () -> accountController.transfer(1001, faulty.getAccountNumber(), 1.0));
+        assertEquals(100.0, accountController.findAccount(1001).getBalance());
+    }
+
+    @Test
+    @DisplayName("Synchronous writes run on the owning shard")
+    void synchronousWrites() {
+        List<String> threads = new ArrayList<>();
+        accountController.setChangeListener(new ChangeListener() {
+            @Override
+            public void onTransaction(Transaction transaction) {
+                synchronized (threads) {
+                    threads.add(Thread.currentThread().getName());
+                }
+            }
+
+            @Override
+            public void onAccountChanged(Account account) {
+            }
+        });
+
+        assertTrue(accountController.deposit(accountController.findAccount(1002), 5.0));
+        assertTrue(accountController.withdraw(accountController.findAccount(1003), 5.0));
+        assertTrue(accountController.transfer(1000, 1001, 5.0));
+        assertEquals(OperationResult.SUCCESS, accountController.transfer("k", 1002, 1003, 5.0));
+
+        assertEquals(List.of("shard-2", "shard-3", "shard-1", "shard-3"), threads);
+        assertEquals(ACCOUNTS * 100.0, total(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Concurrent cross-shard transfers conserve money and reconcile")
+    void concurrentTransfers() throws Exception {
+        List<CompletableFuture<OperationResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int from = 1000 + i % ACCOUNTS;
+            int to = 1000 + (i * 13 + 5) % ACCOUNTS;
+            futures.add(accountController.transferAsync(from, to, 1.0 + i % 7));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+
+        assertEquals(ACCOUNTS * 100.0, total(), 1e-6);
+        assertTrue(accountController.getLedger().isBalanced());
+        assertTrue(new Reconciler(accountController, 2).reconcile().isClean());
+    }
+
+    @Test
+    @DisplayName("Close lets started operations finish and rejects new ones")
+    void close() throws Exception {
+        List<CompletableFuture<OperationResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            futures.add(accountController.transferAsync(1000 + i % ACCOUNTS, 1000 + (i + 1) % ACCOUNTS, 0.5));
+        }
+
+        shards.close();
+
+        for (CompletableFuture<OperationResult> future : futures) {
+            assertTrue(future.isDone());
+        }
+        assertEquals(ACCOUNTS * 100.0, total(), 1e-6);
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> accountController.depositAsync(1000, 1.0).get());
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+    }
+}
@@ -0,0 +1,146 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.example.batch.StatementGenerator;
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Statement Generator")
+class StatementGeneratorTest {
+
+    private AccountController accountController;
+    private Account source;
+    private Account target;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        accountController = new AccountController(new UserController());
+        source = new Account(1000.0);
+        target = new Account(0.0);
+        source.verify();
+        target.verify();
+        accountController.registerAccount(source);
+        accountController.registerAccount(target);
+    }
+
+    private static LocalDateTime tick() throws InterruptedException {
+        // Transaction timestamps come from the clock; make the period boundary unambiguous
+        Thread.sleep(5);
+        LocalDateTime boundary = LocalDateTime.now();
+        Thread.sleep(5);
+        return boundary;
+    }
+
+    private static Path file(Path dir, LocalDateTime periodStart, int partition) throws IOException {
+        String prefix = "statements-" + periodStart.format(DateTimeFormatter.ofPattern("uuuuMMdd'T'HHmmss.SSSSSSSSS"));
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> matches = files
+                    .filter(f -> f.getFileName().toString().startsWith(prefix)
+                            && f.getFileName().toString().endsWith("-" + partition + ".txt"))
+                    .toList();
+            assertEquals(1, matches.size());
+            return matches.get(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Opening and closing balances bracket the period's settled transactions")
+    void balances(@TempDir Path dir) throws Exception {
+        accountController.deposit(source, 200.0);                 // before the period
+        LocalDateTime periodStart = tick();
+        accountController.transfer(1000, 1001, 300.0);
+        accountController.withdraw(source, 50.25);
+        accountController.withdraw(source, 10_000.0);              // failed, not listed
+        LocalDateTime periodEnd = tick();
+        accountController.deposit(source, 75.0);                  // after the period
+
+        StatementGenerator.StatementReport report =
+                new StatementGenerator(accountController, 2).generate(periodStart, periodEnd, dir);
+
+        List<String> lines = Files.readAllLines(file(dir, periodStart, 0));
+        assertEquals(2, report.statements());
+        assertEquals(3, report.transactions());
+        assertTrue(lines.get(0).startsWith("STATEMENT\t1000\t"));
+        assertEquals("OPENING\t1200.00", lines.get(1));
+        assertTrue(lines.get(2).endsWith("\tTRANSFER\t-300.00"));
+        assertTrue(lines.get(3).endsWith("\tWITHDRAW\t-50.25"));
+        assertEquals("CLOSING\t849.75", lines.get(4));
+        assertTrue(lines.get(5).startsWith("STATEMENT\t1001\t"));
+        assertEquals("OPENING\t0.00", lines.get(6));
+        assertTrue(lines.get(7).endsWith("\tTRANSFER\t300.00"));
+        assertEquals("CLOSING\t300.00", lines.get(8));
+        assertEquals(report.bytes(), Files.size(file(dir, periodStart, 0)));
+    }
+
+    @Test
+    @DisplayName("Long histories are paged and every period transaction is listed")
+    void longHistory(@TempDir Path dir) throws Exception {
+        LocalDateTime periodStart = tick();
+        for (int i = 0; i < 1_000; i++) {
+            accountController.deposit(target, 1.0);
+        }
+        LocalDateTime periodEnd = tick();
+        for (int i = 0; i < 600; i++) {
+            accountController.deposit(target, 1.0);
+        }
+
+        StatementGenerator.StatementReport report =
+                new StatementGenerator(accountController, 2).generate(periodStart, periodEnd, dir);
+
+        List<String> lines = Files.readAllLines(file(dir, periodStart, 0));
+        assertEquals(1_000, report.transactions());
+        assertEquals("OPENING\t0.00", lines.get(lines.size() - 1002));
+        assertEquals("CLOSING\t1000.00", lines.get(lines.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Rerun into the same directory skips finished partitions")
+    void resume(@TempDir Path dir) throws IOException {
+        for (int i = 0; i < 9_000; i++) {
+            accountController.registerAccount(new Account(1.0));
+        }
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(1);
+        StatementGenerator generator = new StatementGenerator(accountController, 4);
+
+        StatementGenerator.StatementReport first = generator.generate(start, end, dir);
+        Files.delete(file(dir, start, 1));
+        StatementGenerator.StatementReport second = generator.generate(start, end, dir);
+
+        assertEquals(2, first.partitions());
+        assertEquals(9_002, first.statements());
+        assertEquals(1, second.resumedPartitions());
+        assertEquals(9_002 - (8192 - 1000), second.statements());
+    }
+
+    @Test
+    @DisplayName("A different period into the same directory writes its own files")
+    void otherPeriod(@TempDir Path dir) throws IOException {
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        LocalDateTime end = LocalDateTime.now().plusDays(1);
+        StatementGenerator generator = new StatementGenerator(accountController, 2);
+
+        generator.generate(start, end, dir);
+        StatementGenerator.StatementReport next = generator.generate(start.plusDays(1), end, dir);
+
+        assertEquals(0, next.resumedPartitions());
+        assertEquals(2, next.statements());
+        assertTrue(Files.exists(file(dir, start, 0)));
+        assertTrue(Files.exists(file(dir, start.plusDays(1), 0)));
+    }
+}
@@ -0,0 +1,92 @@
+package org.example;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.model.User;
+import org.example.workload.SyntheticDataGenerator;
+import org.example.workload.WorkloadConfig;
+import org.example.workload.ZipfDistribution;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+@DisplayName("Synthetic Workload Generator")
+class SyntheticDataGeneratorTest {
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+    }
+
+    @Test
+    @DisplayName("Same seed → same population shape")
+    void generate_sameSeed_sameShape() {
+        WorkloadConfig config = new WorkloadConfig(7, 10_000, 20, 1.1, 5_000, 4);
+
+        SyntheticDataGenerator.GenerationReport first = generateInto(config, new UserController());
+        SyntheticDataGenerator.GenerationReport second = generateInto(config, new UserController());
+
+        assertEquals(first.accountNumbers().length, second.accountNumbers().length);
+        assertEquals(10_000, first.users());
+        assertEquals(5_000, first.transactions());
+    }
+
+    @Test
+    @DisplayName("Generated data is registered and nobody is logged in")
+    void generate_registersUsersAndAccounts() {
+        UserController userController = new UserController();
+        AccountController accountController = new AccountController(userController);
+        WorkloadConfig config = new WorkloadConfig(1, 2_000, 10, 1.2, 1_000, 2);
+
+        SyntheticDataGenerator.GenerationReport report =
+                new SyntheticDataGenerator(config).generate(userController, accountController);
+
+        assertEquals(2_000, userController.getAllUsers().size());
+        assertEquals(report.accountNumbers().length, accountController.getAllAccounts().size());
+        assertNotNull(userController.getUserByEmail("user0@synthetic.test"));
+        assertFalse(userController.isLoggedIn());
+    }
+
+    @Test
+    @DisplayName("Users whose email already exists are counted, not silently dropped")
+    void generate_countsDuplicateUsers() {
+        UserController userController = new UserController();
+        AccountController accountController = new AccountController(userController);
+        userController.addUser(new User("Existing", User.Role.CLIENT, "user5@synthetic.test", "pw", "555-0000"));
+        WorkloadConfig config = new WorkloadConfig(1, 100, 10, 1.2, 0, 2);
+
+        SyntheticDataGenerator.GenerationReport report =
+                new SyntheticDataGenerator(config).generate(userController, accountController);
+
+        assertEquals(99, report.users());
+        assertEquals(1, report.duplicateUsers());
+        assertEquals(100, userController.getAllUsers().size());
+        assertEquals(report.accountNumbers().length, accountController.getAllAccounts().size());
+        assertTrue(userController.getUserByEmail("user5@synthetic.test").getAccounts().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Zipf rank 1 is the most frequent")
+    void zipf_favoursLowRanks() {
+        ZipfDistribution zipf = new ZipfDistribution(50, 1.2);
+        SplittableRandom random = new SplittableRandom(3);
+        int[] histogram = new int[51];
+        for (int i = 0; i < 100_000; i++) {
+            histogram[zipf.sample(random)]++;
+        }
+        assertTrue(histogram[1] > histogram[2]);
+        assertTrue(histogram[2] > histogram[10]);
+        assertEquals(0, histogram[0]);
+    }
+
+    private SyntheticDataGenerator.GenerationReport generateInto(WorkloadConfig config, UserController userController) {
+        return new SyntheticDataGenerator(config).generate(userController, new AccountController(userController));
+    }
+}
@@ -0,0 +1,209 @@
+package org.example;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.batch.Reconciler;
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.UserController;
+import org.example.history.BloomFilter;
+import org.example.history.TieredHistoryStore;
+import org.example.metrics.Metrics;
+import org.example.model.Account;
+import org.example.model.Transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Tiered Transaction History")
+class TieredHistoryStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private Account account;
+    private List<Transaction> recorded;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        account = new Account(0);
+        recorded = new ArrayList<>();
+        int number = account.getAccountNumber();
+        for (int i = 0; i < 2_000; i++) {
+            Transaction transaction = switch (i % 4) {
+                case 0 -> new Transaction(Transaction.TransactionType.DEPOSIT, 10 + i, null, number);
+                case 1 -> new Transaction(Transaction.TransactionType.TRANSFER, 0.25, number, 5000 + i);
+                case 2 -> new Transaction("run-" + i, Transaction.TransactionType.FEE, 1.005, number, null);
+                default -> new Transaction(Transaction.TransactionType.WITHDRAW, 3.5, number, null);
+            };
+            if (i % 7 == 0) {
+                transaction.flagForReview("velocity, large-amount");
+                transaction.markFailed();
+            } else {
+                transaction.markSuccess();
+            }
+            account.addTransaction(transaction);
+            recorded.add(transaction);
+        }
+    }
+
+    private static void assertSameTransactions(List<Transaction> expected, List<Transaction> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Transaction a = expected.get(i);
+            Transaction b = actual.get(i);
+            assertEquals(a.getTransactionId(), b.getTransactionId());
+            assertEquals(a.getType(), b.getType());
+            assertEquals(a.getAmount(), b.getAmount());
+            assertEquals(a.getTimestamp(), b.getTimestamp());
+            assertEquals(a.getStatus(), b.getStatus());
+            assertEquals(a.getSourceAccountNumber(), b.getSourceAccountNumber());
+            assertEquals(a.getTargetAccountNumber(), b.getTargetAccountNumber());
+            assertEquals(a.getReviewReason(), b.getReviewReason());
+        }
+    }
+
+    @Test
+    @DisplayName("Archived blocks decode to the original transactions")
+    void roundTrip() throws Exception {
+        Metrics metrics = new Metrics();
+        try (TieredHistoryStore store = new TieredHistoryStore(dir, 100, 64, 4, metrics)) {
+            assertEquals(1_856, store.archive(account));
+            assertEquals(144, account.getInMemoryTransactionCount());
+            assertEquals(2_000, account.getTransactionCount());
+
+            assertSameTransactions(recorded, account.getTransactionHistory());
+            assertSameTransactions(recorded.subList(1_800, 1_900), account.getTransactionHistory(1_800, 100));
+            assertSameTransactions(recorded.subList(60, 70), account.getTransactionHistory(60, 10));
+            assertSameTransactions(recorded.subList(1_990, 2_000), account.getTransactionHistory(1_990, 50));
+
+            long bytes = metrics.snapshot().get("history.segment_bytes");
+            assertTrue(bytes > 0 && bytes < 1_856 * 40L, "encoded size " + bytes);
+        }
+    }
+
+    @Test
+    @DisplayName("Recent pages are served from the block cache")
+    void blockCache() throws Exception {
+        Metrics metrics = new Metrics();
+        try (TieredHistoryStore store = new TieredHistoryStore(dir, 100, 64, 4, metrics)) {
+            store.archive(account);
+            for (int i = 0; i < 10; i++) {
+                account.getTransactionHistory(1_700, 20);
+            }
+            account.getTransactionHistory();
+            assertEquals(9, metrics.snapshot().get("history.cache_hits"));
+            assertEquals(4, metrics.snapshot().get("history.cached_blocks"));
+        }
+    }
+
+    @Test
+    @DisplayName("Pending transactions and everything after them stay in memory")
+    void pendingStaysInMemory() throws Exception {
+        Transaction pending = new Transaction(Transaction.TransactionType.WITHDRAW, 1, account.getAccountNumber(), null);
+        Account other = new Account(0);
+        for (int i = 0; i < 200; i++) {
+            Transaction transaction = i == 70 ? pending
+                    : new Transaction(Transaction.TransactionType.DEPOSIT, 1, null, other.getAccountNumber());
+            if (transaction != pending) {
+                transaction.markSuccess();
+            }
+            other.addTransaction(transaction);
+        }
+        try (TieredHistoryStore store = new TieredHistoryStore(dir, 10, 32, 4, new Metrics())) {
+            assertEquals(64, store.archive(other));
+            assertEquals(0, store.archive(other));
+            pending.approve();
+            assertEquals(96, store.archive(other));
+            assertEquals(40, other.getInMemoryTransactionCount());
+            assertEquals(200, other.getTransactionCount());
+        }
+    }
+
+    @Test
+    @DisplayName("ID lookups scan only the segment whose filter matches")
+    void filteredLookups() throws Exception {
+        AccountController accountController = new AccountController(new UserController());
+        accountController.registerAccount(account);
+        AdminController adminController = new AdminController(new UserController(), accountController);
+        Metrics metrics = new Metrics();
+        try (TieredHistoryStore store = new TieredHistoryStore(dir, 100, 64, 4, 256, 1e-6, metrics)) {
+            accountController.setHistoryStore(store);
+            store.archive(account);
+            TieredHistoryStore.FilterStats stats = store.getFilterStats();
+            assertEquals(8, stats.segments());
+
+            assertEquals(recorded.get(1_000), adminController.findTransaction(recorded.get(1_000).getTransactionId()));
+            assertEquals(recorded.get(1_999), adminController.findTransaction(recorded.get(1_999).getTransactionId()));
+            assertNull(adminController.findTransaction("no-such-transaction"));
+            assertFalse(store.mightContain("no-such-transaction"));
+            assertTrue(accountController.hasTransaction(account, recorded.get(0).getTransactionId()));
+            assertFalse(accountController.hasTransaction(account, "no-such-transaction"));
+
+            stats = store.getFilterStats();
+            assertEquals(4, stats.lookups());
+            assertEquals(2, stats.segmentScans());
+            assertEquals(0, stats.falsePositives());
+            assertEquals(metrics.snapshot().get("history.filter_bytes"), stats.filterBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Filter memory and false-positive rate follow the configured rate")
+    void bloomFilterSizing() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("tx-" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("tx-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives");
+        assertEquals(7, filter.getHashCount());
+        assertEquals(9.59, BloomFilter.bitsPerEntry(0.01), 0.01);
+        assertTrue(filter.getByteSize() >= 119_800 && filter.getByteSize() < 120_000);
+    }
+
+    @Test
+    @DisplayName("The controller archives in the background and reads span both tiers")
+    void controllerArchives() throws Exception {
+        AccountController accountController = new AccountController(new UserController());
+        Account a = new Account(1_000);
+        Account b = new Account(1_000);
+        a.verify();
+        b.verify();
+        accountController.registerAccount(a);
+        accountController.registerAccount(b);
+        try (TieredHistoryStore store = new TieredHistoryStore(dir.resolve("segments"), 50, 32, 16,
+                accountController.getMetrics())) {
+            accountController.setHistoryStore(store);
+            for (int i = 0; i < 1_000; i++) {
+                accountController.transfer(i % 2 == 0 ? a.getAccountNumber() : b.getAccountNumber(),
+                        i % 2 == 0 ? b.getAccountNumber() : a.getAccountNumber(), 1.5);
+            }
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (a.getInMemoryTransactionCount() >= 50 + 32 || b.getInMemoryTransactionCount() >= 50 + 32) {
+                assertTrue(System.nanoTime() < deadline, "archiver never caught up");
+                Thread.sleep(5);
+            }
+            assertEquals(1_000, a.getTransactionCount());
+            assertTrue(Files.list(dir.resolve("segments")).findAny().isPresent());
+            assertTrue(new Reconciler(accountController, 2).reconcile().isClean());
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package org.example;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.example.batch.Reconciler;
+import org.example.controllers.AccountController;
+import org.example.controllers.AdminController;
+import org.example.controllers.UserController;
+import org.example.history.TieredHistoryStore;
+import org.example.ledger.Ledger;
+import org.example.model.Account;
+import org.example.model.Transaction;
+import org.example.model.TransactionArena;
+import org.example.workload.AllocationBenchmark;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Transaction Arena")
+class TransactionArenaTest {
+
+    @TempDir
+    Path dir;
+
+    private AccountController accountController;
+    private TransactionArena arena;
+    private Account alice;
+    private Account bob;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        accountController = new AccountController(new UserController());
+        arena = new TransactionArena();
+        alice = new Account(1_000);
+        bob = new Account(500);
+        alice.verify();
+        bob.verify();
+        accountController.registerAccount(alice);
+        accountController.registerAccount(bob);
+    }
+
+    private static void assertSameTransactions(List<Transaction> expected, List<Transaction> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Transaction e = expected.get(i);
+            Transaction a = actual.get(i);
+            assertEquals(e.getTransactionId(), a.getTransactionId());
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getAmount(), a.getAmount());
+            assertEquals(e.getSourceAccountNumber(), a.getSourceAccountNumber());
+            assertEquals(e.getTargetAccountNumber(), a.getTargetAccountNumber());
+            assertEquals(e.getStatus(), a.getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Recorded movements read back in order with stable IDs")
+    void historyReadsBack() {
+        accountController.deposit(alice, 10);
+        accountController.setTransactionArena(arena);
+        accountController.deposit(alice, 20);
+        accountController.withdraw(alice, 5_000);
+        accountController.transfer(alice.getAccountNumber(), bob.getAccountNumber(), 30);
+        accountController.withdraw(bob, 7);
+
+        List<Transaction> history = alice.getTransactionHistory();
+        assertEquals(4, history.size());
+        assertEquals(4, alice.getTransactionCount());
+        assertEquals(4, alice.getInMemoryTransactionCount());
+        assertEquals(List.of(10.0, 20.0, 5_000.0, 30.0), history.stream().map(Transaction::getAmount).toList());
+        assertEquals(Transaction.TransactionStatus.FAILED, history.get(2).getStatus());
+        assertEquals(alice.getAccountNumber(), history.get(3).getSourceAccountNumber());
+        assertEquals(bob.getAccountNumber(), history.get(3).getTargetAccountNumber());
+        assertSameTransactions(history, alice.getTransactionHistory());
+
+        List<Transaction> bobs = bob.getTransactionHistory();
+        assertEquals(2, bobs.size());
+        assertEquals(history.get(3).getTransactionId(), bobs.get(0).getTransactionId());
+        assertEquals(4, arena.size());
+    }
+
+    @Test
+    @DisplayName("Pages span object and arena history")
+    void pagesMatchFullHistory() {
+        for (int i = 1; i <= 30; i++) {
+            accountController.deposit(alice, i);
+        }
+        accountController.setTransactionArena(arena);
+        for (int i = 31; i <= 70; i++) {
+            if (i % 2 == 0) {
+                accountController.deposit(alice, i);
+            } else {
+                accountController.transfer(alice.getAccountNumber(), bob.getAccountNumber(), i);
+            }
+        }
+        List<Transaction> full = alice.getTransactionHistory();
+        assertEquals(70, full.size());
+        for (int offset = 0; offset < 75; offset += 7) {
+            int to = Math.min(offset + 11, full.size());
+            List<Transaction> expected = offset < to ? full.subList(offset, to) : List.of();
+            assertSameTransactions(expected, alice.getTransactionHistory(offset, 11));
+        }
+    }
+
+    @Test
+    @DisplayName("Adding an object after arena records keeps the order")
+    void objectsAfterRecords() {
+        accountController.setTransactionArena(arena);
+        accountController.deposit(alice, 1);
+        accountController.deposit(alice, 2);
+        Transaction fee = new Transaction(Transaction.TransactionType.FEE, 3, alice.getAccountNumber(), null);
+        fee.markSuccess();
+        alice.addTransaction(fee);
+        accountController.deposit(alice, 4);
+
+        List<Transaction> history = alice.getTransactionHistory();
+        assertEquals(List.of(1.0, 2.0, 3.0, 4.0), history.stream().map(Transaction::getAmount).toList());
+        assertEquals(4, alice.getInMemoryTransactionCount());
+        assertEquals(history.get(0).getTransactionId(), alice.getTransactionHistory(0, 1).get(0).getTransactionId());
+    }
+
+    @Test
+    @DisplayName("Arena IDs are found without scanning histories")
+    void findsById() {
+        accountController.setTransactionArena(arena);
+        accountController.transfer(alice.getAccountNumber(), bob.getAccountNumber(), 12.5);
+        String id = bob.getTransactionHistory().get(0).getTransactionId();
+        AdminController adminController = new AdminController(new UserController(), accountController);
+
+        Transaction found = adminController.findTransaction(id);
+        assertEquals(12.5, found.getAmount());
+        assertEquals(Transaction.TransactionType.TRANSFER, found.getType());
+        assertEquals(id, alice.findInMemoryTransaction(id).getTransactionId());
+        assertNull(new TransactionArena().find(id));
+        assertNull(arena.find("not-an-id"));
+        assertNull(adminController.findTransaction(new java.util.UUID(0, 0).toString()));
+    }
+
+    @Test
+    @DisplayName("Accruals are recorded under their own IDs")
+    void accruals() {
+        accountController.setTransactionArena(arena);
+        accountController.deposit(alice, 5);
+        assertTrue(accountController.postAccrual("run-I-1000", Transaction.TransactionType.INTEREST, alice, 1.5));
+        assertTrue(accountController.postAccrual("run-F-1000", Transaction.TransactionType.FEE, alice, 2));
+        accountController.deposit(alice, 6);
+
+        assertEquals(4, arena.size());
+        assertEquals(4, alice.getInMemoryTransactionCount());
+        assertEquals(1_010.5, alice.getBalance());
+        Transaction fee = alice.findInMemoryTransaction("run-F-1000");
+        assertEquals(Transaction.TransactionType.FEE, fee.getType());
+        assertEquals(alice.getAccountNumber(), fee.getSourceAccountNumber());
+        assertEquals("run-I-1000", alice.getTransactionHistory().get(1).getTransactionId());
+        assertNull(bob.findInMemoryTransaction("run-I-1000"));
+        List<Ledger.Entry> journal = accountController.getLedger().getJournal();
+        assertEquals("run-F-1000", journal.get(journal.size() - 2).transactionId());
+        assertTrue(new Reconciler(accountController).reconcile().isClean());
+    }
+
+    @Test
+    @DisplayName("Archived records go to the history store and free their chunk")
+    void archivesRecords() throws Exception {
+        accountController.setTransactionArena(arena);
+        int deposits = TransactionArena.CHUNK_RECORDS + 4_000;
+        for (int i = 0; i < deposits; i++) {
+            accountController.deposit(alice, 1 + i % 5);
+        }
+        Transaction first = alice.getTransactionHistory(0, 1).get(0);
+        List<Transaction> newest = alice.getTransactionHistory(deposits - 50, 50);
+        long twoChunks = arena.getByteSize();
+
+        try (TieredHistoryStore store = new TieredHistoryStore(dir, 100, 1_024, 4,
+                accountController.getMetrics())) {
+            assertEquals(67 * 1_024, store.archive(alice));
+            assertEquals(deposits - 67 * 1_024, alice.getInMemoryTransactionCount());
+            assertEquals(twoChunks / 2, arena.getByteSize());
+            assertNull(arena.find(first.getTransactionId()));
+            assertEquals(first.getTimestamp(), store.findTransaction(first.getTransactionId()).getTimestamp());
+            assertEquals(deposits, alice.getTransactionCount());
+            assertSameTransactions(newest, alice.getTransactionHistory(deposits - 50, 50));
+            assertSameTransactions(List.of(first), alice.getTransactionHistory(0, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("A full arena falls back to transaction objects")
+    void bounded() {
+        TransactionArena small = new TransactionArena(1);
+        accountController.setTransactionArena(small);
+        int deposits = TransactionArena.CHUNK_RECORDS + 10;
+        accountController.deposit(alice, 1);
+        long oneChunk = small.getByteSize();
+        for (int i = 1; i < deposits; i++) {
+            accountController.deposit(alice, 1);
+        }
+
+        assertEquals(deposits, alice.getTransactionCount());
+        assertTrue(small.getByteSize() <= oneChunk);
+        List<Transaction> history = alice.getTransactionHistory();
+        assertEquals(deposits, history.size());
+        assertEquals(1_000 + deposits, alice.getBalance());
+        assertTrue(accountController.getLedger().isBalanced());
+    }
+
+    @Test
+    @DisplayName("Ledger and reconciliation agree with arena-recorded balances")
+    void ledgerStaysConsistent() {
+        accountController.setTransactionArena(arena);
+        IntStream.range(0, 500).parallel().forEach(i -> {
+            switch (i % 3) {
+                case 0 -> accountController.deposit(alice, 2.5);
+                case 1 -> accountController.withdraw(bob, 1.25);
+                default -> accountController.transfer(alice.getAccountNumber(), bob.getAccountNumber(), 3.75);
+            }
+        });
+        assertEquals(Math.round(alice.getBalance() * 100), accountController.getLedger().getPostedCents(alice.getAccountNumber()));
+        assertEquals(Math.round(bob.getBalance() * 100), accountController.getLedger().getPostedCents(bob.getAccountNumber()));
+        assertTrue(accountController.getLedger().isBalanced());
+        assertTrue(new Reconciler(accountController).reconcile().isClean());
+
+        List<Ledger.Entry> journal = accountController.getLedger().getJournal();
+        Ledger.Entry last = journal.get(journal.size() - 1);
+        Transaction newest = arena.find(last.transactionId());
+        assertEquals(Math.round(newest.getAmount() * 100), Math.abs(last.postings().get(0).cents()));
+    }
+
+    @Test
+    @DisplayName("Recording into the arena allocates only the account state snapshots")
+    void allocationFree() {
+        double objects = bytesPerRound(accountController);
+        AccountController recording = new AccountController(new UserController());
+        recording.setTransactionArena(arena);
+        Account.resetCounter();
+        Account first = new Account(1_000);
+        Account second = new Account(500);
+        first.verify();
+        second.verify();
+        recording.registerAccount(first);
+        recording.registerAccount(second);
+        double recorded = bytesPerRound(recording);
+        // A round is a deposit, a withdrawal and a transfer: six 48-byte states and a 32-byte transfer
+        // lock, 320 bytes, plus the arena's occasional chunk bookkeeping
+        assertTrue(recorded < 336, recorded + " bytes per round");
+        assertTrue(recorded * 3 < objects, recorded + " bytes per round against " + objects + " with objects");
+    }
+
+    private static double bytesPerRound(AccountController controller) {
+        Account[] accounts = {controller.findAccount(1000), controller.findAccount(1001)};
+        return AllocationBenchmark.bytesPerOperation(50_000, i -> {
+            Account account = accounts[i & 1];
+            controller.deposit(account, 1);
+            controller.withdraw(account, 1);
+            controller.transfer(account.getAccountNumber(), accounts[~i & 1].getAccountNumber(), 1);
+        });
+    }
+}
@@ -0,0 +1,253 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.controllers.AccountController;
+import org.example.controllers.UserController;
+import org.example.model.Account;
+import org.example.scheduling.Recurrence;
+import org.example.scheduling.ScheduledTransfer;
+import org.example.scheduling.TransferScheduler;
+import org.example.sharding.ShardGroup;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Scheduled Transfers")
+class TransferSchedulerTest {
+
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final long START = LocalDateTime.of(2024, 1, 31, 9, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    private final AtomicLong clock = new AtomicLong(START);
+    private AccountController accountController;
+    private Account source;
+    private Account target;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        accountController = new AccountController(new UserController());
+        source = new Account(1_000_000.0);
+        target = new Account(0.0);
+        source.verify();
+        target.verify();
+        accountController.registerAccount(source);
+        accountController.registerAccount(target);
+    }
+
+    private TransferScheduler scheduler(Path log) throws IOException {
+        return new TransferScheduler(accountController, log, clock::get, UTC);
+    }
+
+    private static long millis(Duration duration) {
+        return duration.toMillis();
+    }
+
+    @Nested
+    @DisplayName("Firing")
+    class Firing {
+
+        @Test
+        @DisplayName("Future-dated transfer fires at its time, not before")
+        void oneOff_firesOnTime() throws IOException {
+            TransferScheduler scheduler = scheduler(null);
+            ScheduledTransfer transfer = scheduler.schedule(1000, 1001, 50.0,
+                    START + millis(Duration.ofSeconds(5)), Recurrence.ONCE);
+
+            clock.addAndGet(4_000);
+            assertEquals(0, scheduler.runDue());
+            assertEquals(0.0, target.getBalance());
+
+            clock.addAndGet(1_000);
+            assertEquals(1, scheduler.runDue());
+            assertEquals(50.0, target.getBalance());
+            assertEquals(ScheduledTransfer.ScheduleStatus.COMPLETED, transfer.getStatus());
+            assertNull(scheduler.find(transfer.getScheduleId()));
+        }
+
+        @Test
+        @DisplayName("Cancelled schedule never fires")
+        void cancel() throws IOException {
+            TransferScheduler scheduler = scheduler(null);
+            ScheduledTransfer transfer = scheduler.schedule(1000, 1001, 50.0, START + 1_000, Recurrence.DAILY);
+
+            assertTrue(scheduler.cancel(transfer.getScheduleId()));
+            assertFalse(scheduler.cancel(transfer.getScheduleId()));
+
+            clock.addAndGet(millis(Duration.ofDays(3)));
+            assertEquals(0, scheduler.runDue());
+            assertEquals(0.0, target.getBalance());
+        }
+
+        @Test
+        @DisplayName("Monthly order on the 31st follows month ends without drifting")
+        void monthly_endOfMonth() throws IOException {
+            TransferScheduler scheduler = scheduler(null);
+            ScheduledTransfer rent = scheduler.schedule(1000, 1001, 1_200.0, START, Recurrence.MONTHLY);
+
+            clock.set(LocalDateTime.of(2024, 3, 31, 10, 0).toInstant(ZoneOffset.UTC).toEpochMilli());
+            assertEquals(3, scheduler.runDue());
+
+            assertEquals(3_600.0, target.getBalance());
+            assertEquals(LocalDateTime.of(2024, 4, 30, 9, 0).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    rent.getNextRunMillis());
+            assertEquals(LocalDateTime.of(2024, 2, 29, 9, 0).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    Recurrence.MONTHLY.occurrenceMillis(START, 1, UTC));
+            assertEquals(LocalDateTime.of(2024, 5, 31, 9, 0).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    Recurrence.MONTHLY.occurrenceMillis(START, 4, UTC));
+        }
+
+        @Test
+        @DisplayName("Random deadlines each fire exactly once, on the first run at or after them")
+        void randomDeadlines() throws IOException {
+            TransferScheduler scheduler = scheduler(null);
+            SplittableRandom random = new SplittableRandom(42);
+            List<ScheduledTransfer> transfers = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                transfers.add(scheduler.schedule(1000, 1001, 1.0,
+                        START + random.nextLong(millis(Duration.ofDays(10))), Recurrence.ONCE));
+            }
+
+            int fired = 0;
+            while (clock.get() < START + millis(Duration.ofDays(10))) {
+                clock.addAndGet(random.nextLong(1, millis(Duration.ofHours(3))));
+                fired += scheduler.runDue();
+                for (ScheduledTransfer transfer : transfers) {
+                    boolean due = transfer.getFirstRunMillis() <= clock.get();
+                    assertEquals(due, transfer.getStatus() == ScheduledTransfer.ScheduleStatus.COMPLETED);
+                }
+            }
+            assertEquals(2_000, fired);
+            assertEquals(2_000.0, target.getBalance());
+        }
+
+        @Test
+        @DisplayName("Many transfers due at the same instant fire in one run")
+        void manyDueAtOnce() throws IOException {
+            TransferScheduler scheduler = scheduler(null);
+            long midnight = START + millis(Duration.ofHours(15));
+            for (int i = 0; i < 20_000; i++) {
+                scheduler.schedule(1000, 1001, 1.0, midnight, Recurrence.ONCE);
+            }
+
+            clock.set(midnight);
+            assertEquals(20_000, scheduler.runDue());
+            assertEquals(20_000.0, target.getBalance());
+            assertEquals(0, scheduler.getActiveCount());
+            assertEquals(20_000L, accountController.getMetrics().snapshot().get("scheduler.fired"));
+        }
+        @Test
+        @DisplayName("A transfer that throws counts as failed and its schedule stays on the wheel")
+        void throwingTransfer_isRescheduled() throws Exception {
+            ShardGroup shards = new ShardGroup(2, accountController.getMetrics());
+            accountController.setShards(shards);
+            shards.close();
+            TransferScheduler scheduler = scheduler(null);
+            List<Exception> reported = new ArrayList<>();
+            scheduler.setErrorHandler(reported::add);
+            ScheduledTransfer daily = scheduler.schedule(1000, 1001, 10.0, START + 1_000, Recurrence.DAILY);
+
+            clock.addAndGet(1_000);
+            assertEquals(1, scheduler.runDue());
+
+            assertEquals(ScheduledTransfer.ScheduleStatus.ACTIVE, daily.getStatus());
+            assertEquals(START + 1_000 + millis(Duration.ofDays(1)), daily.getNextRunMillis());
+            assertEquals(1, reported.size());
+            assertEquals(1L, accountController.getMetrics().snapshot().get("scheduler.failed"));
+            assertEquals(1L, accountController.getMetrics().snapshot().get("scheduler.errors"));
+
+            scheduler.start();
+            clock.addAndGet(millis(Duration.ofDays(1)));
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (accountController.getMetrics().snapshot().get("scheduler.errors") < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            scheduler.close();
+            assertEquals(2L, accountController.getMetrics().snapshot().get("scheduler.errors"));
+            assertEquals(START + 1_000 + millis(Duration.ofDays(2)), daily.getNextRunMillis());
+        }
+    }
+
+    @Nested
+    @DisplayName("Persistence")
+    class Persistence {
+
+        @Test
+        @DisplayName("Schedules survive a restart and missed occurrences catch up")
+        void restart_catchesUp(@TempDir Path dir) throws IOException {
+            Path log = dir.resolve("schedules.log");
+            TransferScheduler first = scheduler(log);
+            ScheduledTransfer daily = first.schedule(1000, 1001, 10.0, START + 1_000, Recurrence.DAILY);
+            ScheduledTransfer cancelled = first.schedule(1000, 1001, 99.0, START + 1_000, Recurrence.DAILY);
+            first.cancel(cancelled.getScheduleId());
+            clock.addAndGet(2_000);
+            assertEquals(1, first.runDue());
+            first.close();
+
+            // Down for three days
+            clock.addAndGet(millis(Duration.ofDays(3)));
+            TransferScheduler second = scheduler(log);
+            assertEquals(1, second.getActiveCount());
+            assertEquals(3, second.runDue());
+
+            assertEquals(40.0, target.getBalance());
+            ScheduledTransfer restored = second.find(daily.getScheduleId());
+            assertEquals(4, restored.getOccurrence());
+            ScheduledTransfer next = second.schedule(1000, 1001, 1.0, clock.get() + 1_000, Recurrence.ONCE);
+            assertTrue(next.getScheduleId() > cancelled.getScheduleId());
+            second.close();
+        }
+
+        @Test
+        @DisplayName("Schedules and cancellations are on disk before the call returns")
+        void durableWithoutTick(@TempDir Path dir) throws IOException {
+            Path log = dir.resolve("schedules.log");
+            TransferScheduler first = scheduler(log);
+            ScheduledTransfer kept = first.schedule(1000, 1001, 5.0, START + 60_000, Recurrence.DAILY);
+            ScheduledTransfer dropped = first.schedule(1000, 1001, 7.0, START + 60_000, Recurrence.DAILY);
+            first.cancel(dropped.getScheduleId());
+
+            // Read by a second scheduler while the first is still open and has never ticked
+            TransferScheduler second = scheduler(log);
+            assertEquals(1, second.getActiveCount());
+            assertEquals(5.0, second.find(kept.getScheduleId()).getAmount());
+            second.close();
+            first.close();
+        }
+
+        @Test
+        @DisplayName("Only a torn last line is skipped; corruption before it fails the restore")
+        void tornAndCorruptLines(@TempDir Path dir) throws IOException {
+            Path log = dir.resolve("schedules.log");
+            TransferScheduler first = scheduler(log);
+            first.schedule(1000, 1001, 5.0, START + 60_000, Recurrence.DAILY);
+            first.close();
+
+            Files.writeString(log, Files.readString(log) + "S\t9\t1000\t10");
+            TransferScheduler torn = scheduler(log);
+            assertEquals(1, torn.getActiveCount());
+            torn.close();
+
+            Files.writeString(log, "S\tbroken\n" + Files.readString(log));
+            assertThrows(IOException.class, () -> scheduler(log));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import org.example.model.Account;
+import org.example.model.User;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("User Account Membership")
+class UserAccountsTest {
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Account.resetCounter();
+        User.resetIdCounter();
+        user = new User("Corp", User.Role.CLIENT, "corp@bank.test", "secret", null);
+    }
+
+    @Test
+    @DisplayName("Add, remove and lookup by account number")
+    void membership() {
+        Account first = new Account(10);
+        Account second = new Account(20);
+        assertTrue(user.addAccount(first));
+        assertFalse(user.addAccount(first));
+        assertTrue(user.addAccount(second));
+        assertTrue(user.hasAccount(first.getAccountNumber()));
+        assertSame(second, user.getAccount(second.getAccountNumber()));
+        assertNull(user.getAccount(9999));
+
+        User other = new User("Other", User.Role.CLIENT, "other@bank.test", "secret", null);
+        assertFalse(other.addAccount(first));
+
+        assertTrue(user.removeAccount(first));
+        assertFalse(user.removeAccount(first));
+        assertNull(first.getOwnerUserId());
+        assertFalse(user.hasAccount(first.getAccountNumber()));
+        assertEquals(1, user.getAccountCount());
+        assertTrue(other.addAccount(first));
+    }
+
+    @Test
+    @DisplayName("Many accounts stay consistent through random adds and removes")
+    void manyAccounts() {
+        TreeMap<Integer, Account> expected = new TreeMap<>();
+        List<Account> created = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            Account account = new Account(0);
+            created.add(account);
+            assertTrue(user.addAccount(account));
+            expected.put(account.getAccountNumber(), account);
+            if (random.nextInt(3) == 0) {
+                Account victim = created.get(random.nextInt(created.size()));
+                assertEquals(expected.remove(victim.getAccountNumber()) != null, user.removeAccount(victim));
+            }
+        }
+        assertEquals(expected.size(), user.getAccountCount());
+        for (Account account : created) {
+            assertEquals(expected.containsKey(account.getAccountNumber()), user.hasAccount(account.getAccountNumber()));
+        }
+        assertEquals(List.copyOf(expected.values()), user.getAccounts());
+    }
+
+    @Test
+    @DisplayName("Pages and the full view are in account-number order")
+    void ordering() {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            accounts.add(new Account(0));
+        }
+        for (int i = accounts.size() - 1; i >= 0; i--) {
+            user.addAccount(accounts.get(i));
+        }
+        assertEquals(accounts.subList(10, 25), user.getAccounts(10, 15));
+        assertEquals(accounts.subList(45, 50), user.getAccounts(45, 15));
+        assertTrue(user.getAccounts(50, 10).isEmpty());
+
+        List<Account> view = user.getAccounts();
+        assertEquals(accounts, view);
+        assertSame(view, user.getAccounts());
+        user.removeAccount(accounts.get(0));
+        assertNotSame(view, user.getAccounts());
+        assertEquals(accounts.subList(1, 50), user.getAccounts());
+    }
+}
@@ -6,8 +6,10 @@ import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.swing.AbstractCellEditor;
 import javax.swing.BorderFactory;
@@ -26,6 +28,9 @@ import javax.swing.table.DefaultTableModel;
 
 import org.example.controllers.AccountController;
 import org.example.controllers.AdminController;
+import org.example.controllers.BatchResult;
+import org.example.controllers.StatusAction;
+import org.example.controllers.StatusChange;
 import org.example.controllers.UserController;
 import org.example.model.Account;
 import org.example.model.Transaction;
@@ -45,6 +50,9 @@ public class AdminView extends JFrame {
     private JTable usersAccountsTable;
     private DefaultTableModel usersAccountsModel;
     private List<AccountRowData> accountRowDataList;
+    private Map<Integer, Integer> accountRows;
+    private final Consumer<StatusChange> statusChangeListener =
+            change -> SwingUtilities.invokeLater(() -> updateAccountRows(change.accountNumbers()));
 
     private JButton approveTransactionButton;
     private JButton rejectTransactionButton;
@@ -52,7 +60,7 @@ public class AdminView extends JFrame {
     private JButton logoutButton;
 
     /**
-     * Helper class to store account row data
+     * Helper class to store account row data (account is null for users without accounts)
      */
     private static class AccountRowData {
         Account account;
@@ -68,6 +76,7 @@ public class AdminView extends JFrame {
         this.accountController = null;
         initializeUI();
         loadData();
+        adminController.addStatusChangeListener(statusChangeListener);
     }
 
     public AdminView(AdminController adminController, UserController userController, AccountController accountController) {
@@ -76,6 +85,13 @@ public class AdminView extends JFrame {
         this.accountController = accountController;
         initializeUI();
         loadData();
+        adminController.addStatusChangeListener(statusChangeListener);
+    }
+
+    @Override
+    public void dispose() {
+        adminController.removeStatusChangeListener(statusChangeListener);
+        super.dispose();
     }
 
     /**
@@ -144,7 +160,7 @@ public class AdminView extends JFrame {
         };
 
         pendingTransactionsTable = new JTable(pendingTransactionsModel);
-        pendingTransactionsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        pendingTransactionsTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         JScrollPane scrollPane = new JScrollPane(pendingTransactionsTable);
         panel.add(scrollPane, BorderLayout.CENTER);
 
@@ -181,7 +197,7 @@ public class AdminView extends JFrame {
         };
 
         usersAccountsTable = new JTable(usersAccountsModel);
-        usersAccountsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        usersAccountsTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         
         // Set custom editor and renderer for status column
         usersAccountsTable.getColumn("Status").setCellRenderer(new StatusCellRenderer());
@@ -190,6 +206,14 @@ public class AdminView extends JFrame {
         JScrollPane scrollPane = new JScrollPane(usersAccountsTable);
         panel.add(scrollPane, BorderLayout.CENTER);
 
+        // Bulk status buttons apply to every selected account
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        addBulkStatusButton(buttonPanel, "Verify Selected", StatusAction.VERIFY, "Verified", "verify");
+        addBulkStatusButton(buttonPanel, "Suspend Selected", StatusAction.SUSPEND, "Suspended", "suspend");
+        addBulkStatusButton(buttonPanel, "Appeal Selected", StatusAction.APPEAL, "Appealed", "appeal");
+        addBulkStatusButton(buttonPanel, "Close Selected", StatusAction.CLOSE, "Closed", "close");
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+
         return panel;
     }
 
@@ -233,6 +257,7 @@ public class AdminView extends JFrame {
     private void loadUsersAccounts() {
         usersAccountsModel.setRowCount(0);
         accountRowDataList = new ArrayList<>();
+        accountRows = new HashMap<>();
 
         if (userController == null || accountController == null) {
             Object[] emptyRow = {"-", "-", "-", "-", "-"};
@@ -262,10 +287,12 @@ public class AdminView extends JFrame {
                 row[2] = "No accounts";
                 row[3] = "-";
                 row[4] = "-";
+                accountRowDataList.add(new AccountRowData(null));
                 usersAccountsModel.addRow(row);
             } else {
                 for (Account account : userAccounts) {
                     AccountRowData rowData = new AccountRowData(account);
+                    accountRows.put(account.getAccountNumber(), accountRowDataList.size());
                     accountRowDataList.add(rowData);
                     
                     Object[] row = new Object[5];
@@ -392,7 +419,7 @@ public class AdminView extends JFrame {
                     usersAccountsTable.getCellEditor().cancelCellEditing();
                 }
                 // Reset combo box to current status
-                refreshUsersAccountsTable();
+                updateAccountRows(List.of(account.getAccountNumber()));
                 return;
             }
         }
@@ -402,8 +429,7 @@ public class AdminView extends JFrame {
                     "Account #" + account.getAccountNumber() + " has been " + action + " successfully.",
                     "Success",
                     JOptionPane.INFORMATION_MESSAGE);
-            // Refresh table to show updated status
-            refreshUsersAccountsTable();
+            // The row itself is updated by the status change listener
         } else {
             JOptionPane.showMessageDialog(this,
                     "Failed to change account status. Invalid transition from " + currentStatus + " to " + newStatus + ".",
@@ -414,55 +440,95 @@ public class AdminView extends JFrame {
                 usersAccountsTable.getCellEditor().cancelCellEditing();
             }
             // Reset combo box to current status
-            refreshUsersAccountsTable();
+            updateAccountRows(List.of(account.getAccountNumber()));
         }
     }
-    
+
     /**
-     * Refreshes the users accounts table to reflect current statuses.
+     * Rewrites the balance and status cells of the given accounts' rows, leaving the rest
+     * of the table alone. Accounts not shown in the table are ignored.
      */
-    private void refreshUsersAccountsTable() {
-        loadUsersAccounts();
+    private void updateAccountRows(List<Integer> accountNumbers) {
+        if (accountRows == null) {
+            return;
+        }
+        for (Integer accountNumber : accountNumbers) {
+            Integer row = accountRows.get(accountNumber);
+            if (row == null) {
+                continue;
+            }
+            Account account = accountRowDataList.get(row).account;
+            usersAccountsModel.setValueAt(String.format("$%.2f", account.getBalance()), row, 3);
+            usersAccountsModel.setValueAt(account.getStatus().toString(), row, 4);
+        }
+    }
+
+    private void addBulkStatusButton(JPanel panel, String label, StatusAction action, String past, String verb) {
+        JButton button = new JButton(label);
+        button.addActionListener(e -> handleBulkStatusChange(action, past, verb));
+        panel.add(button);
     }
 
     /**
-     * Handles approve transaction action.
+     * Applies one status transition to every selected account as a single batch.
      */
-    private void handleApproveTransaction() {
-        int selectedRow = pendingTransactionsTable.getSelectedRow();
-        if (selectedRow < 0) {
+    private void handleBulkStatusChange(StatusAction action, String past, String verb) {
+        List<Integer> accountNumbers = selectedAccountNumbers();
+        if (accountNumbers.isEmpty()) {
             JOptionPane.showMessageDialog(this,
-                    "Please select a transaction to approve.",
+                    "Please select one or more accounts.",
                     "No Selection",
                     JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        String transactionId = (String) pendingTransactionsModel.getValueAt(selectedRow, 0);
-        if (transactionId.equals("No pending transactions")) {
+        int confirm = JOptionPane.showConfirmDialog(this,
+                Character.toUpperCase(verb.charAt(0)) + verb.substring(1) + " "
+                        + describeSelection(accountNumbers, "account") + "?",
+                "Confirm Status Change",
+                JOptionPane.YES_NO_OPTION);
+
+        if (confirm == JOptionPane.YES_OPTION) {
+            BatchResult<Integer> result = adminController.changeStatus(action, accountNumbers);
+            showBatchOutcome(result, "account", past, verb);
+        }
+    }
+
+    /**
+     * Gets the numbers of the selected accounts, skipping users without accounts.
+     */
+    private List<Integer> selectedAccountNumbers() {
+        List<Integer> accountNumbers = new ArrayList<>();
+        for (int row : usersAccountsTable.getSelectedRows()) {
+            if (row < accountRowDataList.size() && accountRowDataList.get(row).account != null) {
+                accountNumbers.add(accountRowDataList.get(row).account.getAccountNumber());
+            }
+        }
+        return accountNumbers;
+    }
+
+    /**
+     * Handles approve transaction action.
+     */
+    private void handleApproveTransaction() {
+        List<String> transactionIds = selectedTransactionIds();
+        if (transactionIds.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "Please select a transaction to approve.",
+                    "No Selection",
+                    JOptionPane.WARNING_MESSAGE);
             return;
         }
 
         int confirm = JOptionPane.showConfirmDialog(this,
-                "Approve transaction " + transactionId + "?",
+                "Approve " + describeSelection(transactionIds, "transaction") + "?",
                 "Confirm Approval",
                 JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = adminController.approveTransaction(transactionId);
-
-            if (success) {
-                JOptionPane.showMessageDialog(this,
-                        "Transaction approved successfully.",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                loadData();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to approve transaction.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            BatchResult<String> result = adminController.approveTransactions(transactionIds);
+            showBatchOutcome(result, "transaction", "Approved", "approve");
+            loadData();
         }
     }
 
@@ -470,8 +536,8 @@ public class AdminView extends JFrame {
      * Handles reject transaction action.
      */
     private void handleRejectTransaction() {
-        int selectedRow = pendingTransactionsTable.getSelectedRow();
-        if (selectedRow < 0) {
+        List<String> transactionIds = selectedTransactionIds();
+        if (transactionIds.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                     "Please select a transaction to reject.",
                     "No Selection",
@@ -479,34 +545,56 @@ public class AdminView extends JFrame {
             return;
         }
 
-        String transactionId = (String) pendingTransactionsModel.getValueAt(selectedRow, 0);
-        if (transactionId.equals("No pending transactions")) {
-            return;
-        }
-
         int confirm = JOptionPane.showConfirmDialog(this,
-                "Reject transaction " + transactionId + "?",
+                "Reject " + describeSelection(transactionIds, "transaction") + "?",
                 "Confirm Rejection",
                 JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = adminController.rejectTransaction(transactionId);
+            BatchResult<String> result = adminController.rejectTransactions(transactionIds);
+            showBatchOutcome(result, "transaction", "Rejected", "reject");
+            loadData();
+        }
+    }
 
-            if (success) {
-                JOptionPane.showMessageDialog(this,
-                        "Transaction rejected successfully.",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                loadData();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to reject transaction.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
+
+    /**
+     * Gets the IDs of the selected pending transactions, skipping the placeholder row.
+     */
+    private List<String> selectedTransactionIds() {
+        List<String> transactionIds = new ArrayList<>();
+        for (int row : pendingTransactionsTable.getSelectedRows()) {
+            String transactionId = (String) pendingTransactionsModel.getValueAt(row, 0);
+            if (!transactionId.equals("No pending transactions")) {
+                transactionIds.add(transactionId);
             }
         }
+        return transactionIds;
     }
 
+    private static String describeSelection(List<?> ids, String noun) {
+        return ids.size() == 1
+                ? noun + " " + ids.get(0)
+                : ids.size() + " " + noun + "s";
+    }
+
+    /**
+     * Reports the outcome of a bulk operation.
+     */
+    private void showBatchOutcome(BatchResult<?> result, String noun, String past, String verb) {
+        if (result.failureCount() == 0) {
+            JOptionPane.showMessageDialog(this,
+                    past + " " + describeSelection(result.succeeded(), noun) + ".",
+                    "Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this,
+                    past + " " + result.successCount() + ", failed to " + verb + " "
+                            + describeSelection(result.failed(), noun) + ".",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
     /**
      * Handles logout action.
@@ -24,6 +24,7 @@ import org.example.controllers.AccountController;
 import org.example.controllers.AdminController;
 import org.example.controllers.UserController;
 import org.example.model.Account;
+import org.example.model.OperationResult;
 import org.example.model.User;
 
 /**
@@ -213,7 +214,11 @@ public class UserHomeView extends JFrame {
         }
 
         accountNumberLabel.setText("Account Number: " + selectedAccount.getAccountNumber());
-        balanceLabel.setText("Balance: $" + String.format("%.2f", selectedAccount.getBalance()));
+        String balance = "Balance: $" + String.format("%.2f", selectedAccount.getBalance());
+        if (selectedAccount.getHeldBalance() > 0) {
+            balance += " (available $" + String.format("%.2f", selectedAccount.getAvailableBalance()) + ")";
+        }
+        balanceLabel.setText(balance);
         statusLabel.setText("Status: " + selectedAccount.getStatus());
     }
 
@@ -279,11 +284,13 @@ public class UserHomeView extends JFrame {
 
         try {
             double amount = Double.parseDouble(amountStr);
-            boolean success = accountController.withdraw(account, amount);
+            OperationResult result = accountController.withdraw(null, account, amount);
 
-            if (success) {
+            if (result.isSuccess()) {
                 JOptionPane.showMessageDialog(this, "Withdrawal successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 refreshAccountData();
+            } else if (result == OperationResult.PENDING_REVIEW) {
+                JOptionPane.showMessageDialog(this, "Withdrawal is pending review by the bank.", "Pending", JOptionPane.INFORMATION_MESSAGE);
             } else {
                 JOptionPane.showMessageDialog(this, "Withdrawal failed. Check balance, account status, and amount.", "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -327,12 +334,15 @@ public class UserHomeView extends JFrame {
                 int targetAccountNumber = Integer.parseInt(targetAccountField.getText());
                 double amount = Double.parseDouble(amountField.getText());
                 
-                boolean success = accountController.transfer(fromAccount.getAccountNumber(), targetAccountNumber, amount);
+                OperationResult result = accountController.transfer(null, fromAccount.getAccountNumber(), targetAccountNumber, amount);
 
-                if (success) {
+                if (result.isSuccess()) {
                     JOptionPane.showMessageDialog(transferDialog, "Transfer successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
                     transferDialog.dispose();
                     refreshAccountData();
+                } else if (result == OperationResult.PENDING_REVIEW) {
+                    JOptionPane.showMessageDialog(transferDialog, "Transfer is pending review by the bank.", "Pending", JOptionPane.INFORMATION_MESSAGE);
+                    transferDialog.dispose();
                 } else {
                     JOptionPane.showMessageDialog(transferDialog, "Transfer failed. Check accounts and amount.", "Error", JOptionPane.ERROR_MESSAGE);
                 }